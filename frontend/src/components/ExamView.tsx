@@ -1,37 +1,39 @@
 import React, { useState, useEffect } from 'react';
 import { Timer, ArrowLeft, ArrowRight, Upload, X, Save } from 'lucide-react';
-import type { AnswerSheet } from '../types/exam';
+import type { ExamPaper, StartedAnswerSheet } from '../types/exam';
 import { studentExamService } from '../services/studentExamService';
 
 interface ExamViewProps {
-    answerSheet: AnswerSheet;
+    answerSheet: StartedAnswerSheet;
     onClose: () => void;
 }
 
 const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
-    const { exam } = answerSheet;
-    // Fallback if exam is missing in answerSheet (shouldn't happen with correct backend)
-    if (!exam || !exam.questions) return <div>Error loading exam data</div>;
-
+    const [paper, setPaper] = useState<ExamPaper | null>(null);
+    const [loadError, setLoadError] = useState(false);
     const [currentQuestionIndex, setCurrentQuestionIndex] = useState(0);
     const [answers, setAnswers] = useState<Record<string, any>>({}); // Map questionId -> answer
-    const [timeLeft, setTimeLeft] = useState(exam.durationMinutes * 60);
+    const [timeLeft, setTimeLeft] = useState(0);
     const [isSubmitting, setIsSubmitting] = useState(false);
 
-    // Initialize answers from answerSheet if resizing
+    // The start response only carries answer slots; questions come from the cached paper
     useEffect(() => {
-        const initialAnswers: Record<string, any> = {};
-        if (answerSheet.answers) {
-            answerSheet.answers.forEach(ans => {
-                if (ans.selectedOptionId) initialAnswers[ans.questionId] = ans.selectedOptionId;
-                if (ans.answerText) initialAnswers[ans.questionId] = ans.answerText;
+        let cancelled = false;
+        studentExamService.getPaper(answerSheet.examId)
+            .then((loaded) => {
+                if (cancelled) return;
+                setPaper(loaded);
+                setTimeLeft(loaded.durationMinutes * 60);
+            })
+            .catch(() => {
+                if (!cancelled) setLoadError(true);
             });
-        }
-        setAnswers(initialAnswers);
-    }, [answerSheet]);
+        return () => { cancelled = true; };
+    }, [answerSheet.examId]);
 
     // Timer logic
     useEffect(() => {
+        if (!paper) return;
         const timer = setInterval(() => {
             setTimeLeft((prev) => {
                 if (prev <= 1) {
@@ -43,7 +45,7 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
             });
         }, 1000);
         return () => clearInterval(timer);
-    }, []);
+    }, [paper]);
 
     const formatTime = (seconds: number) => {
         const h = Math.floor(seconds / 3600);
@@ -54,17 +56,21 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
 
     // Helper to find answer ID
     const getAnswerId = (questionId: string) => {
-        return answerSheet.answers?.find(a => a.questionId === questionId)?.id;
+        return answerSheet.answers.find(a => a.questionId === questionId)?.answerId;
     };
 
-    const handleAnswerChange = async (questionId: string, value: string) => {
+    const handleAnswerChange = async (questionId: string, value: string, objective = false) => {
         setAnswers(prev => ({ ...prev, [questionId]: value }));
 
         const answerId = getAnswerId(questionId);
         if (answerId) {
             // Debounce this in production
             try {
-                await studentExamService.saveAnswer(answerId, value);
+                if (objective) {
+                    await studentExamService.saveSelections(answerSheet.id, [{ answerId, optionId: value }]);
+                } else {
+                    await studentExamService.saveAnswer(answerId, value, answerSheet.sessionToken);
+                }
             } catch (e) { }
         }
     };
@@ -82,7 +88,10 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
         }
     };
 
-    const currentQuestion = exam.questions[currentQuestionIndex];
+    if (loadError) return <div>Error loading exam data</div>;
+    if (!paper) return <div>Loading exam...</div>;
+
+    const currentQuestion = paper.questions[currentQuestionIndex];
     if (!currentQuestion) return <div>Question not found</div>;
 
     return (
@@ -94,9 +103,9 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                         {currentQuestionIndex + 1}
                     </div>
                     <div>
-                        <h1 className="text-lg font-bold text-gray-900 truncate max-w-xs md:max-w-md">{exam.title}</h1>
+                        <h1 className="text-lg font-bold text-gray-900 truncate max-w-xs md:max-w-md">{paper.title}</h1>
                         <p className="text-xs text-gray-500">
-                            Question {currentQuestionIndex + 1} of {exam.questions.length} • {currentQuestion.points} Points
+                            Question {currentQuestionIndex + 1} of {paper.questions.length} • {currentQuestion.points} Points
                         </p>
                     </div>
                 </div>
@@ -143,18 +152,18 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                                                 key={option.id}
                                                 className={`
                                                     relative flex items-center p-4 cursor-pointer rounded-xl border-2 transition-all duration-200 group
-                                                    ${answers[currentQuestion.id!] === option.id
+                                                    ${answers[currentQuestion.id] === option.id
                                                         ? 'border-indigo-600 bg-indigo-50 shadow-sm'
                                                         : 'border-gray-200 hover:border-indigo-200 hover:bg-gray-50'}
                                                 `}
                                             >
                                                 <div className={`
                                                     w-5 h-5 rounded-full border-2 flex items-center justify-center mr-4 transition-colors
-                                                    ${answers[currentQuestion.id!] === option.id
+                                                    ${answers[currentQuestion.id] === option.id
                                                         ? 'border-indigo-600 bg-indigo-600'
                                                         : 'border-gray-300 group-hover:border-indigo-400'}
                                                 `}>
-                                                    {answers[currentQuestion.id!] === option.id && (
+                                                    {answers[currentQuestion.id] === option.id && (
                                                         <div className="w-2 h-2 bg-white rounded-full" />
                                                     )}
                                                 </div>
@@ -162,11 +171,11 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                                                     type="radio"
                                                     name={currentQuestion.id}
                                                     value={option.id}
-                                                    checked={answers[currentQuestion.id!] === option.id}
-                                                    onChange={() => handleAnswerChange(currentQuestion.id!, option.id!)}
+                                                    checked={answers[currentQuestion.id] === option.id}
+                                                    onChange={() => handleAnswerChange(currentQuestion.id, option.id, true)}
                                                     className="hidden"
                                                 />
-                                                <span className={`text-base ${answers[currentQuestion.id!] === option.id ? 'text-indigo-900 font-medium' : 'text-gray-700'}`}>
+                                                <span className={`text-base ${answers[currentQuestion.id] === option.id ? 'text-indigo-900 font-medium' : 'text-gray-700'}`}>
                                                     {option.optionText}
                                                 </span>
                                             </label>
@@ -177,8 +186,8 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                                         <textarea
                                             className="w-full h-64 p-4 border border-gray-300 rounded-xl focus:ring-2 focus:ring-indigo-500 focus:border-indigo-500 resize-none text-base leading-relaxed"
                                             placeholder="Type your detailed answer here..."
-                                            value={answers[currentQuestion.id!] || ''}
-                                            onChange={(e) => handleAnswerChange(currentQuestion.id!, e.target.value)}
+                                            value={answers[currentQuestion.id] || ''}
+                                            onChange={(e) => handleAnswerChange(currentQuestion.id, e.target.value)}
                                         />
 
                                         <div className="flex items-center justify-between p-4 bg-gray-50 rounded-xl border border-dashed border-gray-300 hover:border-indigo-300 transition-colors cursor-pointer group">
@@ -203,13 +212,13 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                         <div className="flex items-center justify-between mb-6">
                             <h3 className="text-sm font-bold text-gray-900 uppercase tracking-wider">Question Matrix</h3>
                             <span className="text-xs text-gray-500 px-2 py-1 bg-gray-100 rounded-full">
-                                {Object.keys(answers).length}/{exam.questions.length} Answered
+                                {Object.keys(answers).length}/{paper.questions.length} Answered
                             </span>
                         </div>
 
                         <div className="grid grid-cols-5 gap-3">
-                            {exam.questions.map((q, idx) => {
-                                const isAnswered = !!answers[q.id!];
+                            {paper.questions.map((q, idx) => {
+                                const isAnswered = !!answers[q.id];
                                 const isCurrent = idx === currentQuestionIndex;
                                 return (
                                     <button
@@ -274,12 +283,12 @@ const ExamView: React.FC<ExamViewProps> = ({ answerSheet, onClose }) => {
                         Question {currentQuestionIndex + 1}
                     </span>
                     <span className="text-xs text-gray-500">
-                        of {exam.questions.length}
+                        of {paper.questions.length}
                     </span>
                 </div>
                 <button
-                    onClick={() => setCurrentQuestionIndex(prev => Math.min((exam.questions?.length || 0) - 1, prev + 1))}
-                    disabled={currentQuestionIndex === (exam.questions?.length || 0) - 1}
+                    onClick={() => setCurrentQuestionIndex(prev => Math.min((paper.questions?.length || 0) - 1, prev + 1))}
+                    disabled={currentQuestionIndex === (paper.questions?.length || 0) - 1}
                     className="flex items-center px-4 py-2.5 bg-indigo-600 text-white rounded-xl text-sm font-medium disabled:opacity-50 hover:bg-indigo-700 shadow-md shadow-indigo-200 transition-colors"
                 >
                     Next
@@ -4,7 +4,7 @@ import StudentExamList from './StudentExamList';
 import PerformanceAnalytics from './PerformanceAnalytics';
 import DoubtSolver from './DoubtSolver';
 import ExamView from './ExamView';
-import type { Exam, AnswerSheet } from '../types/exam';
+import type { Exam, StartedAnswerSheet } from '../types/exam';
 import { studentExamService } from '../services/studentExamService';
 
 type View = 'exams' | 'analytics' | 'doubts';
@@ -12,15 +12,19 @@ type View = 'exams' | 'analytics' | 'doubts';
 const StudentDashboard: React.FC = () => {
     const [currentView, setCurrentView] = useState<View>('exams');
     const [isMobileMenuOpen, setIsMobileMenuOpen] = useState(false);
-    const [activeAnswerSheet, setActiveAnswerSheet] = useState<AnswerSheet | null>(null);
+    const [activeAnswerSheet, setActiveAnswerSheet] = useState<StartedAnswerSheet | null>(null);
+    const [waitingPosition, setWaitingPosition] = useState<number | null>(null);
 
     const handleStartExam = async (exam: Exam) => {
         try {
-            const sheet = await studentExamService.startExam(exam.id);
+            const sheet = await studentExamService.startExam(exam.id,
+                (admission) => setWaitingPosition(admission.position));
             setActiveAnswerSheet(sheet);
         } catch (error) {
             console.error('Failed to start exam:', error);
             alert('Failed to start exam. Please try again.');
+        } finally {
+            setWaitingPosition(null);
         }
     };
 
@@ -47,6 +51,19 @@ const StudentDashboard: React.FC = () => {
         return <ExamView answerSheet={activeAnswerSheet} onClose={() => setActiveAnswerSheet(null)} />;
     }
 
+    if (waitingPosition !== null) {
+        return (
+            <div className="flex h-screen items-center justify-center bg-gray-50">
+                <div className="text-center">
+                    <h2 className="text-lg font-semibold text-gray-900">You are in the waiting room</h2>
+                    <p className="mt-2 text-sm text-gray-500">
+                        Position {waitingPosition} in line. Your exam will open automatically.
+                    </p>
+                </div>
+            </div>
+        );
+    }
+
     return (
         <div className="flex h-screen bg-gray-50">
             {/* Mobile Menu Overlay */}
@@ -3,7 +3,7 @@ import { ClipboardCheck, Eye } from 'lucide-react';
 import { useEvaluationQueue } from '../../hooks/useFacultyData';
 
 export const EvaluationQueue: React.FC = () => {
-    const { answerSheets, loading, error } = useEvaluationQueue();
+    const { answerSheets, total, hasMore, loading, error, loadMore } = useEvaluationQueue();
 
     if (loading) {
         return <div className="text-center py-12">Loading evaluation queue...</div>;
@@ -17,7 +17,9 @@ export const EvaluationQueue: React.FC = () => {
         <div>
             <div className="mb-6">
                 <h2 className="text-2xl font-bold text-gray-900">Evaluation Queue</h2>
-                <p className="mt-1 text-sm text-gray-600">Grade submitted answer sheets</p>
+                <p className="mt-1 text-sm text-gray-600">
+                    Grade submitted answer sheets{total !== null ? ` (${total} waiting)` : ''}
+                </p>
             </div>
 
             {answerSheets.length === 0 ? (
@@ -56,7 +58,7 @@ export const EvaluationQueue: React.FC = () => {
                                         <div className="text-sm text-gray-500">{sheet.studentEmail}</div>
                                     </td>
                                     <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-900">
-                                        {sheet.exam?.title || 'Unknown Exam'}
+                                        {sheet.examTitle || 'Unknown Exam'}
                                     </td>
                                     <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
                                         {new Date(sheet.submittedAt).toLocaleString()}
@@ -81,6 +83,13 @@ export const EvaluationQueue: React.FC = () => {
                             ))}
                         </tbody>
                     </table>
+                    {hasMore && (
+                        <div className="px-6 py-3 border-t border-gray-200 text-center">
+                            <button onClick={loadMore} className="text-sm font-medium text-blue-600 hover:text-blue-800">
+                                Load more
+                            </button>
+                        </div>
+                    )}
                 </div>
             )}
         </div>
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { examService } from '../services/examService';
-import type { BatchSummary, Exam, AnswerSheet } from '../types/exam';
+import type { BatchSummary, Exam, AnswerSheetSummary } from '../types/exam';
 
 export const useBatches = () => {
     const [batches, setBatches] = useState<BatchSummary[]>([]);
@@ -55,15 +55,19 @@ export const useExams = () => {
 };
 
 export const useEvaluationQueue = () => {
-    const [answerSheets, setAnswerSheets] = useState<AnswerSheet[]>([]);
+    const [answerSheets, setAnswerSheets] = useState<AnswerSheetSummary[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [total, setTotal] = useState<number | null>(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
 
     const fetchQueue = async () => {
         try {
             setLoading(true);
-            const data = await examService.getEvaluationQueue();
-            setAnswerSheets(data);
+            const page = await examService.getEvaluationQueue();
+            setAnswerSheets(page.items);
+            setNextCursor(page.nextCursor ?? null);
+            setTotal(page.total ?? null);
             setError(null);
         } catch (err) {
             setError('Failed to load evaluation queue');
@@ -73,9 +77,22 @@ export const useEvaluationQueue = () => {
         }
     };
 
+    // Append the next page; the total is only counted for the first one
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        try {
+            const page = await examService.getEvaluationQueue(nextCursor);
+            setAnswerSheets(prev => [...prev, ...page.items]);
+            setNextCursor(page.nextCursor ?? null);
+        } catch (err) {
+            setError('Failed to load evaluation queue');
+            console.error(err);
+        }
+    };
+
     useEffect(() => {
         fetchQueue();
     }, []);
 
-    return { answerSheets, loading, error, refetch: fetchQueue };
+    return { answerSheets, total, hasMore: nextCursor !== null, loading, error, refetch: fetchQueue, loadMore };
 };
@@ -5,6 +5,7 @@ import type {
     QuestionRequest,
     BatchSummary,
     AnswerSheet,
+    EvaluationQueuePage,
     GradeRequest,
 } from '../types/exam';
 
@@ -57,8 +58,8 @@ export const examService = {
     },
 
     // Grading
-    async getEvaluationQueue(): Promise<AnswerSheet[]> {
-        const response = await api.get('/evaluation-queue');
+    async getEvaluationQueue(cursor?: string): Promise<EvaluationQueuePage> {
+        const response = await api.get('/evaluation-queue', { params: cursor ? { cursor } : undefined });
         return response.data;
     },
 
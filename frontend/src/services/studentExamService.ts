@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { Exam, AnswerSheet } from '../types/exam';
+import type { AdmissionResponse, Exam, ExamPaper, StartedAnswerSheet } from '../types/exam';
 
 const api = axios.create({
     baseURL: '/api/v1/student',
@@ -14,36 +14,55 @@ api.interceptors.request.use((config) => {
     return config;
 });
 
+// Answer writes must carry the exam-session token returned by startExam
+const sessionHeaders = (sessionToken?: string): Record<string, string> =>
+    sessionToken ? { 'X-Exam-Session': sessionToken } : {};
+
 export const studentExamService = {
     async getAvailableExams(): Promise<Exam[]> {
         const response = await api.get('/exams');
         return response.data;
     },
 
-    async getExam(id: string): Promise<Exam> {
-        const response = await api.get(`/exams/${id}`);
+    // Cached, pre-serialized paper; the browser revalidates it with its ETag
+    async getPaper(examId: string): Promise<ExamPaper> {
+        const response = await api.get(`/exams/${examId}`);
         return response.data;
     },
 
-    async startExam(id: string): Promise<AnswerSheet> {
-        const response = await api.post(`/exams/${id}/start`);
-        return response.data;
+    // While admission control queues the student the server answers 202 with a
+    // waiting-room position; keep polling until it returns the answer sheet
+    async startExam(id: string, onWaiting?: (admission: AdmissionResponse) => void): Promise<StartedAnswerSheet> {
+        for (;;) {
+            const response = await api.post(`/exams/${id}/start`);
+            if (response.status !== 202) {
+                return response.data;
+            }
+            const admission: AdmissionResponse = response.data;
+            onWaiting?.(admission);
+            const retryAfter = Number(response.headers['retry-after']) || admission.retryAfterSeconds || 1;
+            await new Promise((resolve) => setTimeout(resolve, retryAfter * 1000));
+        }
     },
 
-    async saveAnswer(answerId: string, answerText: string): Promise<void> {
+    async saveAnswer(answerId: string, answerText: string, sessionToken?: string): Promise<void> {
         await api.put(`/answers/${answerId}`, answerText, {
-            headers: { 'Content-Type': 'text/plain' } // Backend expects raw string or JSON? Controller says @RequestBody String answerText. Default might be plain text or JSON string. 
+            headers: { 'Content-Type': 'text/plain', ...sessionHeaders(sessionToken) } // Backend expects raw string or JSON? Controller says @RequestBody String answerText. Default might be plain text or JSON string. 
             // If @RequestBody String, it accepts the body content as string.
             // Safe to send generic body if configured. Or wrap in object if backend DTO changed.
             // Controller: public ResponseEntity<Answer> saveAnswer(..., @RequestBody String answerText)
         });
     },
 
-    async uploadAnswerImage(answerId: string, imageFile: File): Promise<string> {
+    async saveSelections(answerSheetId: string, selections: { answerId: string; optionId: string | null }[]): Promise<void> {
+        await api.put(`/answer-sheets/${answerSheetId}/selections`, { selections });
+    },
+
+    async uploadAnswerImage(answerId: string, imageFile: File, sessionToken?: string): Promise<string> {
         const formData = new FormData();
         formData.append('image', imageFile);
         const response = await api.post(`/answers/${answerId}/upload-image`, formData, {
-            headers: { 'Content-Type': 'multipart/form-data' },
+            headers: { 'Content-Type': 'multipart/form-data', ...sessionHeaders(sessionToken) },
         });
         return response.data; // Assumes returns image URL
     },
@@ -50,6 +50,84 @@ export interface AnswerSheet {
     answers?: Answer[];
 }
 
+// Row of the faculty evaluation queue
+export interface AnswerSheetSummary {
+    id: string;
+    examId: string;
+    examTitle: string;
+    studentId: string;
+    studentName: string;
+    studentEmail: string;
+    submittedAt: string;
+    status: SubmissionStatus;
+    totalPoints?: number;
+    obtainedPoints?: number;
+}
+
+// One page of the evaluation queue; pass nextCursor back for the next page
+export interface EvaluationQueuePage {
+    items: AnswerSheetSummary[];
+    nextCursor?: string | null;
+    total?: number | null;
+}
+
+// Student-safe paper served by GET /student/exams/{id}; carries no answer key
+export interface PaperOption {
+    id: string;
+    optionText: string;
+    orderNumber: number;
+}
+
+export interface PaperQuestion {
+    id: string;
+    type: QuestionType;
+    questionText: string;
+    points: number;
+    orderNumber: number;
+    options: PaperOption[];
+}
+
+export interface ExamPaper {
+    examId: string;
+    version: number;
+    title: string;
+    instructions?: string;
+    durationMinutes: number;
+    offlineMode: boolean;
+    totalPoints: number;
+    publishedAt?: string;
+    startsAt?: string;
+    questions: PaperQuestion[];
+}
+
+export interface AnswerSlot {
+    answerId: string;
+    questionId: string;
+}
+
+// Answer sheet returned when a student starts an exam
+export interface StartedAnswerSheet {
+    id: string;
+    examId: string;
+    status: SubmissionStatus;
+    startedAt?: string;
+    expiresAt?: string;
+    submittedAt?: string;
+    totalPoints?: number;
+    obtainedPoints?: number;
+    answers: AnswerSlot[];
+    bundleKey?: string;
+    sessionToken?: string;
+}
+
+// Waiting-room position returned with 202 while exam start is throttled
+export interface AdmissionResponse {
+    examId: string;
+    status: 'WAITING';
+    position: number;
+    retryAfterSeconds: number;
+}
+
 export interface Answer {
     id: string;
     questionId: string;
@@ -1,17 +1,23 @@
 package com.coaching.platform.controller;
 
 import com.coaching.platform.dto.*;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.repository.EvaluationQueueJdbc;
+import com.coaching.platform.security.UserContext;
 import com.coaching.platform.service.AnswerSheetService;
+import com.coaching.platform.service.BulkGradingService;
 import com.coaching.platform.service.ExamService;
 import com.coaching.platform.service.FacultyBatchService;
+import com.coaching.platform.service.GradingDispatchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,11 +33,11 @@ public class FacultyController {
     private final ExamService examService;
     private final FacultyBatchService batchService;
     private final AnswerSheetService answerSheetService;
+    private final BulkGradingService bulkGradingService;
+    private final GradingDispatchService gradingDispatchService;
 
     private UUID getCurrentFacultyId() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        // This will be replaced with proper user service call
-        return UUID.randomUUID(); // Placeholder
+        return UserContext.getUserId();
     }
 
     // Batch Management
@@ -76,6 +82,33 @@ public class FacultyController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/exams/{id}/provision")
+    public ResponseEntity<Void> provisionExam(@PathVariable UUID id) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/exams/{}/provision", id);
+        examService.provisionExam(id, facultyId);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/exams/{id}/answer-storage")
+    public ResponseEntity<AnswerStorageMigrationResponse> changeAnswerStorage(
+            @PathVariable UUID id,
+            @RequestParam AnswerStorage storage) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/exams/{}/answer-storage?storage={}", id, storage);
+        return ResponseEntity.ok(examService.changeAnswerStorage(id, storage, facultyId));
+    }
+
+    @PutMapping("/exams/{id}/admission-rate")
+    public ResponseEntity<Void> updateAdmissionRate(
+            @PathVariable UUID id,
+            @Valid @RequestBody AdmissionRateRequest request) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("PUT /api/v1/faculty/exams/{}/admission-rate", id);
+        examService.updateAdmissionRate(id, request, facultyId);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/exams/{id}/questions")
     public ResponseEntity<Void> addQuestion(
             @PathVariable UUID id,
@@ -96,13 +129,26 @@ public class FacultyController {
 
     // Evaluation Queue
     @GetMapping("/evaluation-queue")
-    public ResponseEntity<List<AnswerSheetSummary>> getEvaluationQueue() {
+    public ResponseEntity<EvaluationQueuePage> getEvaluationQueue(
+            @RequestParam(required = false) UUID examId,
+            @RequestParam(required = false) UUID batchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime submittedAfter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         UUID facultyId = getCurrentFacultyId();
         log.info("GET /api/v1/faculty/evaluation-queue for faculty: {}", facultyId);
-        List<AnswerSheetSummary> queue = answerSheetService.getEvaluationQueue(facultyId);
+        EvaluationQueuePage queue = answerSheetService.getEvaluationQueue(facultyId,
+                new EvaluationQueueJdbc.QueueFilter(examId, batchId, submittedAfter), cursor, limit);
         return ResponseEntity.ok(queue);
     }
 
+    @GetMapping("/answer-sheets/{id}/answers")
+    public ResponseEntity<List<AnswerDetail>> getAnswers(@PathVariable UUID id) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("GET /api/v1/faculty/answer-sheets/{}/answers", id);
+        return ResponseEntity.ok(answerSheetService.getAnswers(id, facultyId));
+    }
+
     @PutMapping("/answers/{id}/grade")
     public ResponseEntity<Void> gradeAnswer(
             @PathVariable UUID id,
@@ -113,11 +159,21 @@ public class FacultyController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/answer-sheets/{id}/grades")
+    public ResponseEntity<SheetGradeResponse> gradeSheet(
+            @PathVariable UUID id,
+            @Valid @RequestBody SheetGradeRequest request) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("PUT /api/v1/faculty/answer-sheets/{}/grades ({} answers, finalize={})",
+                id, request.getGrades().size(), request.isFinalize());
+        return ResponseEntity.ok(gradingDispatchService.gradeSheet(id, request, facultyId));
+    }
+
     @PostMapping("/answer-sheets/{id}/submit-grading")
     public ResponseEntity<Void> submitGrading(@PathVariable UUID id) {
         UUID facultyId = getCurrentFacultyId();
         log.info("POST /api/v1/faculty/answer-sheets/{}/submit-grading", id);
-        answerSheetService.submitGrading(id, facultyId);
+        gradingDispatchService.submitGrading(id, facultyId);
         return ResponseEntity.ok().build();
     }
 
@@ -128,4 +184,44 @@ public class FacultyController {
         answerSheetService.autoGradeObjectiveQuestions(id, facultyId);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/exams/{id}/grading-leases")
+    public ResponseEntity<GradingClaimResponse> claimSheets(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "5") int count) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/exams/{}/grading-leases?count={}", id, count);
+        return ResponseEntity.ok(gradingDispatchService.claim(id, facultyId, count));
+    }
+
+    @PostMapping("/grading-leases/heartbeat")
+    public ResponseEntity<GradingLeaseRenewal> renewGradingLeases(@Valid @RequestBody GradingLeaseRequest request) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/grading-leases/heartbeat for {} sheets", request.getSheetIds().size());
+        return ResponseEntity.ok(gradingDispatchService.heartbeat(facultyId, request.getSheetIds()));
+    }
+
+    @PostMapping("/grading-leases/release")
+    public ResponseEntity<Void> releaseGradingLeases(@Valid @RequestBody GradingLeaseRequest request) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/grading-leases/release for {} sheets", request.getSheetIds().size());
+        gradingDispatchService.release(facultyId, request.getSheetIds());
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/exams/{id}/grading-jobs")
+    public ResponseEntity<GradingJobResponse> startGradingJob(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean regrade) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("POST /api/v1/faculty/exams/{}/grading-jobs?regrade={}", id, regrade);
+        return ResponseEntity.accepted().body(bulkGradingService.startJob(id, facultyId, regrade));
+    }
+
+    @GetMapping("/grading-jobs/{id}")
+    public ResponseEntity<GradingJobResponse> getGradingJob(@PathVariable UUID id) {
+        UUID facultyId = getCurrentFacultyId();
+        log.info("GET /api/v1/faculty/grading-jobs/{}", id);
+        return ResponseEntity.ok(bulkGradingService.getJob(id, facultyId));
+    }
 }
@@ -0,0 +1,39 @@
+package com.coaching.platform.controller;
+
+import com.coaching.platform.metrics.OperationalMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * REST controller exposing runtime counters of caches, pools and queues
+ * Only accessible by SUPER_ADMIN users
+ */
+@RestController
+@RequestMapping("/api/v1/admin/metrics")
+@RequiredArgsConstructor
+@Slf4j
+public class MetricsController {
+
+    private final List<OperationalMetrics> components;
+
+    /**
+     * Get a snapshot of all registered component metrics
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getMetrics() {
+        log.info("GET /api/v1/admin/metrics");
+        Map<String, Map<String, Object>> metrics = new TreeMap<>();
+        for (OperationalMetrics component : components) {
+            metrics.put(component.metricsName(), component.metricsSnapshot());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -2,16 +2,23 @@ package com.coaching.platform.controller;
 
 import com.coaching.platform.dto.*;
 import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.security.ExamSessionTokens;
+import com.coaching.platform.security.UserContext;
 import com.coaching.platform.service.*;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -29,6 +36,11 @@ public class StudentController {
     private final AnswerSubmissionService answerSubmissionService;
     private final PerformanceService performanceService;
     private final DoubtService doubtService;
+    private final IdempotencyService idempotencyService;
+    private final ExamAdmissionService examAdmissionService;
+    private final OfflineBundleService offlineBundleService;
+    private final PaperDistributionService paperDistributionService;
+    private final ExamSessionTokens examSessionTokens;
 
     // ========== Exam Endpoints ==========
 
@@ -36,30 +48,72 @@ public class StudentController {
      * Get available published exams for student
      */
     @GetMapping("/exams")
-    public ResponseEntity<List<Exam>> getAvailableExams(@AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<List<Exam>> getAvailableExams() {
+        UUID studentId = getCurrentStudentId();
         List<Exam> exams = studentExamService.getAvailableExams(studentId);
         return ResponseEntity.ok(exams);
     }
 
     /**
-     * Get exam details and instructions
+     * Get exam details and instructions (pre-serialized, answer key stripped)
      */
-    @GetMapping("/exams/{examId}")
-    public ResponseEntity<Exam> getExamDetails(@PathVariable UUID examId) {
-        Exam exam = studentExamService.getExamDetails(examId);
-        return ResponseEntity.ok(exam);
+    @GetMapping(value = "/exams/{examId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getExamDetails(@PathVariable UUID examId, WebRequest request) {
+        ExamPaperCache.CompiledPaper paper = studentExamService.getExamDetails(examId);
+        if (request.checkNotModified(paper.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(paper.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(paper.json());
     }
 
     /**
-     * Start an exam (create answer sheet with timer)
+     * Download the encrypted paper ahead of the exam window
+     */
+    @GetMapping(value = "/exams/{examId}/sealed-paper", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSealedPaper(@PathVariable UUID examId, WebRequest request) {
+        PaperDistributionService.SealedPaper paper = paperDistributionService.getSealedPaper(examId, getCurrentStudentId());
+        if (request.checkNotModified(paper.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(paper.etag())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(paper.payload());
+    }
+
+    /**
+     * Fetch the paper decryption key once the exam window opens
+     */
+    @GetMapping("/exams/{examId}/paper-key")
+    public ResponseEntity<PaperKeyResponse> getPaperKey(@PathVariable UUID examId) {
+        PaperKeyResponse key = paperDistributionService.releaseKey(examId, getCurrentStudentId());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(key);
+    }
+
+    /**
+     * Start an exam (create answer sheet with timer) once admitted,
+     * otherwise return the waiting-room position with 202
      */
     @PostMapping("/exams/{examId}/start")
-    public ResponseEntity<AnswerSheet> startExam(
-            @PathVariable UUID examId,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
-        AnswerSheet answerSheet = studentExamService.startExam(examId, studentId);
+    public ResponseEntity<?> startExam(@PathVariable UUID examId) {
+        UUID studentId = getCurrentStudentId();
+        ExamAdmissionService.Admission admission = examAdmissionService.admit(examId, studentId);
+        if (!admission.admitted()) {
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()))
+                    .body(AdmissionResponse.builder()
+                            .examId(examId)
+                            .status("WAITING")
+                            .position(admission.position())
+                            .retryAfterSeconds(admission.retryAfterSeconds())
+                            .build());
+        }
+        AnswerSheetResponse answerSheet = studentExamService.startExam(examId, studentId);
         return ResponseEntity.ok(answerSheet);
     }
 
@@ -67,8 +121,8 @@ public class StudentController {
      * Get active in-progress exam
      */
     @GetMapping("/exams/active")
-    public ResponseEntity<AnswerSheet> getActiveExam(@AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<AnswerSheet> getActiveExam() {
+        UUID studentId = getCurrentStudentId();
         AnswerSheet activeExam = studentExamService.getActiveExam(studentId);
         return activeExam != null ? ResponseEntity.ok(activeExam) : ResponseEntity.noContent().build();
     }
@@ -76,23 +130,53 @@ public class StudentController {
     // ========== Answer Submission Endpoints ==========
 
     /**
-     * Save answer text
+     * Save answer text; authorized by the exam-session token alone
      */
     @PutMapping("/answers/{answerId}")
-    public ResponseEntity<Answer> saveAnswer(
+    public ResponseEntity<AnswerSaveResponse> saveAnswer(
             @PathVariable UUID answerId,
+            @RequestHeader(value = ExamSessionTokens.HEADER, required = false) String sessionToken,
             @RequestBody String answerText) {
-        Answer answer = answerSubmissionService.saveAnswer(answerId, answerText);
-        return ResponseEntity.ok(answer);
+        examSessionTokens.authorizeAnswer(sessionToken, getCurrentStudentId(), answerId);
+        AnswerSaveResponse saved = answerSubmissionService.saveAnswer(answerId, answerText);
+        return ResponseEntity.ok(saved);
     }
 
     /**
-     * Upload handwritten answer image
+     * Delta-save answer text against a base version; 409 with the current
+     * version as ETag when the base is stale
+     */
+    @PatchMapping("/answers/{answerId}")
+    public ResponseEntity<AnswerSaveResponse> patchAnswer(
+            @PathVariable UUID answerId,
+            @RequestHeader(value = ExamSessionTokens.HEADER, required = false) String sessionToken,
+            @Valid @RequestBody AnswerPatchRequest request) {
+        examSessionTokens.authorizeAnswer(sessionToken, getCurrentStudentId(), answerId);
+        AnswerSaveResponse saved = answerSubmissionService.patchAnswer(answerId, request);
+        return ResponseEntity.ok(saved);
+    }
+
+    /**
+     * Save many objective-answer selections of one sheet at once
+     */
+    @PutMapping("/answer-sheets/{answerSheetId}/selections")
+    public ResponseEntity<AnswerSelectionResponse> saveSelections(
+            @PathVariable UUID answerSheetId,
+            @Valid @RequestBody AnswerSelectionRequest request) {
+        UUID studentId = getCurrentStudentId();
+        AnswerSelectionResponse response = answerSubmissionService.saveSelections(studentId, answerSheetId, request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Upload handwritten answer image; authorized by the exam-session token
      */
     @PostMapping("/answers/{answerId}/upload-image")
     public ResponseEntity<Answer> uploadAnswerImage(
             @PathVariable UUID answerId,
+            @RequestHeader(value = ExamSessionTokens.HEADER, required = false) String sessionToken,
             @RequestParam("image") MultipartFile image) throws IOException {
+        examSessionTokens.authorizeAnswer(sessionToken, getCurrentStudentId(), answerId);
         Answer answer = answerSubmissionService.uploadAnswerImage(answerId, image);
         return ResponseEntity.ok(answer);
     }
@@ -101,19 +185,42 @@ public class StudentController {
      * Submit complete answer sheet
      */
     @PostMapping("/answer-sheets/{answerSheetId}/submit")
-    public ResponseEntity<AnswerSheet> submitAnswerSheet(@PathVariable UUID answerSheetId) {
-        AnswerSheet answerSheet = answerSubmissionService.submitAnswerSheet(answerSheetId);
+    public ResponseEntity<AnswerSheetResponse> submitAnswerSheet(
+            @PathVariable UUID answerSheetId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        AnswerSheetResponse answerSheet = idempotencyKey == null
+                ? answerSubmissionService.submitAnswerSheet(answerSheetId)
+                : idempotencyService.execute("submit:" + getCurrentStudentId(), idempotencyKey,
+                        answerSheetId.toString(), () -> answerSubmissionService.submitAnswerSheet(answerSheetId),
+                        // Only a submitted sheet is a final answer worth replaying
+                        response -> response.getStatus() == SubmissionStatus.SUBMITTED
+                                || response.getStatus() == SubmissionStatus.GRADED);
         return ResponseEntity.ok(answerSheet);
     }
 
+    /**
+     * Upload the gzip-compressed answer bundle of an offline-mode exam,
+     * signed with the sheet's bundle key; optionally submit the sheet
+     */
+    @PostMapping("/answer-sheets/{answerSheetId}/bundle")
+    public ResponseEntity<OfflineBundleResponse> uploadBundle(
+            @PathVariable UUID answerSheetId,
+            @RequestHeader(value = "X-Bundle-Signature", required = false) String signature,
+            @RequestParam(defaultValue = "false") boolean submit,
+            InputStream body) {
+        UUID studentId = getCurrentStudentId();
+        OfflineBundleResponse response = offlineBundleService.upload(studentId, answerSheetId, signature, submit, body);
+        return ResponseEntity.ok(response);
+    }
+
     // ========== Performance Analytics Endpoints ==========
 
     /**
      * Get student performance data
      */
     @GetMapping("/performance")
-    public ResponseEntity<PerformanceData> getPerformance(@AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<PerformanceData> getPerformance() {
+        UUID studentId = getCurrentStudentId();
         PerformanceData performance = performanceService.getStudentPerformance(studentId);
         return ResponseEntity.ok(performance);
     }
@@ -122,9 +229,8 @@ public class StudentController {
      * Get performance comparison (student vs batch average)
      */
     @GetMapping("/performance/comparison")
-    public ResponseEntity<PerformanceComparison> getPerformanceComparison(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<PerformanceComparison> getPerformanceComparison() {
+        UUID studentId = getCurrentStudentId();
         PerformanceComparison comparison = performanceService.getComparisonData(studentId);
         return ResponseEntity.ok(comparison);
     }
@@ -135,10 +241,8 @@ public class StudentController {
      * Ask AI doubt
      */
     @PostMapping("/doubts")
-    public ResponseEntity<DoubtResponse> askDoubt(
-            @RequestBody DoubtRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<DoubtResponse> askDoubt(@RequestBody DoubtRequest request) {
+        UUID studentId = getCurrentStudentId();
         Doubt doubt = doubtService.askDoubt(studentId, request.getQuestion(), request.getContext());
 
         DoubtResponse response = DoubtResponse.builder()
@@ -156,8 +260,8 @@ public class StudentController {
      * Get doubt history (chat history)
      */
     @GetMapping("/doubts")
-    public ResponseEntity<List<DoubtResponse>> getDoubtHistory(@AuthenticationPrincipal UserDetails userDetails) {
-        UUID studentId = getCurrentStudentId(userDetails);
+    public ResponseEntity<List<DoubtResponse>> getDoubtHistory() {
+        UUID studentId = getCurrentStudentId();
         List<Doubt> doubts = doubtService.getDoubtHistory(studentId);
 
         List<DoubtResponse> responses = doubts.stream()
@@ -186,13 +290,8 @@ public class StudentController {
 
     /**
      * Extract current student ID from authenticated user
-     * TODO: Implement proper user retrieval from security context
-     */
-    private UUID getCurrentStudentId(UserDetails userDetails) {
-        // Placeholder - in production, fetch from UserRepository
-        String username = userDetails.getUsername();
-        // For now, return a placeholder UUID
-        // In production: userRepository.findByUsername(username).getId()
-        return UUID.randomUUID(); // FIXM: Implement proper user ID retrieval
+     */
+    private UUID getCurrentStudentId() {
+        return UserContext.getUserId();
     }
 }
@@ -0,0 +1,24 @@
+package com.coaching.platform.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for tuning how fast students are admitted to an exam
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionRateRequest {
+
+    @NotNull(message = "Permits per second is required")
+    @Positive(message = "Permits per second must be positive")
+    private Double permitsPerSecond;
+
+    @NotNull(message = "Burst is required")
+    @Positive(message = "Burst must be positive")
+    private Integer burst;
+}
@@ -0,0 +1,24 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Waiting-room response returned instead of an answer sheet while the
+ * student is queued for exam start
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionResponse {
+
+    private UUID examId;
+    private String status;
+    private Integer position;
+    private Long retryAfterSeconds;
+}
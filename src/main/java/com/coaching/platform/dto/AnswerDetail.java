@@ -0,0 +1,27 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerDetail {
+
+    private UUID answerId;
+    private UUID questionId;
+    private String answerText;
+    private UUID selectedOptionId;
+    private LocalDateTime answeredAt;
+    private Integer pointsAwarded;
+    private String feedback;
+    private boolean autoGraded;
+    private List<String> imageUrls;
+}
@@ -0,0 +1,47 @@
+package com.coaching.platform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Delta autosave: edits against the answer text at {@code baseVersion}.
+ * Edits are applied in order, each against the result of the previous one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerPatchRequest {
+
+    @NotNull(message = "Base version is required")
+    @Min(value = 0, message = "Base version cannot be negative")
+    private Long baseVersion;
+
+    @NotEmpty(message = "At least one edit is required")
+    @Size(max = 500, message = "At most 500 edits per request")
+    private List<@Valid TextEdit> edits;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TextEdit {
+        @NotNull(message = "Offset is required")
+        @Min(value = 0, message = "Offset cannot be negative")
+        private Integer offset;
+
+        @Min(value = 0, message = "Delete count cannot be negative")
+        private int deleteCount;
+
+        private String insert;
+    }
+}
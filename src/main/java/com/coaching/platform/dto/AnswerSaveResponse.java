@@ -0,0 +1,24 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Acknowledgement of an autosaved answer text
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSaveResponse {
+
+    private UUID answerId;
+    private UUID answerSheetId;
+    private LocalDateTime answeredAt;
+    private Long textVersion;
+}
@@ -0,0 +1,39 @@
+package com.coaching.platform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk objective-answer selection for one answer sheet. A null option
+ * clears the selection; when an answer appears twice the last pair wins.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSelectionRequest {
+
+    @NotEmpty(message = "At least one selection is required")
+    @Size(max = 1000, message = "At most 1000 selections per request")
+    private List<@Valid Selection> selections;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Selection {
+        @NotNull(message = "Answer id is required")
+        private UUID answerId;
+
+        private UUID optionId;
+    }
+}
@@ -0,0 +1,23 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Result of a bulk selection: rows updated and objective answers now
+ * carrying a selection
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSelectionResponse {
+
+    private UUID answerSheetId;
+    private Integer updated;
+    private Integer answeredCount;
+}
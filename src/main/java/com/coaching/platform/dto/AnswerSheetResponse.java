@@ -0,0 +1,52 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSheetResponse {
+
+    private UUID id;
+    private UUID examId;
+    private SubmissionStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime submittedAt;
+    private Integer totalPoints;
+    private Integer obtainedPoints;
+    private List<AnswerSlot> answers;
+
+    /**
+     * Base64 HMAC key the client signs its offline answer bundle with;
+     * only set for offline-mode exams
+     */
+    private String bundleKey;
+
+    /**
+     * Signed exam-session token to send as {@code X-Exam-Session} with
+     * every answer save; only set while the sheet is in progress
+     */
+    private String sessionToken;
+
+    /**
+     * Answer row the student writes to for one question
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AnswerSlot {
+        private UUID answerId;
+        private UUID questionId;
+    }
+}
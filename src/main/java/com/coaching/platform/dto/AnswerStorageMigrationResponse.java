@@ -0,0 +1,21 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.AnswerStorage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerStorageMigrationResponse {
+
+    private UUID examId;
+    private AnswerStorage answerStorage;
+    private int converted;
+    private long durationMillis;
+}
@@ -1,5 +1,6 @@
 package com.coaching.platform.dto;
 
+import com.coaching.platform.enums.AnswerStorage;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -27,4 +29,10 @@ public class CreateExamRequest {
 
     @NotNull(message = "Batch ID is required")
     private UUID batchId;
+
+    private Boolean offlineMode;
+
+    private AnswerStorage answerStorage;
+
+    private LocalDateTime startsAt;
 }
@@ -0,0 +1,30 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the faculty evaluation queue, oldest submission first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationQueuePage {
+
+    private List<AnswerSheetSummary> items;
+
+    /**
+     * Pass back as {@code cursor} for the next page; null on the last page
+     */
+    private String nextCursor;
+
+    /**
+     * Sheets matching the filters; only counted for the first page
+     */
+    private Long total;
+}
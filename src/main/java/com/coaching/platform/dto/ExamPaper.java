@@ -0,0 +1,62 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.QuestionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable, student-safe snapshot of a published exam paper.
+ * Carries no answer key, so it can be served to any candidate as-is.
+ */
+@Value
+@Builder
+public class ExamPaper {
+
+    UUID examId;
+    long version;
+    String title;
+    String instructions;
+    Integer durationMinutes;
+    boolean offlineMode;
+    Integer totalPoints;
+    LocalDateTime publishedAt;
+    LocalDateTime startsAt;
+
+    /**
+     * Batch whose students may open the paper; kept server-side
+     */
+    @JsonIgnore
+    UUID batchId;
+
+    /**
+     * Answer layout for sheets started from this paper; kept server-side
+     */
+    @JsonIgnore
+    AnswerStorage answerStorage;
+    List<PaperQuestion> questions;
+
+    @Value
+    @Builder
+    public static class PaperQuestion {
+        UUID id;
+        QuestionType type;
+        String questionText;
+        Integer points;
+        Integer orderNumber;
+        List<PaperOption> options;
+    }
+
+    @Value
+    @Builder
+    public static class PaperOption {
+        UUID id;
+        String optionText;
+        Integer orderNumber;
+    }
+}
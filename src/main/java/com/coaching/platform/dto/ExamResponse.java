@@ -1,5 +1,6 @@
 package com.coaching.platform.dto;
 
+import com.coaching.platform.enums.AnswerStorage;
 import com.coaching.platform.enums.ExamStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +20,8 @@ public class ExamResponse {
     private String title;
     private String instructions;
     private Integer durationMinutes;
+    private Boolean offlineMode;
+    private AnswerStorage answerStorage;
     private ExamStatus status;
     private String batchName;
     private UUID batchId;
@@ -26,4 +29,5 @@ public class ExamResponse {
     private Integer totalPoints;
     private LocalDateTime createdAt;
     private LocalDateTime publishedAt;
+    private LocalDateTime startsAt;
 }
@@ -0,0 +1,32 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sheets leased to one evaluator for grading
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingClaimResponse {
+
+    private List<AnswerSheetSummary> sheets;
+
+    /**
+     * Renew the leases with a heartbeat before this time or they return to
+     * the pool
+     */
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Sheets the next claim on the exam would likely receive, for prefetching
+     */
+    private List<AnswerSheetSummary> upNext;
+}
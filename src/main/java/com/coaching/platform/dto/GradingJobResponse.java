@@ -0,0 +1,40 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.GradingJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingJobResponse {
+
+    private UUID id;
+    private UUID examId;
+    private GradingJobStatus status;
+    private boolean regrade;
+    private int totalSheets;
+    private int sheetsGraded;
+    private int answersGraded;
+    private int partitions;
+    private int partitionsCompleted;
+
+    /**
+     * Sheets per second in the current (or last) run
+     */
+    private double sheetsPerSecond;
+
+    /**
+     * Estimated seconds to completion; null when not running or unknown
+     */
+    private Long etaSeconds;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
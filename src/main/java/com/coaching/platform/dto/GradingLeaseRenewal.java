@@ -0,0 +1,30 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a grading lease heartbeat
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingLeaseRenewal {
+
+    private List<UUID> renewed;
+
+    /**
+     * Sheets no longer leased to the evaluator: graded, or claimed by
+     * someone else after the lease expired
+     */
+    private List<UUID> lost;
+
+    private LocalDateTime leaseExpiresAt;
+}
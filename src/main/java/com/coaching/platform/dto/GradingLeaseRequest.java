@@ -0,0 +1,25 @@
+package com.coaching.platform.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sheets whose grading leases are renewed or released
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingLeaseRequest {
+
+    @NotEmpty(message = "At least one sheet is required")
+    @Size(max = 200, message = "At most 200 sheets per request")
+    private List<UUID> sheetIds;
+}
@@ -0,0 +1,26 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Result of an offline bundle upload: answers written, answers skipped
+ * because they were stale or saved outside the allowed window, and the
+ * sheet status afterwards
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfflineBundleResponse {
+
+    private UUID answerSheetId;
+    private Integer applied;
+    private Integer skipped;
+    private SubmissionStatus status;
+}
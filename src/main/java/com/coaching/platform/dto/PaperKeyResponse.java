@@ -0,0 +1,25 @@
+package com.coaching.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Decryption key of a pre-distributed paper. The client decrypts its cached
+ * copy only if that copy's ETag matches; otherwise it downloads the paper again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaperKeyResponse {
+
+    private UUID examId;
+    private Long version;
+    private String algorithm;
+    private String key;
+    private String etag;
+}
@@ -0,0 +1,35 @@
+package com.coaching.platform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JSON frame on the exam session channel. Inbound types: SAVE, PATCH,
+ * SELECT, PING. Outbound types: SAVED, SELECTED, TIME, FORCED_SUBMIT,
+ * ERROR. {@code requestId} is echoed on the reply to an inbound frame.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionFrame {
+
+    private String type;
+    private String requestId;
+    private UUID answerId;
+    private String text;
+    private Long baseVersion;
+    private List<AnswerPatchRequest.TextEdit> edits;
+    private List<AnswerSelectionRequest.Selection> selections;
+    private Long textVersion;
+    private Integer answeredCount;
+    private Long remainingSeconds;
+    private String message;
+}
@@ -0,0 +1,47 @@
+package com.coaching.platform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Points and feedback for many answers of one answer sheet. When an answer
+ * appears twice the last grade wins; with {@code finalize} the sheet is
+ * also moved to GRADED in the same transaction.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SheetGradeRequest {
+
+    @NotEmpty(message = "At least one grade is required")
+    @Size(max = 1000, message = "At most 1000 grades per request")
+    private List<@Valid Grade> grades;
+
+    private boolean finalize;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grade {
+        @NotNull(message = "Answer id is required")
+        private UUID answerId;
+
+        @NotNull(message = "Points are required")
+        @Min(value = 0, message = "Points cannot be negative")
+        private Integer pointsAwarded;
+
+        private String feedback;
+    }
+}
@@ -0,0 +1,26 @@
+package com.coaching.platform.dto;
+
+import com.coaching.platform.enums.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SheetGradeResponse {
+
+    private UUID answerSheetId;
+    private int answersGraded;
+    private Integer obtainedPoints;
+    private SubmissionStatus status;
+
+    /**
+     * True when this request moved the sheet to GRADED
+     */
+    private boolean finalized;
+}
@@ -2,6 +2,7 @@ package com.coaching.platform.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -9,9 +10,11 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Entity representing a student's answer to a question
+ * Entity representing a student's answer to a question. Updates write only
+ * changed columns so entity saves do not overwrite autosaved text.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "answers")
 @Getter
 @Setter
@@ -47,6 +50,14 @@ public class Answer {
     @Column
     private LocalDateTime answeredAt;
 
+    /**
+     * Incremented on every text save; delta saves must name the version they
+     * were made against
+     */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long textVersion = 0L;
+
     @Column
     private Integer pointsAwarded;
 
@@ -57,6 +68,13 @@ public class Answer {
     @Builder.Default
     private Boolean isAutoGraded = false;
 
+    /**
+     * Optimistic lock; JDBC updates of the row bump it as well
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     /**
      * Auto-grade for objective questions
      */
@@ -1,5 +1,6 @@
 package com.coaching.platform.entity;
 
+import com.coaching.platform.enums.AnswerStorage;
 import com.coaching.platform.enums.SubmissionStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,10 +13,16 @@ import java.util.List;
 import java.util.UUID;
 
 /**
- * Entity representing a student's answer sheet for an exam
+ * Entity representing a student's answer sheet for an exam. One sheet per
+ * (exam, student) is enforced by the {@code uk_answer_sheets_exam_student}
+ * unique index, created by {@code AnswerSheetUniquenessMigration}.
  */
 @Entity
-@Table(name = "answer_sheets")
+@Table(name = "answer_sheets",
+        indexes = {
+                @Index(name = "idx_answer_sheets_status_expires", columnList = "status, expires_at, id"),
+                @Index(name = "idx_answer_sheets_queue", columnList = "exam_id, status, submitted_at, id")
+        })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -66,40 +73,24 @@ public class AnswerSheet {
     @Column(columnDefinition = "TEXT")
     private String overallFeedback;
 
-    @OneToMany(mappedBy = "answerSheet", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    private List<Answer> answers = new ArrayList<>();
-
-    /**
-     * Submit the answer sheet
-     */
-    public void submit() {
-        this.status = SubmissionStatus.SUBMITTED;
-        this.submittedAt = LocalDateTime.now();
-    }
-
     /**
-     * Mark as graded
+     * Layout of this sheet's answers. Written only by JDBC (sheet start and
+     * layout conversion); a DOCUMENT sheet has no rows in {@link #answers}.
      */
-    public void markAsGraded() {
-        this.status = SubmissionStatus.GRADED;
-        this.gradedAt = LocalDateTime.now();
-    }
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, columnDefinition = "varchar(16) default 'ROWS'")
+    @Builder.Default
+    private AnswerStorage answerStorage = AnswerStorage.ROWS;
 
     /**
-     * Calculate total obtained points from all answers
+     * Optimistic lock; status transitions run as conditional JDBC updates
+     * that bump it as well
      */
-    public void calculateObtainedPoints() {
-        this.obtainedPoints = answers.stream()
-                .mapToInt(answer -> answer.getPointsAwarded() != null ? answer.getPointsAwarded() : 0)
-                .sum();
-    }
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 
-    /**
-     * Check if all answers are graded
-     */
-    public boolean isFullyGraded() {
-        return answers.stream()
-                .allMatch(answer -> answer.getPointsAwarded() != null);
-    }
+    @OneToMany(mappedBy = "answerSheet", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<Answer> answers = new ArrayList<>();
 }
@@ -1,5 +1,6 @@
 package com.coaching.platform.entity;
 
+import com.coaching.platform.enums.AnswerStorage;
 import com.coaching.platform.enums.ExamStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -42,6 +43,22 @@ public class Exam {
     @Builder.Default
     private ExamStatus status = ExamStatus.DRAFT;
 
+    /**
+     * Candidates keep answers locally and upload one signed bundle at the end
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean offlineMode = false;
+
+    /**
+     * Layout used for the answers of sheets started from now on; existing
+     * sheets keep theirs until converted
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(16) default 'ROWS'")
+    @Builder.Default
+    private AnswerStorage answerStorage = AnswerStorage.ROWS;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
@@ -65,12 +82,36 @@ public class Exam {
     @Column
     private LocalDateTime publishedAt;
 
+    /**
+     * When the exam window opens and the paper key is released; null for
+     * an exam that can be taken as soon as it is published
+     */
+    @Column
+    private LocalDateTime startsAt;
+
+    /**
+     * Incremented on every publish and paper change; identifies the
+     * compiled student paper
+     */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long paperVersion = 0L;
+
     /**
      * Publish the exam to make it available to students
      */
     public void publish() {
         this.status = ExamStatus.PUBLISHED;
         this.publishedAt = LocalDateTime.now();
+        bumpPaperVersion();
+    }
+
+    /**
+     * Mark the compiled student paper as changed, e.g. after a question was
+     * added or removed
+     */
+    public void bumpPaperVersion() {
+        this.paperVersion = (paperVersion == null ? 0L : paperVersion) + 1;
     }
 
     /**
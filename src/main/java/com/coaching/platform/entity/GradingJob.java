@@ -0,0 +1,100 @@
+package com.coaching.platform.entity;
+
+import com.coaching.platform.enums.GradingJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exam-wide bulk grading job over the exam's submitted sheets, split into
+ * sheet ID ranges that are graded in parallel and resumed from their
+ * recorded position after an interruption
+ */
+@Entity
+@Table(name = "grading_jobs", indexes = @Index(name = "idx_grading_jobs_exam", columnList = "exam_id, created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exam_id", nullable = false)
+    private Exam exam;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requested_by_id")
+    private User requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private GradingJobStatus status = GradingJobStatus.RUNNING;
+
+    /**
+     * Re-score every objective answer instead of only ungraded ones, e.g.
+     * after the answer key was corrected
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean regrade = false;
+
+    /**
+     * Submitted sheets when the job was partitioned
+     */
+    @Column(nullable = false)
+    private Integer totalSheets;
+
+    /**
+     * Identifies the run currently working the job; taken over with a new
+     * token when its heartbeat goes stale
+     */
+    @Column
+    private UUID runToken;
+
+    @Column
+    private LocalDateTime heartbeatAt;
+
+    /**
+     * Start of the current run and the sheets graded before it, for the
+     * run's throughput
+     */
+    @Column
+    private LocalDateTime runStartedAt;
+
+    @Column
+    private Integer runStartSheets;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("partitionNumber ASC")
+    @Builder.Default
+    private List<GradingJobPartition> partitions = new ArrayList<>();
+
+    /**
+     * Add a partition to this job
+     */
+    public void addPartition(GradingJobPartition partition) {
+        partitions.add(partition);
+        partition.setJob(this);
+    }
+}
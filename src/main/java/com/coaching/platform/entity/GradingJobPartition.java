@@ -0,0 +1,55 @@
+package com.coaching.platform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * One sheet ID range of a {@link GradingJob}: sheets from
+ * {@code fromSheetId} (inclusive) to {@code toSheetId} (exclusive, open when
+ * null). {@code lastSheetId} is the last sheet graded and advances in the
+ * same transaction as the grades, so a resumed job continues right after it.
+ */
+@Entity
+@Table(name = "grading_job_partitions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_grading_job_partitions_job_number", columnNames = { "job_id", "partition_number" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradingJobPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private GradingJob job;
+
+    @Column(nullable = false)
+    private Integer partitionNumber;
+
+    @Column(nullable = false)
+    private UUID fromSheetId;
+
+    @Column
+    private UUID toSheetId;
+
+    @Column
+    private UUID lastSheetId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer sheetsGraded = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer answersGraded = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+}
@@ -50,6 +50,15 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean enabled = true;
 
+    /**
+     * Tokens issued with a lower epoch are revoked. Written only through
+     * {@code UserRepository.raiseTokenEpoch}, so entity saves never undo a
+     * revocation.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long tokenEpoch = 0L;
+
     @ManyToMany(mappedBy = "students")
     @Builder.Default
     private Set<Batch> studentBatches = new HashSet<>();
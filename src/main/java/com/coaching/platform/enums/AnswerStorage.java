@@ -0,0 +1,16 @@
+package com.coaching.platform.enums;
+
+/**
+ * Storage layout of the answers of an answer sheet
+ */
+public enum AnswerStorage {
+    /**
+     * One row per answer in the answers table
+     */
+    ROWS,
+
+    /**
+     * One JSONB document per sheet, keyed by answer ID
+     */
+    DOCUMENT
+}
@@ -0,0 +1,22 @@
+package com.coaching.platform.enums;
+
+/**
+ * Status of an exam-wide bulk grading job
+ */
+public enum GradingJobStatus {
+    /**
+     * Partitions are being graded, or wait to be resumed after the node
+     * running them stopped
+     */
+    RUNNING,
+
+    /**
+     * Every partition has been graded
+     */
+    COMPLETED,
+
+    /**
+     * A partition failed; starting the job again resumes it
+     */
+    FAILED
+}
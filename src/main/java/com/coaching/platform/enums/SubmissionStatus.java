@@ -4,6 +4,11 @@ package com.coaching.platform.enums;
  * Status of an answer sheet submission
  */
 public enum SubmissionStatus {
+    /**
+     * Answer sheet materialized ahead of the exam window, not yet started
+     */
+    PROVISIONED,
+
     /**
      * Student is still working on the exam
      */
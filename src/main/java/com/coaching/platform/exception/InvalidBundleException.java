@@ -0,0 +1,16 @@
+package com.coaching.platform.exception;
+
+/**
+ * Thrown when an uploaded offline answer bundle is malformed, too large or
+ * refers to answers outside its sheet. Mapped to 400.
+ */
+public class InvalidBundleException extends RuntimeException {
+
+    public InvalidBundleException(String message) {
+        super(message);
+    }
+
+    public InvalidBundleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.coaching.platform.exception;
+
+/**
+ * Thrown when a pagination cursor cannot be decoded. Mapped to 400.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.coaching.platform.exception;
+
+/**
+ * Thrown when a delta update cannot be applied to the stored value.
+ * Mapped to 400.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
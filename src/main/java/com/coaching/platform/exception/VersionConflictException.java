@@ -0,0 +1,18 @@
+package com.coaching.platform.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an update was based on a stale version. Mapped to 409 with the
+ * current version in the ETag header.
+ */
+@Getter
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public VersionConflictException(String resourceName, Object id, long baseVersion, long currentVersion) {
+        super(String.format("%s %s is at version %d, not %d", resourceName, id, currentVersion, baseVersion));
+        this.currentVersion = currentVersion;
+    }
+}
@@ -0,0 +1,126 @@
+package com.coaching.platform.grading;
+
+import com.coaching.platform.entity.Option;
+import com.coaching.platform.entity.Question;
+import com.coaching.platform.enums.QuestionType;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable answer key of one exam version, compiled with the exam paper.
+ * Objective questions are held in primitive arrays sorted by question ID,
+ * so grading an answer is a binary search and a comparison, with no
+ * question or option entities loaded and nothing allocated per answer.
+ */
+public final class AnswerKey {
+
+    public static final AnswerKey EMPTY = compile(List.of());
+
+    private final long[] questionHigh;
+    private final long[] questionLow;
+    private final long[] correctHigh;
+    private final long[] correctLow;
+    private final boolean[] hasCorrect;
+    private final int[] points;
+
+    private AnswerKey(int size) {
+        this.questionHigh = new long[size];
+        this.questionLow = new long[size];
+        this.correctHigh = new long[size];
+        this.correctLow = new long[size];
+        this.hasCorrect = new boolean[size];
+        this.points = new int[size];
+    }
+
+    /**
+     * Compile the key of an exam's questions; options must be loaded.
+     * Uses the same correct option as {@link Question#getCorrectOption()}.
+     */
+    public static AnswerKey compile(Collection<Question> questions) {
+        List<Question> objective = questions.stream()
+                .filter(question -> question.getType() == QuestionType.OBJECTIVE)
+                .sorted(Comparator.comparingLong((Question question) -> question.getId().getMostSignificantBits())
+                        .thenComparingLong(question -> question.getId().getLeastSignificantBits()))
+                .toList();
+        AnswerKey key = new AnswerKey(objective.size());
+        for (int i = 0; i < objective.size(); i++) {
+            Question question = objective.get(i);
+            key.questionHigh[i] = question.getId().getMostSignificantBits();
+            key.questionLow[i] = question.getId().getLeastSignificantBits();
+            key.points[i] = question.getPoints();
+            Option correct = question.getCorrectOption();
+            if (correct != null) {
+                key.hasCorrect[i] = true;
+                key.correctHigh[i] = correct.getId().getMostSignificantBits();
+                key.correctLow[i] = correct.getId().getLeastSignificantBits();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Number of objective questions in the key
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Position of an objective question in the key, or -1 if the question
+     * is not objective or not part of the exam
+     */
+    public int indexOf(UUID questionId) {
+        long high = questionId.getMostSignificantBits();
+        long low = questionId.getLeastSignificantBits();
+        int from = 0;
+        int to = points.length - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int cmp = questionHigh[mid] != high ? Long.compare(questionHigh[mid], high) : Long.compare(questionLow[mid], low);
+            if (cmp < 0) {
+                from = mid + 1;
+            } else if (cmp > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the selected option is the correct one of the question at
+     * the given position
+     */
+    public boolean isCorrect(int index, UUID selectedOptionId) {
+        return selectedOptionId != null && hasCorrect[index]
+                && correctHigh[index] == selectedOptionId.getMostSignificantBits()
+                && correctLow[index] == selectedOptionId.getLeastSignificantBits();
+    }
+
+    /**
+     * Points of the question at the given position
+     */
+    public int points(int index) {
+        return points[index];
+    }
+
+    /**
+     * Grade one answer into {@code out}: full points when the selected option
+     * is the correct one, zero otherwise
+     *
+     * @return false if the question is not objective and was left ungraded
+     */
+    public boolean grade(UUID sheetId, UUID answerId, UUID questionId, UUID selectedOptionId, GradedAnswers out) {
+        int index = indexOf(questionId);
+        if (index < 0) {
+            return false;
+        }
+        boolean correct = isCorrect(index, selectedOptionId);
+        out.add(sheetId, answerId, correct ? points[index] : 0, correct);
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.coaching.platform.grading;
+
+import java.util.UUID;
+
+/**
+ * Looks up the compiled answer key of a published exam
+ */
+@FunctionalInterface
+public interface AnswerKeySource {
+
+    AnswerKey answerKey(UUID examId);
+}
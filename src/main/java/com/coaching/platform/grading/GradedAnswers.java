@@ -0,0 +1,96 @@
+package com.coaching.platform.grading;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Grades produced by an {@link AnswerKey}, collected in parallel arrays
+ * that are bound as SQL array parameters by the write-back
+ */
+public final class GradedAnswers {
+
+    private UUID[] sheetIds;
+    private UUID[] answerIds;
+    private int[] points;
+    private boolean[] correct;
+    private int size;
+
+    public GradedAnswers() {
+        this(64);
+    }
+
+    public GradedAnswers(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.sheetIds = new UUID[initial];
+        this.answerIds = new UUID[initial];
+        this.points = new int[initial];
+        this.correct = new boolean[initial];
+    }
+
+    void add(UUID sheetId, UUID answerId, int awarded, boolean isCorrect) {
+        if (size == points.length) {
+            int capacity = size * 2;
+            sheetIds = Arrays.copyOf(sheetIds, capacity);
+            answerIds = Arrays.copyOf(answerIds, capacity);
+            points = Arrays.copyOf(points, capacity);
+            correct = Arrays.copyOf(correct, capacity);
+        }
+        sheetIds[size] = sheetId;
+        answerIds[size] = answerId;
+        points[size] = awarded;
+        correct[size] = isCorrect;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Sum of the points awarded
+     */
+    public int totalPoints() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += points[i];
+        }
+        return total;
+    }
+
+    /**
+     * Forget the collected grades, keeping the arrays for reuse
+     */
+    public void clear() {
+        Arrays.fill(sheetIds, 0, size, null);
+        Arrays.fill(answerIds, 0, size, null);
+        size = 0;
+    }
+
+    public UUID[] sheetIds() {
+        return Arrays.copyOf(sheetIds, size);
+    }
+
+    public UUID[] answerIds() {
+        return Arrays.copyOf(answerIds, size);
+    }
+
+    public Integer[] points() {
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = points[i];
+        }
+        return boxed;
+    }
+
+    public Boolean[] correct() {
+        Boolean[] boxed = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = correct[i];
+        }
+        return boxed;
+    }
+}
@@ -0,0 +1,49 @@
+package com.coaching.platform.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency accumulator (count, mean and max) for hot paths
+ */
+public class LatencyRecorder {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * Record one observation in nanoseconds
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / (n * 1000.0);
+    }
+
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+
+    /**
+     * Snapshot suitable for {@link OperationalMetrics#metricsSnapshot()}
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", getCount());
+        snapshot.put("meanMicros", getMeanMicros());
+        snapshot.put("maxMicros", getMaxMicros());
+        return snapshot;
+    }
+}
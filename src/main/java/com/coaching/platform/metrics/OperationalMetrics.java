@@ -0,0 +1,20 @@
+package com.coaching.platform.metrics;
+
+import java.util.Map;
+
+/**
+ * Implemented by components that expose runtime counters
+ * (hit rates, latencies, queue depths) on the admin metrics endpoint
+ */
+public interface OperationalMetrics {
+
+    /**
+     * Name under which the snapshot is published
+     */
+    String metricsName();
+
+    /**
+     * Point-in-time view of the component's counters
+     */
+    Map<String, Object> metricsSnapshot();
+}
@@ -0,0 +1,433 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.coaching.platform.repository.AnswerSheetJdbc.toLocalDateTime;
+
+/**
+ * Plain JDBC access to the answers of a sheet in either storage layout.
+ * <p>
+ * A sheet stores its answers either as rows of {@code answers} or, for
+ * {@link AnswerStorage#DOCUMENT}, as one {@code answers_doc} JSONB object on
+ * the sheet keyed by answer ID, with {@code answer_ids} indexing the keys.
+ * Reads cover both layouts in one statement; writers lock the sheet row
+ * first so a layout conversion cannot interleave with them.
+ */
+@Repository
+public class AnswerDocumentJdbc {
+
+    private static final String DOC_ENTRY_VERSION = "COALESCE((d.answers_doc -> v.id ->> 'version')::bigint, 0) + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AnswerDocumentJdbc(JdbcTemplate jdbcTemplate,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Find the answer slots of a sheet in either layout
+     */
+    public List<AnswerSheetResponse.AnswerSlot> findAnswerSlots(UUID sheetId) {
+        return jdbcTemplate.query(
+                "SELECT id, question_id FROM answers WHERE answer_sheet_id = ? " +
+                        "UNION ALL SELECT e.key::uuid, (e.value ->> 'questionId')::uuid " +
+                        "FROM answer_sheets s, jsonb_each(s.answers_doc) e WHERE s.id = ?",
+                (rs, rowNum) -> new AnswerSheetResponse.AnswerSlot(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("question_id", UUID.class)),
+                sheetId, sheetId);
+    }
+
+    /**
+     * Load every answer of a sheet, with its image URLs, in one statement for
+     * either layout
+     */
+    public List<StoredAnswer> loadAnswers(UUID sheetId) {
+        return jdbcTemplate.query(
+                "SELECT a.id, a.question_id, a.answer_text, a.selected_option_id, a.answered_at, " +
+                        "COALESCE(a.text_version, 0) AS text_version, a.points_awarded, a.feedback, a.is_auto_graded, " +
+                        "ARRAY(SELECT i.image_url::text FROM answer_images i WHERE i.answer_id = a.id) AS image_urls " +
+                        "FROM answers a WHERE a.answer_sheet_id = ? " +
+                        "UNION ALL SELECT e.key::uuid, (e.value ->> 'questionId')::uuid, e.value ->> 'text', " +
+                        "(e.value ->> 'selectedOptionId')::uuid, (e.value ->> 'answeredAt')::timestamp, " +
+                        "COALESCE((e.value ->> 'textVersion')::bigint, 0), (e.value ->> 'pointsAwarded')::int, " +
+                        "e.value ->> 'feedback', COALESCE((e.value ->> 'autoGraded')::boolean, false), " +
+                        "ARRAY(SELECT jsonb_array_elements_text(COALESCE(e.value -> 'imageUrls', '[]'::jsonb))) " +
+                        "FROM answer_sheets s, jsonb_each(s.answers_doc) e WHERE s.id = ?",
+                (rs, rowNum) -> new StoredAnswer(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("question_id", UUID.class),
+                        rs.getString("answer_text"),
+                        rs.getObject("selected_option_id", UUID.class),
+                        toLocalDateTime(rs.getTimestamp("answered_at")),
+                        rs.getLong("text_version"),
+                        (Integer) rs.getObject("points_awarded"),
+                        rs.getString("feedback"),
+                        rs.getBoolean("is_auto_graded"),
+                        toStrings(rs.getArray("image_urls"))),
+                sheetId, sheetId);
+    }
+
+    /**
+     * Load the stored text, version and sheet of an answer in either layout;
+     * document entries are found through the {@code answer_ids} index
+     */
+    public Optional<AnswerText> findAnswerText(UUID answerId) {
+        return jdbcTemplate.query(
+                "SELECT answer_sheet_id, answer_text, answered_at, COALESCE(text_version, 0) AS text_version " +
+                        "FROM answers WHERE id = ? " +
+                        "UNION ALL SELECT s.id, x.e ->> 'text', (x.e ->> 'answeredAt')::timestamp, " +
+                        "COALESCE((x.e ->> 'textVersion')::bigint, 0) " +
+                        "FROM answer_sheets s CROSS JOIN LATERAL (SELECT s.answers_doc -> ?::text AS e) x " +
+                        "WHERE s.answer_ids @> ARRAY[?::uuid]",
+                (rs, rowNum) -> new AnswerText(
+                        answerId,
+                        rs.getObject("answer_sheet_id", UUID.class),
+                        rs.getString("answer_text"),
+                        toLocalDateTime(rs.getTimestamp("answered_at")),
+                        rs.getLong("text_version")),
+                answerId, answerId, answerId).stream().findFirst();
+    }
+
+    /**
+     * Write answer texts, as JDBC batches for answer rows and as one merge
+     * per sheet for documents. Answers of sheets that are no longer in
+     * progress, and answers already at a newer version, are left untouched.
+     * Must run inside a transaction.
+     */
+    public void updateAnswerTexts(Collection<AnswerText> texts) {
+        Map<UUID, AnswerStorage> storage = AnswerSheetJdbc.lockStorage(jdbcTemplate, texts.stream().map(AnswerText::sheetId).toList());
+        Map<UUID, List<AnswerText>> documents = new LinkedHashMap<>();
+        List<AnswerText> rows = new ArrayList<>(texts.size());
+        for (AnswerText text : texts) {
+            if (storage.get(text.sheetId()) == AnswerStorage.DOCUMENT) {
+                documents.computeIfAbsent(text.sheetId(), id -> new ArrayList<>()).add(text);
+            } else {
+                rows.add(text);
+            }
+        }
+        documents.forEach((sheetId, entries) -> mergeDocumentEntries(sheetId,
+                "jsonb_build_object('text', v.text, 'answeredAt', v.answered_at, 'textVersion', v.text_version, " +
+                        "'version', " + DOC_ENTRY_VERSION + ")",
+                "unnest(?::text[], ?::text[], ?::timestamp[], ?::bigint[]) AS v(id, text, answered_at, text_version)",
+                "d.status = '" + SubmissionStatus.IN_PROGRESS.name() + "' " +
+                        "AND COALESCE((d.answers_doc -> v.id ->> 'textVersion')::bigint, 0) < v.text_version",
+                (con, ps, index) -> {
+                    ps.setArray(index++, con.createArrayOf("text", entries.stream().map(t -> t.answerId().toString()).toArray()));
+                    ps.setArray(index++, con.createArrayOf("text", entries.stream().map(AnswerText::text).toArray()));
+                    ps.setArray(index++, con.createArrayOf("timestamp",
+                            entries.stream().map(t -> Timestamp.valueOf(t.answeredAt())).toArray()));
+                    ps.setArray(index++, con.createArrayOf("bigint", entries.stream().map(AnswerText::version).toArray()));
+                    return index;
+                }));
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE answers a SET answer_text = ?, answered_at = ?, text_version = ?, version = a.version + 1 " +
+                        "FROM answer_sheets s " +
+                        "WHERE a.id = ? AND s.id = a.answer_sheet_id AND s.status = ? " +
+                        "AND COALESCE(a.text_version, 0) < ?",
+                rows, batchSize, (ps, text) -> {
+                    ps.setString(1, text.text());
+                    ps.setTimestamp(2, Timestamp.valueOf(text.answeredAt()));
+                    ps.setLong(3, text.version());
+                    ps.setObject(4, text.answerId());
+                    ps.setString(5, SubmissionStatus.IN_PROGRESS.name());
+                    ps.setLong(6, text.version());
+                });
+    }
+
+    /**
+     * Set the selected option of many answers of one sheet in a single
+     * statement, provided the sheet is still in progress
+     *
+     * @return the number of answers updated
+     */
+    public int updateSelections(UUID sheetId, List<UUID> answerIds, List<UUID> optionIds, LocalDateTime answeredAt) {
+        if (AnswerSheetJdbc.lockStorage(jdbcTemplate, List.of(sheetId)).get(sheetId) == AnswerStorage.DOCUMENT) {
+            return mergeDocumentEntries(sheetId,
+                    "jsonb_build_object('selectedOptionId', v.option_id, 'answeredAt', ?::timestamp, " +
+                            "'version', " + DOC_ENTRY_VERSION + ")",
+                    "unnest(?::text[], ?::uuid[]) AS v(id, option_id)",
+                    "d.status = '" + SubmissionStatus.IN_PROGRESS.name() + "'",
+                    (con, ps, index) -> {
+                        ps.setTimestamp(index++, Timestamp.valueOf(answeredAt));
+                        ps.setArray(index++, con.createArrayOf("text", answerIds.stream().map(UUID::toString).toArray()));
+                        ps.setArray(index++, con.createArrayOf("uuid", optionIds.toArray()));
+                        return index;
+                    });
+        }
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answers a SET selected_option_id = v.option_id, answered_at = ?, version = a.version + 1 " +
+                            "FROM unnest(?::uuid[], ?::uuid[]) AS v(answer_id, option_id), answer_sheets s " +
+                            "WHERE a.id = v.answer_id AND a.answer_sheet_id = ? " +
+                            "AND s.id = a.answer_sheet_id AND s.status = ?");
+            ps.setTimestamp(1, Timestamp.valueOf(answeredAt));
+            ps.setArray(2, con.createArrayOf("uuid", answerIds.toArray()));
+            ps.setArray(3, con.createArrayOf("uuid", optionIds.toArray()));
+            ps.setObject(4, sheetId);
+            ps.setString(5, SubmissionStatus.IN_PROGRESS.name());
+            return ps;
+        });
+    }
+
+    /**
+     * Count the answers of a sheet that carry a selected option
+     */
+    public int countSelectedAnswers(UUID sheetId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT (SELECT count(*) FROM answers WHERE answer_sheet_id = ? AND selected_option_id IS NOT NULL) + " +
+                        "(SELECT count(*) FROM answer_sheets s, jsonb_each(s.answers_doc) e " +
+                        "WHERE s.id = ? AND e.value ->> 'selectedOptionId' IS NOT NULL)",
+                Integer.class, sheetId, sheetId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Append an image URL to one document answer of a sheet still in progress
+     *
+     * @return the answer's image URLs, or empty if no in-progress document holds it
+     */
+    public Optional<List<String>> appendDocumentImage(UUID answerId, String imageUrl, LocalDateTime answeredAt) {
+        return jdbcTemplate.query(
+                "UPDATE answer_sheets s SET version = s.version + 1, answers_doc = jsonb_set(s.answers_doc, ARRAY[?::text], " +
+                        "(s.answers_doc -> ?::text) || jsonb_build_object('imageUrls', " +
+                        "COALESCE(s.answers_doc -> ?::text -> 'imageUrls', '[]'::jsonb) || to_jsonb(?::text), " +
+                        "'answeredAt', ?::timestamp)) " +
+                        "WHERE s.answer_ids @> ARRAY[?::uuid] AND s.answer_storage = 'DOCUMENT' " +
+                        "AND s.status = '" + SubmissionStatus.IN_PROGRESS.name() + "' " +
+                        "RETURNING ARRAY(SELECT jsonb_array_elements_text(s.answers_doc -> ?::text -> 'imageUrls')) AS image_urls",
+                (rs, rowNum) -> toStrings(rs.getArray("image_urls")),
+                answerId, answerId, answerId, imageUrl, Timestamp.valueOf(answeredAt), answerId, answerId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Write offline-bundle answers of one sheet in JDBC batches. An answer
+     * is only overwritten when the bundle saved it later than the stored
+     * value, so re-uploading the same bundle changes nothing. Fields the
+     * bundle leaves out keep their stored values.
+     *
+     * @return the number of answers updated
+     */
+    public int applyBundle(UUID sheetId, Collection<BundleAnswer> answers) {
+        if (AnswerSheetJdbc.lockStorage(jdbcTemplate, List.of(sheetId)).get(sheetId) == AnswerStorage.DOCUMENT) {
+            List<BundleAnswer> entries = List.copyOf(answers);
+            return mergeDocumentEntries(sheetId,
+                    "jsonb_strip_nulls(jsonb_build_object('text', v.text, 'selectedOptionId', v.option_id)) || " +
+                            "jsonb_build_object('answeredAt', v.saved_at, " +
+                            "'textVersion', COALESCE((d.answers_doc -> v.id ->> 'textVersion')::bigint, 0) + 1, " +
+                            "'version', " + DOC_ENTRY_VERSION + ")",
+                    "unnest(?::text[], ?::text[], ?::uuid[], ?::timestamp[]) AS v(id, text, option_id, saved_at)",
+                    "((d.answers_doc -> v.id ->> 'answeredAt') IS NULL " +
+                            "OR (d.answers_doc -> v.id ->> 'answeredAt')::timestamp < v.saved_at)",
+                    (con, ps, index) -> {
+                        ps.setArray(index++, con.createArrayOf("text",
+                                entries.stream().map(e -> e.answerId().toString()).toArray()));
+                        ps.setArray(index++, con.createArrayOf("text", entries.stream().map(BundleAnswer::text).toArray()));
+                        ps.setArray(index++, con.createArrayOf("uuid",
+                                entries.stream().map(BundleAnswer::selectedOptionId).toArray()));
+                        ps.setArray(index++, con.createArrayOf("timestamp",
+                                entries.stream().map(e -> Timestamp.valueOf(e.savedAt())).toArray()));
+                        return index;
+                    });
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE answers SET answer_text = COALESCE(?, answer_text), " +
+                        "selected_option_id = COALESCE(?, selected_option_id), answered_at = ?, " +
+                        "text_version = COALESCE(text_version, 0) + 1, version = version + 1 " +
+                        "WHERE id = ? AND answer_sheet_id = ? AND (answered_at IS NULL OR answered_at < ?)",
+                answers, batchSize, (ps, answer) -> {
+                    Timestamp savedAt = Timestamp.valueOf(answer.savedAt());
+                    ps.setString(1, answer.text());
+                    ps.setObject(2, answer.selectedOptionId());
+                    ps.setTimestamp(3, savedAt);
+                    ps.setObject(4, answer.answerId());
+                    ps.setObject(5, sheetId);
+                    ps.setTimestamp(6, savedAt);
+                });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Next page of an exam's sheet IDs in the given layout after the given
+     * keyset position. Pass null for the first page.
+     */
+    public List<UUID> findSheetIdsPage(UUID examId, AnswerStorage storage, UUID afterId, int limit) {
+        if (afterId == null) {
+            return jdbcTemplate.queryForList(
+                    "SELECT id FROM answer_sheets WHERE exam_id = ? AND answer_storage = ? ORDER BY id LIMIT ?",
+                    UUID.class, examId, storage.name(), limit);
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM answer_sheets WHERE exam_id = ? AND answer_storage = ? AND id > ? ORDER BY id LIMIT ?",
+                UUID.class, examId, storage.name(), afterId, limit);
+    }
+
+    /**
+     * Move the answers of ROWS sheets into documents, images included, and
+     * delete the rows. Sheets already in documents are skipped. Must run
+     * inside a transaction.
+     *
+     * @return the number of sheets converted
+     */
+    public int convertToDocument(Collection<UUID> sheetIds) {
+        UUID[] ids = lockForConversion(sheetIds, AnswerStorage.ROWS);
+        if (ids.length == 0) {
+            return 0;
+        }
+        int converted = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets s SET answer_storage = ?, version = s.version + 1, " +
+                            "answers_doc = COALESCE((SELECT jsonb_object_agg(a.id::text, jsonb_strip_nulls(jsonb_build_object(" +
+                            "'questionId', a.question_id, 'text', a.answer_text, 'selectedOptionId', a.selected_option_id, " +
+                            "'answeredAt', a.answered_at, 'textVersion', a.text_version, 'pointsAwarded', a.points_awarded, " +
+                            "'feedback', a.feedback, 'autoGraded', a.is_auto_graded, 'version', a.version, " +
+                            "'imageUrls', (SELECT jsonb_agg(i.image_url) FROM answer_images i WHERE i.answer_id = a.id)))) " +
+                            "FROM answers a WHERE a.answer_sheet_id = s.id), '{}'::jsonb), " +
+                            "answer_ids = ARRAY(SELECT a.id FROM answers a WHERE a.answer_sheet_id = s.id) " +
+                            "WHERE s.id = ANY(?)");
+            ps.setString(1, AnswerStorage.DOCUMENT.name());
+            ps.setArray(2, con.createArrayOf("uuid", ids));
+            return ps;
+        });
+        updateWithSheetIds("DELETE FROM answer_images i USING answers a " +
+                "WHERE i.answer_id = a.id AND a.answer_sheet_id = ANY(?)", ids);
+        updateWithSheetIds("DELETE FROM answers WHERE answer_sheet_id = ANY(?)", ids);
+        return converted;
+    }
+
+    /**
+     * Move the answers of DOCUMENT sheets back into answer rows, images
+     * included, and drop the documents. Sheets already in rows are skipped.
+     * Must run inside a transaction.
+     *
+     * @return the number of sheets converted
+     */
+    public int convertToRows(Collection<UUID> sheetIds) {
+        UUID[] ids = lockForConversion(sheetIds, AnswerStorage.DOCUMENT);
+        if (ids.length == 0) {
+            return 0;
+        }
+        updateWithSheetIds(
+                "INSERT INTO answers (id, answer_sheet_id, question_id, answer_text, selected_option_id, answered_at, " +
+                        "text_version, points_awarded, feedback, is_auto_graded, version) " +
+                        "SELECT e.key::uuid, s.id, (e.value ->> 'questionId')::uuid, e.value ->> 'text', " +
+                        "(e.value ->> 'selectedOptionId')::uuid, (e.value ->> 'answeredAt')::timestamp, " +
+                        "COALESCE((e.value ->> 'textVersion')::bigint, 0), (e.value ->> 'pointsAwarded')::int, " +
+                        "e.value ->> 'feedback', COALESCE((e.value ->> 'autoGraded')::boolean, false), " +
+                        "COALESCE((e.value ->> 'version')::bigint, 0) " +
+                        "FROM answer_sheets s, jsonb_each(s.answers_doc) e WHERE s.id = ANY(?)", ids);
+        updateWithSheetIds(
+                "INSERT INTO answer_images (answer_id, image_url) SELECT e.key::uuid, img.url " +
+                        "FROM answer_sheets s, jsonb_each(s.answers_doc) e, " +
+                        "jsonb_array_elements_text(COALESCE(e.value -> 'imageUrls', '[]'::jsonb)) AS img(url) " +
+                        "WHERE s.id = ANY(?)", ids);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets SET answer_storage = ?, answers_doc = NULL, answer_ids = NULL, " +
+                            "version = version + 1 WHERE id = ANY(?)");
+            ps.setString(1, AnswerStorage.ROWS.name());
+            ps.setArray(2, con.createArrayOf("uuid", ids));
+            return ps;
+        });
+    }
+
+    private UUID[] lockForConversion(Collection<UUID> sheetIds, AnswerStorage from) {
+        return AnswerSheetJdbc.lockStorage(jdbcTemplate, sheetIds).entrySet().stream()
+                .filter(entry -> entry.getValue() == from)
+                .map(Map.Entry::getKey)
+                .toArray(UUID[]::new);
+    }
+
+    private void updateWithSheetIds(String sql, UUID[] sheetIds) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", sheetIds));
+            return ps;
+        });
+    }
+
+    /**
+     * Merge changed entries into a locked sheet's document in one statement.
+     * Only the touched keys are rebuilt; {@code source} binds an unnest of
+     * the new values as {@code v} with the answer ID in {@code v.id}, and
+     * {@code d} is the current sheet row.
+     *
+     * @return the number of entries merged
+     */
+    private int mergeDocumentEntries(UUID sheetId, String entry, String source, String condition,
+            EntryBinder binder) {
+        Integer merged = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets s SET answers_doc = s.answers_doc || u.entries, version = s.version + 1 " +
+                            "FROM (SELECT jsonb_object_agg(v.id, (d.answers_doc -> v.id) || " + entry + ") AS entries, " +
+                            "count(*) AS applied FROM answer_sheets d, " + source + " " +
+                            "WHERE d.id = ? AND d.answers_doc -> v.id IS NOT NULL AND " + condition + ") u " +
+                            "WHERE s.id = ? AND u.applied > 0 RETURNING u.applied");
+            int index = binder.bind(con, ps, 1);
+            ps.setObject(index++, sheetId);
+            ps.setObject(index, sheetId);
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return merged != null ? merged : 0;
+    }
+
+    private static List<String> toStrings(Array array) throws SQLException {
+        return array != null ? List.of((String[]) array.getArray()) : List.of();
+    }
+
+    private interface EntryBinder {
+        int bind(Connection con, PreparedStatement ps, int index) throws SQLException;
+    }
+
+    /**
+     * Text of one answer at a given version, as buffered by the autosave path
+     */
+    public record AnswerText(UUID answerId, UUID sheetId, String text, LocalDateTime answeredAt, long version) {
+    }
+
+    /**
+     * One stored answer, read from either layout
+     */
+    public record StoredAnswer(UUID answerId, UUID questionId, String text, UUID selectedOptionId,
+            LocalDateTime answeredAt, long textVersion, Integer pointsAwarded, String feedback,
+            boolean autoGraded, List<String> imageUrls) {
+    }
+
+    /**
+     * One answer of an offline bundle, stamped with the client save time
+     */
+    public record BundleAnswer(UUID answerId, String text, UUID selectedOptionId, LocalDateTime savedAt) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the answer sheet row itself: ownership, row locks,
+ * the expiry scans and the IN_PROGRESS to SUBMITTED transition. The start
+ * path lives in {@link AnswerSheetStartJdbc}, answers in
+ * {@link AnswerDocumentJdbc}, grading in {@link GradingJdbc} and the
+ * evaluation queue in {@link EvaluationQueueJdbc}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnswerSheetJdbc {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GradingJdbc gradingJdbc;
+
+    /**
+     * Find the owner, exam, status and deadline of a sheet
+     */
+    public Optional<SheetOwner> findSheetOwner(UUID sheetId) {
+        return jdbcTemplate.query(
+                "SELECT exam_id, student_id, status, expires_at FROM answer_sheets WHERE id = ?",
+                (rs, rowNum) -> new SheetOwner(
+                        sheetId,
+                        rs.getObject("exam_id", UUID.class),
+                        rs.getObject("student_id", UUID.class),
+                        SubmissionStatus.valueOf(rs.getString("status")),
+                        toLocalDateTime(rs.getTimestamp("expires_at"))),
+                sheetId).stream().findFirst();
+    }
+
+    /**
+     * Lock a sheet row for the rest of the transaction and return its state
+     */
+    public Optional<SheetRow> lockSheet(UUID sheetId) {
+        return jdbcTemplate.query(
+                "SELECT status, started_at, expires_at, total_points FROM answer_sheets WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> new SheetRow(
+                        sheetId,
+                        SubmissionStatus.valueOf(rs.getString("status")),
+                        toLocalDateTime(rs.getTimestamp("started_at")),
+                        toLocalDateTime(rs.getTimestamp("expires_at")),
+                        (Integer) rs.getObject("total_points")),
+                sheetId).stream().findFirst();
+    }
+
+    /**
+     * Lock sheet rows in ID order until the end of the transaction and return
+     * their answer layout. Every answer writer goes through here, so it never
+     * interleaves with a layout conversion of the same sheet.
+     */
+    static Map<UUID, AnswerStorage> lockStorage(JdbcTemplate jdbcTemplate, Collection<UUID> sheetIds) {
+        Map<UUID, AnswerStorage> storage = new HashMap<>();
+        UUID[] ids = sheetIds.stream().distinct().toArray(UUID[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, answer_storage FROM answer_sheets WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, rs -> {
+            storage.put(rs.getObject("id", UUID.class), AnswerStorage.valueOf(rs.getString("answer_storage")));
+        });
+        return storage;
+    }
+
+    /**
+     * Next page of expired in-progress sheets after the given keyset
+     * position, ordered by (expires_at, id). Pass nulls for the first page.
+     */
+    public List<SheetExpiry> findExpiredPage(LocalDateTime now, LocalDateTime afterExpiresAt, UUID afterId, int limit) {
+        RowMapper<SheetExpiry> mapper = (rs, rowNum) -> new SheetExpiry(
+                rs.getObject("id", UUID.class),
+                rs.getTimestamp("expires_at").toLocalDateTime());
+        if (afterExpiresAt == null) {
+            return jdbcTemplate.query(
+                    "SELECT id, expires_at FROM answer_sheets WHERE status = ? AND expires_at < ? " +
+                            "ORDER BY expires_at, id LIMIT ?",
+                    mapper, SubmissionStatus.IN_PROGRESS.name(), Timestamp.valueOf(now), limit);
+        }
+        return jdbcTemplate.query(
+                "SELECT id, expires_at FROM answer_sheets WHERE status = ? AND expires_at < ? " +
+                        "AND (expires_at, id) > (?, ?) ORDER BY expires_at, id LIMIT ?",
+                mapper, SubmissionStatus.IN_PROGRESS.name(), Timestamp.valueOf(now),
+                Timestamp.valueOf(afterExpiresAt), afterId, limit);
+    }
+
+    /**
+     * Find the expiry time of every sheet still in progress
+     */
+    public List<SheetExpiry> findInProgressExpiries() {
+        return jdbcTemplate.query(
+                "SELECT id, expires_at FROM answer_sheets WHERE status = ? AND expires_at IS NOT NULL",
+                (rs, rowNum) -> new SheetExpiry(
+                        rs.getObject("id", UUID.class),
+                        rs.getTimestamp("expires_at").toLocalDateTime()),
+                SubmissionStatus.IN_PROGRESS.name());
+    }
+
+    /**
+     * Find which of the given sheets are still in progress
+     */
+    public List<UUID> findInProgressIds(Collection<UUID> sheetIds) {
+        if (sheetIds.isEmpty()) {
+            return List.of();
+        }
+        UUID[] ids = sheetIds.toArray(new UUID[0]);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id FROM answer_sheets WHERE id = ANY(?) AND status = ?");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setString(2, SubmissionStatus.IN_PROGRESS.name());
+            return ps;
+        }, (rs, rowNum) -> rs.getObject("id", UUID.class));
+    }
+
+    /**
+     * Find which of the given sheets are no longer in progress
+     */
+    public List<UUID> findNotInProgressIds(Collection<UUID> sheetIds) {
+        if (sheetIds.isEmpty()) {
+            return List.of();
+        }
+        UUID[] ids = sheetIds.toArray(new UUID[0]);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id FROM answer_sheets WHERE id = ANY(?) AND status <> ?");
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setString(2, SubmissionStatus.IN_PROGRESS.name());
+            return ps;
+        }, (rs, rowNum) -> rs.getObject("id", UUID.class));
+    }
+
+    /**
+     * Submit and auto-grade the given sheets if they are still in progress.
+     * Rows locked by another node are skipped ({@code FOR UPDATE SKIP LOCKED})
+     * and the status change is conditional on IN_PROGRESS, so the sweeper
+     * never waits behind a sheet being saved or submitted elsewhere and a
+     * sheet is never graded twice. Must run inside a transaction.
+     *
+     * @return the number of sheets submitted
+     */
+    public int submitInProgress(Collection<UUID> sheetIds, LocalDateTime submittedAt) {
+        return submit(sheetIds, submittedAt, "FOR UPDATE SKIP LOCKED");
+    }
+
+    /**
+     * Submit and auto-grade one sheet for its student, waiting for any lock
+     * held on it (a save or an autosave flush) instead of skipping it. A
+     * sheet that is no longer in progress once the lock is acquired is left
+     * alone. Must run inside a transaction.
+     *
+     * @return 1 if the sheet was submitted, otherwise 0
+     */
+    public int submitWaiting(UUID sheetId, LocalDateTime submittedAt) {
+        return submit(List.of(sheetId), submittedAt, "FOR UPDATE");
+    }
+
+    private int submit(Collection<UUID> sheetIds, LocalDateTime submittedAt, String lockClause) {
+        if (sheetIds.isEmpty()) {
+            return 0;
+        }
+        UUID[] candidates = sheetIds.toArray(new UUID[0]);
+        Map<UUID, AnswerStorage> locked = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, answer_storage FROM answer_sheets WHERE id = ANY(?) AND status = ? " + lockClause);
+            ps.setArray(1, con.createArrayOf("uuid", candidates));
+            ps.setString(2, SubmissionStatus.IN_PROGRESS.name());
+            return ps;
+        }, rs -> {
+            locked.put(rs.getObject("id", UUID.class), AnswerStorage.valueOf(rs.getString("answer_storage")));
+        });
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        UUID[] ids = locked.keySet().toArray(new UUID[0]);
+
+        gradingJdbc.gradeObjectiveAnswers(ids, locked, SubmissionStatus.IN_PROGRESS, false, false);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets s SET status = ?, submitted_at = ?, version = s.version + 1, " +
+                            GradingJdbc.OBTAINED_POINTS + " WHERE s.id = ANY(?) AND s.status = ?");
+            ps.setString(1, SubmissionStatus.SUBMITTED.name());
+            ps.setTimestamp(2, Timestamp.valueOf(submittedAt));
+            ps.setArray(3, con.createArrayOf("uuid", ids));
+            ps.setString(4, SubmissionStatus.IN_PROGRESS.name());
+            return ps;
+        });
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Answer sheet columns needed by the start path
+     */
+    public record SheetRow(UUID id, SubmissionStatus status, LocalDateTime startedAt,
+            LocalDateTime expiresAt, Integer totalPoints) {
+    }
+
+    /**
+     * Expiry time of an in-progress sheet
+     */
+    public record SheetExpiry(UUID id, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Ownership and state of an answer sheet
+     */
+    public record SheetOwner(UUID id, UUID examId, UUID studentId, SubmissionStatus status,
+            LocalDateTime expiresAt) {
+    }
+}
@@ -23,10 +23,6 @@ public interface AnswerSheetRepository extends JpaRepository<AnswerSheet, UUID>
 
     List<AnswerSheet> findByExam_IdAndStatus(UUID examId, SubmissionStatus status);
 
-    @Query("SELECT a FROM AnswerSheet a WHERE a.exam.createdBy.id = :facultyId AND a.status = :status")
-    List<AnswerSheet> findByFacultyAndStatus(@Param("facultyId") UUID facultyId,
-            @Param("status") SubmissionStatus status);
-
     @Query("SELECT a FROM AnswerSheet a WHERE a.exam.createdBy.id = :facultyId")
     List<AnswerSheet> findByFaculty(@Param("facultyId") UUID facultyId);
 
@@ -0,0 +1,217 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.repository.AnswerSheetJdbc.SheetRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.coaching.platform.repository.AnswerSheetJdbc.toLocalDateTime;
+
+/**
+ * Plain JDBC access for the exam start path: starting a student's sheet and
+ * provisioning sheets ahead of the exam window, where hundreds of answer
+ * rows per sheet are written in JDBC batches instead of one cascaded entity
+ * insert each.
+ */
+@Repository
+@Slf4j
+public class AnswerSheetStartJdbc {
+
+    // Only a PROVISIONED sheet is rewritten; any other existing sheet makes
+    // RETURNING empty and is read back. xmax = 0 marks a fresh insert.
+    private static final String START_SHEET =
+            "INSERT INTO answer_sheets (id, exam_id, student_id, created_at, started_at, expires_at, status, total_points) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (exam_id, student_id) DO UPDATE SET " +
+            "status = EXCLUDED.status, started_at = EXCLUDED.started_at, expires_at = EXCLUDED.expires_at, " +
+            "version = answer_sheets.version + 1 " +
+            "WHERE answer_sheets.status = ? " +
+            "RETURNING id, status, started_at, expires_at, total_points, (xmax = 0) AS created";
+
+    private static final String FIND_SHEET =
+            "SELECT id, status, started_at, expires_at, total_points, false AS created FROM answer_sheets " +
+            "WHERE exam_id = ? AND student_id = ?";
+
+    private static final RowMapper<StartedSheet> STARTED_SHEET_MAPPER = (rs, rowNum) -> new StartedSheet(
+            new SheetRow(
+                    rs.getObject("id", UUID.class),
+                    SubmissionStatus.valueOf(rs.getString("status")),
+                    toLocalDateTime(rs.getTimestamp("started_at")),
+                    toLocalDateTime(rs.getTimestamp("expires_at")),
+                    (Integer) rs.getObject("total_points")),
+            rs.getBoolean("created"));
+
+    private static final String INSERT_ANSWER =
+            "INSERT INTO answers (id, answer_sheet_id, question_id, is_auto_graded) VALUES (?, ?, ?, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AnswerSheetStartJdbc(JdbcTemplate jdbcTemplate,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Atomically create the student's sheet, start a provisioned one, or
+     * return the existing one, relying on the (exam_id, student_id) unique
+     * constraint instead of a check-then-insert. A retried start of a sheet
+     * already started is answered from a plain read, so it neither rewrites
+     * nor locks the row; a conflicting insert waits for the other
+     * transaction and then reads its row.
+     */
+    public StartedSheet startSheet(UUID sheetId, UUID examId, UUID studentId,
+            LocalDateTime startedAt, LocalDateTime expiresAt, int totalPoints) {
+        Optional<StartedSheet> existing = findSheet(examId, studentId);
+        if (existing.isPresent() && existing.get().sheet().status() != SubmissionStatus.PROVISIONED) {
+            return existing.get();
+        }
+        return jdbcTemplate.query(START_SHEET, STARTED_SHEET_MAPPER,
+                        sheetId, examId, studentId, Timestamp.valueOf(LocalDateTime.now()),
+                        Timestamp.valueOf(startedAt), Timestamp.valueOf(expiresAt),
+                        SubmissionStatus.IN_PROGRESS.name(), totalPoints, SubmissionStatus.PROVISIONED.name())
+                .stream().findFirst()
+                .or(() -> findSheet(examId, studentId))
+                .orElseThrow(() -> new IllegalStateException("Answer sheet vanished while starting exam " + examId));
+    }
+
+    private Optional<StartedSheet> findSheet(UUID examId, UUID studentId) {
+        return jdbcTemplate.query(FIND_SHEET, STARTED_SHEET_MAPPER, examId, studentId).stream().findFirst();
+    }
+
+    /**
+     * Insert one empty answer row per question in JDBC batches
+     */
+    public List<AnswerSheetResponse.AnswerSlot> insertAnswers(UUID sheetId, List<UUID> questionIds) {
+        List<AnswerSheetResponse.AnswerSlot> slots = new ArrayList<>(questionIds.size());
+        for (UUID questionId : questionIds) {
+            slots.add(new AnswerSheetResponse.AnswerSlot(UUID.randomUUID(), questionId));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ANSWER, slots, batchSize, (ps, slot) -> {
+            ps.setObject(1, slot.getAnswerId());
+            ps.setObject(2, sheetId);
+            ps.setObject(3, slot.getQuestionId());
+        });
+        return slots;
+    }
+
+    /**
+     * Store an empty answer document with one entry per question on a sheet
+     * just created by {@link #startSheet}, instead of answer rows
+     */
+    public List<AnswerSheetResponse.AnswerSlot> insertAnswerDocument(UUID sheetId, List<UUID> questionIds) {
+        List<AnswerSheetResponse.AnswerSlot> slots = new ArrayList<>(questionIds.size());
+        for (UUID questionId : questionIds) {
+            slots.add(new AnswerSheetResponse.AnswerSlot(UUID.randomUUID(), questionId));
+        }
+        jdbcTemplate.update(
+                "UPDATE answer_sheets SET answer_storage = ?, answers_doc = d.doc, " +
+                        "answer_ids = ARRAY(SELECT jsonb_object_keys(d.doc)::uuid) " +
+                        "FROM (SELECT ?::jsonb AS doc) d WHERE id = ?",
+                AnswerStorage.DOCUMENT.name(), emptyDocument(slots), sheetId);
+        return slots;
+    }
+
+    /**
+     * Insert provisioned sheets and their answers for many students, as
+     * answer rows or as one document per sheet. Students who got a sheet in
+     * the meantime are skipped by the unique constraint; answer rows are
+     * written only for the sheets inserted here.
+     *
+     * @return the number of sheets inserted
+     */
+    public int insertProvisionedSheets(UUID examId, List<UUID> studentIds, List<UUID> questionIds, int totalPoints,
+            AnswerStorage storage) {
+        boolean document = storage == AnswerStorage.DOCUMENT;
+        UUID[] sheetIds = new UUID[studentIds.size()];
+        String[] documents = new String[studentIds.size()];
+        for (int i = 0; i < sheetIds.length; i++) {
+            sheetIds[i] = UUID.randomUUID();
+            if (document) {
+                documents[i] = emptyDocument(questionIds.stream()
+                        .map(questionId -> new AnswerSheetResponse.AnswerSlot(UUID.randomUUID(), questionId))
+                        .toList());
+            }
+        }
+        UUID[] students = studentIds.toArray(new UUID[0]);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<UUID> inserted = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO answer_sheets (id, exam_id, student_id, created_at, status, total_points, " +
+                            "answer_storage, answers_doc, answer_ids) " +
+                            "SELECT s.id, ?, s.student_id, ?, ?, ?, ?, s.doc::jsonb, " +
+                            "CASE WHEN s.doc IS NULL THEN NULL ELSE ARRAY(SELECT jsonb_object_keys(s.doc::jsonb)::uuid) END " +
+                            "FROM unnest(?::uuid[], ?::uuid[], ?::text[]) AS s(id, student_id, doc) " +
+                            "ON CONFLICT (exam_id, student_id) DO NOTHING RETURNING id");
+            ps.setObject(1, examId);
+            ps.setTimestamp(2, now);
+            ps.setString(3, SubmissionStatus.PROVISIONED.name());
+            ps.setInt(4, totalPoints);
+            ps.setString(5, storage.name());
+            ps.setArray(6, con.createArrayOf("uuid", sheetIds));
+            ps.setArray(7, con.createArrayOf("uuid", students));
+            ps.setArray(8, con.createArrayOf("text", documents));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject("id", UUID.class));
+        if (document) {
+            log.debug("Provisioned {} document sheets for exam {}", inserted.size(), examId);
+            return inserted.size();
+        }
+
+        List<UUID[]> answerRows = new ArrayList<>(inserted.size() * questionIds.size());
+        for (UUID sheetId : inserted) {
+            for (UUID questionId : questionIds) {
+                answerRows.add(new UUID[] { UUID.randomUUID(), sheetId, questionId });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ANSWER, answerRows, batchSize, (ps, row) -> {
+            ps.setObject(1, row[0]);
+            ps.setObject(2, row[1]);
+            ps.setObject(3, row[2]);
+        });
+        log.debug("Provisioned {} sheets ({} answers) for exam {}", inserted.size(), answerRows.size(), examId);
+        return inserted.size();
+    }
+
+    /**
+     * Find students that already have a sheet for an exam
+     */
+    public List<UUID> findStudentIdsWithSheet(UUID examId) {
+        return jdbcTemplate.queryForList(
+                "SELECT student_id FROM answer_sheets WHERE exam_id = ?", UUID.class, examId);
+    }
+
+    private static String emptyDocument(List<AnswerSheetResponse.AnswerSlot> slots) {
+        StringBuilder json = new StringBuilder(slots.size() * 72).append('{');
+        for (AnswerSheetResponse.AnswerSlot slot : slots) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(slot.getAnswerId()).append("\":{\"questionId\":\"")
+                    .append(slot.getQuestionId()).append("\"}");
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Result of {@link #startSheet}; {@code created} is true when the row was
+     * inserted by this call and still needs its answer rows
+     */
+    public record StartedSheet(SheetRow sheet, boolean created) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.coaching.platform.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates the unique index on answer_sheets (exam_id, student_id) that
+ * exam start relies on for {@code ON CONFLICT (exam_id, student_id)}.
+ * Duplicate sheets left by the old check-then-insert start path are
+ * removed first, keeping the most advanced sheet of each pair. Runs once
+ * Hibernate has created the table and before the application serves
+ * requests. Any failure aborts startup, because without the index no
+ * student can start an exam.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class AnswerSheetUniquenessMigration {
+
+    static final String INDEX = "uk_answer_sheets_exam_student";
+
+    // Keep the most advanced sheet of each pair, then the earliest started
+    private static final String FIND_DUPLICATES =
+            "SELECT id FROM (SELECT id, row_number() OVER (PARTITION BY exam_id, student_id ORDER BY " +
+            "CASE status WHEN 'GRADED' THEN 0 WHEN 'SUBMITTED' THEN 1 WHEN 'IN_PROGRESS' THEN 2 ELSE 3 END, " +
+            "started_at NULLS LAST, created_at, id) AS rank FROM answer_sheets) r WHERE r.rank > 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AnswerSheetUniquenessMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void apply() {
+        if (indexExists()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Blocks concurrent sheet writes so no new duplicate appears before the index does
+                jdbcTemplate.execute("LOCK TABLE answer_sheets IN SHARE ROW EXCLUSIVE MODE");
+                if (indexExists()) {
+                    return;
+                }
+                List<UUID> duplicates = jdbcTemplate.queryForList(FIND_DUPLICATES, UUID.class);
+                if (!duplicates.isEmpty()) {
+                    log.warn("Removing {} duplicate answer sheets before creating {}: {}",
+                            duplicates.size(), INDEX, duplicates);
+                    deleteSheets(duplicates);
+                }
+                jdbcTemplate.execute("CREATE UNIQUE INDEX " + INDEX + " ON answer_sheets (exam_id, student_id)");
+            });
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to create unique index " + INDEX +
+                    " on answer_sheets (exam_id, student_id); exam start cannot work without it", e);
+        }
+        log.info("Created unique index {}", INDEX);
+    }
+
+    private boolean indexExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "WHERE c.relname = ? AND i.indisunique", Integer.class, INDEX);
+        return count != null && count > 0;
+    }
+
+    private void deleteSheets(List<UUID> sheetIds) {
+        for (String sql : List.of(
+                "DELETE FROM answer_images WHERE answer_id IN (SELECT id FROM answers WHERE answer_sheet_id = ANY(?))",
+                "DELETE FROM answers WHERE answer_sheet_id = ANY(?)",
+                "DELETE FROM answer_sheets WHERE id = ANY(?)")) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setArray(1, con.createArrayOf("uuid", sheetIds.toArray()));
+                return ps;
+            });
+        }
+    }
+}
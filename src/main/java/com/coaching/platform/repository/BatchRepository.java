@@ -3,6 +3,8 @@ package com.coaching.platform.repository;
 import com.coaching.platform.entity.Batch;
 import com.coaching.platform.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +20,7 @@ public interface BatchRepository extends JpaRepository<Batch, UUID> {
     List<Batch> findByFacultyContaining(User faculty);
 
     List<Batch> findByOrganization_OrgId(UUID orgId);
+
+    @Query("SELECT s.id FROM Batch b JOIN b.students s WHERE b.id = :batchId")
+    List<UUID> findStudentIds(@Param("batchId") UUID batchId);
 }
@@ -0,0 +1,181 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.dto.AnswerSheetSummary;
+import com.coaching.platform.enums.SubmissionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.coaching.platform.repository.AnswerSheetJdbc.toLocalDateTime;
+
+/**
+ * Plain JDBC access to the faculty evaluation queue: keyset pages of
+ * submitted sheets as summaries, and the grading leases that hand those
+ * sheets out to evaluators.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EvaluationQueueJdbc {
+
+    private static final String SUMMARY_SELECT =
+            "SELECT s.id, s.exam_id, e.title, s.student_id, u.first_name, u.last_name, u.email, " +
+            "s.submitted_at, s.status, s.total_points, s.obtained_points " +
+            "FROM answer_sheets s JOIN exams e ON e.id = s.exam_id JOIN users u ON u.id = s.student_id";
+
+    private static final RowMapper<AnswerSheetSummary> SUMMARY_MAPPER = (rs, rowNum) -> AnswerSheetSummary.builder()
+            .id(rs.getObject("id", UUID.class))
+            .examId(rs.getObject("exam_id", UUID.class))
+            .examTitle(rs.getString("title"))
+            .studentId(rs.getObject("student_id", UUID.class))
+            .studentName(rs.getString("first_name") + " " + rs.getString("last_name"))
+            .studentEmail(rs.getString("email"))
+            .submittedAt(toLocalDateTime(rs.getTimestamp("submitted_at")))
+            .status(SubmissionStatus.valueOf(rs.getString("status")))
+            .totalPoints((Integer) rs.getObject("total_points"))
+            .obtainedPoints((Integer) rs.getObject("obtained_points"))
+            .build();
+
+    // A lease is free when never taken, released, or past its expiry
+    private static final String LEASE_FREE =
+            "(s.grading_lease_expires_at IS NULL OR s.grading_lease_expires_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Next page of a faculty member's evaluation queue: submitted sheets of
+     * their exams, oldest submission first, as summaries joined in one
+     * statement. Pass nulls for the first page.
+     */
+    public List<AnswerSheetSummary> findEvaluationQueuePage(UUID facultyId, QueueFilter filter,
+            LocalDateTime afterSubmittedAt, UUID afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SUMMARY_SELECT).append(" WHERE ");
+        appendQueueFilter(sql, args, facultyId, filter);
+        if (afterSubmittedAt != null) {
+            sql.append(" AND (s.submitted_at, s.id) > (?, ?)");
+            args.add(Timestamp.valueOf(afterSubmittedAt));
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY s.submitted_at, s.id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), SUMMARY_MAPPER, args.toArray());
+    }
+
+    /**
+     * Count the sheets of a faculty member's evaluation queue, from the
+     * queue index alone
+     */
+    public long countEvaluationQueue(UUID facultyId, QueueFilter filter) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT count(*) FROM answer_sheets s WHERE ");
+        appendQueueFilter(sql, args, facultyId, filter);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    // Restricting exam_id to the faculty's exams keeps both queries on idx_answer_sheets_queue
+    private static void appendQueueFilter(StringBuilder sql, List<Object> args, UUID facultyId, QueueFilter filter) {
+        sql.append("s.exam_id IN (SELECT x.id FROM exams x WHERE x.created_by_id = ?");
+        args.add(facultyId);
+        if (filter.examId() != null) {
+            sql.append(" AND x.id = ?");
+            args.add(filter.examId());
+        }
+        if (filter.batchId() != null) {
+            sql.append(" AND x.batch_id = ?");
+            args.add(filter.batchId());
+        }
+        sql.append(") AND s.status = ?");
+        args.add(SubmissionStatus.SUBMITTED.name());
+        if (filter.submittedAfter() != null) {
+            sql.append(" AND s.submitted_at >= ?");
+            args.add(Timestamp.valueOf(filter.submittedAfter()));
+        }
+    }
+
+    /**
+     * Lease up to {@code limit} of an exam's submitted sheets whose grading
+     * lease is free to one evaluator, oldest submission first, in one
+     * statement. Rows being claimed by a concurrent call are skipped
+     * ({@code FOR UPDATE SKIP LOCKED}) rather than waited on, so concurrent
+     * evaluators never receive the same sheet.
+     *
+     * @return the claimed sheets, oldest submission first
+     */
+    public List<AnswerSheetSummary> claimForGrading(UUID examId, UUID facultyId, LocalDateTime now,
+            LocalDateTime leaseUntil, int limit) {
+        List<UUID> claimed = jdbcTemplate.queryForList(
+                "UPDATE answer_sheets t SET grading_lease_holder = ?, grading_lease_expires_at = ? " +
+                        "FROM (SELECT s.id FROM answer_sheets s WHERE s.exam_id = ? AND s.status = ? AND " + LEASE_FREE + " " +
+                        "ORDER BY s.submitted_at, s.id LIMIT ? FOR UPDATE SKIP LOCKED) c " +
+                        "WHERE t.id = c.id RETURNING t.id",
+                UUID.class, facultyId, Timestamp.valueOf(leaseUntil), examId, SubmissionStatus.SUBMITTED.name(),
+                Timestamp.valueOf(now), limit);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SUMMARY_SELECT + " WHERE s.id = ANY(?) ORDER BY s.submitted_at, s.id");
+            ps.setArray(1, con.createArrayOf("uuid", claimed.toArray()));
+            return ps;
+        }, SUMMARY_MAPPER);
+    }
+
+    /**
+     * The sheets a claim on the exam would hand out next, without leasing
+     * them, so a client can prefetch them
+     */
+    public List<AnswerSheetSummary> peekGradingPool(UUID examId, LocalDateTime now, int limit) {
+        return jdbcTemplate.query(SUMMARY_SELECT + " WHERE s.exam_id = ? AND s.status = ? AND " + LEASE_FREE + " " +
+                        "ORDER BY s.submitted_at, s.id LIMIT ?",
+                SUMMARY_MAPPER, examId, SubmissionStatus.SUBMITTED.name(), Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Extend the evaluator's leases on still-submitted sheets. A lease that
+     * expired but was not claimed by anyone else is still renewed.
+     *
+     * @return the sheets whose lease was extended
+     */
+    public List<UUID> renewGradingLeases(UUID facultyId, Collection<UUID> sheetIds, LocalDateTime leaseUntil) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets SET grading_lease_expires_at = ? " +
+                            "WHERE id = ANY(?) AND grading_lease_holder = ? AND status = ? RETURNING id");
+            ps.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+            ps.setArray(2, con.createArrayOf("uuid", sheetIds.toArray()));
+            ps.setObject(3, facultyId);
+            ps.setString(4, SubmissionStatus.SUBMITTED.name());
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    /**
+     * Return the evaluator's leases on the given sheets to the pool
+     */
+    public int releaseGradingLeases(UUID facultyId, Collection<UUID> sheetIds) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE answer_sheets SET grading_lease_holder = NULL, grading_lease_expires_at = NULL " +
+                            "WHERE id = ANY(?) AND grading_lease_holder = ?");
+            ps.setArray(1, con.createArrayOf("uuid", sheetIds.toArray()));
+            ps.setObject(2, facultyId);
+            return ps;
+        });
+    }
+
+    /**
+     * Optional evaluation queue filters; null fields are not applied
+     */
+    public record QueueFilter(UUID examId, UUID batchId, LocalDateTime submittedAfter) {
+    }
+}
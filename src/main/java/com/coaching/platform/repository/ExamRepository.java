@@ -3,9 +3,12 @@ package com.coaching.platform.repository;
 import com.coaching.platform.entity.Exam;
 import com.coaching.platform.enums.ExamStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -20,4 +23,7 @@ public interface ExamRepository extends JpaRepository<Exam, UUID> {
     List<Exam> findByBatchAndStatus(com.coaching.platform.entity.Batch batch, ExamStatus status);
 
     List<Exam> findByOrganization_OrgId(UUID orgId);
+
+    @Query("SELECT e.paperVersion FROM Exam e WHERE e.id = :id")
+    Optional<Long> findPaperVersion(@Param("id") UUID id);
 }
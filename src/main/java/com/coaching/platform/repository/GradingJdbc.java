@@ -0,0 +1,341 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.grading.AnswerKeySource;
+import com.coaching.platform.grading.GradedAnswers;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access for grading answer sheets: auto-grading objective
+ * answers against the compiled answer keys, evaluator grades, the GRADED
+ * transition and the ID-range paging used by bulk grading jobs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradingJdbc {
+
+    // Recomputes a sheet (aliased s) from its answers in either layout
+    static final String OBTAINED_POINTS =
+            "obtained_points = CASE WHEN s.answer_storage = 'DOCUMENT' " +
+            "THEN (SELECT COALESCE(SUM((e.value ->> 'pointsAwarded')::int), 0) FROM jsonb_each(s.answers_doc) e) " +
+            "ELSE (SELECT COALESCE(SUM(a.points_awarded), 0) FROM answers a WHERE a.answer_sheet_id = s.id) END";
+
+    private static final String DOC_PENDING = "NOT COALESCE((e.value ->> 'autoGraded')::boolean, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnswerKeySource answerKeys;
+
+    /**
+     * Re-grade the objective answers of an already submitted sheet and
+     * recompute its obtained points, e.g. after late offline answers
+     * arrived. Must run inside a transaction holding the sheet lock.
+     */
+    public void regradeSubmitted(UUID sheetId) {
+        UUID[] ids = { sheetId };
+        gradeObjectiveAnswers(ids, AnswerSheetJdbc.lockStorage(jdbcTemplate, List.of(sheetId)), SubmissionStatus.SUBMITTED, false, false);
+        jdbcTemplate.update(
+                "UPDATE answer_sheets s SET version = s.version + 1, " + OBTAINED_POINTS + " " +
+                        "WHERE s.id = ? AND s.status = ?",
+                sheetId, SubmissionStatus.SUBMITTED.name());
+    }
+
+    /**
+     * Auto-grade the objective answers of a submitted sheet that are not
+     * graded yet. Answers graded concurrently, and sheets no longer in
+     * SUBMITTED, are left alone.
+     *
+     * @return the number of answers graded
+     */
+    public int autoGradePending(UUID sheetId) {
+        return gradeObjectiveAnswers(new UUID[] { sheetId }, AnswerSheetJdbc.lockStorage(jdbcTemplate, List.of(sheetId)),
+                SubmissionStatus.SUBMITTED, true, true).answers();
+    }
+
+    /**
+     * Bulk-grade submitted sheets: auto-grade their objective answers (all of
+     * them with {@code regrade}, otherwise only ungraded ones) and recompute
+     * the obtained points of the sheets that changed. Must run inside a
+     * transaction.
+     *
+     * @return the number of answers graded
+     */
+    public int gradeSubmittedSheets(Collection<UUID> sheetIds, boolean regrade) {
+        Map<UUID, AnswerStorage> storage = AnswerSheetJdbc.lockStorage(jdbcTemplate, sheetIds);
+        Grading grading = gradeObjectiveAnswers(storage.keySet().toArray(new UUID[0]), storage,
+                SubmissionStatus.SUBMITTED, !regrade, false);
+        if (!grading.sheetIds().isEmpty()) {
+            UUID[] changed = grading.sheetIds().toArray(new UUID[0]);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "UPDATE answer_sheets s SET version = s.version + 1, " + OBTAINED_POINTS + " " +
+                                "WHERE s.id = ANY(?) AND s.status = ?");
+                ps.setArray(1, con.createArrayOf("uuid", changed));
+                ps.setString(2, SubmissionStatus.SUBMITTED.name());
+                return ps;
+            });
+        }
+        return grading.answers();
+    }
+
+    /**
+     * Count an exam's sheets in the given status
+     */
+    public int countSheets(UUID examId, SubmissionStatus status) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM answer_sheets WHERE exam_id = ? AND status = ?",
+                Integer.class, examId, status.name());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * First sheet ID of every run of {@code step} sheets of an exam in the
+     * given status, in ID order; consecutive starts bound ID-range partitions
+     */
+    public List<UUID> findRangeStarts(UUID examId, SubmissionStatus status, int step) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM answer_sheets " +
+                        "WHERE exam_id = ? AND status = ?) t WHERE rn % ? = 1 ORDER BY id",
+                UUID.class, examId, status.name(), step);
+    }
+
+    /**
+     * Next page of an exam's sheet IDs in the given status within
+     * [{@code fromId}, {@code toId}), after {@code afterId} when set. A null
+     * {@code toId} leaves the range open.
+     */
+    public List<UUID> findSheetIdsInRange(UUID examId, SubmissionStatus status, UUID fromId, UUID toId,
+            UUID afterId, int limit) {
+        List<Object> args = new ArrayList<>(List.of(examId, status.name()));
+        StringBuilder sql = new StringBuilder("SELECT id FROM answer_sheets WHERE exam_id = ? AND status = ?");
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        } else {
+            sql.append(" AND id >= ?");
+            args.add(fromId);
+        }
+        if (toId != null) {
+            sql.append(" AND id < ?");
+            args.add(toId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+    }
+
+    /**
+     * Move a fully graded, submitted sheet to GRADED and total its points,
+     * in one conditional update
+     *
+     * @return the sheet's obtained points if this call graded it; empty if
+     *         it was not submitted or still has ungraded answers
+     */
+    public Optional<Integer> markGraded(UUID sheetId, LocalDateTime gradedAt) {
+        return jdbcTemplate.query(
+                "UPDATE answer_sheets s SET status = ?, graded_at = ?, version = s.version + 1, " +
+                        "grading_lease_holder = NULL, grading_lease_expires_at = NULL, " + OBTAINED_POINTS + " " +
+                        "WHERE s.id = ? AND s.status = ? " +
+                        "AND NOT EXISTS (SELECT 1 FROM answers a WHERE a.answer_sheet_id = s.id AND a.points_awarded IS NULL) " +
+                        "AND NOT EXISTS (SELECT 1 FROM jsonb_each(s.answers_doc) e WHERE e.value ->> 'pointsAwarded' IS NULL) " +
+                        "RETURNING s.obtained_points",
+                (rs, rowNum) -> rs.getInt(1),
+                SubmissionStatus.GRADED.name(), Timestamp.valueOf(gradedAt), sheetId, SubmissionStatus.SUBMITTED.name())
+                .stream().findFirst();
+    }
+
+    /**
+     * Lock a sheet row for the rest of the transaction and return what a
+     * grader needs to check: the exam owner, the status and the layout
+     */
+    public Optional<GradingTarget> lockForGrading(UUID sheetId) {
+        return jdbcTemplate.query(
+                "SELECT e.created_by_id, s.status, s.answer_storage " +
+                        "FROM answer_sheets s JOIN exams e ON e.id = s.exam_id WHERE s.id = ? FOR NO KEY UPDATE OF s",
+                (rs, rowNum) -> new GradingTarget(
+                        sheetId,
+                        rs.getObject("created_by_id", UUID.class),
+                        SubmissionStatus.valueOf(rs.getString("status")),
+                        AnswerStorage.valueOf(rs.getString("answer_storage"))),
+                sheetId).stream().findFirst();
+    }
+
+    /**
+     * Set points and feedback on many answers of a sheet locked with
+     * {@link #lockForGrading} in one statement, and move the sheet's
+     * obtained points by the difference to the answers' previous points.
+     * Answer IDs must be distinct.
+     *
+     * @return the answers graded and the sheet's new obtained points
+     */
+    public AppliedGrades applyGrades(GradingTarget sheet, UUID[] answerIds, Integer[] points, String[] feedback) {
+        String sql = sheet.storage() == AnswerStorage.DOCUMENT
+                ? "UPDATE answer_sheets s SET version = s.version + 1, answers_doc = s.answers_doc || u.entries, " +
+                        "obtained_points = COALESCE(s.obtained_points, 0) + u.delta " +
+                        "FROM (SELECT jsonb_object_agg(g.id::text, (d.answers_doc -> g.id::text) || " +
+                        "jsonb_build_object('pointsAwarded', g.points, 'feedback', g.feedback, " +
+                        "'version', COALESCE((d.answers_doc -> g.id::text ->> 'version')::bigint, 0) + 1)) AS entries, " +
+                        "SUM(g.points - COALESCE((d.answers_doc -> g.id::text ->> 'pointsAwarded')::int, 0)) AS delta, " +
+                        "count(*) AS applied " +
+                        "FROM answer_sheets d, unnest(?::uuid[], ?::int[], ?::text[]) AS g(id, points, feedback) " +
+                        "WHERE d.id = ? AND d.answers_doc -> g.id::text IS NOT NULL) u " +
+                        "WHERE s.id = ? AND u.applied > 0 RETURNING u.applied, s.obtained_points"
+                // The FROM copy of answers reads the points as they were before this update
+                : "WITH u AS (UPDATE answers a SET points_awarded = g.points, feedback = g.feedback, " +
+                        "version = a.version + 1 " +
+                        "FROM unnest(?::uuid[], ?::int[], ?::text[]) AS g(id, points, feedback), answers o " +
+                        "WHERE a.id = g.id AND o.id = g.id AND a.answer_sheet_id = ? " +
+                        "RETURNING g.points - COALESCE(o.points_awarded, 0) AS delta) " +
+                        "UPDATE answer_sheets s SET version = s.version + 1, " +
+                        "obtained_points = COALESCE(s.obtained_points, 0) + (SELECT COALESCE(SUM(delta), 0) FROM u) " +
+                        "WHERE s.id = ? RETURNING (SELECT count(*) FROM u), s.obtained_points";
+        AppliedGrades applied = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", answerIds));
+            ps.setArray(2, con.createArrayOf("int4", points));
+            ps.setArray(3, con.createArrayOf("text", feedback));
+            ps.setObject(4, sheet.id());
+            ps.setObject(5, sheet.id());
+            return ps;
+        }, rs -> rs.next() ? new AppliedGrades(rs.getInt(1), (Integer) rs.getObject(2)) : null);
+        return applied != null ? applied : new AppliedGrades(0, null);
+    }
+
+    /**
+     * Grade one document answer by setting its points and feedback in place;
+     * only submitted or graded sheets are touched
+     *
+     * @return 1 if the answer was found in such a document, otherwise 0
+     */
+    public int gradeDocumentAnswer(UUID answerId, int points, String feedback) {
+        return jdbcTemplate.update(
+                "UPDATE answer_sheets s SET version = s.version + 1, answers_doc = jsonb_set(s.answers_doc, ARRAY[?::text], " +
+                        "(s.answers_doc -> ?::text) || jsonb_build_object('pointsAwarded', ?::int, 'feedback', ?::text, " +
+                        "'version', COALESCE((s.answers_doc -> ?::text ->> 'version')::bigint, 0) + 1)) " +
+                        "WHERE s.answer_ids @> ARRAY[?::uuid] AND s.answer_storage = 'DOCUMENT' " +
+                        "AND s.status IN ('" + SubmissionStatus.SUBMITTED.name() + "', '" + SubmissionStatus.GRADED.name() + "')",
+                answerId, answerId, points, feedback, answerId, answerId);
+    }
+
+    /**
+     * Grade the objective answers of locked sheets in the given status
+     * against their exams' compiled answer keys and write the grades back in
+     * one statement per layout. Only the sheets' answer selections are read;
+     * questions and options are not. With {@code pendingOnly}, answers
+     * already auto-graded are skipped. Document sheets get their version
+     * bumped here only with {@code bumpDocumentVersion}; otherwise the caller
+     * bumps it with its status or points update.
+     */
+    Grading gradeObjectiveAnswers(UUID[] sheetIds, Map<UUID, AnswerStorage> storage,
+            SubmissionStatus status, boolean pendingOnly, boolean bumpDocumentVersion) {
+        UUID[] rowSheets = Arrays.stream(sheetIds)
+                .filter(id -> storage.get(id) == AnswerStorage.ROWS)
+                .toArray(UUID[]::new);
+        UUID[] documentSheets = Arrays.stream(sheetIds)
+                .filter(id -> storage.get(id) == AnswerStorage.DOCUMENT)
+                .toArray(UUID[]::new);
+        if (rowSheets.length == 0 && documentSheets.length == 0) {
+            return new Grading(0, Set.of());
+        }
+
+        GradedAnswers rows = new GradedAnswers();
+        GradedAnswers documents = new GradedAnswers();
+        Map<UUID, AnswerKey> keys = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT s.exam_id, s.id, a.id, a.question_id, a.selected_option_id " +
+                            "FROM answer_sheets s JOIN answers a ON a.answer_sheet_id = s.id " +
+                            "WHERE s.id = ANY(?) AND s.status = ?" + (pendingOnly ? " AND NOT a.is_auto_graded" : "") + " " +
+                            "UNION ALL " +
+                            "SELECT s.exam_id, s.id, e.key::uuid, (e.value ->> 'questionId')::uuid, " +
+                            "(e.value ->> 'selectedOptionId')::uuid " +
+                            "FROM answer_sheets s CROSS JOIN LATERAL jsonb_each(s.answers_doc) e " +
+                            "WHERE s.id = ANY(?) AND s.status = ? AND s.answer_storage = 'DOCUMENT'" +
+                            (pendingOnly ? " AND " + DOC_PENDING : ""));
+            ps.setArray(1, con.createArrayOf("uuid", rowSheets));
+            ps.setString(2, status.name());
+            ps.setArray(3, con.createArrayOf("uuid", documentSheets));
+            ps.setString(4, status.name());
+            return ps;
+        }, rs -> {
+            UUID sheetId = rs.getObject(2, UUID.class);
+            AnswerKey key = keys.computeIfAbsent(rs.getObject(1, UUID.class), answerKeys::answerKey);
+            key.grade(sheetId, rs.getObject(3, UUID.class), rs.getObject(4, UUID.class), rs.getObject(5, UUID.class),
+                    storage.get(sheetId) == AnswerStorage.DOCUMENT ? documents : rows);
+        });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "UPDATE answers a SET points_awarded = g.points, " +
+                                "feedback = CASE WHEN g.correct THEN 'Correct answer' ELSE 'Incorrect answer' END, " +
+                                "is_auto_graded = true, version = a.version + 1 " +
+                                "FROM unnest(?::uuid[], ?::int[], ?::boolean[]) AS g(id, points, correct) " +
+                                "WHERE a.id = g.id");
+                ps.setArray(1, con.createArrayOf("uuid", rows.answerIds()));
+                ps.setArray(2, con.createArrayOf("int4", rows.points()));
+                ps.setArray(3, con.createArrayOf("bool", rows.correct()));
+                return ps;
+            });
+        }
+        if (!documents.isEmpty()) {
+            UUID[] graded = Arrays.stream(documents.sheetIds()).distinct().toArray(UUID[]::new);
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "UPDATE answer_sheets s SET " + (bumpDocumentVersion ? "version = s.version + 1, " : "") +
+                                "answers_doc = s.answers_doc || (SELECT jsonb_object_agg(g.id::text, " +
+                                "(s.answers_doc -> g.id::text) || jsonb_build_object('pointsAwarded', g.points, " +
+                                "'feedback', CASE WHEN g.correct THEN 'Correct answer' ELSE 'Incorrect answer' END, " +
+                                "'autoGraded', true, " +
+                                "'version', COALESCE((s.answers_doc -> g.id::text ->> 'version')::bigint, 0) + 1)) " +
+                                "FROM unnest(?::uuid[], ?::uuid[], ?::int[], ?::boolean[]) AS g(sheet_id, id, points, correct) " +
+                                "WHERE g.sheet_id = s.id) " +
+                                "WHERE s.id = ANY(?)");
+                ps.setArray(1, con.createArrayOf("uuid", documents.sheetIds()));
+                ps.setArray(2, con.createArrayOf("uuid", documents.answerIds()));
+                ps.setArray(3, con.createArrayOf("int4", documents.points()));
+                ps.setArray(4, con.createArrayOf("bool", documents.correct()));
+                ps.setArray(5, con.createArrayOf("uuid", graded));
+                return ps;
+            });
+        }
+        Set<UUID> graded = new HashSet<>(Arrays.asList(rows.sheetIds()));
+        graded.addAll(Arrays.asList(documents.sheetIds()));
+        return new Grading(rows.size() + documents.size(), graded);
+    }
+
+    /**
+     * A sheet locked for grading, with the faculty member who owns its exam
+     */
+    public record GradingTarget(UUID id, UUID examOwnerId, SubmissionStatus status, AnswerStorage storage) {
+    }
+
+    /**
+     * Result of {@link #applyGrades}
+     */
+    public record AppliedGrades(int answers, Integer obtainedPoints) {
+    }
+
+    /**
+     * Answers graded by one grading pass and the sheets they belong to
+     */
+    record Grading(int answers, Set<UUID> sheetIds) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.entity.GradingJobPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GradingJobPartitionRepository extends JpaRepository<GradingJobPartition, UUID> {
+
+    List<GradingJobPartition> findByJob_IdOrderByPartitionNumber(UUID jobId);
+
+    /**
+     * Record a graded chunk if the partition is still at {@code expected}
+     * and the job still belongs to the given run; 0 means the chunk must be
+     * rolled back
+     */
+    @Modifying
+    @Query("UPDATE GradingJobPartition p SET p.lastSheetId = :last, " +
+            "p.sheetsGraded = p.sheetsGraded + :sheets, p.answersGraded = p.answersGraded + :answers " +
+            "WHERE p.id = :id AND (p.lastSheetId = :expected OR (p.lastSheetId IS NULL AND :first = true)) " +
+            "AND p.job.id IN (SELECT j.id FROM GradingJob j WHERE j.runToken = :token)")
+    int advance(@Param("id") UUID id, @Param("token") UUID token, @Param("expected") UUID expected,
+            @Param("first") boolean first, @Param("last") UUID last, @Param("sheets") int sheets,
+            @Param("answers") int answers);
+
+    @Modifying
+    @Query("UPDATE GradingJobPartition p SET p.completed = true WHERE p.id = :id " +
+            "AND p.job.id IN (SELECT j.id FROM GradingJob j WHERE j.runToken = :token)")
+    int complete(@Param("id") UUID id, @Param("token") UUID token);
+}
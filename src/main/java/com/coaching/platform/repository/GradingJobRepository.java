@@ -0,0 +1,50 @@
+package com.coaching.platform.repository;
+
+import com.coaching.platform.entity.GradingJob;
+import com.coaching.platform.enums.GradingJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface GradingJobRepository extends JpaRepository<GradingJob, UUID> {
+
+    Optional<GradingJob> findFirstByExam_IdOrderByCreatedAtDesc(UUID examId);
+
+    @Query("SELECT j.id FROM GradingJob j WHERE j.status = :status " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)")
+    List<UUID> findStale(@Param("status") GradingJobStatus status,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Take over a failed job or a running one whose heartbeat went stale,
+     * under a new run token; at most one caller wins
+     */
+    @Modifying
+    @Query("UPDATE GradingJob j SET j.status = :running, j.runToken = :token, j.heartbeatAt = :now, " +
+            "j.runStartedAt = :now, j.runStartSheets = :sheetsGraded, j.error = NULL, j.finishedAt = NULL " +
+            "WHERE j.id = :id AND (j.status = :failed " +
+            "OR (j.status = :running AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") UUID id, @Param("token") UUID token, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore, @Param("sheetsGraded") int sheetsGraded,
+            @Param("running") GradingJobStatus running, @Param("failed") GradingJobStatus failed);
+
+    @Modifying
+    @Query("UPDATE GradingJob j SET j.heartbeatAt = :now WHERE j.id = :id AND j.runToken = :token AND j.status = :status")
+    int heartbeat(@Param("id") UUID id, @Param("token") UUID token, @Param("now") LocalDateTime now,
+            @Param("status") GradingJobStatus status);
+
+    @Modifying
+    @Query("UPDATE GradingJob j SET j.status = :status, j.finishedAt = :now, j.error = :error " +
+            "WHERE j.id = :id AND j.runToken = :token AND j.status = :running")
+    int finish(@Param("id") UUID id, @Param("token") UUID token, @Param("status") GradingJobStatus status,
+            @Param("now") LocalDateTime now, @Param("error") String error,
+            @Param("running") GradingJobStatus running);
+}
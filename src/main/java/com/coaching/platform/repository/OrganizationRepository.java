@@ -3,6 +3,8 @@ package com.coaching.platform.repository;
 import com.coaching.platform.entity.Organization;
 import com.coaching.platform.enums.OrganizationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -35,6 +37,14 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
      */
     Optional<Organization> findByAdminContact_Id(UUID adminUserId);
 
+    /**
+     * Find only the fields needed to authorize org-admin requests,
+     * without loading the admin user
+     */
+    @Query("SELECT o.status AS status, a.id AS adminId FROM Organization o " +
+            "LEFT JOIN o.adminContact a WHERE o.orgId = :orgId")
+    Optional<AccessView> findAccessViewById(@Param("orgId") UUID orgId);
+
     /**
      * Find all active organizations
      */
@@ -48,4 +58,13 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
     default List<Organization> findAllSuspended() {
         return findByStatus(OrganizationStatus.SUSPENDED);
     }
+
+    /**
+     * Projection of an organization's status and admin user ID
+     */
+    interface AccessView {
+        OrganizationStatus getStatus();
+
+        UUID getAdminId();
+    }
 }
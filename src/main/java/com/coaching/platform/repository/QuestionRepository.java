@@ -2,6 +2,8 @@ package com.coaching.platform.repository;
 
 import com.coaching.platform.entity.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,11 @@ public interface QuestionRepository extends JpaRepository<Question, UUID> {
     List<Question> findByExam_IdOrderByOrderNumberAsc(UUID examId);
 
     void deleteByExam_Id(UUID examId);
+
+    /**
+     * Load all questions of an exam with their options in one query
+     */
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options " +
+            "WHERE q.exam.id = :examId ORDER BY q.orderNumber")
+    List<Question> findWithOptionsByExamId(@Param("examId") UUID examId);
 }
@@ -0,0 +1,48 @@
+package com.coaching.platform.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Idempotent DDL that {@code ddl-auto: update} cannot apply on its own,
+ * run once at startup
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaMaintenance {
+
+    private static final List<String> STATEMENTS = List.of(
+            // Hibernate creates an enum check constraint once and never widens it
+            "ALTER TABLE answer_sheets DROP CONSTRAINT IF EXISTS answer_sheets_status_check",
+            // Document-layout answers stay unmapped so entity loads never pull the document
+            "ALTER TABLE answer_sheets ADD COLUMN IF NOT EXISTS answers_doc jsonb",
+            "ALTER TABLE answer_sheets ADD COLUMN IF NOT EXISTS answer_ids uuid[]",
+            "CREATE INDEX IF NOT EXISTS idx_answer_sheets_answer_ids ON answer_sheets USING gin (answer_ids)",
+            // Grading leases stay unmapped so entity saves never overwrite a concurrent claim
+            "ALTER TABLE answer_sheets ADD COLUMN IF NOT EXISTS grading_lease_holder uuid",
+            "ALTER TABLE answer_sheets ADD COLUMN IF NOT EXISTS grading_lease_expires_at timestamp",
+            // At most one unfinished bulk grading job per exam
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_grading_jobs_exam_unfinished ON grading_jobs (exam_id) " +
+                    "WHERE status <> 'COMPLETED'");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (RuntimeException e) {
+                log.warn("Schema maintenance statement failed: {} ({})", statement, e.getMessage());
+            }
+        }
+        log.info("Applied {} schema maintenance statements", STATEMENTS.size());
+    }
+}
@@ -3,6 +3,9 @@ package com.coaching.platform.repository;
 import com.coaching.platform.entity.User;
 import com.coaching.platform.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -25,4 +28,39 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByOrganization_OrgIdAndRole(UUID orgId, Role role);
 
     List<User> findByOrganization_OrgId(UUID orgId);
+
+    /**
+     * Find the token epoch and enabled flag of a user
+     */
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch, u.enabled AS enabled FROM User u WHERE u.id = :id")
+    Optional<TokenStateView> findTokenStateById(@Param("id") UUID id);
+
+    /**
+     * Find users whose token epoch was raised past the given epoch
+     */
+    @Query("SELECT u.id AS id, u.tokenEpoch AS tokenEpoch, u.enabled AS enabled FROM User u " +
+            "WHERE u.tokenEpoch > :epoch")
+    List<TokenStateView> findTokenStatesRaisedSince(@Param("epoch") long epoch);
+
+    /**
+     * Raise the user's token epoch; never lowers it
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = :epoch WHERE u.id = :id AND u.tokenEpoch < :epoch")
+    int raiseTokenEpoch(@Param("id") UUID id, @Param("epoch") long epoch);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
+
+    /**
+     * Projection of what token revocation needs to know about a user
+     */
+    interface TokenStateView {
+        UUID getId();
+
+        Long getTokenEpoch();
+
+        Boolean getEnabled();
+    }
 }
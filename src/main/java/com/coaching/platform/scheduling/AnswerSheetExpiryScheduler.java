@@ -0,0 +1,176 @@
+package com.coaching.platform.scheduling;
+
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.service.AnswerSubmissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires auto-submission for answer sheets within a tick of their expiry.
+ * Every started sheet is registered in a {@link HierarchicalTimingWheel};
+ * a one-second tick collects the due sheets and hands them, in batches, to
+ * a single submitter thread so a slow submit never delays the tick. Sheets
+ * skipped because another transaction held their row lock are put back on
+ * the wheel after a short backoff. The wheel is rebuilt from the
+ * in-progress sheets on startup.
+ */
+@Component
+@Slf4j
+public class AnswerSheetExpiryScheduler implements OperationalMetrics, DisposableBean {
+
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerSubmissionService answerSubmissionService;
+    private final int submitBatchSize;
+    private final long retryBackoffMillis;
+
+    private final HierarchicalTimingWheel<UUID> wheel;
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService submitter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sheet-expiry-submitter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LatencyRecorder tickLatency = new LatencyRecorder();
+    private final LatencyRecorder submitLatency = new LatencyRecorder();
+
+    public AnswerSheetExpiryScheduler(AnswerSheetJdbc answerSheetJdbc,
+            AnswerSubmissionService answerSubmissionService,
+            @Value("${exam.expiry.submit-batch-size:200}") int submitBatchSize,
+            @Value("${exam.expiry.retry-backoff-ms:2000}") long retryBackoffMillis) {
+        this.answerSheetJdbc = answerSheetJdbc;
+        this.answerSubmissionService = answerSubmissionService;
+        this.submitBatchSize = submitBatchSize;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.wheel = new HierarchicalTimingWheel<>(1000, 64, 4, System.currentTimeMillis());
+    }
+
+    /**
+     * Register a sheet's expiry; registering the same sheet twice is a no-op
+     */
+    public void schedule(UUID answerSheetId, LocalDateTime expiresAt) {
+        if (!scheduled.add(answerSheetId)) {
+            return;
+        }
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            wheel.schedule(answerSheetId, deadline);
+        }
+    }
+
+    /**
+     * Rebuild the wheel from every sheet still in progress
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<AnswerSheetJdbc.SheetExpiry> expiries = answerSheetJdbc.findInProgressExpiries();
+        expiries.forEach(expiry -> schedule(expiry.id(), expiry.expiresAt()));
+        log.info("Scheduled expiry of {} in-progress answer sheets", expiries.size());
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        long start = System.nanoTime();
+        List<UUID> due;
+        synchronized (wheel) {
+            due = wheel.advanceTo(System.currentTimeMillis());
+        }
+        tickLatency.record(System.nanoTime() - start);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        fired.add(due.size());
+        for (int from = 0; from < due.size(); from += submitBatchSize) {
+            List<UUID> batch = List.copyOf(due.subList(from, Math.min(from + submitBatchSize, due.size())));
+            submitter.execute(() -> submit(batch));
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.expiryWheel";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        synchronized (wheel) {
+            snapshot.put("pending", wheel.size());
+            snapshot.put("cascadedEntries", wheel.getCascadedEntries());
+        }
+        snapshot.put("fired", fired.sum());
+        snapshot.put("submitted", submitted.sum());
+        snapshot.put("retried", retried.sum());
+        snapshot.put("failedBatches", failedBatches.sum());
+        snapshot.put("tick", tickLatency.snapshot());
+        snapshot.put("submitBatch", submitLatency.snapshot());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        submitter.shutdown();
+    }
+
+    private void submit(List<UUID> batch) {
+        long start = System.nanoTime();
+        List<UUID> skipped = List.of();
+        try {
+            int count = answerSubmissionService.autoSubmitSheets(batch);
+            submitted.add(count);
+            if (count < batch.size()) {
+                // Still in progress after the submit: the row was locked elsewhere
+                skipped = answerSheetJdbc.findInProgressIds(batch);
+            }
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.error("Auto-submit failed for batch of {} sheets", batch.size(), e);
+        } finally {
+            scheduled.removeAll(batch);
+            submitLatency.record(System.nanoTime() - start);
+        }
+        if (!skipped.isEmpty()) {
+            log.debug("Retrying {} locked sheets in {} ms", skipped.size(), retryBackoffMillis);
+            retryLater(skipped);
+        }
+    }
+
+    /**
+     * Put sheets back on the wheel to fire again after the retry backoff
+     */
+    private void retryLater(List<UUID> answerSheetIds) {
+        long deadline = System.currentTimeMillis() + retryBackoffMillis;
+        for (UUID answerSheetId : answerSheetIds) {
+            if (scheduled.add(answerSheetId)) {
+                synchronized (wheel) {
+                    wheel.schedule(answerSheetId, deadline);
+                }
+                retried.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.coaching.platform.scheduling;
+
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.service.AnswerAutosaveBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Submits expired in-progress answer sheets in fixed-size chunks. Expired
+ * sheets are walked with keyset pagination on (expires_at, id); each chunk
+ * is submitted and graded in its own short transaction on a bounded pool.
+ * Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so several nodes can
+ * sweep at once without double-submitting. Buffered autosaves of a chunk
+ * are flushed before it is graded.
+ *
+ * <p>The expiry wheel handles sheets started on this node; the periodic
+ * sweep is the backstop for sheets started elsewhere or missed while down.
+ */
+@Component
+@Slf4j
+public class ExpiredSheetSweeper implements OperationalMetrics, DisposableBean {
+
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder failedChunks = new LongAdder();
+    private final LatencyRecorder chunkLatency = new LatencyRecorder();
+    private volatile double lastSheetsPerSecond;
+    private volatile long lastSweepSheets;
+
+    public ExpiredSheetSweeper(AnswerSheetJdbc answerSheetJdbc,
+            AnswerAutosaveBuffer answerAutosaveBuffer,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.sweeper.chunk-size:200}") int chunkSize,
+            @Value("${exam.sweeper.threads:4}") int threads) {
+        this.answerSheetJdbc = answerSheetJdbc;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sheet-sweeper-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${exam.sweeper.interval-ms:30000}",
+            initialDelayString = "${exam.sweeper.interval-ms:30000}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    /**
+     * Submit every sheet that expired before now
+     *
+     * @return the number of sheets submitted by this node
+     */
+    public int sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Sweep already running, skipping");
+            return 0;
+        }
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Future<Integer>> chunks = new ArrayList<>();
+            LocalDateTime afterExpiresAt = null;
+            UUID afterId = null;
+
+            List<AnswerSheetJdbc.SheetExpiry> page;
+            do {
+                page = answerSheetJdbc.findExpiredPage(now, afterExpiresAt, afterId, chunkSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<UUID> ids = page.stream().map(AnswerSheetJdbc.SheetExpiry::id).toList();
+                chunks.add(pool.submit(() -> submitChunk(ids)));
+
+                AnswerSheetJdbc.SheetExpiry last = page.get(page.size() - 1);
+                afterExpiresAt = last.expiresAt();
+                afterId = last.id();
+            } while (page.size() == chunkSize);
+
+            for (Future<Integer> chunk : chunks) {
+                total += awaitChunk(chunk);
+            }
+        } finally {
+            running.set(false);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        sweeps.increment();
+        lastSweepSheets = total;
+        lastSheetsPerSecond = seconds > 0 ? total / seconds : 0;
+        if (total > 0) {
+            log.info("Swept {} expired answer sheets in {} ms ({} sheets/s)",
+                    total, (long) (seconds * 1000), (long) lastSheetsPerSecond);
+        }
+        return total;
+    }
+
+    /**
+     * Submit one chunk of sheets in its own transaction
+     */
+    public int submitChunk(List<UUID> sheetIds) {
+        long start = System.nanoTime();
+        try {
+            answerAutosaveBuffer.flushSheets(sheetIds);
+            Integer count = transactionTemplate.execute(
+                    status -> answerSheetJdbc.submitInProgress(sheetIds, LocalDateTime.now()));
+            int done = count != null ? count : 0;
+            submitted.add(done);
+            return done;
+        } finally {
+            chunkLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.expirySweeper";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("sweeps", sweeps.sum());
+        snapshot.put("submitted", submitted.sum());
+        snapshot.put("failedChunks", failedChunks.sum());
+        snapshot.put("lastSweepSheets", lastSweepSheets);
+        snapshot.put("lastSheetsPerSecond", lastSheetsPerSecond);
+        snapshot.put("activeThreads", pool.getActiveCount());
+        snapshot.put("queuedChunks", pool.getQueue().size());
+        snapshot.put("chunk", chunkLatency.snapshot());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private int awaitChunk(Future<Integer> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            failedChunks.increment();
+            log.error("Failed to submit chunk of expired answer sheets", e.getCause());
+            return 0;
+        }
+    }
+}
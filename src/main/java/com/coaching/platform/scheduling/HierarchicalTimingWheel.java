@@ -0,0 +1,140 @@
+package com.coaching.platform.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: level 0 has one slot per tick, each higher
+ * level has slots {@code wheelSize} times wider. A deadline is placed on the
+ * lowest level that can hold it without wrapping and cascades one level down
+ * when its coarse slot comes due, so scheduling is O(1) and advancing a tick
+ * touches only the entries that are due (plus amortized cascades), regardless
+ * of how many deadlines are pending.
+ *
+ * <p>Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<ArrayDeque<Entry<T>>[]> levels = new ArrayList<>();
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<Entry<T>> due = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+    private long cascadedEntries;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            ArrayDeque<Entry<T>>[] slots = (ArrayDeque<Entry<T>>[]) new ArrayDeque<?>[wheelSize];
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[slot] = new ArrayDeque<>();
+            }
+            levels.add(slots);
+            span *= wheelSize;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an item to fire at the first tick at or after the deadline.
+     * Deadlines already passed fire on the next advance.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the given time and return every item that is due
+     */
+    public List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        drain(due, expired);
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(level);
+                }
+            }
+            if (currentTick % spans[spans.length - 1] == 0 && !overflow.isEmpty()) {
+                List<Entry<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                pending.forEach(this::place);
+            }
+            ArrayDeque<Entry<T>> slot = levels.get(0)[(int) (currentTick % wheelSize)];
+            while (!slot.isEmpty()) {
+                expired.add(slot.poll().item());
+            }
+            drain(due, expired);
+        }
+
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * Number of scheduled items not yet returned
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Total entries moved between levels so far (cost of cascading)
+     */
+    public long getCascadedEntries() {
+        return cascadedEntries;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < spans.length; level++) {
+            long bucket = entry.deadlineTick() / spans[level];
+            if (bucket - currentTick / spans[level] < wheelSize) {
+                levels.get(level)[(int) (bucket % wheelSize)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade(int level) {
+        ArrayDeque<Entry<T>> slot = levels.get(level)[(int) ((currentTick / spans[level]) % wheelSize)];
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            place(slot.poll());
+            cascadedEntries++;
+        }
+    }
+
+    private void drain(List<Entry<T>> entries, List<T> expired) {
+        for (Entry<T> entry : entries) {
+            expired.add(entry.item());
+        }
+        entries.clear();
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
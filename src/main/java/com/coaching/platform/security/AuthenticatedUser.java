@@ -0,0 +1,64 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.entity.User;
+import com.coaching.platform.enums.Role;
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable principal built from JWT claims, so authenticated requests
+ * do not need to load the User entity from the database
+ */
+@Value
+public class AuthenticatedUser implements Principal {
+
+    UUID id;
+    String username;
+    Role role;
+    UUID orgId;
+
+    /**
+     * Build a principal from a loaded user
+     */
+    public static AuthenticatedUser from(User user) {
+        UUID orgId = user.getOrganization() != null ? user.getOrganization().getOrgId() : null;
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), orgId);
+    }
+
+    /**
+     * Build a principal from verified token claims.
+     * Returns null for tokens issued without the user claims.
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        String userId = claims.get(JwtUtil.CLAIM_USER_ID, String.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        String orgId = claims.get(JwtUtil.CLAIM_ORG_ID, String.class);
+        return new AuthenticatedUser(
+                UUID.fromString(userId),
+                claims.getSubject(),
+                Role.valueOf(role),
+                orgId != null ? UUID.fromString(orgId) : null);
+    }
+
+    /**
+     * Same authorities as {@link User#getAuthorities()}
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
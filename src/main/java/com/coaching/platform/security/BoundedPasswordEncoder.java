@@ -0,0 +1,158 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.exception.ServiceBusyException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt encoder that runs every hash on a small dedicated pool instead of
+ * the request thread. The pool has a bounded queue; when it is full the
+ * caller fails fast with {@link ServiceBusyException} (503) rather than
+ * letting a login burst saturate every core.
+ *
+ * <p>Hashes with a lower cost than {@code security.password.bcrypt-strength}
+ * report {@link #upgradeEncoding(String)} so they are re-hashed on the next
+ * successful login.
+ */
+@Component
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, OperationalMetrics, DisposableBean {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final int queueCapacity;
+    private final long waitTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LatencyRecorder queueWait = new LatencyRecorder();
+    private final LatencyRecorder encodeLatency = new LatencyRecorder();
+    private final LatencyRecorder matchesLatency = new LatencyRecorder();
+
+    public BoundedPasswordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.hashing-threads:0}") int threads,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.wait-timeout-ms:5000}") long waitTimeoutMillis,
+            @Value("${security.password.retry-after-seconds:2}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Password hashing pool started with {} threads, queue {}, bcrypt strength {}",
+                poolSize, queueCapacity, strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeLatency);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesLatency);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public String metricsName() {
+        return "password.hashing";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("strength", strength);
+        snapshot.put("threads", executor.getMaximumPoolSize());
+        snapshot.put("activeThreads", executor.getActiveCount());
+        snapshot.put("queueDepth", executor.getQueue().size());
+        snapshot.put("queueCapacity", queueCapacity);
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("timedOut", timedOut.sum());
+        snapshot.put("queueWait", queueWait.snapshot());
+        snapshot.put("encode", encodeLatency.snapshot());
+        snapshot.put("matches", matchesLatency.snapshot());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> hash, LatencyRecorder latency) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                queueWait.record(start - submittedAt);
+                try {
+                    return hash.call();
+                } finally {
+                    latency.record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue full ({} pending), rejecting request", executor.getQueue().size());
+            throw new ServiceBusyException("Server is busy, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new ServiceBusyException("Server is busy, please retry shortly", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Signed exam-session tokens issued when an exam starts. A token binds the
+ * answer sheet, the student, the sheet's answers and an expiry, so autosave
+ * requests are authorized from the token alone without reading the sheet.
+ * <p>
+ * Layout (base64url): version, sheet ID, student ID, expiry in epoch
+ * millis, answer count, one 4-byte keyed fingerprint per answer (sorted),
+ * then a truncated HMAC-SHA256 over all of it. Fingerprints keep tokens
+ * small; a foreign answer ID is accepted with probability about
+ * {@code answers / 2^32}, and only if its UUID is already known.
+ */
+@Component
+@Slf4j
+public class ExamSessionTokens implements OperationalMetrics {
+
+    public static final String HEADER = "X-Exam-Session";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 1 + 16 + 16 + 8 + 2;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final byte[] signingKey;
+    private final byte[] fingerprintKey;
+    private final long graceMillis;
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder authorized = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LatencyRecorder verifyLatency = new LatencyRecorder();
+
+    public ExamSessionTokens(@Value("${exam.session-token.secret}") String secret,
+            @Value("${exam.session-token.grace-seconds:120}") long graceSeconds) {
+        byte[] master = secret.getBytes(StandardCharsets.UTF_8);
+        this.signingKey = hmac(master, "exam-session:sign".getBytes(StandardCharsets.US_ASCII));
+        this.fingerprintKey = hmac(master, "exam-session:answer".getBytes(StandardCharsets.US_ASCII));
+        this.graceMillis = graceSeconds * 1000;
+    }
+
+    /**
+     * Issue a token for an in-progress sheet, valid until the sheet expires
+     * plus a grace period for saves in flight at the deadline
+     */
+    public String issue(UUID sheetId, UUID studentId, LocalDateTime expiresAt, Collection<UUID> answerIds) {
+        int[] fingerprints = answerIds.stream().mapToInt(this::fingerprint).sorted().toArray();
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + graceMillis;
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + fingerprints.length * 4 + SIGNATURE_BYTES);
+        buffer.put(VERSION);
+        putUuid(buffer, sheetId);
+        putUuid(buffer, studentId);
+        buffer.putLong(expiresAtMillis);
+        buffer.putShort((short) fingerprints.length);
+        for (int fingerprint : fingerprints) {
+            buffer.putInt(fingerprint);
+        }
+        byte[] token = buffer.array();
+        byte[] signature = sign(token, token.length - SIGNATURE_BYTES);
+        System.arraycopy(signature, 0, token, token.length - SIGNATURE_BYTES, SIGNATURE_BYTES);
+
+        issued.increment();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Check that the token was issued to the student, has not expired and
+     * covers the answer
+     *
+     * @return the answer sheet the token was issued for
+     */
+    public UUID authorizeAnswer(String token, UUID studentId, UUID answerId) {
+        long start = System.nanoTime();
+        try {
+            ByteBuffer buffer = verified(token);
+            UUID sheetId = getUuid(buffer);
+            if (!getUuid(buffer).equals(studentId)) {
+                throw reject("Exam session belongs to another user");
+            }
+            if (System.currentTimeMillis() > buffer.getLong()) {
+                expired.increment();
+                throw new UnauthorizedException("Exam session has expired");
+            }
+            int count = Short.toUnsignedInt(buffer.getShort());
+            int[] fingerprints = new int[count];
+            for (int i = 0; i < count; i++) {
+                fingerprints[i] = buffer.getInt();
+            }
+            if (Arrays.binarySearch(fingerprints, fingerprint(answerId)) < 0) {
+                throw reject("Answer is not part of this exam session");
+            }
+            authorized.increment();
+            return sheetId;
+        } finally {
+            verifyLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Check that a save for a sheet expiring at the given time is still
+     * accepted, allowing the same grace period as issued tokens
+     */
+    public void checkDeadline(LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + graceMillis;
+        if (System.currentTimeMillis() > expiresAtMillis) {
+            expired.increment();
+            throw new UnauthorizedException("Exam session has expired");
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.sessionTokens";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("issued", issued.sum());
+        snapshot.put("authorized", authorized.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("expired", expired.sum());
+        snapshot.put("graceSeconds", graceMillis / 1000);
+        snapshot.put("verifyLatency", verifyLatency.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Decode the token and check its signature; the returned buffer is
+     * positioned after the version byte
+     */
+    private ByteBuffer verified(String token) {
+        if (token == null || token.isBlank()) {
+            throw reject("Exam session token is required");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw reject("Malformed exam session token");
+        }
+        if (bytes.length < HEADER_BYTES + SIGNATURE_BYTES || bytes[0] != VERSION) {
+            throw reject("Malformed exam session token");
+        }
+        int count = Short.toUnsignedInt(ByteBuffer.wrap(bytes, HEADER_BYTES - 2, 2).getShort());
+        if (bytes.length != HEADER_BYTES + count * 4 + SIGNATURE_BYTES) {
+            throw reject("Malformed exam session token");
+        }
+        byte[] expected = sign(bytes, bytes.length - SIGNATURE_BYTES);
+        if (!MessageDigest.isEqual(Arrays.copyOf(expected, SIGNATURE_BYTES),
+                Arrays.copyOfRange(bytes, bytes.length - SIGNATURE_BYTES, bytes.length))) {
+            throw reject("Invalid exam session token");
+        }
+        return ByteBuffer.wrap(bytes, 1, bytes.length - 1 - SIGNATURE_BYTES);
+    }
+
+    private UnauthorizedException reject(String message) {
+        rejected.increment();
+        return new UnauthorizedException(message);
+    }
+
+    private int fingerprint(UUID answerId) {
+        ByteBuffer id = ByteBuffer.allocate(16);
+        putUuid(id, answerId);
+        return ByteBuffer.wrap(hmac(fingerprintKey, id.array())).getInt();
+    }
+
+    private byte[] sign(byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(signingKey, HMAC));
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign exam session token", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
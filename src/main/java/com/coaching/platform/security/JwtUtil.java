@@ -1,8 +1,12 @@
 package com.coaching.platform.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import com.coaching.platform.entity.User;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -15,16 +19,39 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ORG_ID = "org";
+    public static final String CLAIM_EPOCH = "ep";
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    /**
+     * Build the signing key and parser once; both are immutable and thread-safe
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -40,20 +67,41 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify the token signature and expiry and return its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseClaims(token);
+    }
+
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Token epoch the claims were issued with (0 for tokens without one)
+     */
+    public long extractEpoch(Claims claims) {
+        Object epoch = claims.get(CLAIM_EPOCH);
+        return epoch instanceof Number number ? number.longValue() : 0L;
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            // Embed what the request filter needs to build the principal without a DB lookup
+            claims.put(CLAIM_USER_ID, user.getId().toString());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            if (user.getOrganization() != null) {
+                claims.put(CLAIM_ORG_ID, user.getOrganization().getOrgId().toString());
+            }
+            claims.put(CLAIM_EPOCH, tokenRevocationRegistry.currentEpoch(user.getId()));
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -68,7 +116,14 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(extractAllClaims(token), userDetails);
+    }
+
+    /**
+     * Validate already-verified claims against the loaded user
+     */
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
 }
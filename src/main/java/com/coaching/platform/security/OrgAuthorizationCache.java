@@ -0,0 +1,137 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.enums.OrganizationStatus;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the status and admin of each organization so org-admin requests
+ * can be authorized without a database round trip. Entries expire after a
+ * TTL and are invalidated explicitly whenever an organization changes.
+ */
+@Component
+@Slf4j
+public class OrgAuthorizationCache implements OperationalMetrics {
+
+    /**
+     * Outcome of authorizing a user against an organization
+     */
+    public enum Decision {
+        ALLOWED,
+        NOT_FOUND,
+        SUSPENDED,
+        NOT_ADMIN
+    }
+
+    private final OrganizationRepository organizationRepository;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<UUID, OrgAccess> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public OrgAuthorizationCache(OrganizationRepository organizationRepository,
+            @Value("${org-auth.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.organizationRepository = organizationRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Decide whether the user may act as administrator of the organization.
+     * A null user ID skips the admin check, as does an organization without
+     * an admin contact.
+     */
+    public Decision authorize(UUID userId, UUID orgId) {
+        OrgAccess access = lookup(orgId);
+        if (access == null) {
+            return Decision.NOT_FOUND;
+        }
+        if (access.status() == OrganizationStatus.SUSPENDED) {
+            return Decision.SUSPENDED;
+        }
+        if (userId != null && access.adminId() != null && !access.adminId().equals(userId)) {
+            return Decision.NOT_ADMIN;
+        }
+        return Decision.ALLOWED;
+    }
+
+    /**
+     * Drop the cached entry for an organization. When called inside a
+     * transaction the entry is dropped again after commit, so a concurrent
+     * request cannot re-cache the pre-commit state.
+     */
+    public void invalidate(UUID orgId) {
+        entries.remove(orgId);
+        invalidations.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(orgId);
+                }
+            });
+        }
+        log.debug("Invalidated org authorization cache for: {}", orgId);
+    }
+
+    /**
+     * Drop all cached entries
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String metricsName() {
+        return "orgAuth.cache";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", entries.size());
+        snapshot.put("ttlSeconds", ttlMillis / 1000);
+        snapshot.put("hits", h);
+        snapshot.put("misses", misses.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        snapshot.put("hitRate", total == 0 ? 0.0 : (double) h / total);
+        return snapshot;
+    }
+
+    private OrgAccess lookup(UUID orgId) {
+        long now = System.currentTimeMillis();
+        OrgAccess cached = entries.get(orgId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        OrgAccess loaded = organizationRepository.findAccessViewById(orgId)
+                .map(view -> new OrgAccess(view.getStatus(), view.getAdminId(), now + ttlMillis))
+                .orElse(null);
+        if (loaded == null) {
+            entries.remove(orgId);
+            return null;
+        }
+        entries.put(orgId, loaded);
+        return loaded;
+    }
+
+    private record OrgAccess(OrganizationStatus status, UUID adminId, long expiresAtMillis) {
+    }
+}
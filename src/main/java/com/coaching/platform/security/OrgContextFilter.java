@@ -1,17 +1,11 @@
 package com.coaching.platform.security;
 
-import com.coaching.platform.entity.Organization;
-import com.coaching.platform.entity.User;
-import com.coaching.platform.repository.OrganizationRepository;
-import com.coaching.platform.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -29,8 +23,7 @@ public class OrgContextFilter extends OncePerRequestFilter {
 
     private static final String ORG_ID_HEADER = "X-Organization-Id";
 
-    private final UserRepository userRepository;
-    private final OrganizationRepository organizationRepository;
+    private final OrgAuthorizationCache orgAuthorizationCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -53,32 +46,28 @@ public class OrgContextFilter extends OncePerRequestFilter {
                 try {
                     UUID orgId = UUID.fromString(orgIdHeader);
 
-                    // Verify organization exists
-                    Organization organization = organizationRepository.findById(orgId)
-                            .orElse(null);
-
-                    if (organization == null) {
-                        log.warn("Organization not found: {}", orgId);
-                        response.sendError(HttpServletResponse.SC_NOT_FOUND,
-                                "Organization not found");
-                        return;
-                    }
-
-                    // Verify current user is admin of this organization
-                    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                    if (auth != null && auth.isAuthenticated()) {
-                        String username = auth.getName();
-                        User currentUser = userRepository.findByUsername(username).orElse(null);
-
-                        if (currentUser != null) {
-                            // Check if user is the admin of this organization
-                            if (organization.getAdminContact() != null &&
-                                    !organization.getAdminContact().getId().equals(currentUser.getId())) {
-                                log.warn("User {} is not admin of organization {}", username, orgId);
-                                response.sendError(HttpServletResponse.SC_FORBIDDEN,
-                                        "Access denied: You are not the administrator of this organization");
-                                return;
-                            }
+                    // Verify organization exists, is not suspended and is administered by the caller
+                    UUID userId = UserContext.hasUser() ? UserContext.getUserId() : null;
+                    switch (orgAuthorizationCache.authorize(userId, orgId)) {
+                        case NOT_FOUND -> {
+                            log.warn("Organization not found: {}", orgId);
+                            response.sendError(HttpServletResponse.SC_NOT_FOUND,
+                                    "Organization not found");
+                            return;
+                        }
+                        case SUSPENDED -> {
+                            log.warn("Rejected request for suspended organization {}", orgId);
+                            response.sendError(HttpServletResponse.SC_FORBIDDEN,
+                                    "Access denied: Organization is suspended");
+                            return;
+                        }
+                        case NOT_ADMIN -> {
+                            log.warn("User {} is not admin of organization {}", userId, orgId);
+                            response.sendError(HttpServletResponse.SC_FORBIDDEN,
+                                    "Access denied: You are not the administrator of this organization");
+                            return;
+                        }
+                        case ALLOWED -> {
                         }
                     }
 
@@ -0,0 +1,59 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.entity.User;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Resolves a bearer token to the authenticated principal: verified claims
+ * from the cache, a user lookup only for tokens without embedded user
+ * claims, and the revocation check. Shared by the HTTP filter and the exam
+ * session channel.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenAuthenticator {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final VerifiedClaimsCache verifiedClaimsCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    /**
+     * Authenticate a raw JWT (without the "Bearer " prefix)
+     */
+    public Optional<AuthenticatedUser> authenticate(String jwt) {
+        Claims claims;
+        try {
+            // Verified once per token; repeat requests are served from the cache
+            claims = verifiedClaimsCache.getVerifiedClaims(jwt);
+        } catch (Exception e) {
+            // Expired and malformed tokens are routine client errors, not server faults
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+        if (principal == null) {
+            // Token issued before user claims were embedded: fall back to a user lookup
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            if (jwtUtil.validateClaims(claims, userDetails) && userDetails instanceof User user) {
+                principal = AuthenticatedUser.from(user);
+            }
+        }
+
+        if (principal == null || tokenRevocationRegistry.isRevoked(principal.getId(), jwtUtil.extractEpoch(claims))) {
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+}
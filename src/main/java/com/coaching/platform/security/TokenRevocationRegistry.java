@@ -0,0 +1,131 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token epochs and enabled flags used to revoke stateless JWTs. Every token
+ * carries the user's epoch at issue time; raising the epoch invalidates all
+ * earlier tokens, and disabled or unknown users are rejected outright.
+ * <p>
+ * Epochs are persisted on the user row, so revocations survive restarts.
+ * Each node caches the users it has seen and polls for epochs raised since
+ * its last poll, so a revocation on another node applies here within one
+ * refresh interval.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final TokenState UNKNOWN = new TokenState(0L, false);
+
+    private final UserRepository userRepository;
+    private final long clockSkewMillis;
+
+    private final ConcurrentHashMap<UUID, TokenState> states = new ConcurrentHashMap<>();
+    private volatile long refreshedSince;
+
+    public TokenRevocationRegistry(UserRepository userRepository,
+            @Value("${jwt.revocation.clock-skew-ms:60000}") long clockSkewMillis) {
+        this.userRepository = userRepository;
+        this.clockSkewMillis = clockSkewMillis;
+        this.refreshedSince = System.currentTimeMillis() - clockSkewMillis;
+    }
+
+    /**
+     * Pick up epochs raised on other nodes. Polls overlap by the clock skew
+     * allowance, since epochs are stamped with the raising node's clock.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:10000}")
+    public void refresh() {
+        long started = System.currentTimeMillis();
+        int updated = 0;
+        for (UserRepository.TokenStateView view : userRepository.findTokenStatesRaisedSince(refreshedSince)) {
+            TokenState raised = toState(view);
+            if (states.computeIfPresent(view.getId(),
+                    (id, state) -> raised.epoch() >= state.epoch() ? raised : state) != null) {
+                updated++;
+            }
+        }
+        refreshedSince = started - clockSkewMillis;
+        if (updated > 0) {
+            log.debug("Refreshed token epochs of {} users", updated);
+        }
+    }
+
+    /**
+     * Epoch to embed in newly issued tokens
+     */
+    public long currentEpoch(UUID userId) {
+        return state(userId).epoch();
+    }
+
+    /**
+     * Invalidate all tokens issued to the user so far
+     */
+    @Transactional
+    public void revokeTokens(UUID userId) {
+        long epoch = Math.max(currentEpoch(userId) + 1, System.currentTimeMillis());
+        userRepository.raiseTokenEpoch(userId, epoch);
+        states.put(userId, load(userId));
+        log.debug("Revoked tokens for user: {}", userId);
+    }
+
+    /**
+     * Reject all tokens of a disabled user
+     */
+    @Transactional
+    public void disable(UUID userId) {
+        revokeTokens(userId);
+        states.computeIfPresent(userId, (id, state) -> new TokenState(state.epoch(), false));
+    }
+
+    /**
+     * Accept newly issued tokens of a re-enabled user; the state is read
+     * again on the next check
+     */
+    public void enable(UUID userId) {
+        states.remove(userId);
+    }
+
+    /**
+     * Check whether a token with the given epoch is no longer valid for the user
+     */
+    public boolean isRevoked(UUID userId, long tokenEpoch) {
+        TokenState state = state(userId);
+        return !state.enabled() || tokenEpoch < state.epoch();
+    }
+
+    private TokenState state(UUID userId) {
+        TokenState state = states.get(userId);
+        if (state == null) {
+            // Loaded outside the map's bin lock; a concurrent load of the same user keeps the first
+            TokenState loaded = load(userId);
+            state = states.putIfAbsent(userId, loaded);
+            return state == null ? loaded : state;
+        }
+        return state;
+    }
+
+    /**
+     * Current state from the database; a deleted user stays revoked
+     */
+    private TokenState load(UUID userId) {
+        return userRepository.findTokenStateById(userId).map(TokenRevocationRegistry::toState).orElse(UNKNOWN);
+    }
+
+    private static TokenState toState(UserRepository.TokenStateView view) {
+        return new TokenState(view.getTokenEpoch() == null ? 0L : view.getTokenEpoch(),
+                Boolean.TRUE.equals(view.getEnabled()));
+    }
+
+    private record TokenState(long epoch, boolean enabled) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.enums.Role;
+import com.coaching.platform.exception.UnauthorizedException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.UUID;
+
+/**
+ * Thread-local storage for the authenticated user of the current request
+ * Resolved once by {@link JwtRequestFilter} so controllers and services
+ * never have to look the caller up again
+ */
+@Slf4j
+public class UserContext {
+
+    private static final ThreadLocal<AuthenticatedUser> currentUser = new ThreadLocal<>();
+
+    /**
+     * Set the authenticated user for this thread
+     */
+    public static void setUser(AuthenticatedUser user) {
+        log.debug("Setting user context: {}", user.getId());
+        currentUser.set(user);
+    }
+
+    /**
+     * Get the authenticated user for this thread, or null if anonymous
+     */
+    public static AuthenticatedUser getUser() {
+        return currentUser.get();
+    }
+
+    /**
+     * Get the authenticated user, failing if the request is anonymous
+     */
+    public static AuthenticatedUser requireUser() {
+        AuthenticatedUser user = currentUser.get();
+        if (user == null) {
+            throw new UnauthorizedException("Authentication required");
+        }
+        return user;
+    }
+
+    /**
+     * Get the current user's ID
+     */
+    public static UUID getUserId() {
+        return requireUser().getId();
+    }
+
+    /**
+     * Get the current user's role
+     */
+    public static Role getRole() {
+        return requireUser().getRole();
+    }
+
+    /**
+     * Get the current user's organization ID (null for platform users)
+     */
+    public static UUID getOrgId() {
+        return requireUser().getOrgId();
+    }
+
+    /**
+     * Check if user context is set
+     */
+    public static boolean hasUser() {
+        return currentUser.get() != null;
+    }
+
+    /**
+     * Clear the user context for this thread
+     * Should be called after request processing
+     */
+    public static void clear() {
+        currentUser.remove();
+    }
+}
@@ -0,0 +1,152 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of already-verified JWT claims keyed by the SHA-256 digest of
+ * the token. A token is verified (HMAC + expiry) once; later requests carrying
+ * the same token reuse the claims until the token itself expires.
+ */
+@Component
+@Slf4j
+public class VerifiedClaimsCache implements OperationalMetrics {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CachedClaims> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LatencyRecorder verificationLatency = new LatencyRecorder();
+
+    public VerifiedClaimsCache(JwtUtil jwtUtil,
+            @Value("${jwt.claims-cache.max-entries:10000}") int maxEntries) {
+        this.jwtUtil = jwtUtil;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the verified claims for a token, verifying it only on a cache miss.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid.
+     */
+    public Claims getVerifiedClaims(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+
+        CachedClaims cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                hits.increment();
+                return cached.claims();
+            }
+            entries.remove(key, cached);
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } finally {
+            verificationLatency.record(System.nanoTime() - start);
+        }
+
+        if (claims.getExpiration() != null) {
+            store(key, new CachedClaims(claims, claims.getExpiration().getTime()), now);
+        }
+        return claims;
+    }
+
+    /**
+     * Drop all cached entries (e.g. after a signing key rotation)
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String metricsName() {
+        return "jwt.claimsCache";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", entries.size());
+        snapshot.put("maxEntries", maxEntries);
+        snapshot.put("hits", hits.sum());
+        snapshot.put("misses", misses.sum());
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("hitRate", getHitRate());
+        snapshot.put("verification", verificationLatency.snapshot());
+        return snapshot;
+    }
+
+    private void store(String key, CachedClaims value, long now) {
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, value);
+    }
+
+    /**
+     * Remove expired entries; if the cache is still full, shed arbitrary
+     * entries until it is back under 90% of capacity
+     */
+    private void evict(long now) {
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().expiresAtMillis() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        int target = (int) (maxEntries * 0.9);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+        log.debug("Evicted JWT claims cache down to {} entries", entries.size());
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private record CachedClaims(Claims claims, long expiresAtMillis) {
+    }
+}
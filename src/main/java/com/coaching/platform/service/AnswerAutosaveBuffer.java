@@ -0,0 +1,412 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerPatchRequest.TextEdit;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.exception.VersionConflictException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerDocumentJdbc.AnswerText;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-behind buffer for answer autosaves. A save is appended to a local
+ * segment log and acknowledged; only the latest text per answer is kept in
+ * memory, and coalesced texts are written to the database in JDBC batches
+ * every {@code autosave.flush-interval-ms} or once
+ * {@code autosave.max-pending} answers are waiting. Texts left in the log by
+ * a crash are replayed on startup. Log appends are made durable by a shared
+ * fsync outside the buffer lock, so concurrent saves wait on one disk sync.
+ *
+ * <p>Every save bumps the answer's text version. Delta saves are applied to
+ * the newest buffered or stored text and rejected if their base version is
+ * stale.
+ *
+ * <p>Saves for sheets that are no longer in progress are rejected. A save
+ * acknowledged just before its sheet was submitted cannot reach the
+ * database; the flush counts and logs it, and later saves for the sheet are
+ * rejected.
+ *
+ * <p>Anything that reads answer texts for grading must call
+ * {@link #flushSheets} first.
+ */
+@Component
+@Slf4j
+public class AnswerAutosaveBuffer implements OperationalMetrics, DisposableBean {
+
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+    private final int ownerCacheSize;
+    private final AnswerAutosaveLog segmentLog;
+
+    // Guards the log, the pending map and the batch being flushed; flushLock
+    // orders whole flushes
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Map<UUID, AnswerText> pending = new HashMap<>();
+    private Map<UUID, AnswerText> flushing = Map.of();
+
+    private final ConcurrentHashMap<UUID, AnswerRef> knownAnswers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Set<UUID>> sheetAnswers = new ConcurrentHashMap<>();
+    private final Set<UUID> closedSheets = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autosave-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder deltaSaves = new LongAdder();
+    private final LongAdder versionConflicts = new LongAdder();
+    private final LongAdder stateLoads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder rejectedClosed = new LongAdder();
+    private final LongAdder droppedClosed = new LongAdder();
+    private final LatencyRecorder appendLatency = new LatencyRecorder();
+    private final LatencyRecorder flushLatency = new LatencyRecorder();
+
+    public AnswerAutosaveBuffer(AnswerDocumentJdbc answerDocumentJdbc,
+            AnswerSheetJdbc answerSheetJdbc,
+            PlatformTransactionManager transactionManager,
+            @Value("${autosave.write-behind.enabled:true}") boolean enabled,
+            @Value("${autosave.log-dir:./data/autosave}") String logDir,
+            @Value("${autosave.fsync:true}") boolean fsync,
+            @Value("${autosave.max-pending:5000}") int maxPending,
+            @Value("${autosave.owner-cache-size:200000}") int ownerCacheSize) {
+        this.answerDocumentJdbc = answerDocumentJdbc;
+        this.answerSheetJdbc = answerSheetJdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushed texts leave the log, so they must commit even if the caller rolls back
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.ownerCacheSize = ownerCacheSize;
+
+        if (enabled) {
+            this.segmentLog = new AnswerAutosaveLog(Path.of(logDir), fsync);
+            List<AnswerText> recovered = segmentLog.recover();
+            recovered.forEach(text -> pending.merge(text.answerId(), text, AnswerAutosaveBuffer::newer));
+            pending.values().forEach(this::remember);
+            replayed.add(recovered.size());
+            if (!recovered.isEmpty()) {
+                log.info("Replayed {} autosaved answers ({} distinct) from {}", recovered.size(), pending.size(), logDir);
+            }
+        } else {
+            this.segmentLog = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Durably record the full text of an answer; the database is updated by
+     * the next flush
+     */
+    public AnswerText save(UUID answerId, String answerText) {
+        return write(answerId, null, null, current -> answerText);
+    }
+
+    /**
+     * Apply delta edits to the answer text at {@code baseVersion}
+     *
+     * @throws VersionConflictException if the answer has moved past {@code baseVersion}
+     */
+    public AnswerText applyEdits(UUID answerId, long baseVersion, List<TextEdit> edits) {
+        AnswerText saved = write(answerId, baseVersion, null, current -> AnswerTextPatch.apply(current, edits));
+        deltaSaves.increment();
+        return saved;
+    }
+
+    /**
+     * Write buffered texts of the given sheets to the database before they
+     * are submitted or graded. Fails if the texts could not be written.
+     * The write commits on its own connection, so call this before opening
+     * the caller's transaction, not inside it.
+     */
+    public void flushSheets(Collection<UUID> sheetIds) {
+        if (!enabled) {
+            return;
+        }
+        Set<UUID> sheets = Set.copyOf(sheetIds);
+        boolean buffered;
+        appendLock.lock();
+        try {
+            buffered = pending.values().stream().anyMatch(text -> sheets.contains(text.sheetId()))
+                    || flushing.values().stream().anyMatch(text -> sheets.contains(text.sheetId()));
+        } finally {
+            appendLock.unlock();
+        }
+        if (buffered) {
+            flush();
+        }
+        sheets.forEach(this::forgetSheet);
+    }
+
+    @Scheduled(fixedDelayString = "${autosave.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Autosave flush failed; texts stay buffered and logged", e);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "answer.autosave";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("saves", saves.sum());
+        snapshot.put("deltaSaves", deltaSaves.sum());
+        snapshot.put("versionConflicts", versionConflicts.sum());
+        snapshot.put("stateLoads", stateLoads.sum());
+        snapshot.put("coalesced", coalesced.sum());
+        snapshot.put("flushedRows", flushedRows.sum());
+        snapshot.put("replayed", replayed.sum());
+        snapshot.put("failedFlushes", failedFlushes.sum());
+        snapshot.put("rejectedClosed", rejectedClosed.sum());
+        snapshot.put("droppedClosed", droppedClosed.sum());
+        snapshot.put("fsyncs", segmentLog != null ? segmentLog.syncs() : 0);
+        appendLock.lock();
+        try {
+            snapshot.put("pending", pending.size());
+            snapshot.put("activeLogBytes", segmentLog != null ? segmentLog.activeBytes() : 0);
+            snapshot.put("sealedSegments", segmentLog != null ? segmentLog.sealedSegments() : 0);
+        } finally {
+            appendLock.unlock();
+        }
+        snapshot.put("cachedAnswers", knownAnswers.size());
+        snapshot.put("append", appendLatency.snapshot());
+        snapshot.put("flush", flushLatency.snapshot());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        if (enabled) {
+            scheduledFlush();
+            appendLock.lock();
+            try {
+                segmentLog.close();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Swap out the pending texts and seal the log segment holding them, write
+     * them in one batch, then drop the sealed segments. On failure the texts
+     * go back into the buffer unless a newer save replaced them.
+     */
+    private void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, AnswerText> batch;
+            List<Path> sealed;
+            appendLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                flushing = batch;
+                sealed = segmentLog.rotate();
+            } finally {
+                appendLock.unlock();
+            }
+
+            long start = System.nanoTime();
+            List<UUID> closed;
+            try {
+                closed = transactionTemplate.execute(status -> {
+                    answerDocumentJdbc.updateAnswerTexts(batch.values());
+                    // Status is stable here: the update holds the sheet locks
+                    return answerSheetJdbc.findNotInProgressIds(
+                            batch.values().stream().map(AnswerText::sheetId).distinct().toList());
+                });
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                appendLock.lock();
+                try {
+                    batch.forEach(pending::putIfAbsent);
+                    flushing = Map.of();
+                } finally {
+                    appendLock.unlock();
+                }
+                throw e;
+            } finally {
+                flushLatency.record(System.nanoTime() - start);
+            }
+            flushedRows.add(batch.size());
+            if (closed != null && !closed.isEmpty()) {
+                closedSheets.addAll(closed);
+                long dropped = batch.values().stream().filter(text -> closed.contains(text.sheetId())).count();
+                droppedClosed.add(dropped);
+                log.warn("Dropped {} autosaved answers of {} sheets that were submitted before the flush",
+                        dropped, closed.size());
+            }
+
+            appendLock.lock();
+            try {
+                flushing = Map.of();
+                segmentLog.delete(sealed);
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Build and log the next version of an answer. The current version comes
+     * from the buffer, then the answer cache, and only then from the
+     * database (loaded outside the lock, after which the buffer is checked
+     * again).
+     */
+    private AnswerText write(UUID answerId, Long baseVersion, AnswerText loaded, UnaryOperator<String> change) {
+        boolean needsText = baseVersion != null;
+        long start = System.nanoTime();
+        AnswerText next;
+        int size;
+        long position = 0;
+        appendLock.lock();
+        try {
+            AnswerText current = buffered(answerId);
+            AnswerRef known = knownAnswers.get(answerId);
+            if (current == null && loaded != null) {
+                // The cache can be ahead of the database when a flush skipped a submitted sheet
+                long version = known != null ? Math.max(known.version(), loaded.version()) : loaded.version();
+                current = new AnswerText(answerId, loaded.sheetId(), loaded.text(), loaded.answeredAt(), version);
+            } else if (current == null && known != null && !needsText) {
+                current = new AnswerText(answerId, known.sheetId(), null, null, known.version());
+            }
+            if (current == null) {
+                next = null;
+                size = 0;
+            } else {
+                if (closedSheets.contains(current.sheetId())) {
+                    rejectedClosed.increment();
+                    throw new UnauthorizedException("Answer sheet is no longer in progress");
+                }
+                if (baseVersion != null && baseVersion != current.version()) {
+                    versionConflicts.increment();
+                    throw new VersionConflictException("Answer", answerId, baseVersion, current.version());
+                }
+                next = new AnswerText(answerId, current.sheetId(), change.apply(current.text()),
+                        LocalDateTime.now(), current.version() + 1);
+                position = segmentLog.append(next);
+                if (pending.put(answerId, next) != null) {
+                    coalesced.increment();
+                }
+                remember(next);
+                size = pending.size();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (next == null) {
+            return write(answerId, baseVersion, load(answerId), change);
+        }
+        segmentLog.sync(position);
+        appendLatency.record(System.nanoTime() - start);
+        saves.increment();
+        if (size >= maxPending && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                scheduledFlush();
+            });
+        }
+        return next;
+    }
+
+    private AnswerText buffered(UUID answerId) {
+        AnswerText text = pending.get(answerId);
+        return text != null ? text : flushing.get(answerId);
+    }
+
+    private AnswerText load(UUID answerId) {
+        stateLoads.increment();
+        AnswerText stored = answerDocumentJdbc.findAnswerText(answerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer", "id", answerId));
+        if (knownAnswers.size() >= ownerCacheSize) {
+            knownAnswers.clear();
+            sheetAnswers.clear();
+            closedSheets.clear();
+        }
+        answerSheetJdbc.findSheetOwner(stored.sheetId())
+                .filter(sheet -> sheet.status() != SubmissionStatus.IN_PROGRESS)
+                .ifPresent(sheet -> closedSheets.add(sheet.id()));
+        return stored;
+    }
+
+    private void remember(AnswerText text) {
+        knownAnswers.put(text.answerId(), new AnswerRef(text.sheetId(), text.version()));
+        sheetAnswers.computeIfAbsent(text.sheetId(), id -> ConcurrentHashMap.newKeySet()).add(text.answerId());
+    }
+
+    private void forgetSheet(UUID sheetId) {
+        Set<UUID> answers = sheetAnswers.remove(sheetId);
+        if (answers != null) {
+            answers.forEach(knownAnswers::remove);
+        }
+    }
+
+    private static AnswerText newer(AnswerText a, AnswerText b) {
+        return b.version() >= a.version() ? b : a;
+    }
+
+    /**
+     * Sheet and last saved version of an answer
+     */
+    private record AnswerRef(UUID sheetId, long version) {
+    }
+}
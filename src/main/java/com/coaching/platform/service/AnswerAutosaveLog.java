@@ -0,0 +1,265 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.repository.AnswerDocumentJdbc.AnswerText;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only segment files backing the autosave buffer. Every accepted
+ * answer text is appended to the active segment before it is acknowledged;
+ * a flush seals the active segment, and sealed segments are deleted once
+ * their contents are in the database. Appends, rotation and deletion are
+ * not thread-safe and the owner serializes them.
+ *
+ * <p>Appends only write; {@link #sync} makes them durable. Callers waiting
+ * in {@code sync} at the same time share one fsync (group commit), so the
+ * owner can release its lock before waiting for the disk.
+ *
+ * <p>Record layout: payload length, CRC32 of the payload, then answer id,
+ * sheet id, answered-at (UTC millis), text version and UTF-8 text (length -1 for null).
+ */
+@Slf4j
+class AnswerAutosaveLog implements AutoCloseable {
+
+    private static final String PREFIX = "autosave-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 16 + 16 + 8 + 8 + 4;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> sealed = new ArrayList<>();
+    private long nextSequence;
+    private Path activePath;
+    private volatile FileChannel active;
+    private long activeBytes;
+
+    // Bytes appended and bytes known to be on disk, counted across segments
+    private volatile long written;
+    private final AtomicLong durable = new AtomicLong();
+    private final Object syncLock = new Object();
+    private volatile long syncs;
+
+    AnswerAutosaveLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(AnswerAutosaveLog::isSegment).sorted().forEach(sealed::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open autosave log in " + directory, e);
+        }
+        this.nextSequence = sealed.isEmpty() ? 1 : sequenceOf(sealed.get(sealed.size() - 1)) + 1;
+        openSegment();
+    }
+
+    /**
+     * Read every record left by a previous run, oldest first. A torn or
+     * corrupt record ends its segment.
+     */
+    List<AnswerText> recover() {
+        List<AnswerText> entries = new ArrayList<>();
+        for (Path segment : sealed) {
+            try {
+                readSegment(segment, entries);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read autosave segment " + segment, e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Append one answer text to the active segment
+     *
+     * @return the log position to pass to {@link #sync}
+     */
+    long append(AnswerText text) {
+        byte[] body = text.text() == null ? null : text.text().getBytes(StandardCharsets.UTF_8);
+        int payloadLength = FIXED_PAYLOAD_BYTES + (body == null ? 0 : body.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.putLong(text.answerId().getMostSignificantBits());
+        buffer.putLong(text.answerId().getLeastSignificantBits());
+        buffer.putLong(text.sheetId().getMostSignificantBits());
+        buffer.putLong(text.sheetId().getLeastSignificantBits());
+        buffer.putLong(text.answeredAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        buffer.putLong(text.version());
+        buffer.putInt(body == null ? -1 : body.length);
+        if (body != null) {
+            buffer.put(body);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, payloadLength);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to autosave segment " + activePath, e);
+        }
+        activeBytes += HEADER_BYTES + payloadLength;
+        written += HEADER_BYTES + payloadLength;
+        return written;
+    }
+
+    /**
+     * Wait until everything appended up to {@code position} is on disk. One
+     * caller forces the segment for every append written so far; callers
+     * queued behind it find their position already durable and return
+     * without a second fsync. A no-op when fsync is off.
+     */
+    void sync(long position) {
+        if (!fsync || durable.get() >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable.get() >= position) {
+                return;
+            }
+            // Read before the channel: anything up to target is either in it
+            // or in a segment that rotate() forced before closing
+            long target = written;
+            FileChannel channel = active;
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated or closed meanwhile; closing forced it
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot sync autosave segment " + activePath, e);
+            }
+            durable.accumulateAndGet(target, Math::max);
+            syncs++;
+        }
+    }
+
+    /**
+     * Seal the active segment and start a new one
+     *
+     * @return every sealed segment not yet deleted, oldest first
+     */
+    List<Path> rotate() {
+        closeActive();
+        sealed.add(activePath);
+        openSegment();
+        return List.copyOf(sealed);
+    }
+
+    /**
+     * Delete sealed segments whose records are in the database
+     */
+    void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                sealed.remove(segment);
+            } catch (IOException e) {
+                log.warn("Cannot delete autosave segment {}", segment, e);
+            }
+        }
+    }
+
+    long activeBytes() {
+        return activeBytes;
+    }
+
+    int sealedSegments() {
+        return sealed.size();
+    }
+
+    long syncs() {
+        return syncs;
+    }
+
+    @Override
+    public void close() {
+        closeActive();
+    }
+
+    private void openSegment() {
+        activePath = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence++, SUFFIX));
+        try {
+            active = FileChannel.open(activePath,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create autosave segment " + activePath, e);
+        }
+        activeBytes = 0;
+    }
+
+    private void closeActive() {
+        try {
+            if (active.isOpen()) {
+                long target = written;
+                active.force(false);
+                active.close();
+                durable.accumulateAndGet(target, Math::max);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close autosave segment " + activePath, e);
+        }
+    }
+
+    private static void readSegment(Path segment, List<AnswerText> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int payloadLength = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > buffer.remaining()) {
+                log.warn("Truncated record in autosave segment {}, ignoring the rest", segment);
+                return;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.position(), payloadLength);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Corrupt record in autosave segment {}, ignoring the rest", segment);
+                return;
+            }
+            UUID answerId = new UUID(buffer.getLong(), buffer.getLong());
+            UUID sheetId = new UUID(buffer.getLong(), buffer.getLong());
+            LocalDateTime answeredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZoneOffset.UTC);
+            long version = buffer.getLong();
+            int textLength = buffer.getInt();
+            String text = null;
+            if (textLength >= 0) {
+                text = new String(buffer.array(), buffer.position(), textLength, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + textLength);
+            }
+            entries.add(new AnswerText(answerId, sheetId, text, answeredAt, version));
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -1,40 +1,76 @@
 package com.coaching.platform.service;
 
+import com.coaching.platform.dto.AnswerDetail;
 import com.coaching.platform.dto.AnswerSheetSummary;
+import com.coaching.platform.dto.EvaluationQueuePage;
 import com.coaching.platform.dto.GradeRequest;
+import com.coaching.platform.dto.SheetGradeRequest;
+import com.coaching.platform.dto.SheetGradeResponse;
 import com.coaching.platform.entity.Answer;
 import com.coaching.platform.entity.AnswerSheet;
 import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.InvalidCursorException;
 import com.coaching.platform.exception.ResourceNotFoundException;
 import com.coaching.platform.exception.UnauthorizedException;
 import com.coaching.platform.repository.AnswerRepository;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.repository.EvaluationQueueJdbc;
+import com.coaching.platform.repository.GradingJdbc;
 import com.coaching.platform.repository.AnswerSheetRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AnswerSheetService {
 
+    private static final int MAX_QUEUE_PAGE_SIZE = 200;
+
     private final AnswerSheetRepository answerSheetRepository;
     private final AnswerRepository answerRepository;
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final GradingJdbc gradingJdbc;
+    private final EvaluationQueueJdbc evaluationQueueJdbc;
 
-    public List<AnswerSheetSummary> getEvaluationQueue(UUID facultyId) {
+    /**
+     * One page of the faculty member's submitted sheets, oldest first. The
+     * cursor is the opaque {@code nextCursor} of the previous page; the total
+     * is counted for the first page only.
+     */
+    public EvaluationQueuePage getEvaluationQueue(UUID facultyId, EvaluationQueueJdbc.QueueFilter filter,
+            String cursor, int limit) {
         log.info("Fetching evaluation queue for faculty: {}", facultyId);
 
-        List<AnswerSheet> sheets = answerSheetRepository.findByFacultyAndStatus(
-                facultyId, SubmissionStatus.SUBMITTED);
+        int pageSize = Math.max(1, Math.min(limit, MAX_QUEUE_PAGE_SIZE));
+        QueueCursor after = cursor != null && !cursor.isBlank() ? QueueCursor.decode(cursor) : null;
+        List<AnswerSheetSummary> rows = evaluationQueueJdbc.findEvaluationQueuePage(facultyId, filter,
+                after != null ? after.submittedAt() : null, after != null ? after.id() : null, pageSize + 1);
 
-        return sheets.stream()
-                .map(this::convertToSummary)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AnswerSheetSummary last = rows.get(pageSize - 1);
+            nextCursor = new QueueCursor(last.getSubmittedAt(), last.getId()).encode();
+        }
+        return EvaluationQueuePage.builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .total(after == null ? evaluationQueueJdbc.countEvaluationQueue(facultyId, filter) : null)
+                .build();
     }
 
     public AnswerSheet getAnswerSheetDetails(UUID answerSheetId, UUID facultyId) {
@@ -46,12 +82,40 @@ public class AnswerSheetService {
         return sheet;
     }
 
+    /**
+     * Load the answers of a sheet for grading, in one query whichever layout
+     * the sheet uses
+     */
+    public List<AnswerDetail> getAnswers(UUID answerSheetId, UUID facultyId) {
+        AnswerSheet sheet = answerSheetRepository.findById(answerSheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer sheet not found"));
+
+        verifyFacultyOwnsAnswerSheet(sheet, facultyId);
+
+        return answerDocumentJdbc.loadAnswers(answerSheetId).stream()
+                .map(answer -> AnswerDetail.builder()
+                        .answerId(answer.answerId())
+                        .questionId(answer.questionId())
+                        .answerText(answer.text())
+                        .selectedOptionId(answer.selectedOptionId())
+                        .answeredAt(answer.answeredAt())
+                        .pointsAwarded(answer.pointsAwarded())
+                        .feedback(answer.feedback())
+                        .autoGraded(answer.autoGraded())
+                        .imageUrls(answer.imageUrls())
+                        .build())
+                .toList();
+    }
+
     @Transactional
     public void gradeAnswer(UUID answerId, GradeRequest request, UUID facultyId) {
         log.info("Grading answer: {}", answerId);
 
-        Answer answer = answerRepository.findById(answerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
+        Answer answer = answerRepository.findById(answerId).orElse(null);
+        if (answer == null) {
+            gradeDocumentAnswer(answerId, request, facultyId);
+            return;
+        }
 
         verifyFacultyOwnsAnswerSheet(answer.getAnswerSheet(), facultyId);
 
@@ -60,8 +124,82 @@ public class AnswerSheetService {
         log.info("Answer graded: {}", answerId);
     }
 
+    private void gradeDocumentAnswer(UUID answerId, GradeRequest request, UUID facultyId) {
+        UUID sheetId = answerDocumentJdbc.findAnswerText(answerId)
+                .map(AnswerDocumentJdbc.AnswerText::sheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
+        AnswerSheet sheet = answerSheetRepository.findById(sheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer sheet not found"));
+
+        verifyFacultyOwnsAnswerSheet(sheet, facultyId);
+        if (sheet.getStatus() != SubmissionStatus.SUBMITTED && sheet.getStatus() != SubmissionStatus.GRADED) {
+            throw new IllegalStateException("Only submitted answer sheets can be graded");
+        }
+
+        if (gradingJdbc.gradeDocumentAnswer(answerId, request.getPointsAwarded(), request.getFeedback()) == 0) {
+            throw new ResourceNotFoundException("Answer not found");
+        }
+        log.info("Answer graded: {}", answerId);
+    }
+
+    /**
+     * Grade many answers of one sheet in a single request: the sheet is
+     * locked and its ownership checked once, the grades are written in one
+     * statement that also moves the obtained points, and with
+     * {@code finalize} the sheet is moved to GRADED in the same transaction
+     */
     @Transactional
-    public void submitGrading(UUID answerSheetId, UUID facultyId) {
+    public SheetGradeResponse gradeSheet(UUID answerSheetId, SheetGradeRequest request, UUID facultyId) {
+        log.info("Grading {} answers of answer sheet: {}", request.getGrades().size(), answerSheetId);
+
+        GradingJdbc.GradingTarget sheet = gradingJdbc.lockForGrading(answerSheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer sheet not found"));
+        if (!sheet.examOwnerId().equals(facultyId)) {
+            throw new UnauthorizedException("You do not have permission to grade this answer sheet");
+        }
+        if (sheet.status() != SubmissionStatus.SUBMITTED && sheet.status() != SubmissionStatus.GRADED) {
+            throw new IllegalStateException("Only submitted answer sheets can be graded");
+        }
+
+        Map<UUID, SheetGradeRequest.Grade> grades = new LinkedHashMap<>();
+        request.getGrades().forEach(grade -> grades.put(grade.getAnswerId(), grade));
+        GradingJdbc.AppliedGrades applied = gradingJdbc.applyGrades(sheet,
+                grades.keySet().toArray(UUID[]::new),
+                grades.values().stream().map(SheetGradeRequest.Grade::getPointsAwarded).toArray(Integer[]::new),
+                grades.values().stream().map(SheetGradeRequest.Grade::getFeedback).toArray(String[]::new));
+        if (applied.answers() != grades.size()) {
+            throw new ResourceNotFoundException("Answer not found in this answer sheet");
+        }
+
+        Optional<Integer> finalPoints = Optional.empty();
+        if (request.isFinalize() && sheet.status() == SubmissionStatus.SUBMITTED) {
+            finalPoints = gradingJdbc.markGraded(answerSheetId, LocalDateTime.now());
+            if (finalPoints.isEmpty()) {
+                throw new IllegalStateException("All answers must be graded before submission");
+            }
+        }
+        boolean finalized = finalPoints.isPresent();
+        log.info("Graded {} answers of answer sheet: {}{}", applied.answers(), answerSheetId,
+                finalized ? " and submitted grading" : "");
+
+        return SheetGradeResponse.builder()
+                .answerSheetId(answerSheetId)
+                .answersGraded(applied.answers())
+                .obtainedPoints(finalPoints.orElse(applied.obtainedPoints()))
+                .status(finalized ? SubmissionStatus.GRADED : sheet.status())
+                .finalized(finalized)
+                .build();
+    }
+
+    /**
+     * Move a fully graded sheet from SUBMITTED to GRADED with a conditional
+     * update, releasing its grading lease; repeating it on a graded sheet is
+     * a no-op
+     *
+     * @return true if this call graded the sheet
+     */
+    @Transactional
+    public boolean submitGrading(UUID answerSheetId, UUID facultyId) {
         log.info("Submitting grading for answer sheet: {}", answerSheetId);
 
         AnswerSheet sheet = answerSheetRepository.findById(answerSheetId)
@@ -69,16 +207,27 @@ public class AnswerSheetService {
 
         verifyFacultyOwnsAnswerSheet(sheet, facultyId);
 
-        if (!sheet.isFullyGraded()) {
+        if (gradingJdbc.markGraded(answerSheetId, LocalDateTime.now()).isEmpty()) {
+            SubmissionStatus status = answerSheetJdbc.findSheetOwner(answerSheetId)
+                    .map(AnswerSheetJdbc.SheetOwner::status)
+                    .orElseThrow(() -> new ResourceNotFoundException("Answer sheet not found"));
+            if (status == SubmissionStatus.GRADED) {
+                log.info("Answer sheet {} was already graded", answerSheetId);
+                return false;
+            }
+            if (status != SubmissionStatus.SUBMITTED) {
+                throw new IllegalStateException("Only submitted answer sheets can be graded");
+            }
             throw new IllegalStateException("All answers must be graded before submission");
         }
-
-        sheet.calculateObtainedPoints();
-        sheet.markAsGraded();
-        answerSheetRepository.save(sheet);
         log.info("Grading submitted for answer sheet: {}", answerSheetId);
+        return true;
     }
 
+    /**
+     * Auto-grade the objective answers not graded yet; answers graded by a
+     * concurrent submit or sweep are skipped rather than graded twice
+     */
     @Transactional
     public void autoGradeObjectiveQuestions(UUID answerSheetId, UUID facultyId) {
         log.info("Auto-grading objective questions for answer sheet: {}", answerSheetId);
@@ -88,13 +237,8 @@ public class AnswerSheetService {
 
         verifyFacultyOwnsAnswerSheet(sheet, facultyId);
 
-        sheet.getAnswers().stream()
-                .filter(answer -> answer.getQuestion().getType() == com.coaching.platform.enums.QuestionType.OBJECTIVE)
-                .filter(answer -> !answer.getIsAutoGraded())
-                .forEach(Answer::autoGrade);
-
-        answerSheetRepository.save(sheet);
-        log.info("Auto-grading completed for answer sheet: {}", answerSheetId);
+        int graded = gradingJdbc.autoGradePending(answerSheetId);
+        log.info("Auto-grading completed for answer sheet: {} ({} answers)", answerSheetId, graded);
     }
 
     private void verifyFacultyOwnsAnswerSheet(AnswerSheet sheet, UUID facultyId) {
@@ -103,18 +247,23 @@ public class AnswerSheetService {
         }
     }
 
-    private AnswerSheetSummary convertToSummary(AnswerSheet sheet) {
-        return AnswerSheetSummary.builder()
-                .id(sheet.getId())
-                .examTitle(sheet.getExam().getTitle())
-                .examId(sheet.getExam().getId())
-                .studentName(sheet.getStudent().getFirstName() + " " + sheet.getStudent().getLastName())
-                .studentEmail(sheet.getStudent().getEmail())
-                .studentId(sheet.getStudent().getId())
-                .submittedAt(sheet.getSubmittedAt())
-                .status(sheet.getStatus())
-                .totalPoints(sheet.getTotalPoints())
-                .obtainedPoints(sheet.getObtainedPoints())
-                .build();
+    /**
+     * Keyset position in the evaluation queue, encoded as an opaque string
+     */
+    private record QueueCursor(LocalDateTime submittedAt, UUID id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((submittedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static QueueCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                return new QueueCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Invalid evaluation queue cursor", e);
+            }
+        }
     }
 }
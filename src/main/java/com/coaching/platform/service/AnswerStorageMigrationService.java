@@ -0,0 +1,125 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerStorageMigrationResponse;
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.ExamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converts the answer sheets of an exam between answer rows and answer
+ * documents. The exam's layout is switched first so sheets started during
+ * the run already use the target; existing sheets are then converted in
+ * keyset-ordered chunks, one transaction each. Writers lock the sheet before
+ * touching answers, so saves arriving mid-run land in whichever layout the
+ * sheet has when they commit.
+ */
+@Service
+@Slf4j
+public class AnswerStorageMigrationService implements OperationalMetrics {
+
+    private final ExamRepository examRepository;
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final ExamPaperCache examPaperCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final LongAdder migrations = new LongAdder();
+    private final LongAdder toDocument = new LongAdder();
+    private final LongAdder toRows = new LongAdder();
+    private final LatencyRecorder chunkLatency = new LatencyRecorder();
+
+    public AnswerStorageMigrationService(ExamRepository examRepository,
+            AnswerDocumentJdbc answerDocumentJdbc,
+            ExamPaperCache examPaperCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.answer-storage.migration-chunk-size:200}") int chunkSize) {
+        this.examRepository = examRepository;
+        this.answerDocumentJdbc = answerDocumentJdbc;
+        this.examPaperCache = examPaperCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Switch an exam to the target layout and convert all of its sheets
+     */
+    public AnswerStorageMigrationResponse migrateExam(UUID examId, AnswerStorage target) {
+        long start = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+            exam.setAnswerStorage(target);
+            exam.bumpPaperVersion();
+            examRepository.save(exam);
+            // The compiled paper carries the layout used for new sheets
+            examPaperCache.evict(examId);
+        });
+
+        AnswerStorage source = target == AnswerStorage.DOCUMENT ? AnswerStorage.ROWS : AnswerStorage.DOCUMENT;
+        int converted = 0;
+        UUID afterId = null;
+        while (true) {
+            List<UUID> page = answerDocumentJdbc.findSheetIdsPage(examId, source, afterId, chunkSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            converted += convertChunk(page, target);
+            afterId = page.get(page.size() - 1);
+        }
+
+        migrations.increment();
+        long duration = System.currentTimeMillis() - start;
+        log.info("Converted {} answer sheets of exam {} to {} in {} ms", converted, examId, target, duration);
+        return AnswerStorageMigrationResponse.builder()
+                .examId(examId)
+                .answerStorage(target)
+                .converted(converted)
+                .durationMillis(duration)
+                .build();
+    }
+
+    private int convertChunk(List<UUID> sheetIds, AnswerStorage target) {
+        long start = System.nanoTime();
+        try {
+            Integer converted = transactionTemplate.execute(status -> target == AnswerStorage.DOCUMENT
+                    ? answerDocumentJdbc.convertToDocument(sheetIds)
+                    : answerDocumentJdbc.convertToRows(sheetIds));
+            int count = converted != null ? converted : 0;
+            (target == AnswerStorage.DOCUMENT ? toDocument : toRows).add(count);
+            return count;
+        } finally {
+            chunkLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.answerStorageMigration";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("migrations", migrations.sum());
+        snapshot.put("sheetsToDocument", toDocument.sum());
+        snapshot.put("sheetsToRows", toRows.sum());
+        snapshot.put("chunkSize", chunkSize);
+        snapshot.put("chunkLatency", chunkLatency.snapshot());
+        return snapshot;
+    }
+}
@@ -1,21 +1,43 @@
 package com.coaching.platform.service;
 
+import com.coaching.platform.dto.AnswerPatchRequest;
+import com.coaching.platform.dto.AnswerSelectionRequest;
+import com.coaching.platform.dto.AnswerSelectionResponse;
+import com.coaching.platform.dto.AnswerSaveResponse;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.ExamPaper;
 import com.coaching.platform.entity.Answer;
 import com.coaching.platform.entity.AnswerSheet;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.enums.SubmissionStatus;
 import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.exception.VersionConflictException;
 import com.coaching.platform.repository.AnswerRepository;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
 import com.coaching.platform.repository.AnswerSheetRepository;
+import com.coaching.platform.scheduling.ExpiredSheetSweeper;
+import com.coaching.platform.security.ExamSessionTokens;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Service for student answer submission
@@ -28,19 +50,93 @@ public class AnswerSubmissionService {
     private final AnswerSheetRepository answerSheetRepository;
     private final AnswerRepository answerRepository;
     private final FileStorageService fileStorageService;
+    private final ExpiredSheetSweeper expiredSheetSweeper;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final ExamPaperCache examPaperCache;
+    private final ExamSessionTokens examSessionTokens;
 
     /**
-     * Save answer text
+     * Save answer text. With write-behind enabled the text is logged and
+     * buffered, and reaches the database with the next flush.
      */
-    @Transactional
-    public Answer saveAnswer(UUID answerId, String answerText) {
-        Answer answer = answerRepository.findById(answerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Answer not found"));
+    public AnswerSaveResponse saveAnswer(UUID answerId, String answerText) {
+        if (answerAutosaveBuffer.isEnabled()) {
+            return toSaveResponse(answerAutosaveBuffer.save(answerId, answerText));
+        }
+        return saveDirectly(answerId, null, current -> answerText);
+    }
 
-        answer.setAnswerText(answerText);
-        answer.setAnsweredAt(LocalDateTime.now());
+    /**
+     * Apply delta edits to the answer text at the client's base version. A
+     * stale base version fails with a conflict; the client then falls back
+     * to a full save.
+     */
+    public AnswerSaveResponse patchAnswer(UUID answerId, AnswerPatchRequest request) {
+        if (answerAutosaveBuffer.isEnabled()) {
+            return toSaveResponse(answerAutosaveBuffer.applyEdits(answerId, request.getBaseVersion(), request.getEdits()));
+        }
+        return saveDirectly(answerId, request.getBaseVersion(),
+                current -> AnswerTextPatch.apply(current, request.getEdits()));
+    }
 
-        return answerRepository.save(answer);
+    /**
+     * Set the selected options of many objective answers of a sheet in one
+     * batched UPDATE. Pairs are checked against the cached exam paper, so
+     * validation does not touch the question and option tables. Saves past
+     * the deadline are rejected with the same grace as session tokens.
+     */
+    public AnswerSelectionResponse saveSelections(UUID studentId, UUID answerSheetId, AnswerSelectionRequest request) {
+        AnswerSheetJdbc.SheetOwner sheet = answerSheetJdbc.findSheetOwner(answerSheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("AnswerSheet", "id", answerSheetId));
+        if (!sheet.studentId().equals(studentId)) {
+            throw new UnauthorizedException("You do not have access to this answer sheet");
+        }
+        if (sheet.status() != SubmissionStatus.IN_PROGRESS) {
+            throw new IllegalStateException("Answer sheet is not in progress");
+        }
+        examSessionTokens.checkDeadline(sheet.expiresAt());
+
+        Map<UUID, Set<UUID>> optionsByQuestion = new HashMap<>();
+        for (ExamPaper.PaperQuestion question : examPaperCache.getPaper(sheet.examId()).paper().getQuestions()) {
+            if (question.getType() == QuestionType.OBJECTIVE) {
+                optionsByQuestion.put(question.getId(), question.getOptions().stream()
+                        .map(ExamPaper.PaperOption::getId)
+                        .collect(Collectors.toSet()));
+            }
+        }
+        Map<UUID, UUID> questionByAnswer = new HashMap<>();
+        answerDocumentJdbc.findAnswerSlots(answerSheetId)
+                .forEach(slot -> questionByAnswer.put(slot.getAnswerId(), slot.getQuestionId()));
+
+        Map<UUID, UUID> selections = new LinkedHashMap<>();
+        for (AnswerSelectionRequest.Selection selection : request.getSelections()) {
+            UUID questionId = questionByAnswer.get(selection.getAnswerId());
+            if (questionId == null) {
+                throw new ResourceNotFoundException("Answer", "id", selection.getAnswerId());
+            }
+            Set<UUID> options = optionsByQuestion.get(questionId);
+            if (options == null || (selection.getOptionId() != null && !options.contains(selection.getOptionId()))) {
+                throw new ResourceNotFoundException("Option", "id", selection.getOptionId());
+            }
+            selections.put(selection.getAnswerId(), selection.getOptionId());
+        }
+
+        List<UUID> answerIds = new ArrayList<>(selections.keySet());
+        List<UUID> optionIds = new ArrayList<>(selections.values());
+        return transactionTemplate.execute(status -> {
+            int updated = answerDocumentJdbc.updateSelections(answerSheetId, answerIds, optionIds, LocalDateTime.now());
+            if (updated == 0) {
+                throw new IllegalStateException("Answer sheet is not in progress");
+            }
+            return AnswerSelectionResponse.builder()
+                    .answerSheetId(answerSheetId)
+                    .updated(updated)
+                    .answeredCount(answerDocumentJdbc.countSelectedAnswers(answerSheetId))
+                    .build();
+        });
     }
 
     /**
@@ -48,8 +144,10 @@ public class AnswerSubmissionService {
      */
     @Transactional
     public Answer uploadAnswerImage(UUID answerId, MultipartFile image) throws IOException {
-        Answer answer = answerRepository.findById(answerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Answer", "id", answerId));
+        Answer answer = answerRepository.findById(answerId).orElse(null);
+        if (answer == null) {
+            return uploadDocumentImage(answerId, image);
+        }
 
         // Upload image and get URL
         String imageUrl = fileStorageService.uploadImage(image, answerId);
@@ -65,47 +163,111 @@ public class AnswerSubmissionService {
     }
 
     /**
-     * Submit answer sheet
+     * Attach an image to an answer held in a sheet document; the returned
+     * answer is a detached view, not a managed entity
      */
-    @Transactional
-    public AnswerSheet submitAnswerSheet(UUID answerSheetId) {
-        AnswerSheet answerSheet = answerSheetRepository.findById(answerSheetId)
-                .orElseThrow(() -> new ResourceNotFoundException("AnswerSheet", "id", answerSheetId));
+    private Answer uploadDocumentImage(UUID answerId, MultipartFile image) throws IOException {
+        AnswerDocumentJdbc.AnswerText stored = answerDocumentJdbc.findAnswerText(answerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Answer", "id", answerId));
+        String imageUrl = fileStorageService.uploadImage(image, answerId);
+        LocalDateTime answeredAt = LocalDateTime.now();
+        List<String> imageUrls = answerDocumentJdbc.appendDocumentImage(answerId, imageUrl, answeredAt)
+                .orElseThrow(() -> new IllegalStateException("Answer sheet is not in progress"));
+        return Answer.builder()
+                .id(answerId)
+                .answerText(stored.text())
+                .imageUrls(new ArrayList<>(imageUrls))
+                .answeredAt(answeredAt)
+                .textVersion(stored.version())
+                .build();
+    }
+
+    /**
+     * Submit answer sheet. The submit waits for any lock held on the sheet;
+     * the transition is conditional, so a sheet already submitted (by a
+     * retry or the expiry sweeper) is returned as it is instead of being
+     * graded again. Buffered texts are flushed
+     * before the submit transaction opens, so a submit never holds two
+     * pooled connections at once.
+     */
+    public AnswerSheetResponse submitAnswerSheet(UUID answerSheetId) {
+        answerAutosaveBuffer.flushSheets(List.of(answerSheetId));
+
+        return transactionTemplate.execute(status -> {
+            if (answerSheetJdbc.submitWaiting(answerSheetId, LocalDateTime.now()) == 0) {
+                log.debug("Answer sheet {} was not in progress", answerSheetId);
+            }
+
+            AnswerSheet answerSheet = answerSheetRepository.findById(answerSheetId)
+                    .orElseThrow(() -> new ResourceNotFoundException("AnswerSheet", "id", answerSheetId));
 
-        answerSheet.submit();
+            return AnswerSheetResponse.builder()
+                    .id(answerSheet.getId())
+                    .examId(answerSheet.getExam().getId())
+                    .status(answerSheet.getStatus())
+                    .startedAt(answerSheet.getStartedAt())
+                    .expiresAt(answerSheet.getExpiresAt())
+                    .submittedAt(answerSheet.getSubmittedAt())
+                    .totalPoints(answerSheet.getTotalPoints())
+                    .obtainedPoints(answerSheet.getObtainedPoints())
+                    .build();
+        });
+    }
 
-        // Auto-grade objective questions
-        answerSheet.getAnswers().forEach(answer -> {
-            if (answer.getQuestion().getType() == com.coaching.platform.enums.QuestionType.OBJECTIVE) {
-                answer.autoGrade();
+    /**
+     * Save path without write-behind, for either storage layout. The sheet
+     * row is locked before the stored text is read, so the version check
+     * cannot race another save, a grade write or a layout conversion of the
+     * same sheet; closed sheets are rejected like on the buffered path.
+     */
+    private AnswerSaveResponse saveDirectly(UUID answerId, Long baseVersion, UnaryOperator<String> change) {
+        return transactionTemplate.execute(status -> {
+            AnswerDocumentJdbc.AnswerText stored = answerDocumentJdbc.findAnswerText(answerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Answer", "id", answerId));
+            SubmissionStatus sheetStatus = answerSheetJdbc.lockSheet(stored.sheetId())
+                    .map(AnswerSheetJdbc.SheetRow::status)
+                    .orElse(null);
+            if (sheetStatus != SubmissionStatus.IN_PROGRESS) {
+                throw new UnauthorizedException("Answer sheet is no longer in progress");
+            }
+            stored = answerDocumentJdbc.findAnswerText(answerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Answer", "id", answerId));
+            if (baseVersion != null && baseVersion != stored.version()) {
+                throw new VersionConflictException("Answer", answerId, baseVersion, stored.version());
             }
+
+            AnswerDocumentJdbc.AnswerText saved = new AnswerDocumentJdbc.AnswerText(answerId, stored.sheetId(),
+                    change.apply(stored.text()), LocalDateTime.now(), stored.version() + 1);
+            answerDocumentJdbc.updateAnswerTexts(List.of(saved));
+            return toSaveResponse(saved);
         });
+    }
 
-        answerSheet.calculateObtainedPoints();
+    private static AnswerSaveResponse toSaveResponse(AnswerDocumentJdbc.AnswerText saved) {
+        return AnswerSaveResponse.builder()
+                .answerId(saved.answerId())
+                .answerSheetId(saved.sheetId())
+                .answeredAt(saved.answeredAt())
+                .textVersion(saved.version())
+                .build();
+    }
 
-        return answerSheetRepository.save(answerSheet);
+    /**
+     * Auto-submit the given sheets if they are still in progress; sheets
+     * already submitted, deleted or being submitted by another node are skipped
+     *
+     * @return the number of sheets submitted
+     */
+    public int autoSubmitSheets(Collection<UUID> answerSheetIds) {
+        int submitted = expiredSheetSweeper.submitChunk(List.copyOf(answerSheetIds));
+        log.info("Auto-submitted {} of {} expired answer sheets", submitted, answerSheetIds.size());
+        return submitted;
     }
 
     /**
      * Auto-submit exam when timer expires
      */
-    @Transactional
     public void autoSubmitExpiredExams() {
-        LocalDateTime now = LocalDateTime.now();
-        List<AnswerSheet> expiredSheets = answerSheetRepository.findByStatusAndExpiresAtBefore(
-                com.coaching.platform.enums.SubmissionStatus.IN_PROGRESS,
-                now);
-
-        for (AnswerSheet sheet : expiredSheets) {
-            sheet.submit();
-            sheet.getAnswers().forEach(answer -> {
-                if (answer.getQuestion().getType() == com.coaching.platform.enums.QuestionType.OBJECTIVE) {
-                    answer.autoGrade();
-                }
-            });
-            sheet.calculateObtainedPoints();
-            answerSheetRepository.save(sheet);
-            log.info("Auto-submitted expired answer sheet: {}", sheet.getId());
-        }
+        expiredSheetSweeper.sweep();
     }
 }
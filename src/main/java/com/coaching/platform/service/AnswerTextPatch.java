@@ -0,0 +1,36 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerPatchRequest.TextEdit;
+import com.coaching.platform.exception.InvalidPatchException;
+
+import java.util.List;
+
+/**
+ * Applies delta autosave edits to an answer text. Offsets count UTF-16
+ * code units, matching JavaScript string indices on the client.
+ */
+final class AnswerTextPatch {
+
+    private AnswerTextPatch() {
+    }
+
+    /**
+     * Apply the edits in order
+     *
+     * @throws InvalidPatchException if an edit falls outside the text
+     */
+    static String apply(String text, List<TextEdit> edits) {
+        StringBuilder result = new StringBuilder(text == null ? "" : text);
+        for (TextEdit edit : edits) {
+            int offset = edit.getOffset();
+            // Compared by subtraction so a huge delete count cannot overflow past the check
+            if (offset > result.length() || edit.getDeleteCount() > result.length() - offset) {
+                throw new InvalidPatchException(String.format(
+                        "Edit at %d deleting %d is outside the answer text of length %d",
+                        offset, edit.getDeleteCount(), result.length()));
+            }
+            result.replace(offset, offset + edit.getDeleteCount(), edit.getInsert() == null ? "" : edit.getInsert());
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.BatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the student IDs of each batch so exam-window requests can check
+ * batch membership without a database round trip. Entries expire after a
+ * TTL and are invalidated whenever a batch's students change.
+ */
+@Component
+@Slf4j
+public class BatchMembershipCache implements OperationalMetrics {
+
+    private final BatchRepository batchRepository;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<UUID, Members> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BatchMembershipCache(BatchRepository batchRepository,
+            @Value("${exam.batch-membership.ttl-seconds:300}") long ttlSeconds) {
+        this.batchRepository = batchRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Whether the student is enrolled in the batch
+     */
+    public boolean isMember(UUID batchId, UUID studentId) {
+        return batchId != null && lookup(batchId).contains(studentId);
+    }
+
+    /**
+     * Drop the cached members of a batch. When called inside a transaction
+     * the entry is dropped again after commit, so a concurrent request
+     * cannot re-cache the pre-commit state.
+     */
+    public void invalidate(UUID batchId) {
+        entries.remove(batchId);
+        invalidations.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(batchId);
+                }
+            });
+        }
+        log.debug("Invalidated batch membership cache for: {}", batchId);
+    }
+
+    @Override
+    public String metricsName() {
+        return "batch.membershipCache";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("batches", entries.size());
+        snapshot.put("students", entries.values().stream().mapToInt(members -> members.studentIds().size()).sum());
+        snapshot.put("ttlSeconds", ttlMillis / 1000);
+        snapshot.put("hits", h);
+        snapshot.put("misses", misses.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        snapshot.put("hitRate", total == 0 ? 0.0 : (double) h / total);
+        return snapshot;
+    }
+
+    private Set<UUID> lookup(UUID batchId) {
+        long now = System.currentTimeMillis();
+        Members cached = entries.get(batchId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.studentIds();
+        }
+
+        misses.increment();
+        Members loaded = new Members(Set.copyOf(batchRepository.findStudentIds(batchId)), now + ttlMillis);
+        entries.put(batchId, loaded);
+        return loaded.studentIds();
+    }
+
+    private record Members(Set<UUID> studentIds, long expiresAtMillis) {
+    }
+}
@@ -9,10 +9,9 @@ import com.coaching.platform.exception.ResourceNotFoundException;
 import com.coaching.platform.exception.UnauthorizedException;
 import com.coaching.platform.repository.BatchRepository;
 import com.coaching.platform.repository.UserRepository;
+import com.coaching.platform.security.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,22 +27,22 @@ public class BatchService {
 
     private final BatchRepository batchRepository;
     private final UserRepository userRepository;
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    private final BatchMembershipCache batchMembershipCache;
+
+    /**
+     * Ensure the current user is an ADMIN
+     */
+    private void ensureAdmin(String message) {
+        if (UserContext.getRole() != Role.ADMIN) {
+            throw new UnauthorizedException(message);
+        }
     }
 
     @Transactional
     public BatchResponse createBatch(BatchRequest request) {
-        User currentUser = getCurrentUser();
-
         // Only ADMIN can create batches
-        if (currentUser.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Only ADMIN users can create batches");
-        }
+        ensureAdmin("Only ADMIN users can create batches");
+        User currentUser = userRepository.getReferenceById(UserContext.getUserId());
 
         log.info("Creating new batch: {}", request.getName());
 
@@ -61,14 +60,16 @@ public class BatchService {
         return convertToResponse(batch);
     }
 
+    @Transactional(readOnly = true)
     public List<BatchResponse> getAllBatches() {
-        User currentUser = getCurrentUser();
+        Role role = UserContext.getRole();
+        User currentUser = userRepository.getReferenceById(UserContext.getUserId());
         List<Batch> batches;
 
         // Filter batches based on role
-        if (currentUser.getRole() == Role.ADMIN) {
+        if (role == Role.ADMIN) {
             batches = batchRepository.findAll();
-        } else if (currentUser.getRole() == Role.FACULTY) {
+        } else if (role == Role.FACULTY) {
             batches = batchRepository.findByFacultyContaining(currentUser);
         } else { // STUDENT
             batches = batchRepository.findByStudentsContaining(currentUser);
@@ -79,16 +80,17 @@ public class BatchService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public BatchResponse getBatchById(UUID batchId) {
         Batch batch = batchRepository.findById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
 
-        User currentUser = getCurrentUser();
+        UUID currentUserId = UserContext.getUserId();
 
         // Check if user has access to this batch
-        if (currentUser.getRole() != Role.ADMIN &&
-                !batch.getStudents().contains(currentUser) &&
-                !batch.getFaculty().contains(currentUser)) {
+        if (UserContext.getRole() != Role.ADMIN &&
+                batch.getStudents().stream().noneMatch(user -> user.getId().equals(currentUserId)) &&
+                batch.getFaculty().stream().noneMatch(user -> user.getId().equals(currentUserId))) {
             throw new UnauthorizedException("You do not have access to this batch");
         }
 
@@ -97,11 +99,7 @@ public class BatchService {
 
     @Transactional
     public BatchResponse updateBatch(UUID batchId, BatchRequest request) {
-        User currentUser = getCurrentUser();
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Only ADMIN users can update batches");
-        }
+        ensureAdmin("Only ADMIN users can update batches");
 
         Batch batch = batchRepository.findById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
@@ -119,26 +117,19 @@ public class BatchService {
 
     @Transactional
     public void deleteBatch(UUID batchId) {
-        User currentUser = getCurrentUser();
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Only ADMIN users can delete batches");
-        }
+        ensureAdmin("Only ADMIN users can delete batches");
 
         Batch batch = batchRepository.findById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
 
         batchRepository.delete(batch);
+        batchMembershipCache.invalidate(batchId);
         log.info("Batch deleted successfully: {}", batchId);
     }
 
     @Transactional
     public BatchResponse assignStudents(UUID batchId, Set<UUID> studentIds) {
-        User currentUser = getCurrentUser();
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Only ADMIN users can assign students");
-        }
+        ensureAdmin("Only ADMIN users can assign students");
 
         Batch batch = batchRepository.findById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
@@ -151,6 +142,7 @@ public class BatchService {
 
         batch.getStudents().addAll(students);
         batch = batchRepository.save(batch);
+        batchMembershipCache.invalidate(batchId);
 
         log.info("Assigned {} students to batch {}", students.size(), batchId);
 
@@ -159,11 +151,7 @@ public class BatchService {
 
     @Transactional
     public BatchResponse assignFaculty(UUID batchId, Set<UUID> facultyIds) {
-        User currentUser = getCurrentUser();
-
-        if (currentUser.getRole() != Role.ADMIN) {
-            throw new UnauthorizedException("Only ADMIN users can assign faculty");
-        }
+        ensureAdmin("Only ADMIN users can assign faculty");
 
         Batch batch = batchRepository.findById(batchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Batch not found with ID: " + batchId));
@@ -0,0 +1,388 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.GradingJobResponse;
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.entity.GradingJob;
+import com.coaching.platform.entity.GradingJobPartition;
+import com.coaching.platform.enums.GradingJobStatus;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.GradingJdbc;
+import com.coaching.platform.repository.ExamRepository;
+import com.coaching.platform.repository.GradingJobPartitionRepository;
+import com.coaching.platform.repository.GradingJobRepository;
+import com.coaching.platform.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Grades all submitted answer sheets of an exam as one job. When the job is
+ * created its sheets are split into sheet ID ranges; each range is walked in
+ * keyset chunks on a bounded pool, one transaction per chunk, and its
+ * position advances in the same transaction as the grades. Running jobs
+ * heartbeat; a job whose node stopped is taken over under a new run token
+ * by the next maintenance pass on any node and continues from the recorded
+ * positions, while chunks of the old run can no longer commit.
+ */
+@Service
+@Slf4j
+public class BulkGradingService implements OperationalMetrics, DisposableBean {
+
+    private static final UUID FIRST_SHEET_ID = new UUID(0L, 0L);
+
+    private final ExamRepository examRepository;
+    private final UserRepository userRepository;
+    private final GradingJobRepository gradingJobRepository;
+    private final GradingJobPartitionRepository partitionRepository;
+    private final GradingJdbc gradingJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int chunkSize;
+    private final long staleSeconds;
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Jobs run by this node, with the run token each holds
+     */
+    private final ConcurrentHashMap<UUID, UUID> localRuns = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    private final LongAdder jobsStarted = new LongAdder();
+    private final LongAdder jobsResumed = new LongAdder();
+    private final LongAdder jobsCompleted = new LongAdder();
+    private final LongAdder jobsFailed = new LongAdder();
+    private final LongAdder sheetsGraded = new LongAdder();
+    private final LongAdder answersGraded = new LongAdder();
+    private final LatencyRecorder chunkLatency = new LatencyRecorder();
+
+    public BulkGradingService(ExamRepository examRepository,
+            UserRepository userRepository,
+            GradingJobRepository gradingJobRepository,
+            GradingJobPartitionRepository partitionRepository,
+            GradingJdbc gradingJdbc,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.bulk-grading.partitions:8}") int partitions,
+            @Value("${exam.bulk-grading.chunk-size:200}") int chunkSize,
+            @Value("${exam.bulk-grading.threads:4}") int threads,
+            @Value("${exam.bulk-grading.stale-seconds:60}") long staleSeconds) {
+        this.examRepository = examRepository;
+        this.userRepository = userRepository;
+        this.gradingJobRepository = gradingJobRepository;
+        this.partitionRepository = partitionRepository;
+        this.gradingJdbc = gradingJdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+        this.staleSeconds = staleSeconds;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-grader-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Start grading an exam's submitted sheets, or resume the exam's
+     * unfinished job (keeping its regrade setting). A job still running on
+     * a live node is returned as it is.
+     */
+    public GradingJobResponse startJob(UUID examId, UUID facultyId, boolean regrade) {
+        UUID jobId;
+        try {
+            jobId = transactionTemplate.execute(status -> {
+                Exam exam = examRepository.findById(examId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+                verifyFacultyOwnsExam(exam, facultyId);
+                Optional<GradingJob> latest = gradingJobRepository.findFirstByExam_IdOrderByCreatedAtDesc(examId);
+                if (latest.isPresent() && latest.get().getStatus() != GradingJobStatus.COMPLETED) {
+                    return latest.get().getId();
+                }
+                jobsStarted.increment();
+                return createJob(exam, facultyId, regrade).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request created the exam's unfinished job first
+            jobId = transactionTemplate.execute(status -> gradingJobRepository
+                    .findFirstByExam_IdOrderByCreatedAtDesc(examId)
+                    .orElseThrow(() -> e)
+                    .getId());
+        }
+
+        if (!localRuns.containsKey(jobId)) {
+            claim(jobId);
+        }
+        return getJob(jobId, facultyId);
+    }
+
+    /**
+     * Progress of a grading job
+     */
+    public GradingJobResponse getJob(UUID jobId, UUID facultyId) {
+        return transactionTemplate.execute(status -> {
+            GradingJob job = gradingJobRepository.findById(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Grading job not found"));
+            verifyFacultyOwnsExam(job.getExam(), facultyId);
+            return toResponse(job);
+        });
+    }
+
+    /**
+     * Heartbeat the jobs run by this node and take over running jobs whose
+     * heartbeat went stale, e.g. after their node stopped
+     */
+    @Scheduled(fixedDelayString = "${exam.bulk-grading.heartbeat-ms:10000}",
+            initialDelayString = "${exam.bulk-grading.heartbeat-ms:10000}")
+    public void maintainJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        localRuns.forEach((jobId, token) -> {
+            Integer beats = transactionTemplate.execute(
+                    status -> gradingJobRepository.heartbeat(jobId, token, now, GradingJobStatus.RUNNING));
+            if ((beats == null || beats == 0) && localRuns.remove(jobId, token)) {
+                log.warn("Grading job {} was taken over by another run", jobId);
+            }
+        });
+        if (stopping) {
+            return;
+        }
+        for (UUID jobId : gradingJobRepository.findStale(GradingJobStatus.RUNNING, now.minusSeconds(staleSeconds))) {
+            if (!localRuns.containsKey(jobId) && claim(jobId)) {
+                jobsResumed.increment();
+                log.info("Resumed grading job {}", jobId);
+            }
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.bulkGrading";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("jobsStarted", jobsStarted.sum());
+        snapshot.put("jobsResumed", jobsResumed.sum());
+        snapshot.put("jobsCompleted", jobsCompleted.sum());
+        snapshot.put("jobsFailed", jobsFailed.sum());
+        snapshot.put("runningJobs", localRuns.size());
+        snapshot.put("sheetsGraded", sheetsGraded.sum());
+        snapshot.put("answersGraded", answersGraded.sum());
+        snapshot.put("activeThreads", pool.getActiveCount());
+        snapshot.put("queuedPartitions", pool.getQueue().size());
+        snapshot.put("chunk", chunkLatency.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Stop at the next chunk boundary; unfinished jobs stay RUNNING and are
+     * resumed once their heartbeat goes stale
+     */
+    @Override
+    public void destroy() {
+        stopping = true;
+        pool.shutdown();
+    }
+
+    /**
+     * Split the exam's submitted sheets into contiguous ID ranges of about
+     * equal size. The first range starts below every ID and the last is
+     * open, so sheets submitted after partitioning are still covered.
+     */
+    private GradingJob createJob(Exam exam, UUID facultyId, boolean regrade) {
+        int total = gradingJdbc.countSheets(exam.getId(), SubmissionStatus.SUBMITTED);
+        int step = Math.max(1, (total + partitions - 1) / partitions);
+        List<UUID> starts = gradingJdbc.findRangeStarts(exam.getId(), SubmissionStatus.SUBMITTED, step);
+
+        GradingJob job = GradingJob.builder()
+                .exam(exam)
+                .requestedBy(userRepository.getReferenceById(facultyId))
+                .regrade(regrade)
+                .totalSheets(total)
+                .build();
+        for (int i = 0; i < starts.size(); i++) {
+            job.addPartition(GradingJobPartition.builder()
+                    .partitionNumber(i)
+                    .fromSheetId(i == 0 ? FIRST_SHEET_ID : starts.get(i))
+                    .toSheetId(i + 1 < starts.size() ? starts.get(i + 1) : null)
+                    .build());
+        }
+        GradingJob saved = gradingJobRepository.saveAndFlush(job);
+        log.info("Created grading job {} for exam {}: {} sheets in {} partitions",
+                saved.getId(), exam.getId(), total, starts.size());
+        return saved;
+    }
+
+    /**
+     * Take the job over under a new run token and grade its unfinished
+     * partitions on this node
+     *
+     * @return false if the job is finished or running on a live node
+     */
+    private boolean claim(UUID jobId) {
+        UUID token = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        JobRun run = transactionTemplate.execute(status -> {
+            List<GradingJobPartition> parts = partitionRepository.findByJob_IdOrderByPartitionNumber(jobId);
+            int graded = parts.stream().mapToInt(GradingJobPartition::getSheetsGraded).sum();
+            if (gradingJobRepository.claim(jobId, token, now, now.minusSeconds(staleSeconds), graded,
+                    GradingJobStatus.RUNNING, GradingJobStatus.FAILED) == 0) {
+                return null;
+            }
+            GradingJob job = gradingJobRepository.getReferenceById(jobId);
+            List<PartitionWork> work = parts.stream()
+                    .filter(part -> !part.getCompleted())
+                    .map(part -> new PartitionWork(part.getId(), part.getFromSheetId(), part.getToSheetId(),
+                            part.getLastSheetId()))
+                    .toList();
+            return new JobRun(jobId, token, job.getExam().getId(), job.getRegrade(), work);
+        });
+        if (run == null) {
+            return false;
+        }
+
+        localRuns.put(jobId, token);
+        CompletableFuture<?>[] tasks = run.partitions().stream()
+                .map(partition -> CompletableFuture.runAsync(() -> gradePartition(run, partition), pool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).whenComplete((ignored, failure) -> finish(run, failure));
+        return true;
+    }
+
+    private void gradePartition(JobRun run, PartitionWork partition) {
+        UUID last = partition.lastSheetId();
+        while (isCurrent(run)) {
+            List<UUID> page = gradingJdbc.findSheetIdsInRange(run.examId(), SubmissionStatus.SUBMITTED,
+                    partition.fromSheetId(), partition.toSheetId(), last, chunkSize);
+            if (page.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.complete(partition.id(), run.token()));
+                return;
+            }
+
+            long start = System.nanoTime();
+            UUID expected = last;
+            UUID next = page.get(page.size() - 1);
+            Integer answers = transactionTemplate.execute(status -> {
+                int graded = gradingJdbc.gradeSubmittedSheets(page, run.regrade());
+                if (partitionRepository.advance(partition.id(), run.token(), expected, expected == null, next,
+                        page.size(), graded) == 0) {
+                    throw new IllegalStateException("Grading job " + run.jobId() + " was taken over by another run");
+                }
+                return graded;
+            });
+            chunkLatency.record(System.nanoTime() - start);
+            sheetsGraded.add(page.size());
+            answersGraded.add(answers != null ? answers : 0);
+            last = next;
+        }
+    }
+
+    private boolean isCurrent(JobRun run) {
+        return !stopping && run.token().equals(localRuns.get(run.jobId()));
+    }
+
+    private void finish(JobRun run, Throwable failure) {
+        if (!localRuns.remove(run.jobId(), run.token())) {
+            return;
+        }
+        if (stopping && failure == null) {
+            log.info("Grading job {} paused for shutdown", run.jobId());
+            return;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        GradingJobStatus outcome = cause == null ? GradingJobStatus.COMPLETED : GradingJobStatus.FAILED;
+        transactionTemplate.executeWithoutResult(status -> gradingJobRepository.finish(run.jobId(), run.token(),
+                outcome, LocalDateTime.now(), cause != null ? cause.getMessage() : null, GradingJobStatus.RUNNING));
+        if (cause == null) {
+            jobsCompleted.increment();
+            log.info("Grading job {} completed", run.jobId());
+        } else {
+            jobsFailed.increment();
+            log.error("Grading job {} failed", run.jobId(), cause);
+        }
+    }
+
+    private GradingJobResponse toResponse(GradingJob job) {
+        int sheets = 0;
+        int answers = 0;
+        int completed = 0;
+        for (GradingJobPartition part : job.getPartitions()) {
+            sheets += part.getSheetsGraded();
+            answers += part.getAnswersGraded();
+            completed += part.getCompleted() ? 1 : 0;
+        }
+
+        double rate = 0;
+        if (job.getRunStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            double seconds = Duration.between(job.getRunStartedAt(), end).toMillis() / 1000.0;
+            int runSheets = sheets - (job.getRunStartSheets() != null ? job.getRunStartSheets() : 0);
+            rate = seconds > 0 ? runSheets / seconds : 0;
+        }
+        Long eta = null;
+        if (job.getStatus() == GradingJobStatus.RUNNING && rate > 0) {
+            eta = (long) Math.ceil(Math.max(0, job.getTotalSheets() - sheets) / rate);
+        }
+
+        return GradingJobResponse.builder()
+                .id(job.getId())
+                .examId(job.getExam().getId())
+                .status(job.getStatus())
+                .regrade(Boolean.TRUE.equals(job.getRegrade()))
+                .totalSheets(job.getTotalSheets())
+                .sheetsGraded(sheets)
+                .answersGraded(answers)
+                .partitions(job.getPartitions().size())
+                .partitionsCompleted(completed)
+                .sheetsPerSecond(rate)
+                .etaSeconds(eta)
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+
+    private void verifyFacultyOwnsExam(Exam exam, UUID facultyId) {
+        if (!exam.getCreatedBy().getId().equals(facultyId)) {
+            throw new UnauthorizedException("You do not have permission to grade this exam");
+        }
+    }
+
+    /**
+     * One run of a job on this node and the partitions it still has to grade
+     */
+    private record JobRun(UUID jobId, UUID token, UUID examId, boolean regrade, List<PartitionWork> partitions) {
+    }
+
+    private record PartitionWork(UUID id, UUID fromSheetId, UUID toSheetId, UUID lastSheetId) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.OperationalMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control in front of exam start. Each exam has a token bucket
+ * that limits how many students may start per second, and a FIFO waiting
+ * room for everyone else. Waiting students get their queue position and a
+ * retry-after hint; the exam timer only starts once they are admitted.
+ * Only students of the exam's batch are queued. A gate is dropped once its
+ * exam has seen no start attempts for the idle TTL, so its admitted set is
+ * bounded by the batch and lives only as long as the exam is active.
+ */
+@Service
+@Slf4j
+public class ExamAdmissionService implements OperationalMetrics {
+
+    private final ExamPaperCache examPaperCache;
+    private final BatchMembershipCache batchMembershipCache;
+    private final boolean enabled;
+    private final double defaultPermitsPerSecond;
+    private final int defaultBurst;
+    private final long ticketTtlMillis;
+    private final long maxRetryAfterSeconds;
+    private final long gateIdleMillis;
+
+    private final ConcurrentHashMap<UUID, ExamGate> gates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Rate> rateOverrides = new ConcurrentHashMap<>();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder evictedGates = new LongAdder();
+
+    public ExamAdmissionService(ExamPaperCache examPaperCache,
+            BatchMembershipCache batchMembershipCache,
+            @Value("${exam.admission.enabled:true}") boolean enabled,
+            @Value("${exam.admission.permits-per-second:50}") double defaultPermitsPerSecond,
+            @Value("${exam.admission.burst:100}") int defaultBurst,
+            @Value("${exam.admission.ticket-ttl-seconds:30}") long ticketTtlSeconds,
+            @Value("${exam.admission.max-retry-after-seconds:30}") long maxRetryAfterSeconds,
+            @Value("${exam.admission.gate-idle-seconds:600}") long gateIdleSeconds) {
+        this.examPaperCache = examPaperCache;
+        this.batchMembershipCache = batchMembershipCache;
+        this.enabled = enabled;
+        this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+        this.defaultBurst = defaultBurst;
+        this.ticketTtlMillis = ticketTtlSeconds * 1000;
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+        this.gateIdleMillis = gateIdleSeconds * 1000;
+    }
+
+    /**
+     * Admit the student now, or place them in (or keep them in) the waiting
+     * room. Students already admitted are always let through so retries and
+     * reloads never queue again.
+     */
+    public Admission admit(UUID examId, UUID studentId) {
+        // Fails with 404 for unknown or unpublished exams, without a DB hit once cached
+        ExamPaper paper = examPaperCache.getPaper(examId).paper();
+        if (!batchMembershipCache.isMember(paper.getBatchId(), studentId)) {
+            denied.increment();
+            throw new UnauthorizedException("You are not enrolled in the batch of this exam");
+        }
+        if (!enabled) {
+            return Admission.ADMITTED;
+        }
+        ExamGate gate = gates.computeIfAbsent(examId, this::newGate);
+        return gate.admit(studentId, System.nanoTime(), System.currentTimeMillis());
+    }
+
+    /**
+     * Change the admission rate of one exam at runtime. The rate outlives
+     * the exam's gate, so it also applies after an idle gate is dropped.
+     */
+    public void updateRate(UUID examId, double permitsPerSecond, int burst) {
+        rateOverrides.put(examId, new Rate(permitsPerSecond, burst));
+        gates.computeIfAbsent(examId, this::newGate).updateRate(permitsPerSecond, burst, System.nanoTime());
+        log.info("Admission rate for exam {} set to {}/s (burst {})", examId, permitsPerSecond, burst);
+    }
+
+    /**
+     * Drop gates of exams with no start attempts for the idle TTL; a late
+     * starter gets a fresh gate with a full burst
+     */
+    @Scheduled(fixedDelayString = "${exam.admission.gate-sweep-ms:60000}")
+    public void evictIdleGates() {
+        long cutoff = System.currentTimeMillis() - gateIdleMillis;
+        gates.forEach((examId, gate) -> {
+            if (gates.computeIfPresent(examId, (id, current) -> current.idleSince(cutoff) ? null : current) == null) {
+                evictedGates.increment();
+                log.debug("Dropped idle admission gate of exam {}", examId);
+            }
+        });
+    }
+
+    private ExamGate newGate(UUID examId) {
+        Rate rate = rateOverrides.get(examId);
+        return rate == null
+                ? new ExamGate(defaultPermitsPerSecond, defaultBurst)
+                : new ExamGate(rate.permitsPerSecond(), rate.burst());
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.admission";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("defaultPermitsPerSecond", defaultPermitsPerSecond);
+        snapshot.put("defaultBurst", defaultBurst);
+        snapshot.put("denied", denied.sum());
+        snapshot.put("evictedGates", evictedGates.sum());
+        Map<String, Object> exams = new TreeMap<>();
+        gates.forEach((examId, gate) -> exams.put(examId.toString(), gate.snapshot()));
+        snapshot.put("exams", exams);
+        return snapshot;
+    }
+
+    /**
+     * Outcome of an admission attempt
+     */
+    public record Admission(boolean admitted, int position, long retryAfterSeconds) {
+
+        static final Admission ADMITTED = new Admission(true, 0, 0);
+    }
+
+    private record Rate(double permitsPerSecond, int burst) {
+    }
+
+    /**
+     * Token bucket plus FIFO waiting room of one exam. Tickets carry a
+     * sequence number so a student's position is computed without scanning
+     * the queue.
+     */
+    private final class ExamGate {
+
+        private double permitsPerSecond;
+        private int burst;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private long nextSequence;
+        private final LinkedHashMap<UUID, Ticket> waiting = new LinkedHashMap<>();
+        private final Set<UUID> admitted = new HashSet<>();
+
+        private long admittedCount;
+        private long waitResponses;
+        private long droppedTickets;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+        private long lastUsedMillis;
+
+        ExamGate(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.tokens = burst;
+            this.lastRefillNanos = System.nanoTime();
+            this.lastUsedMillis = System.currentTimeMillis();
+        }
+
+        synchronized Admission admit(UUID studentId, long nowNanos, long nowMillis) {
+            lastUsedMillis = nowMillis;
+            if (admitted.contains(studentId)) {
+                return Admission.ADMITTED;
+            }
+            refill(nowNanos);
+            dropStaleTickets(nowMillis);
+
+            Ticket ticket = waiting.get(studentId);
+            if (ticket == null) {
+                ticket = new Ticket(nextSequence++, nowMillis);
+                waiting.put(studentId, ticket);
+            }
+            ticket.lastSeenMillis = nowMillis;
+
+            int position = (int) (ticket.sequence - waiting.values().iterator().next().sequence);
+            if (position < (int) tokens) {
+                tokens -= 1;
+                waiting.remove(studentId);
+                admitted.add(studentId);
+                admittedCount++;
+                long waited = nowMillis - ticket.enqueuedAtMillis;
+                totalWaitMillis += waited;
+                maxWaitMillis = Math.max(maxWaitMillis, waited);
+                return Admission.ADMITTED;
+            }
+
+            waitResponses++;
+            double deficit = position + 1 - tokens;
+            long retryAfter = Math.max(1, (long) Math.ceil(deficit / permitsPerSecond));
+            return new Admission(false, position + 1, Math.min(retryAfter, maxRetryAfterSeconds));
+        }
+
+        synchronized void updateRate(double permitsPerSecond, int burst, long nowNanos) {
+            refill(nowNanos);
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.tokens = Math.min(tokens, burst);
+        }
+
+        synchronized boolean idleSince(long cutoffMillis) {
+            return lastUsedMillis < cutoffMillis;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("permitsPerSecond", permitsPerSecond);
+            snapshot.put("burst", burst);
+            snapshot.put("availableTokens", (int) tokens);
+            snapshot.put("waiting", waiting.size());
+            snapshot.put("admitted", admittedCount);
+            snapshot.put("waitResponses", waitResponses);
+            snapshot.put("droppedTickets", droppedTickets);
+            snapshot.put("meanWaitMillis", admittedCount == 0 ? 0 : totalWaitMillis / admittedCount);
+            snapshot.put("maxWaitMillis", maxWaitMillis);
+            return snapshot;
+        }
+
+        private void refill(long nowNanos) {
+            double elapsedSeconds = (nowNanos - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(burst, tokens + elapsedSeconds * permitsPerSecond);
+            lastRefillNanos = nowNanos;
+        }
+
+        /**
+         * Remove tickets of students who stopped polling so they do not hold
+         * places at the head of the queue
+         */
+        private void dropStaleTickets(long nowMillis) {
+            Iterator<Ticket> tickets = waiting.values().iterator();
+            while (tickets.hasNext()) {
+                Ticket ticket = tickets.next();
+                if (nowMillis - ticket.lastSeenMillis <= ticketTtlMillis) {
+                    break;
+                }
+                tickets.remove();
+                droppedTickets++;
+            }
+        }
+    }
+
+    private static final class Ticket {
+
+        private final long sequence;
+        private final long enqueuedAtMillis;
+        private long lastSeenMillis;
+
+        Ticket(long sequence, long enqueuedAtMillis) {
+            this.sequence = sequence;
+            this.enqueuedAtMillis = enqueuedAtMillis;
+            this.lastSeenMillis = enqueuedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.entity.Question;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.ExamStatus;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.grading.AnswerKeySource;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.ExamRepository;
+import com.coaching.platform.repository.QuestionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory cache of published exam papers, compiled into a student-safe
+ * {@link ExamPaper} and pre-serialized to JSON. Papers are compiled when an
+ * exam is published and served as raw bytes, so opening a paper does not
+ * touch the database. A miss (e.g. after a restart) is compiled once,
+ * however many students request it concurrently. The exam's
+ * {@link AnswerKey} is compiled alongside and never serialized.
+ * <p>
+ * Every question change bumps the exam's paper version. A cached paper is
+ * checked against that version at most once per revalidation interval, so
+ * a change made through another node is picked up within the interval.
+ */
+@Component
+@Slf4j
+public class ExamPaperCache implements OperationalMetrics, AnswerKeySource {
+
+    private final ExamRepository examRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final long revalidateNanos;
+
+    private final ConcurrentHashMap<UUID, CompiledPaper> papers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Long> validatedAt = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CompletableFuture<CompiledPaper>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LatencyRecorder compileLatency = new LatencyRecorder();
+
+    public ExamPaperCache(ExamRepository examRepository,
+            QuestionRepository questionRepository,
+            ObjectMapper objectMapper,
+            @Value("${exam.paper-cache.revalidate-ms:5000}") long revalidateMillis) {
+        this.examRepository = examRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+        this.revalidateNanos = revalidateMillis * 1_000_000;
+    }
+
+    /**
+     * Get the compiled paper for a published exam
+     */
+    public CompiledPaper getPaper(UUID examId) {
+        CompiledPaper cached = papers.get(examId);
+        if (cached != null && isCurrent(cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CompletableFuture<CompiledPaper> mine = new CompletableFuture<>();
+        CompletableFuture<CompiledPaper> inFlight = loading.putIfAbsent(examId, mine);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            CompiledPaper paper = load(examId);
+            store(paper);
+            mine.complete(paper);
+            return paper;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(examId, mine);
+        }
+    }
+
+    /**
+     * Get the answer key of a published exam, used to auto-grade its sheets
+     */
+    @Override
+    public AnswerKey answerKey(UUID examId) {
+        return getPaper(examId).answerKey();
+    }
+
+    /**
+     * Compile a freshly published exam and cache it once the publishing
+     * transaction commits
+     */
+    public void publish(Exam exam) {
+        CompiledPaper paper = compile(exam, questionRepository.findWithOptionsByExamId(exam.getId()));
+        afterCommit(() -> store(paper));
+        log.info("Compiled paper for exam {} version {} ({} bytes)", exam.getId(), paper.version(), paper.json().length);
+    }
+
+    /**
+     * Drop the cached paper of an exam whose questions changed; it is
+     * recompiled on the next read. Callers bump the exam's paper version in
+     * the same transaction so other nodes and client ETags see the change.
+     */
+    public void evict(UUID examId) {
+        papers.remove(examId);
+        afterCommit(() -> papers.remove(examId));
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.paperCache";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("papers", papers.size());
+        snapshot.put("bytes", papers.values().stream().mapToLong(p -> p.json().length).sum());
+        snapshot.put("hits", h);
+        snapshot.put("misses", misses.sum());
+        snapshot.put("revalidations", revalidations.sum());
+        snapshot.put("stale", stale.sum());
+        snapshot.put("hitRate", total == 0 ? 0.0 : (double) h / total);
+        snapshot.put("compile", compileLatency.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Check a cached paper against the exam's paper version once the
+     * revalidation interval has passed; only one reader per interval pays
+     * for the check, the others keep serving the cached paper. A stale
+     * paper is dropped.
+     */
+    private boolean isCurrent(CompiledPaper cached) {
+        UUID examId = cached.examId();
+        long now = System.nanoTime();
+        Long checked = validatedAt.get(examId);
+        if (checked != null && (now - checked < revalidateNanos || !validatedAt.replace(examId, checked, now))) {
+            return true;
+        }
+        if (checked == null && validatedAt.putIfAbsent(examId, now) != null) {
+            return true;
+        }
+        revalidations.increment();
+        Long version = examRepository.findPaperVersion(examId).orElse(null);
+        if (version != null && version == cached.version()) {
+            return true;
+        }
+        stale.increment();
+        papers.remove(examId, cached);
+        log.info("Cached paper of exam {} version {} is stale (now {})", examId, cached.version(), version);
+        return false;
+    }
+
+    private CompiledPaper load(UUID examId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam", "id", examId));
+        if (exam.getStatus() == ExamStatus.DRAFT) {
+            throw new ResourceNotFoundException("Exam", "id", examId);
+        }
+        return compile(exam, questionRepository.findWithOptionsByExamId(examId));
+    }
+
+    private CompiledPaper compile(Exam exam, List<Question> questions) {
+        long start = System.nanoTime();
+        List<ExamPaper.PaperQuestion> paperQuestions = questions.stream()
+                .sorted(Comparator.comparing(Question::getOrderNumber))
+                .map(question -> ExamPaper.PaperQuestion.builder()
+                        .id(question.getId())
+                        .type(question.getType())
+                        .questionText(question.getQuestionText())
+                        .points(question.getPoints())
+                        .orderNumber(question.getOrderNumber())
+                        .options(question.getOptions().stream()
+                                .map(option -> ExamPaper.PaperOption.builder()
+                                        .id(option.getId())
+                                        .optionText(option.getOptionText())
+                                        .orderNumber(option.getOrderNumber())
+                                        .build())
+                                .toList())
+                        .build())
+                .toList();
+
+        ExamPaper paper = ExamPaper.builder()
+                .examId(exam.getId())
+                .version(exam.getPaperVersion())
+                .title(exam.getTitle())
+                .instructions(exam.getInstructions())
+                .durationMinutes(exam.getDurationMinutes())
+                .offlineMode(Boolean.TRUE.equals(exam.getOfflineMode()))
+                .answerStorage(exam.getAnswerStorage() != null ? exam.getAnswerStorage() : AnswerStorage.ROWS)
+                .totalPoints(questions.stream().mapToInt(Question::getPoints).sum())
+                .publishedAt(exam.getPublishedAt())
+                .startsAt(exam.getStartsAt())
+                .batchId(exam.getBatch() != null ? exam.getBatch().getId() : null)
+                .questions(paperQuestions)
+                .build();
+
+        try {
+            return new CompiledPaper(exam.getId(), paper.getVersion(), objectMapper.writeValueAsBytes(paper), paper,
+                    AnswerKey.compile(questions));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize paper for exam " + exam.getId(), e);
+        } finally {
+            compileLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Keep the newest version of each paper
+     */
+    private void store(CompiledPaper paper) {
+        papers.merge(paper.examId(), paper,
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+        validatedAt.put(paper.examId(), System.nanoTime());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Serialized paper of one exam version, with the snapshot it was built
+     * from and its answer key
+     */
+    public record CompiledPaper(UUID examId, long version, byte[] json, ExamPaper paper, AnswerKey answerKey) {
+
+        /**
+         * Entity tag identifying this paper version
+         */
+        public String etag() {
+            return "\"" + examId + "-" + version + "\"";
+        }
+    }
+}
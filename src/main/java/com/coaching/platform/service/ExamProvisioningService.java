@@ -0,0 +1,89 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.repository.AnswerSheetStartJdbc;
+import com.coaching.platform.repository.BatchRepository;
+import com.coaching.platform.repository.ExamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Materializes answer sheets and their answers for every enrolled student ahead
+ * of the exam window, so starting the exam is a single status update
+ */
+@Service
+@Slf4j
+public class ExamProvisioningService {
+
+    private final ExamRepository examRepository;
+    private final BatchRepository batchRepository;
+    private final AnswerSheetStartJdbc answerSheetStartJdbc;
+    private final ExamPaperCache examPaperCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public ExamProvisioningService(ExamRepository examRepository,
+            BatchRepository batchRepository,
+            AnswerSheetStartJdbc answerSheetStartJdbc,
+            ExamPaperCache examPaperCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.provisioning.enabled:false}") boolean enabled,
+            @Value("${exam.provisioning.chunk-size:200}") int chunkSize) {
+        this.examRepository = examRepository;
+        this.batchRepository = batchRepository;
+        this.answerSheetStartJdbc = answerSheetStartJdbc;
+        this.examPaperCache = examPaperCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Whether exams are provisioned automatically when published
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Provision sheets for all enrolled students that do not have one yet.
+     * Each chunk of students is committed in its own transaction.
+     */
+    @Async
+    public void provisionExam(UUID examId) {
+        long start = System.currentTimeMillis();
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam", "id", examId));
+        ExamPaper paper = examPaperCache.getPaper(examId).paper();
+        List<UUID> questionIds = paper.getQuestions().stream()
+                .map(ExamPaper.PaperQuestion::getId)
+                .toList();
+
+        Set<UUID> alreadyProvisioned = new HashSet<>(answerSheetStartJdbc.findStudentIdsWithSheet(examId));
+        List<UUID> studentIds = batchRepository.findStudentIds(exam.getBatch().getId()).stream()
+                .filter(studentId -> !alreadyProvisioned.contains(studentId))
+                .toList();
+
+        int provisioned = 0;
+        for (int from = 0; from < studentIds.size(); from += chunkSize) {
+            List<UUID> chunk = studentIds.subList(from, Math.min(from + chunkSize, studentIds.size()));
+            provisioned += transactionTemplate.execute(status -> answerSheetStartJdbc.insertProvisionedSheets(
+                    examId, chunk, questionIds, paper.getTotalPoints(), paper.getAnswerStorage()));
+        }
+
+        log.info("Provisioned {} answer sheets ({} questions each) for exam {} in {} ms",
+                provisioned, questionIds.size(), examId, System.currentTimeMillis() - start);
+    }
+}
@@ -2,6 +2,7 @@ package com.coaching.platform.service;
 
 import com.coaching.platform.dto.*;
 import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.AnswerStorage;
 import com.coaching.platform.enums.ExamStatus;
 import com.coaching.platform.enums.QuestionType;
 import com.coaching.platform.exception.ResourceNotFoundException;
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +29,10 @@ public class ExamService {
     private final BatchRepository batchRepository;
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
+    private final ExamPaperCache examPaperCache;
+    private final ExamProvisioningService examProvisioningService;
+    private final ExamAdmissionService examAdmissionService;
+    private final AnswerStorageMigrationService answerStorageMigrationService;
 
     @Transactional
     public ExamResponse createExam(CreateExamRequest request, UUID facultyId) {
@@ -41,6 +48,9 @@ public class ExamService {
                 .title(request.getTitle())
                 .instructions(request.getInstructions())
                 .durationMinutes(request.getDurationMinutes())
+                .offlineMode(Boolean.TRUE.equals(request.getOfflineMode()))
+                .answerStorage(request.getAnswerStorage() != null ? request.getAnswerStorage() : AnswerStorage.ROWS)
+                .startsAt(request.getStartsAt())
                 .createdBy(faculty)
                 .organization(faculty.getOrganization())
                 .batch(batch)
@@ -83,6 +93,9 @@ public class ExamService {
         }
 
         questionRepository.save(question);
+        exam.bumpPaperVersion();
+        examRepository.save(exam);
+        examPaperCache.evict(examId);
         log.info("Question added to exam: {}", examId);
     }
 
@@ -101,9 +114,47 @@ public class ExamService {
 
         exam.publish();
         examRepository.save(exam);
+        examPaperCache.publish(exam);
+        if (examProvisioningService.isEnabled()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    examProvisioningService.provisionExam(examId);
+                }
+            });
+        }
         log.info("Exam published: {}", examId);
     }
 
+    /**
+     * Pre-create answer sheets for all enrolled students in the background
+     */
+    public void provisionExam(UUID examId, UUID facultyId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+
+        verifyFacultyOwnsExam(exam, facultyId);
+
+        if (exam.getStatus() != ExamStatus.PUBLISHED) {
+            throw new IllegalStateException("Only published exams can be provisioned");
+        }
+
+        examProvisioningService.provisionExam(examId);
+        log.info("Provisioning requested for exam: {}", examId);
+    }
+
+    /**
+     * Tune how many students per second may start the exam
+     */
+    public void updateAdmissionRate(UUID examId, AdmissionRateRequest request, UUID facultyId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+
+        verifyFacultyOwnsExam(exam, facultyId);
+
+        examAdmissionService.updateRate(examId, request.getPermitsPerSecond(), request.getBurst());
+    }
+
     public List<ExamResponse> getFacultyExams(UUID facultyId) {
         log.info("Fetching exams for faculty: {}", facultyId);
         List<Exam> exams = examRepository.findByCreatedBy_Id(facultyId);
@@ -127,9 +178,25 @@ public class ExamService {
         verifyFacultyOwnsExam(question.getExam(), facultyId);
 
         questionRepository.delete(question);
+        Exam exam = question.getExam();
+        exam.bumpPaperVersion();
+        examRepository.save(exam);
+        examPaperCache.evict(exam.getId());
         log.info("Question deleted: {}", questionId);
     }
 
+    /**
+     * Switch the answer layout of an exam and convert its existing sheets
+     */
+    public AnswerStorageMigrationResponse changeAnswerStorage(UUID examId, AnswerStorage storage, UUID facultyId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+
+        verifyFacultyOwnsExam(exam, facultyId);
+
+        return answerStorageMigrationService.migrateExam(examId, storage);
+    }
+
     private void verifyFacultyOwnsExam(Exam exam, UUID facultyId) {
         if (!exam.getCreatedBy().getId().equals(facultyId)) {
             throw new UnauthorizedException("You do not have permission to modify this exam");
@@ -142,6 +209,8 @@ public class ExamService {
                 .title(exam.getTitle())
                 .instructions(exam.getInstructions())
                 .durationMinutes(exam.getDurationMinutes())
+                .offlineMode(exam.getOfflineMode())
+                .answerStorage(exam.getAnswerStorage())
                 .status(exam.getStatus())
                 .batchName(exam.getBatch() != null ? exam.getBatch().getName() : null)
                 .batchId(exam.getBatch() != null ? exam.getBatch().getId() : null)
@@ -149,6 +218,7 @@ public class ExamService {
                 .totalPoints(exam.getTotalPoints())
                 .createdAt(exam.getCreatedAt())
                 .publishedAt(exam.getPublishedAt())
+                .startsAt(exam.getStartsAt())
                 .build();
     }
 }
@@ -0,0 +1,224 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerSheetSummary;
+import com.coaching.platform.dto.GradingClaimResponse;
+import com.coaching.platform.dto.GradingLeaseRenewal;
+import com.coaching.platform.dto.SheetGradeRequest;
+import com.coaching.platform.dto.SheetGradeResponse;
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.EvaluationQueueJdbc;
+import com.coaching.platform.repository.ExamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands an exam's submitted sheets out to concurrent evaluators. A claim
+ * leases the next sheets to one evaluator atomically, so evaluators working
+ * the same exam never receive the same sheet; leases are extended by
+ * heartbeat, cleared when the sheet is graded or released, and a lease that
+ * runs out returns its sheet to the pool for the next claim.
+ */
+@Service
+@Slf4j
+public class GradingDispatchService implements OperationalMetrics {
+
+    private final ExamRepository examRepository;
+    private final AnswerSheetService answerSheetService;
+    private final EvaluationQueueJdbc evaluationQueueJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final long leaseSeconds;
+    private final int maxClaim;
+    private final int prefetch;
+
+    private final ConcurrentHashMap<UUID, EvaluatorStats> evaluators = new ConcurrentHashMap<>();
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder emptyClaims = new LongAdder();
+    private final LongAdder leasesLost = new LongAdder();
+    private final LatencyRecorder claimLatency = new LatencyRecorder();
+
+    public GradingDispatchService(ExamRepository examRepository,
+            AnswerSheetService answerSheetService,
+            EvaluationQueueJdbc evaluationQueueJdbc,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.grading-lease.lease-seconds:300}") long leaseSeconds,
+            @Value("${exam.grading-lease.max-claim:50}") int maxClaim,
+            @Value("${exam.grading-lease.prefetch:5}") int prefetch) {
+        this.examRepository = examRepository;
+        this.answerSheetService = answerSheetService;
+        this.evaluationQueueJdbc = evaluationQueueJdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseSeconds = leaseSeconds;
+        this.maxClaim = maxClaim;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Lease the exam's next {@code count} ungraded sheets to the evaluator,
+     * oldest submission first, and list the sheets likely to follow
+     */
+    public GradingClaimResponse claim(UUID examId, UUID facultyId, int count) {
+        verifyFacultyOwnsExam(examId, facultyId);
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        List<AnswerSheetSummary> sheets = evaluationQueueJdbc.claimForGrading(examId, facultyId, now, leaseUntil,
+                Math.max(1, Math.min(count, maxClaim)));
+        claimLatency.record(System.nanoTime() - start);
+
+        claims.increment();
+        if (sheets.isEmpty()) {
+            emptyClaims.increment();
+        }
+        stats(facultyId).claimed.add(sheets.size());
+        log.debug("Leased {} sheets of exam {} to {} until {}", sheets.size(), examId, facultyId, leaseUntil);
+
+        return GradingClaimResponse.builder()
+                .sheets(sheets)
+                .leaseExpiresAt(leaseUntil)
+                .upNext(prefetch > 0 ? evaluationQueueJdbc.peekGradingPool(examId, now, prefetch) : List.of())
+                .build();
+    }
+
+    /**
+     * Extend the evaluator's leases on the given sheets; sheets graded in
+     * the meantime or taken over after their lease ran out are reported as
+     * lost
+     */
+    public GradingLeaseRenewal heartbeat(UUID facultyId, List<UUID> sheetIds) {
+        LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+        List<UUID> renewed = evaluationQueueJdbc.renewGradingLeases(facultyId, sheetIds, leaseUntil);
+
+        Set<UUID> held = new HashSet<>(renewed);
+        List<UUID> lost = new ArrayList<>();
+        for (UUID sheetId : new LinkedHashSet<>(sheetIds)) {
+            if (!held.contains(sheetId)) {
+                lost.add(sheetId);
+            }
+        }
+        EvaluatorStats stats = stats(facultyId);
+        stats.renewed.add(renewed.size());
+        stats.lost.add(lost.size());
+        leasesLost.add(lost.size());
+
+        return GradingLeaseRenewal.builder()
+                .renewed(renewed)
+                .lost(lost)
+                .leaseExpiresAt(leaseUntil)
+                .build();
+    }
+
+    /**
+     * Return the evaluator's leases on the given sheets to the pool
+     */
+    public int release(UUID facultyId, List<UUID> sheetIds) {
+        int released = evaluationQueueJdbc.releaseGradingLeases(facultyId, sheetIds);
+        stats(facultyId).released.add(released);
+        return released;
+    }
+
+    /**
+     * Submit a sheet's grading through {@link AnswerSheetService}, which
+     * also clears its lease, and count it towards the evaluator's throughput
+     */
+    public void submitGrading(UUID answerSheetId, UUID facultyId) {
+        if (answerSheetService.submitGrading(answerSheetId, facultyId)) {
+            stats(facultyId).graded.increment();
+        }
+    }
+
+    /**
+     * Grade a whole sheet through {@link AnswerSheetService}, counting it
+     * towards the evaluator's throughput when the request finalizes it
+     */
+    public SheetGradeResponse gradeSheet(UUID answerSheetId, SheetGradeRequest request, UUID facultyId) {
+        SheetGradeResponse response = answerSheetService.gradeSheet(answerSheetId, request, facultyId);
+        if (response.isFinalized()) {
+            stats(facultyId).graded.increment();
+        }
+        return response;
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.gradingDispatch";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("claims", claims.sum());
+        snapshot.put("emptyClaims", emptyClaims.sum());
+        snapshot.put("leasesLost", leasesLost.sum());
+        snapshot.put("leaseSeconds", leaseSeconds);
+        snapshot.put("claim", claimLatency.snapshot());
+        Map<String, Object> perEvaluator = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        evaluators.forEach((facultyId, stats) -> perEvaluator.put(facultyId.toString(), stats.snapshot(now)));
+        snapshot.put("evaluators", perEvaluator);
+        return snapshot;
+    }
+
+    private EvaluatorStats stats(UUID facultyId) {
+        return evaluators.computeIfAbsent(facultyId, id -> new EvaluatorStats(System.nanoTime()));
+    }
+
+    private void verifyFacultyOwnsExam(UUID examId, UUID facultyId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Exam not found"));
+            if (!exam.getCreatedBy().getId().equals(facultyId)) {
+                throw new UnauthorizedException("You do not have permission to grade this exam");
+            }
+        });
+    }
+
+    /**
+     * Work done by one evaluator through this node since its first claim
+     */
+    private static final class EvaluatorStats {
+
+        private final long since;
+        private final LongAdder claimed = new LongAdder();
+        private final LongAdder renewed = new LongAdder();
+        private final LongAdder released = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+        private final LongAdder graded = new LongAdder();
+
+        private EvaluatorStats(long since) {
+            this.since = since;
+        }
+
+        private Map<String, Object> snapshot(long now) {
+            long graded = this.graded.sum();
+            double hours = (now - since) / 3_600_000_000_000d;
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("claimed", claimed.sum());
+            snapshot.put("graded", graded);
+            snapshot.put("renewed", renewed.sum());
+            snapshot.put("released", released.sum());
+            snapshot.put("lost", lost.sum());
+            snapshot.put("sheetsPerHour", hours > 0 ? graded / hours : 0d);
+            return snapshot;
+        }
+    }
+}
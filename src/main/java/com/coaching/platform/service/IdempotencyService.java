@@ -0,0 +1,94 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.exception.DuplicateResourceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a request retried with the same
+ * Idempotency-Key. Concurrent retries wait for the first attempt; a failed
+ * attempt, or one whose result the caller marks as not final, is forgotten
+ * so the client can retry it.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int PURGE_INTERVAL = 1000;
+
+    private final ConcurrentHashMap<String, StoredResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+    private final long ttlMillis;
+
+    public IdempotencyService(@Value("${idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.ttlMillis = ttlMinutes * 60_000;
+    }
+
+    /**
+     * Run the action once per (scope, key) and return its stored result on
+     * every retry. Reusing a key for a different request fingerprint is
+     * rejected with a conflict.
+     */
+    public <T> T execute(String scope, String key, String fingerprint, Supplier<T> action) {
+        return execute(scope, key, fingerprint, action, result -> true);
+    }
+
+    /**
+     * Like {@link #execute(String, String, String, Supplier)}, but a result
+     * that fails {@code storable} is handed to concurrent retries and then
+     * forgotten instead of replayed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, String fingerprint, Supplier<T> action, Predicate<T> storable) {
+        String id = scope + ":" + key;
+        long now = System.currentTimeMillis();
+        StoredResponse mine = new StoredResponse(fingerprint, now + ttlMillis, new CompletableFuture<>());
+
+        StoredResponse stored = responses.compute(id,
+                (k, existing) -> existing == null || existing.expiresAtMillis() <= now ? mine : existing);
+
+        if (stored != mine) {
+            if (!stored.fingerprint().equals(fingerprint)) {
+                throw new DuplicateResourceException("Idempotency-Key already used for a different request");
+            }
+            log.debug("Replaying response for idempotency key {}", id);
+            try {
+                return (T) stored.result().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        purgeExpiredOccasionally(now);
+        try {
+            T result = action.get();
+            if (!storable.test(result)) {
+                responses.remove(id, mine);
+            }
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            responses.remove(id, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void purgeExpiredOccasionally(long now) {
+        if (writesSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            writesSincePurge.set(0);
+            responses.values().removeIf(response -> response.expiresAtMillis() <= now);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, long expiresAtMillis, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,429 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.dto.OfflineBundleResponse;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.InvalidBundleException;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.repository.GradingJdbc;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Applies the answer bundle an offline-mode client uploads at submit time or
+ * on reconnect. The gzip body is parsed as a stream and written in JDBC
+ * batches inside one transaction; the HMAC signature over the compressed
+ * bytes is checked once the stream is consumed, and a mismatch rolls the
+ * whole bundle back. After the sheet expired, a bundle is still accepted
+ * for the upload window, but only answers the client saved before the
+ * deadline are applied.
+ */
+@Service
+@Slf4j
+public class OfflineBundleService implements OperationalMetrics {
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int APPLY_CHUNK = 500;
+
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final GradingJdbc gradingJdbc;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final ExamPaperCache examPaperCache;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final byte[] bundleKeySecret;
+    private final long maxBundleBytes;
+    private final long uploadWindowMinutes;
+    private final long clockSkewSeconds;
+
+    private final LongAdder bundles = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LatencyRecorder applyLatency = new LatencyRecorder();
+
+    public OfflineBundleService(AnswerSheetJdbc answerSheetJdbc,
+            AnswerDocumentJdbc answerDocumentJdbc,
+            GradingJdbc gradingJdbc,
+            AnswerAutosaveBuffer answerAutosaveBuffer,
+            ExamPaperCache examPaperCache,
+            IdempotencyService idempotencyService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.offline.signing-secret}") String signingSecret,
+            @Value("${exam.offline.max-bundle-bytes:8388608}") long maxBundleBytes,
+            @Value("${exam.offline.upload-window-minutes:1440}") long uploadWindowMinutes,
+            @Value("${exam.offline.clock-skew-seconds:120}") long clockSkewSeconds) {
+        this.answerSheetJdbc = answerSheetJdbc;
+        this.answerDocumentJdbc = answerDocumentJdbc;
+        this.gradingJdbc = gradingJdbc;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+        this.examPaperCache = examPaperCache;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Own subkey, since the secret defaults to jwt.secret
+        this.bundleKeySecret = newMac(signingSecret.getBytes(StandardCharsets.UTF_8))
+                .doFinal("offline-bundle".getBytes(StandardCharsets.US_ASCII));
+        this.maxBundleBytes = maxBundleBytes;
+        this.uploadWindowMinutes = uploadWindowMinutes;
+        this.clockSkewSeconds = clockSkewSeconds;
+    }
+
+    /**
+     * Base64 key the client of one sheet signs its bundle with, derived
+     * from the server secret so nothing has to be stored per sheet
+     */
+    public String bundleKey(UUID answerSheetId) {
+        return Base64.getEncoder().encodeToString(deriveKey(answerSheetId));
+    }
+
+    /**
+     * Apply an uploaded bundle, optionally submitting the sheet. Retries of
+     * the same signed bundle replay the first result; a bundle re-sent after
+     * that is a no-op because only newer answers are written.
+     */
+    public OfflineBundleResponse upload(UUID studentId, UUID answerSheetId, String signature,
+            boolean submit, InputStream body) {
+        byte[] expectedSignature = decodeSignature(signature);
+        return idempotencyService.execute("offline-bundle:" + studentId, answerSheetId + ":" + signature,
+                String.valueOf(submit), () -> apply(studentId, answerSheetId, expectedSignature, submit, body));
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.offlineBundles";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("bundles", bundles.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("answersApplied", applied.sum());
+        snapshot.put("answersSkipped", skipped.sum());
+        snapshot.put("apply", applyLatency.snapshot());
+        return snapshot;
+    }
+
+    private OfflineBundleResponse apply(UUID studentId, UUID answerSheetId, byte[] expectedSignature,
+            boolean submit, InputStream body) {
+        long start = System.nanoTime();
+        bundles.increment();
+        try {
+            AnswerSheetJdbc.SheetOwner sheet = answerSheetJdbc.findSheetOwner(answerSheetId)
+                    .orElseThrow(() -> new ResourceNotFoundException("AnswerSheet", "id", answerSheetId));
+            if (!sheet.studentId().equals(studentId)) {
+                throw new UnauthorizedException("You do not have access to this answer sheet");
+            }
+            ExamPaper paper = examPaperCache.getPaper(sheet.examId()).paper();
+            if (!paper.isOfflineMode()) {
+                throw new UnauthorizedException("This exam does not accept offline answer bundles");
+            }
+            if (sheet.expiresAt() != null
+                    && LocalDateTime.now().isAfter(sheet.expiresAt().plusMinutes(uploadWindowMinutes))) {
+                throw new UnauthorizedException("The upload window for this answer sheet has closed");
+            }
+
+            // Buffered online saves land first, so the newer of the two wins below
+            answerAutosaveBuffer.flushSheets(List.of(answerSheetId));
+
+            OfflineBundleResponse response = transactionTemplate.execute(
+                    status -> applyLocked(answerSheetId, paper, expectedSignature, submit, body));
+            applied.add(response.getApplied());
+            skipped.add(response.getSkipped());
+            log.info("Applied offline bundle for sheet {}: {} applied, {} skipped, status {}",
+                    answerSheetId, response.getApplied(), response.getSkipped(), response.getStatus());
+            return response;
+        } catch (RuntimeException e) {
+            rejected.increment();
+            throw e;
+        } finally {
+            applyLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    private OfflineBundleResponse applyLocked(UUID answerSheetId, ExamPaper paper, byte[] expectedSignature,
+            boolean submit, InputStream body) {
+        AnswerSheetJdbc.SheetRow sheet = answerSheetJdbc.lockSheet(answerSheetId)
+                .orElseThrow(() -> new ResourceNotFoundException("AnswerSheet", "id", answerSheetId));
+        if (sheet.status() != SubmissionStatus.IN_PROGRESS && sheet.status() != SubmissionStatus.SUBMITTED) {
+            throw new IllegalStateException("Answer sheet can no longer be changed");
+        }
+
+        Map<UUID, Set<UUID>> optionsByQuestion = new HashMap<>();
+        for (ExamPaper.PaperQuestion question : paper.getQuestions()) {
+            optionsByQuestion.put(question.getId(), question.getOptions().stream()
+                    .map(ExamPaper.PaperOption::getId)
+                    .collect(Collectors.toSet()));
+        }
+        Map<UUID, UUID> questionByAnswer = new HashMap<>();
+        answerDocumentJdbc.findAnswerSlots(answerSheetId)
+                .forEach(slot -> questionByAnswer.put(slot.getAnswerId(), slot.getQuestionId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        SaveWindow window = new SaveWindow(sheet.startedAt(), sheet.expiresAt(), now, clockSkewSeconds);
+        Mac mac = newMac(deriveKey(answerSheetId));
+        MacInputStream signed = new MacInputStream(body, mac);
+
+        int total = 0;
+        int written = 0;
+        List<AnswerDocumentJdbc.BundleAnswer> chunk = new ArrayList<>(APPLY_CHUNK);
+        try (JsonParser parser = objectMapper.getFactory().createParser(
+                new LimitedInputStream(new GZIPInputStream(signed), maxBundleBytes))) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("answerSheetId".equals(field)) {
+                    if (!answerSheetId.toString().equals(parser.getValueAsString())) {
+                        throw new InvalidBundleException("Bundle belongs to a different answer sheet");
+                    }
+                } else if ("answers".equals(field)) {
+                    expect(value, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        total++;
+                        AnswerDocumentJdbc.BundleAnswer answer = readAnswer(parser);
+                        validate(answer, questionByAnswer, optionsByQuestion);
+                        if (!window.accepts(answer.savedAt())) {
+                            continue;
+                        }
+                        chunk.add(answer);
+                        if (chunk.size() == APPLY_CHUNK) {
+                            written += answerDocumentJdbc.applyBundle(answerSheetId, chunk);
+                            chunk.clear();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            signed.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new InvalidBundleException("Malformed answer bundle", e);
+        }
+
+        // Checked last so the stream is parsed once; throwing here rolls back the writes above
+        if (!MessageDigest.isEqual(mac.doFinal(), expectedSignature)) {
+            throw new UnauthorizedException("Answer bundle signature does not match");
+        }
+        if (!chunk.isEmpty()) {
+            written += answerDocumentJdbc.applyBundle(answerSheetId, chunk);
+        }
+
+        SubmissionStatus status = sheet.status();
+        if (status == SubmissionStatus.SUBMITTED && written > 0) {
+            gradingJdbc.regradeSubmitted(answerSheetId);
+        } else if (status == SubmissionStatus.IN_PROGRESS && submit
+                && answerSheetJdbc.submitInProgress(List.of(answerSheetId), now) > 0) {
+            status = SubmissionStatus.SUBMITTED;
+        }
+
+        return OfflineBundleResponse.builder()
+                .answerSheetId(answerSheetId)
+                .applied(written)
+                .skipped(total - written)
+                .status(status)
+                .build();
+    }
+
+    private AnswerDocumentJdbc.BundleAnswer readAnswer(JsonParser parser) throws IOException {
+        UUID answerId = null;
+        String text = null;
+        UUID selectedOptionId = null;
+        LocalDateTime savedAt = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "answerId" -> answerId = parseUuid(parser.getValueAsString());
+                case "text" -> text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                case "selectedOptionId" -> selectedOptionId = value == JsonToken.VALUE_NULL
+                        ? null : parseUuid(parser.getValueAsString());
+                case "savedAt" -> {
+                    expect(value, JsonToken.VALUE_NUMBER_INT);
+                    savedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()),
+                            ZoneId.systemDefault());
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (answerId == null || savedAt == null) {
+            throw new InvalidBundleException("Every bundle answer needs an answerId and savedAt");
+        }
+        return new AnswerDocumentJdbc.BundleAnswer(answerId, text, selectedOptionId, savedAt);
+    }
+
+    private static void validate(AnswerDocumentJdbc.BundleAnswer answer, Map<UUID, UUID> questionByAnswer,
+            Map<UUID, Set<UUID>> optionsByQuestion) {
+        UUID questionId = questionByAnswer.get(answer.answerId());
+        if (questionId == null) {
+            throw new ResourceNotFoundException("Answer", "id", answer.answerId());
+        }
+        Set<UUID> options = optionsByQuestion.get(questionId);
+        if (answer.selectedOptionId() != null && (options == null || !options.contains(answer.selectedOptionId()))) {
+            throw new ResourceNotFoundException("Option", "id", answer.selectedOptionId());
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new InvalidBundleException("Malformed answer bundle: expected " + expected + " but found " + actual);
+        }
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidBundleException("Malformed answer bundle: invalid id " + value);
+        }
+    }
+
+    private static byte[] decodeSignature(String signature) {
+        if (signature == null || signature.isBlank()) {
+            throw new UnauthorizedException("Answer bundle is not signed");
+        }
+        try {
+            return Base64.getDecoder().decode(signature.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBundleException("Answer bundle signature is not valid base64");
+        }
+    }
+
+    private byte[] deriveKey(UUID answerSheetId) {
+        return newMac(bundleKeySecret).doFinal(answerSheetId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Mac newMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Range of client save times accepted for a sheet: from its start until
+     * its deadline (or now, if earlier), widened by the allowed clock skew
+     */
+    record SaveWindow(LocalDateTime startedAt, LocalDateTime expiresAt, LocalDateTime now, long skewSeconds) {
+
+        boolean accepts(LocalDateTime savedAt) {
+            LocalDateTime latest = expiresAt != null && expiresAt.isBefore(now) ? expiresAt : now;
+            if (savedAt.isAfter(latest.plusSeconds(skewSeconds))) {
+                return false;
+            }
+            return startedAt == null || !savedAt.isBefore(startedAt.minusSeconds(skewSeconds));
+        }
+    }
+
+    /**
+     * Feeds every compressed byte read through the MAC
+     */
+    private static final class MacInputStream extends FilterInputStream {
+
+        private final Mac mac;
+
+        MacInputStream(InputStream in, Mac mac) {
+            super(in);
+            this.mac = mac;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                mac.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                mac.update(b, off, n);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Caps the decompressed size so a small gzip body cannot expand without bound
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                throw new InvalidBundleException("Answer bundle exceeds " + limit + " bytes uncompressed");
+            }
+        }
+    }
+}
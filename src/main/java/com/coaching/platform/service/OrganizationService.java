@@ -11,9 +11,10 @@ import com.coaching.platform.exception.ResourceNotFoundException;
 import com.coaching.platform.exception.UnauthorizedException;
 import com.coaching.platform.repository.OrganizationRepository;
 import com.coaching.platform.repository.UserRepository;
+import com.coaching.platform.security.OrgAuthorizationCache;
+import com.coaching.platform.security.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +34,7 @@ public class OrganizationService {
     private final OrganizationRepository organizationRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final OrgAuthorizationCache orgAuthorizationCache;
 
     /**
      * Create a new organization with an admin user
@@ -135,6 +137,7 @@ public class OrganizationService {
         organization.setEmail(request.getEmail());
 
         organization = organizationRepository.save(organization);
+        orgAuthorizationCache.invalidate(orgId);
         log.info("Organization updated successfully: {}", orgId);
 
         return convertToResponse(organization);
@@ -153,6 +156,7 @@ public class OrganizationService {
 
         organization.setStatus(request.getStatus());
         organization = organizationRepository.save(organization);
+        orgAuthorizationCache.invalidate(orgId);
 
         log.info("Organization status updated successfully: {}", orgId);
         return convertToResponse(organization);
@@ -171,6 +175,7 @@ public class OrganizationService {
 
         organization.suspend();
         organizationRepository.save(organization);
+        orgAuthorizationCache.invalidate(orgId);
         log.info("Organization suspended: {}", orgId);
     }
 
@@ -178,11 +183,7 @@ public class OrganizationService {
      * Ensure the current user is a SUPER_ADMIN
      */
     private void ensureSuperAdmin() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (currentUser.getRole() != Role.SUPER_ADMIN) {
+        if (UserContext.getRole() != Role.SUPER_ADMIN) {
             throw new UnauthorizedException("Only SUPER_ADMIN users can manage organizations");
         }
     }
@@ -0,0 +1,175 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.dto.PaperKeyResponse;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.metrics.OperationalMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-distribution of exam papers. Enrolled students can download an
+ * AES-GCM encrypted copy of the compiled paper well before the exam and
+ * fetch only the small per-version key once the exam window opens. Keys
+ * are derived from a server secret, so every node seals a paper version
+ * identically and nothing has to be stored; both the sealed copy and the
+ * key are served from memory.
+ */
+@Service
+@Slf4j
+public class PaperDistributionService implements OperationalMetrics {
+
+    public static final String ALGORITHM = "AES/GCM/NoPadding";
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final ExamPaperCache examPaperCache;
+    private final BatchMembershipCache batchMembershipCache;
+    private final byte[] keySecret;
+
+    private final ConcurrentHashMap<UUID, SealedPaper> sealed = new ConcurrentHashMap<>();
+
+    private final LongAdder sealedDownloads = new LongAdder();
+    private final LongAdder keysReleased = new LongAdder();
+    private final LongAdder keysTooEarly = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public PaperDistributionService(ExamPaperCache examPaperCache,
+            BatchMembershipCache batchMembershipCache,
+            @Value("${exam.paper-key.secret}") String keySecret) {
+        this.examPaperCache = examPaperCache;
+        this.batchMembershipCache = batchMembershipCache;
+        this.keySecret = keySecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encrypted paper for an enrolled student; may be fetched any time after
+     * publishing
+     */
+    public SealedPaper getSealedPaper(UUID examId, UUID studentId) {
+        SealedPaper paper = sealedPaper(examId);
+        authorize(paper.source().paper(), studentId);
+        sealedDownloads.increment();
+        return paper;
+    }
+
+    /**
+     * Key of the current paper version, released to enrolled students once
+     * the exam window opens
+     */
+    public PaperKeyResponse releaseKey(UUID examId, UUID studentId) {
+        SealedPaper paper = sealedPaper(examId);
+        ExamPaper snapshot = paper.source().paper();
+        authorize(snapshot, studentId);
+        if (snapshot.getStartsAt() != null && LocalDateTime.now().isBefore(snapshot.getStartsAt())) {
+            keysTooEarly.increment();
+            throw new UnauthorizedException("The paper key is released at " + snapshot.getStartsAt());
+        }
+        keysReleased.increment();
+        return PaperKeyResponse.builder()
+                .examId(examId)
+                .version(paper.source().version())
+                .algorithm(ALGORITHM)
+                .key(Base64.getEncoder().encodeToString(paper.key()))
+                .etag(paper.etag())
+                .build();
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.paperDistribution";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("sealedPapers", sealed.size());
+        snapshot.put("sealedBytes", sealed.values().stream().mapToLong(p -> p.payload().length).sum());
+        snapshot.put("sealedDownloads", sealedDownloads.sum());
+        snapshot.put("keysReleased", keysReleased.sum());
+        snapshot.put("keysTooEarly", keysTooEarly.sum());
+        snapshot.put("denied", denied.sum());
+        return snapshot;
+    }
+
+    private void authorize(ExamPaper paper, UUID studentId) {
+        if (!batchMembershipCache.isMember(paper.getBatchId(), studentId)) {
+            denied.increment();
+            throw new UnauthorizedException("You are not enrolled in the batch of this exam");
+        }
+    }
+
+    /**
+     * Sealed copy of the currently cached paper, re-sealed whenever the
+     * paper cache holds a different compilation
+     */
+    private SealedPaper sealedPaper(UUID examId) {
+        ExamPaperCache.CompiledPaper compiled = examPaperCache.getPaper(examId);
+        SealedPaper current = sealed.get(examId);
+        if (current != null && current.source() == compiled) {
+            return current;
+        }
+        return sealed.compute(examId,
+                (id, existing) -> existing != null && existing.source() == compiled ? existing : seal(compiled));
+    }
+
+    SealedPaper seal(ExamPaperCache.CompiledPaper compiled) {
+        try {
+            byte[] key = hmac(keySecret, ("paper:" + compiled.examId() + ":" + compiled.version())
+                    .getBytes(StandardCharsets.US_ASCII));
+            // Synthetic IV: a recompiled paper with different content never reuses a nonce under the same key
+            byte[] iv = Arrays.copyOf(hmac(key, compiled.json()), IV_BYTES);
+
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(aad(compiled));
+            byte[] ciphertext = cipher.doFinal(compiled.json());
+
+            byte[] payload = new byte[IV_BYTES + ciphertext.length];
+            System.arraycopy(iv, 0, payload, 0, IV_BYTES);
+            System.arraycopy(ciphertext, 0, payload, IV_BYTES, ciphertext.length);
+            String etag = "\"" + compiled.examId() + "-" + compiled.version() + "-"
+                    + Base64.getUrlEncoder().withoutPadding().encodeToString(iv) + "\"";
+            log.debug("Sealed paper for exam {} version {} ({} bytes)", compiled.examId(), compiled.version(),
+                    payload.length);
+            return new SealedPaper(compiled, payload, key, etag);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to seal paper for exam " + compiled.examId(), e);
+        }
+    }
+
+    static byte[] aad(ExamPaperCache.CompiledPaper compiled) {
+        return (compiled.examId() + ":" + compiled.version()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC);
+        mac.init(new SecretKeySpec(key, HMAC));
+        return mac.doFinal(data);
+    }
+
+    /**
+     * Encrypted paper: a 12-byte IV followed by the AES-GCM ciphertext and
+     * tag, with {@code examId:version} as associated data
+     */
+    public record SealedPaper(ExamPaperCache.CompiledPaper source, byte[] payload, byte[] key, String etag) {
+    }
+}
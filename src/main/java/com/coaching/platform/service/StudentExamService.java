@@ -1,9 +1,16 @@
 package com.coaching.platform.service;
 
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.ExamPaper;
 import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.AnswerStorage;
 import com.coaching.platform.enums.ExamStatus;
+import com.coaching.platform.enums.SubmissionStatus;
 import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
 import com.coaching.platform.repository.*;
+import com.coaching.platform.scheduling.AnswerSheetExpiryScheduler;
+import com.coaching.platform.security.ExamSessionTokens;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -26,6 +33,12 @@ public class StudentExamService {
         private final AnswerSheetRepository answerSheetRepository;
         private final BatchRepository batchRepository;
         private final UserRepository userRepository;
+        private final ExamPaperCache examPaperCache;
+        private final AnswerSheetStartJdbc answerSheetStartJdbc;
+        private final AnswerDocumentJdbc answerDocumentJdbc;
+        private final AnswerSheetExpiryScheduler answerSheetExpiryScheduler;
+        private final OfflineBundleService offlineBundleService;
+        private final ExamSessionTokens examSessionTokens;
 
         /**
          * Get available published exams for a student's batches
@@ -46,54 +59,71 @@ public class StudentExamService {
         }
 
         /**
-         * Get exam details for student (instructions, questions)
+         * Get exam paper for student (instructions, questions) without the answer key
          */
-        public Exam getExamDetails(UUID examId) {
-                return examRepository.findById(examId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Exam", "id", examId));
+        public ExamPaperCache.CompiledPaper getExamDetails(UUID examId) {
+                ExamPaperCache.CompiledPaper paper = examPaperCache.getPaper(examId);
+                ensureWindowOpen(paper.paper());
+                return paper;
         }
 
         /**
-         * Start an exam - create answer sheet with timer
+         * Start an exam - idempotent: creates the answer sheet, starts a
+         * provisioned one, or returns the sheet already started. Answer rows
+         * of a new sheet are inserted in JDBC batches, or as one document when
+         * the exam uses document storage.
          */
         @Transactional
-        public AnswerSheet startExam(UUID examId, UUID studentId) {
-                Exam exam = examRepository.findById(examId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Exam", "id", examId));
+        public AnswerSheetResponse startExam(UUID examId, UUID studentId) {
+                ExamPaper paper = examPaperCache.getPaper(examId).paper();
+                ensureWindowOpen(paper);
 
-                User student = userRepository.findById(studentId)
-                                .orElseThrow(() -> new ResourceNotFoundException("Student", "id", studentId));
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime expiresAt = now.plusMinutes(paper.getDurationMinutes());
 
-                // Check if student already started this exam
-                List<AnswerSheet> existingSheets = answerSheetRepository.findByExamAndStudent(exam, student);
-                if (!existingSheets.isEmpty()) {
-                        return existingSheets.get(0); // Return existing answer sheet
+                AnswerSheetStartJdbc.StartedSheet started = answerSheetStartJdbc.startSheet(UUID.randomUUID(), examId,
+                                studentId, now, expiresAt, paper.getTotalPoints());
+                AnswerSheetJdbc.SheetRow sheet = started.sheet();
+                if (sheet.status() == SubmissionStatus.IN_PROGRESS && sheet.expiresAt() != null) {
+                        answerSheetExpiryScheduler.schedule(sheet.id(), sheet.expiresAt());
                 }
 
-                // Create new answer sheet
-                LocalDateTime now = LocalDateTime.now();
-                LocalDateTime expiresAt = now.plusMinutes(exam.getDurationMinutes());
-
-                AnswerSheet answerSheet = AnswerSheet.builder()
-                                .exam(exam)
-                                .student(student)
-                                .startedAt(now)
-                                .expiresAt(expiresAt)
-                                .totalPoints(exam.getTotalPoints())
-                                .build();
-
-                // Pre-create answers for all questions
-                List<Answer> answers = exam.getQuestions().stream()
-                                .map(question -> Answer.builder()
-                                                .answerSheet(answerSheet)
-                                                .question(question)
-                                                .answeredAt(null)
-                                                .build())
-                                .collect(Collectors.toList());
+                List<AnswerSheetResponse.AnswerSlot> answers;
+                if (started.created()) {
+                        List<UUID> questionIds = paper.getQuestions().stream()
+                                        .map(ExamPaper.PaperQuestion::getId)
+                                        .toList();
+                        answers = paper.getAnswerStorage() == AnswerStorage.DOCUMENT
+                                        ? answerSheetStartJdbc.insertAnswerDocument(sheet.id(), questionIds)
+                                        : answerSheetStartJdbc.insertAnswers(sheet.id(), questionIds);
+                } else {
+                        answers = answerDocumentJdbc.findAnswerSlots(sheet.id());
+                }
 
-                answerSheet.setAnswers(answers);
+                return AnswerSheetResponse.builder()
+                                .id(sheet.id())
+                                .examId(examId)
+                                .status(sheet.status())
+                                .startedAt(sheet.startedAt())
+                                .expiresAt(sheet.expiresAt())
+                                .totalPoints(sheet.totalPoints())
+                                .answers(answers)
+                                .bundleKey(paper.isOfflineMode() ? offlineBundleService.bundleKey(sheet.id()) : null)
+                                .sessionToken(sheet.status() == SubmissionStatus.IN_PROGRESS && sheet.expiresAt() != null
+                                                ? examSessionTokens.issue(sheet.id(), studentId, sheet.expiresAt(),
+                                                                answers.stream().map(AnswerSheetResponse.AnswerSlot::getAnswerId).toList())
+                                                : null)
+                                .build();
+        }
 
-                return answerSheetRepository.save(answerSheet);
+        /**
+         * Papers with a start time stay sealed until then; clients that
+         * pre-downloaded the encrypted copy wait for the key instead
+         */
+        private void ensureWindowOpen(ExamPaper paper) {
+                if (paper.getStartsAt() != null && LocalDateTime.now().isBefore(paper.getStartsAt())) {
+                        throw new UnauthorizedException("Exam opens at " + paper.getStartsAt());
+                }
         }
 
         /**
@@ -104,8 +134,7 @@ public class StudentExamService {
                                 .orElseThrow(() -> new ResourceNotFoundException("Student", "id", studentId));
 
                 return answerSheetRepository
-                                .findByStudentAndStatus(student,
-                                                com.coaching.platform.enums.SubmissionStatus.IN_PROGRESS)
+                                .findByStudentAndStatus(student, SubmissionStatus.IN_PROGRESS)
                                 .stream()
                                 .findFirst()
                                 .orElse(null);
@@ -13,9 +13,10 @@ import com.coaching.platform.repository.OrganizationRepository;
 import com.coaching.platform.repository.UserInviteRepository;
 import com.coaching.platform.repository.UserRepository;
 import com.coaching.platform.security.OrgContext;
+import com.coaching.platform.security.TokenRevocationRegistry;
+import com.coaching.platform.security.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +38,7 @@ public class UserManagementService {
     private final OrganizationRepository organizationRepository;
     private final UserInviteRepository inviteRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     /**
      * Get all faculty in the current organization
@@ -148,6 +150,14 @@ public class UserManagementService {
         }
 
         user = userRepository.save(user);
+
+        // Cut off tokens issued before the update; disabled users are denied outright
+        if (Boolean.FALSE.equals(user.getEnabled())) {
+            tokenRevocationRegistry.disable(userId);
+        } else {
+            tokenRevocationRegistry.enable(userId);
+            tokenRevocationRegistry.revokeTokens(userId);
+        }
         log.info("User updated: {}", userId);
 
         return convertToResponse(user);
@@ -168,17 +178,15 @@ public class UserManagementService {
             throw new UnauthorizedException("User does not belong to this organization");
         }
 
-        // Get current user to prevent self-deletion
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername).orElse(null);
-
-        if (currentUser != null && currentUser.getId().equals(userId)) {
+        // Prevent self-deletion
+        if (UserContext.getUserId().equals(userId)) {
             throw new UnauthorizedException("Cannot delete your own account");
         }
 
         // Soft delete - disable the account
         user.setEnabled(false);
         userRepository.save(user);
+        tokenRevocationRegistry.disable(userId);
         log.info("User disabled: {}", userId);
     }
 
@@ -210,9 +218,7 @@ public class UserManagementService {
         }
 
         // Get current user
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        User currentUser = userRepository.getReferenceById(UserContext.getUserId());
 
         // Create invite
         String token = UUID.randomUUID().toString();
@@ -0,0 +1,90 @@
+package com.coaching.platform.session;
+
+import com.coaching.platform.dto.SessionFrame;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One open session channel: the student's in-progress sheet, its answer
+ * rows, and the full-text saves received since the last batch
+ */
+@Getter
+@Slf4j
+class ExamSession {
+
+    private final Session socket;
+    private final UUID answerSheetId;
+    private final UUID studentId;
+    private final LocalDateTime expiresAt;
+    private final Set<UUID> answerIds;
+
+    // Latest full-text save per answer, drained by the hub's batch flush
+    private final Map<UUID, SessionFrame> pendingSaves = new LinkedHashMap<>();
+    private volatile long lastTimePushMillis;
+
+    ExamSession(Session socket, UUID answerSheetId, UUID studentId, LocalDateTime expiresAt, Set<UUID> answerIds) {
+        this.socket = socket;
+        this.answerSheetId = answerSheetId;
+        this.studentId = studentId;
+        this.expiresAt = expiresAt;
+        this.answerIds = answerIds;
+    }
+
+    /**
+     * Queue a full-text save, replacing an unflushed save of the same answer
+     *
+     * @return true if an earlier save was replaced
+     */
+    synchronized boolean queueSave(SessionFrame frame) {
+        return pendingSaves.put(frame.getAnswerId(), frame) != null;
+    }
+
+    synchronized Map<UUID, SessionFrame> drainSaves() {
+        if (pendingSaves.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, SessionFrame> drained = new LinkedHashMap<>(pendingSaves);
+        pendingSaves.clear();
+        return drained;
+    }
+
+    /**
+     * Send a frame; sends are serialized because a basic remote endpoint
+     * allows only one message in flight
+     */
+    boolean send(String json) {
+        synchronized (socket) {
+            if (!socket.isOpen()) {
+                return false;
+            }
+            try {
+                socket.getBasicRemote().sendText(json);
+                return true;
+            } catch (IOException e) {
+                log.debug("Failed to send to session channel of sheet {}", answerSheetId, e);
+                return false;
+            }
+        }
+    }
+
+    void close(CloseReason.CloseCode code, String reason) {
+        try {
+            socket.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            log.debug("Failed to close session channel of sheet {}", answerSheetId, e);
+        }
+    }
+
+    void markTimePushed(long nowMillis) {
+        lastTimePushMillis = nowMillis;
+    }
+}
@@ -0,0 +1,77 @@
+package com.coaching.platform.session;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * WebSocket endpoint for one exam session channel; all state and logic
+ * live in {@link ExamSessionHub}
+ */
+@Slf4j
+class ExamSessionEndpoint extends Endpoint {
+
+    static final String AUTHORIZATION = "authorization";
+
+    private final ExamSessionHub hub;
+    private ExamSession examSession;
+
+    ExamSessionEndpoint(ExamSessionHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        examSession = hub.open(session, (String) config.getUserProperties().get(AUTHORIZATION));
+        if (examSession != null) {
+            ExamSession opened = examSession;
+            session.addMessageHandler(String.class, text -> hub.handle(opened, text));
+        }
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (examSession != null) {
+            hub.closed(examSession);
+        }
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("Session channel error", error);
+    }
+
+    /**
+     * Copies the Authorization header of the upgrade request into the
+     * per-connection config and creates endpoints bound to the hub
+     */
+    static class HandshakeConfigurator extends ServerEndpointConfig.Configurator {
+
+        private final ExamSessionHub hub;
+
+        HandshakeConfigurator(ExamSessionHub hub) {
+            this.hub = hub;
+        }
+
+        @Override
+        public void modifyHandshake(ServerEndpointConfig config, HandshakeRequest request, HandshakeResponse response) {
+            List<String> authorization = request.getHeaders().get("Authorization");
+            if (authorization != null && !authorization.isEmpty()) {
+                config.getUserProperties().put(AUTHORIZATION, authorization.get(0));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getEndpointInstance(Class<T> endpointClass) {
+            return (T) new ExamSessionEndpoint(hub);
+        }
+    }
+}
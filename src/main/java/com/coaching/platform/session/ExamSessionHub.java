@@ -0,0 +1,400 @@
+package com.coaching.platform.session;
+
+import com.coaching.platform.dto.AnswerPatchRequest;
+import com.coaching.platform.dto.AnswerSaveResponse;
+import com.coaching.platform.dto.AnswerSelectionRequest;
+import com.coaching.platform.dto.AnswerSelectionResponse;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.SessionFrame;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.VersionConflictException;
+import com.coaching.platform.metrics.LatencyRecorder;
+import com.coaching.platform.metrics.OperationalMetrics;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.security.AuthenticatedUser;
+import com.coaching.platform.security.TokenAuthenticator;
+import com.coaching.platform.service.AnswerSubmissionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.ServletContextAware;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived session channel per in-progress answer sheet. One authenticated
+ * WebSocket carries autosaves, delta saves and selections, and receives the
+ * remaining time and a forced-submit notice when the sheet expires, so an
+ * exam does not pay per-request authentication for every save.
+ *
+ * <p>Connect to {@code /api/v1/student/answer-sheets/{id}/session} with the
+ * JWT in the Authorization header or an {@code access_token} query
+ * parameter. Full-text saves are coalesced per answer and applied every
+ * {@code exam.session.save-batch-ms}; delta saves and selections are applied
+ * in order as they arrive.
+ *
+ * <p>Each node accepts at most {@code exam.session.max-connections}
+ * channels (default 5000); further connections are closed with 1013 (try
+ * again later) and the client falls back to the HTTP endpoints. Keep the
+ * limit below {@code server.tomcat.max-connections}, which also covers
+ * ordinary HTTP connections.
+ */
+@Component
+@Slf4j
+public class ExamSessionHub implements ServletContextAware, SmartInitializingSingleton, OperationalMetrics,
+        DisposableBean {
+
+    static final String PATH = "/api/v1/student/answer-sheets/{answerSheetId}/session";
+
+    private final TokenAuthenticator tokenAuthenticator;
+    private final AnswerSheetJdbc answerSheetJdbc;
+    private final AnswerDocumentJdbc answerDocumentJdbc;
+    private final AnswerSubmissionService answerSubmissionService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxConnections;
+    private final long idleTimeoutMs;
+    private final long timePushMs;
+
+    private final ConcurrentHashMap<UUID, ExamSession> sessions = new ConcurrentHashMap<>();
+    private ServletContext servletContext;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder framesIn = new LongAdder();
+    private final LongAdder framesOut = new LongAdder();
+    private final LongAdder coalescedSaves = new LongAdder();
+    private final LongAdder forcedSubmits = new LongAdder();
+    private final LatencyRecorder frameLatency = new LatencyRecorder();
+
+    public ExamSessionHub(TokenAuthenticator tokenAuthenticator,
+            AnswerSheetJdbc answerSheetJdbc,
+            AnswerDocumentJdbc answerDocumentJdbc,
+            AnswerSubmissionService answerSubmissionService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${exam.session.max-connections:5000}") int maxConnections,
+            @Value("${exam.session.idle-timeout-ms:60000}") long idleTimeoutMs,
+            @Value("${exam.session.time-push-ms:15000}") long timePushMs) {
+        this.tokenAuthenticator = tokenAuthenticator;
+        this.answerSheetJdbc = answerSheetJdbc;
+        this.answerDocumentJdbc = answerDocumentJdbc;
+        this.answerSubmissionService = answerSubmissionService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.timePushMs = timePushMs;
+    }
+
+    @Override
+    public void setServletContext(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ServerContainer container = servletContext == null ? null
+                : (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            log.info("No WebSocket container; exam session channel disabled");
+            return;
+        }
+        try {
+            container.addEndpoint(ServerEndpointConfig.Builder.create(ExamSessionEndpoint.class, PATH)
+                    .configurator(new ExamSessionEndpoint.HandshakeConfigurator(this))
+                    .build());
+        } catch (DeploymentException e) {
+            throw new IllegalStateException("Failed to register exam session channel", e);
+        }
+        log.info("Exam session channel at {} (max {} connections)", PATH, maxConnections);
+    }
+
+    /**
+     * Authenticate a new connection and bind it to the student's in-progress
+     * sheet; returns null after closing the connection if that fails
+     */
+    ExamSession open(Session socket, String authorization) {
+        Optional<AuthenticatedUser> principal = Optional.ofNullable(bearerToken(socket, authorization))
+                .flatMap(tokenAuthenticator::authenticate);
+        if (principal.isEmpty()) {
+            return reject(socket, CloseReason.CloseCodes.VIOLATED_POLICY, "Unauthorized");
+        }
+
+        UUID answerSheetId;
+        try {
+            answerSheetId = UUID.fromString(socket.getPathParameters().get("answerSheetId"));
+        } catch (IllegalArgumentException e) {
+            return reject(socket, CloseReason.CloseCodes.VIOLATED_POLICY, "Invalid answer sheet id");
+        }
+        Optional<AnswerSheetJdbc.SheetOwner> sheet = answerSheetJdbc.findSheetOwner(answerSheetId);
+        if (sheet.isEmpty() || !sheet.get().studentId().equals(principal.get().getId())) {
+            return reject(socket, CloseReason.CloseCodes.VIOLATED_POLICY, "Answer sheet not found");
+        }
+        if (sheet.get().status() != SubmissionStatus.IN_PROGRESS) {
+            return reject(socket, CloseReason.CloseCodes.VIOLATED_POLICY, "Answer sheet is not in progress");
+        }
+        if (sessions.size() >= maxConnections && !sessions.containsKey(answerSheetId)) {
+            return reject(socket, CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many session channels");
+        }
+
+        Set<UUID> answerIds = answerDocumentJdbc.findAnswerSlots(answerSheetId).stream()
+                .map(AnswerSheetResponse.AnswerSlot::getAnswerId)
+                .collect(Collectors.toCollection(HashSet::new));
+        socket.setMaxIdleTimeout(idleTimeoutMs);
+        ExamSession session = new ExamSession(socket, answerSheetId, principal.get().getId(),
+                sheet.get().expiresAt(), answerIds);
+
+        ExamSession previous = sessions.put(answerSheetId, session);
+        if (previous != null) {
+            flushSaves(previous);
+            previous.close(CloseReason.CloseCodes.NORMAL_CLOSURE, "Replaced by a newer connection");
+        }
+        opened.increment();
+        pushTime(session, System.currentTimeMillis());
+        return session;
+    }
+
+    /**
+     * Handle one inbound frame
+     */
+    void handle(ExamSession session, String json) {
+        framesIn.increment();
+        long start = System.nanoTime();
+        SessionFrame frame;
+        try {
+            frame = objectMapper.readValue(json, SessionFrame.class);
+        } catch (JsonProcessingException e) {
+            send(session, SessionFrame.builder().type("ERROR").message("Malformed frame").build());
+            return;
+        }
+
+        try {
+            switch (frame.getType() == null ? "" : frame.getType()) {
+                case "SAVE" -> {
+                    requireOwnAnswer(session, frame.getAnswerId());
+                    if (session.queueSave(frame)) {
+                        coalescedSaves.increment();
+                    }
+                }
+                case "PATCH" -> {
+                    requireOwnAnswer(session, frame.getAnswerId());
+                    // Earlier full saves of this channel must land first
+                    flushSaves(session);
+                    AnswerPatchRequest request = valid(AnswerPatchRequest.builder()
+                            .baseVersion(frame.getBaseVersion())
+                            .edits(frame.getEdits())
+                            .build());
+                    AnswerSaveResponse saved = answerSubmissionService.patchAnswer(frame.getAnswerId(), request);
+                    send(session, saved(frame, saved));
+                }
+                case "SELECT" -> {
+                    AnswerSelectionRequest request = valid(AnswerSelectionRequest.builder()
+                            .selections(frame.getSelections())
+                            .build());
+                    AnswerSelectionResponse selected = answerSubmissionService.saveSelections(
+                            session.getStudentId(), session.getAnswerSheetId(), request);
+                    send(session, SessionFrame.builder()
+                            .type("SELECTED")
+                            .requestId(frame.getRequestId())
+                            .answeredCount(selected.getAnsweredCount())
+                            .build());
+                }
+                case "PING" -> pushTime(session, System.currentTimeMillis());
+                default -> send(session, error(frame, "Unknown frame type"));
+            }
+        } catch (VersionConflictException e) {
+            SessionFrame reply = error(frame, e.getMessage());
+            reply.setAnswerId(frame.getAnswerId());
+            reply.setTextVersion(e.getCurrentVersion());
+            send(session, reply);
+        } catch (RuntimeException e) {
+            log.debug("Session frame {} failed for sheet {}", frame.getType(), session.getAnswerSheetId(), e);
+            send(session, error(frame, e.getMessage()));
+        } finally {
+            frameLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Forget a closed connection, applying its queued saves
+     */
+    void closed(ExamSession session) {
+        sessions.remove(session.getAnswerSheetId(), session);
+        flushSaves(session);
+    }
+
+    /**
+     * Apply the coalesced full-text saves of every channel
+     */
+    @Scheduled(fixedDelayString = "${exam.session.save-batch-ms:500}")
+    public void flushAllSaves() {
+        sessions.values().forEach(this::flushSaves);
+    }
+
+    /**
+     * Push remaining time, and force-submit channels whose sheet expired
+     */
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = System.currentTimeMillis();
+        for (ExamSession session : sessions.values()) {
+            if (session.getExpiresAt() != null && !now.isBefore(session.getExpiresAt())) {
+                forceSubmit(session);
+            } else if (nowMillis - session.getLastTimePushMillis() >= timePushMs) {
+                pushTime(session, nowMillis);
+            }
+        }
+    }
+
+    @Override
+    public String metricsName() {
+        return "exam.sessionChannel";
+    }
+
+    @Override
+    public Map<String, Object> metricsSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("connections", sessions.size());
+        snapshot.put("maxConnections", maxConnections);
+        snapshot.put("opened", opened.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("framesIn", framesIn.sum());
+        snapshot.put("framesOut", framesOut.sum());
+        snapshot.put("coalescedSaves", coalescedSaves.sum());
+        snapshot.put("forcedSubmits", forcedSubmits.sum());
+        snapshot.put("frame", frameLatency.snapshot());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        for (ExamSession session : sessions.values()) {
+            flushSaves(session);
+            session.close(CloseReason.CloseCodes.GOING_AWAY, "Server shutting down");
+        }
+        sessions.clear();
+    }
+
+    private void flushSaves(ExamSession session) {
+        for (SessionFrame frame : session.drainSaves().values()) {
+            try {
+                AnswerSaveResponse saved = answerSubmissionService.saveAnswer(frame.getAnswerId(), frame.getText());
+                send(session, saved(frame, saved));
+            } catch (RuntimeException e) {
+                log.warn("Channel save of answer {} failed", frame.getAnswerId(), e);
+                send(session, error(frame, e.getMessage()));
+            }
+        }
+    }
+
+    private void forceSubmit(ExamSession session) {
+        if (!sessions.remove(session.getAnswerSheetId(), session)) {
+            return;
+        }
+        flushSaves(session);
+        try {
+            answerSubmissionService.autoSubmitSheets(List.of(session.getAnswerSheetId()));
+        } catch (RuntimeException e) {
+            // The expiry wheel and sweeper submit it anyway
+            log.warn("Forced submit of sheet {} failed", session.getAnswerSheetId(), e);
+        }
+        forcedSubmits.increment();
+        send(session, SessionFrame.builder().type("FORCED_SUBMIT").remainingSeconds(0L)
+                .message("Time is up; the answer sheet was submitted").build());
+        session.close(CloseReason.CloseCodes.NORMAL_CLOSURE, "Time is up");
+    }
+
+    private void pushTime(ExamSession session, long nowMillis) {
+        long remaining = session.getExpiresAt() == null ? 0
+                : Math.max(0, Duration.between(LocalDateTime.now(), session.getExpiresAt()).getSeconds());
+        session.markTimePushed(nowMillis);
+        send(session, SessionFrame.builder().type("TIME").remainingSeconds(remaining).build());
+    }
+
+    private void send(ExamSession session, SessionFrame frame) {
+        try {
+            if (session.send(objectMapper.writeValueAsString(frame))) {
+                framesOut.increment();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize session frame", e);
+        }
+    }
+
+    private <T> T valid(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return request;
+    }
+
+    private static void requireOwnAnswer(ExamSession session, UUID answerId) {
+        if (answerId == null || !session.getAnswerIds().contains(answerId)) {
+            throw new IllegalArgumentException("Answer is not part of this answer sheet");
+        }
+    }
+
+    private static SessionFrame saved(SessionFrame request, AnswerSaveResponse saved) {
+        return SessionFrame.builder()
+                .type("SAVED")
+                .requestId(request.getRequestId())
+                .answerId(saved.getAnswerId())
+                .textVersion(saved.getTextVersion())
+                .build();
+    }
+
+    private static SessionFrame error(SessionFrame request, String message) {
+        return SessionFrame.builder()
+                .type("ERROR")
+                .requestId(request.getRequestId())
+                .message(message)
+                .build();
+    }
+
+    private ExamSession reject(Session socket, CloseReason.CloseCode code, String reason) {
+        rejected.increment();
+        try {
+            socket.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            log.debug("Failed to close rejected session channel", e);
+        }
+        return null;
+    }
+
+    private static String bearerToken(Session socket, String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        List<String> tokens = socket.getRequestParameterMap().get("access_token");
+        return tokens == null || tokens.isEmpty() ? null : tokens.get(0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.coaching.platform;
+
+import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.ExamStatus;
+import com.coaching.platform.enums.OrganizationStatus;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.enums.Role;
+import com.coaching.platform.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Base class for integration tests that need real PostgreSQL semantics
+ * (ON CONFLICT, row locks, unique constraints). Skipped when Docker is not
+ * available. Tests build their data with {@link #cohort} and
+ * {@link #publishExam}, declaring only the exam shape they need.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    /**
+     * A new organization with one faculty member and a batch of students.
+     * Names carry a random suffix, so tests never collide.
+     */
+    protected Cohort cohort(int studentCount) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Organization organization = organizationRepository.save(Organization.builder()
+                .name("Institute " + suffix)
+                .status(OrganizationStatus.ACTIVE)
+                .build());
+        User faculty = userRepository.save(user("faculty" + suffix, Role.FACULTY, organization));
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < studentCount; i++) {
+            students.add(userRepository.save(user("student" + i + suffix, Role.STUDENT, organization)));
+        }
+        Batch batch = batchRepository.save(Batch.builder()
+                .name("Batch " + suffix)
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusMonths(6))
+                .createdBy(faculty)
+                .organization(organization)
+                .students(new HashSet<>(students))
+                .faculty(new HashSet<>(Set.of(faculty)))
+                .build());
+        return new Cohort(organization, faculty, students, batch);
+    }
+
+    /**
+     * Publish an exam of the given shape to the cohort's batch. Objective
+     * questions get one correct and one wrong option.
+     */
+    protected Exam publishExam(Cohort cohort, ExamShape shape) {
+        Exam exam = examRepository.save(Exam.builder()
+                .title("Sectional Test " + cohort.batch().getName())
+                .durationMinutes(shape.durationMinutes())
+                .createdBy(cohort.faculty())
+                .organization(cohort.organization())
+                .batch(cohort.batch())
+                .status(ExamStatus.DRAFT)
+                .answerStorage(shape.storage())
+                .build());
+        for (int i = 1; i <= shape.questionCount(); i++) {
+            Question question = Question.builder()
+                    .exam(exam)
+                    .type(shape.type())
+                    .questionText("Question " + i)
+                    .points(shape.points())
+                    .orderNumber(i)
+                    .build();
+            if (shape.type() == QuestionType.OBJECTIVE) {
+                question.addOption(Option.builder().optionText("Right").isCorrect(true).orderNumber(1).build());
+                question.addOption(Option.builder().optionText("Wrong").isCorrect(false).orderNumber(2).build());
+            }
+            questionRepository.save(question);
+        }
+        exam.publish();
+        return examRepository.save(exam);
+    }
+
+    private static User user(String username, Role role, Organization organization) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("encoded")
+                .firstName("Test")
+                .lastName("User")
+                .role(role)
+                .organization(organization)
+                .build();
+    }
+
+    /**
+     * An organization's faculty member and the students of their batch
+     */
+    protected record Cohort(Organization organization, User faculty, List<User> students, Batch batch) {
+
+        public User student() {
+            return students.get(0);
+        }
+    }
+
+    /**
+     * Questions, duration and answer layout of a test exam
+     */
+    protected record ExamShape(QuestionType type, int questionCount, int points, int durationMinutes,
+            AnswerStorage storage) {
+
+        public static ExamShape objective(int questionCount, int points) {
+            return new ExamShape(QuestionType.OBJECTIVE, questionCount, points, 60, AnswerStorage.ROWS);
+        }
+
+        public static ExamShape descriptive(int questionCount, int points) {
+            return new ExamShape(QuestionType.DESCRIPTIVE, questionCount, points, 60, AnswerStorage.ROWS);
+        }
+
+        public ExamShape lasting(int minutes) {
+            return new ExamShape(type, questionCount, points, minutes, storage);
+        }
+
+        public ExamShape storedAs(AnswerStorage layout) {
+            return new ExamShape(type, questionCount, points, durationMinutes, layout);
+        }
+    }
+}
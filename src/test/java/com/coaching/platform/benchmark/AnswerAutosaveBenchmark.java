@@ -0,0 +1,205 @@
+package com.coaching.platform.benchmark;
+
+import com.coaching.platform.dto.AnswerPatchRequest;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerDocumentJdbc.AnswerText;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.service.AnswerAutosaveBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares full-text and delta autosaves while a 1,500-word answer is typed
+ * in debounced chunks. Reports request bytes and database text bytes per
+ * second next to the save rate; the database side is a stub that counts
+ * what the write-behind flush would write.
+ *
+ * <p>Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:<classpath> com.coaching.platform.benchmark.AnswerAutosaveBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnswerAutosaveBenchmark {
+
+    private static final int ANSWER_WORDS = 1500;
+    private static final String[] WORDS = { "federalism", "the", "constitution", "of", "india", "and",
+            "cooperative", "states", "finance", "commission", "governance", "reform", "district", "policy" };
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        @Param({ "full", "delta" })
+        public String mode;
+
+        @Param({ "1", "10" })
+        public int savesPerFlush;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Random random = new Random(42);
+        private Path logDir;
+        private AnswerAutosaveBuffer buffer;
+        private long dbBytes;
+
+        private UUID sheetId;
+        private UUID answerId;
+        private StringBuilder text;
+        private int words;
+        private long version;
+        private int sinceFlush;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            logDir = Files.createTempDirectory("autosave-bench");
+            AnswerDocumentJdbc documents = new AnswerDocumentJdbc(null, 100) {
+                @Override
+                public Optional<AnswerText> findAnswerText(UUID id) {
+                    return Optional.of(new AnswerText(id, sheetId, "", LocalDateTime.now(), 0));
+                }
+
+                @Override
+                public void updateAnswerTexts(Collection<AnswerText> texts) {
+                    texts.forEach(t -> dbBytes += t.text().getBytes(StandardCharsets.UTF_8).length);
+                }
+            };
+            AnswerSheetJdbc sheets = new AnswerSheetJdbc(null, null) {
+                @Override
+                public Optional<SheetOwner> findSheetOwner(UUID id) {
+                    return Optional.empty();
+                }
+
+                @Override
+                public List<UUID> findNotInProgressIds(Collection<UUID> sheetIds) {
+                    return List.of();
+                }
+            };
+            PlatformTransactionManager transactions = new PlatformTransactionManager() {
+                @Override
+                public TransactionStatus getTransaction(TransactionDefinition definition) {
+                    return new SimpleTransactionStatus();
+                }
+
+                @Override
+                public void commit(TransactionStatus status) {
+                }
+
+                @Override
+                public void rollback(TransactionStatus status) {
+                }
+            };
+            buffer = new AnswerAutosaveBuffer(documents, sheets, transactions, true, logDir.toString(), false,
+                    Integer.MAX_VALUE, Integer.MAX_VALUE);
+            sheetId = UUID.randomUUID();
+            newAnswer();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            buffer.destroy();
+            try (var files = Files.list(logDir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(logDir);
+        }
+
+        private void newAnswer() {
+            answerId = UUID.randomUUID();
+            text = new StringBuilder();
+            words = 0;
+            version = 0;
+        }
+
+        /**
+         * Next debounced chunk of typing: a few words
+         */
+        private String nextChunk() {
+            if (words >= ANSWER_WORDS) {
+                newAnswer();
+            }
+            StringBuilder chunk = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                chunk.append(text.isEmpty() && i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            words += 6;
+            return chunk.toString();
+        }
+
+        private void maybeFlush() {
+            if (++sinceFlush >= savesPerFlush) {
+                sinceFlush = 0;
+                buffer.scheduledFlush();
+            }
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long requestBytes;
+        public long dbBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requestBytes = 0;
+            dbBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public long save(Session session, Bytes bytes) throws IOException {
+        String chunk = session.nextChunk();
+        int offset = session.text.length();
+        session.text.append(chunk);
+
+        AnswerText saved;
+        if ("full".equals(session.mode)) {
+            String body = session.text.toString();
+            bytes.requestBytes += body.getBytes(StandardCharsets.UTF_8).length;
+            saved = session.buffer.save(session.answerId, body);
+        } else {
+            List<AnswerPatchRequest.TextEdit> edits = List.of(
+                    AnswerPatchRequest.TextEdit.builder().offset(offset).insert(chunk).build());
+            AnswerPatchRequest request = AnswerPatchRequest.builder()
+                    .baseVersion(session.version).edits(edits).build();
+            bytes.requestBytes += session.objectMapper.writeValueAsBytes(request).length;
+            saved = session.buffer.applyEdits(session.answerId, session.version, edits);
+        }
+        session.version = saved.version();
+
+        long before = session.dbBytes;
+        session.maybeFlush();
+        bytes.dbBytes += session.dbBytes - before;
+        return saved.version();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnswerAutosaveBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.coaching.platform.benchmark;
+
+import com.coaching.platform.entity.Answer;
+import com.coaching.platform.entity.Option;
+import com.coaching.platform.entity.Question;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.grading.GradedAnswers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Objective grading of one answer sheet by walking {@link Answer} and
+ * {@link Question} entities ({@link Answer#autoGrade()}) versus scoring the
+ * sheet's selections against a compiled {@link AnswerKey}. The entities are
+ * already in memory here, so the entity path excludes the lazy loading of
+ * questions and options it needs in production.
+ *
+ * <p>Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:<classpath> com.coaching.platform.benchmark.AnswerKeyGradingBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnswerKeyGradingBenchmark {
+
+    private static final int OPTIONS = 4;
+
+    @State(Scope.Thread)
+    public static class Sheet {
+
+        @Param({ "50", "200" })
+        public int questions;
+
+        private final List<Answer> answers = new ArrayList<>();
+        private UUID sheetId;
+        private UUID[] answerIds;
+        private UUID[] questionIds;
+        private UUID[] selections;
+        private AnswerKey key;
+        private GradedAnswers graded;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            List<Question> paper = new ArrayList<>();
+            sheetId = UUID.randomUUID();
+            answerIds = new UUID[questions];
+            questionIds = new UUID[questions];
+            selections = new UUID[questions];
+            for (int i = 0; i < questions; i++) {
+                Question question = Question.builder()
+                        .id(UUID.randomUUID())
+                        .type(QuestionType.OBJECTIVE)
+                        .questionText("Question " + i)
+                        .points(1 + i % 4)
+                        .orderNumber(i + 1)
+                        .build();
+                int correct = random.nextInt(OPTIONS);
+                for (int o = 0; o < OPTIONS; o++) {
+                    question.addOption(Option.builder()
+                            .id(UUID.randomUUID())
+                            .optionText("Option " + o)
+                            .isCorrect(o == correct)
+                            .orderNumber(o + 1)
+                            .build());
+                }
+                paper.add(question);
+
+                UUID selected = question.getOptions().get(random.nextInt(OPTIONS)).getId();
+                answerIds[i] = UUID.randomUUID();
+                questionIds[i] = question.getId();
+                selections[i] = selected;
+                answers.add(Answer.builder()
+                        .id(answerIds[i])
+                        .question(question)
+                        .selectedOptionId(selected)
+                        .build());
+            }
+            key = AnswerKey.compile(paper);
+            graded = new GradedAnswers(questions);
+        }
+    }
+
+    @Benchmark
+    public int entityWalk(Sheet sheet) {
+        int total = 0;
+        for (Answer answer : sheet.answers) {
+            answer.autoGrade();
+            total += answer.getPointsAwarded();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int compiledKey(Sheet sheet) {
+        GradedAnswers graded = sheet.graded;
+        graded.clear();
+        for (int i = 0; i < sheet.answerIds.length; i++) {
+            sheet.key.grade(sheet.sheetId, sheet.answerIds[i], sheet.questionIds[i], sheet.selections[i], graded);
+        }
+        return graded.totalPoints();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnswerKeyGradingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
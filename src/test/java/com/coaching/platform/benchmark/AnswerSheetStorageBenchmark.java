@@ -0,0 +1,154 @@
+package com.coaching.platform.benchmark;
+
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerDocumentJdbc.AnswerText;
+import com.coaching.platform.repository.AnswerSheetStartJdbc;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load and save latency of one answer sheet stored as answer rows versus as
+ * a JSONB document. Runs the production {@link AnswerSheetStartJdbc} and
+ * {@link AnswerDocumentJdbc} statements against PostgreSQL in a
+ * Testcontainers container (Docker required): a grading load of every answer
+ * of a sheet, and an autosave of one answer's text.
+ *
+ * <p>Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:<classpath> com.coaching.platform.benchmark.AnswerSheetStorageBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnswerSheetStorageBenchmark {
+
+    private static final int SHEETS = 50;
+    private static final String[] SCHEMA = {
+            "CREATE TABLE questions (id uuid PRIMARY KEY, type varchar(32) NOT NULL, points int NOT NULL)",
+            "CREATE TABLE options (id uuid PRIMARY KEY, question_id uuid NOT NULL REFERENCES questions, " +
+                    "is_correct boolean NOT NULL)",
+            "CREATE TABLE answer_sheets (id uuid PRIMARY KEY, exam_id uuid NOT NULL, student_id uuid NOT NULL, " +
+                    "created_at timestamp NOT NULL, started_at timestamp, expires_at timestamp, submitted_at timestamp, " +
+                    "graded_at timestamp, status varchar(32) NOT NULL, total_points int, obtained_points int, " +
+                    "version bigint NOT NULL DEFAULT 0, answer_storage varchar(16) NOT NULL DEFAULT 'ROWS', " +
+                    "answers_doc jsonb, answer_ids uuid[], UNIQUE (exam_id, student_id))",
+            "CREATE INDEX idx_answer_sheets_answer_ids ON answer_sheets USING gin (answer_ids)",
+            "CREATE TABLE answers (id uuid PRIMARY KEY, answer_sheet_id uuid NOT NULL REFERENCES answer_sheets, " +
+                    "question_id uuid NOT NULL REFERENCES questions, answer_text text, selected_option_id uuid, " +
+                    "answered_at timestamp, text_version bigint NOT NULL DEFAULT 0, points_awarded int, feedback text, " +
+                    "is_auto_graded boolean NOT NULL, version bigint NOT NULL DEFAULT 0)",
+            "CREATE INDEX idx_answers_sheet ON answers (answer_sheet_id)",
+            "CREATE TABLE answer_images (answer_id uuid NOT NULL REFERENCES answers, image_url varchar(255))"
+    };
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({ "ROWS", "DOCUMENT" })
+        public AnswerStorage storage;
+
+        @Param({ "50", "200" })
+        public int questions;
+
+        @Param({ "1500" })
+        public int answerChars;
+
+        private final Random random = new Random(42);
+        private PostgreSQLContainer<?> postgres;
+        private AnswerSheetStartJdbc answerSheetStartJdbc;
+        private AnswerDocumentJdbc answerDocumentJdbc;
+        private TransactionTemplate transactionTemplate;
+        private final List<UUID> sheetIds = new ArrayList<>();
+        private final List<List<AnswerText>> answers = new ArrayList<>();
+        private String text;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            for (String statement : SCHEMA) {
+                jdbcTemplate.execute(statement);
+            }
+            answerSheetStartJdbc = new AnswerSheetStartJdbc(jdbcTemplate, 100);
+            answerDocumentJdbc = new AnswerDocumentJdbc(jdbcTemplate, 100);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            text = "x".repeat(answerChars);
+
+            List<UUID> questionIds = new ArrayList<>();
+            for (int i = 0; i < questions; i++) {
+                UUID questionId = UUID.randomUUID();
+                jdbcTemplate.update("INSERT INTO questions (id, type, points) VALUES (?, 'DESCRIPTIVE', 5)", questionId);
+                questionIds.add(questionId);
+            }
+            UUID examId = UUID.randomUUID();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < SHEETS; i++) {
+                UUID sheetId = UUID.randomUUID();
+                transactionTemplate.executeWithoutResult(status -> {
+                    answerSheetStartJdbc.startSheet(sheetId, examId, UUID.randomUUID(), now, now.plusHours(3),
+                            questions * 5);
+                    List<AnswerSheetResponse.AnswerSlot> slots = storage == AnswerStorage.DOCUMENT
+                            ? answerSheetStartJdbc.insertAnswerDocument(sheetId, questionIds)
+                            : answerSheetStartJdbc.insertAnswers(sheetId, questionIds);
+                    List<AnswerText> written = slots.stream()
+                            .map(slot -> new AnswerText(slot.getAnswerId(), sheetId, text, now, 1))
+                            .toList();
+                    answerDocumentJdbc.updateAnswerTexts(written);
+                    answers.add(new ArrayList<>(written));
+                });
+                sheetIds.add(sheetId);
+            }
+            jdbcTemplate.execute("VACUUM ANALYZE");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public int loadSheet(Database db) {
+        return db.answerDocumentJdbc.loadAnswers(db.sheetIds.get(db.random.nextInt(SHEETS))).size();
+    }
+
+    @Benchmark
+    public long saveAnswerText(Database db) {
+        List<AnswerText> sheet = db.answers.get(db.random.nextInt(SHEETS));
+        int index = db.random.nextInt(sheet.size());
+        AnswerText current = sheet.get(index);
+        AnswerText next = new AnswerText(current.answerId(), current.sheetId(), db.text, LocalDateTime.now(),
+                current.version() + 1);
+        db.transactionTemplate.executeWithoutResult(status -> db.answerDocumentJdbc.updateAnswerTexts(List.of(next)));
+        sheet.set(index, next);
+        return next.version();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnswerSheetStorageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.coaching.platform.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures BCrypt hashing time per cost factor on the current host and
+ * recommends the highest cost that stays within the target latency.
+ *
+ * <p>Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:<classpath> com.coaching.platform.benchmark.PasswordHashCostBenchmark [targetMillis]}
+ * and set {@code security.password.bcrypt-strength} to the printed value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashCostBenchmark {
+
+    private static final double DEFAULT_TARGET_MILLIS = 250.0;
+
+    @Param({ "10", "11", "12", "13", "14" })
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("correct-horse-battery-staple");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_TARGET_MILLIS;
+
+        Options options = new OptionsBuilder()
+                .include(PasswordHashCostBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int recommended = 10;
+        for (RunResult result : results) {
+            int cost = Integer.parseInt(result.getParams().getParam("strength"));
+            double millis = result.getPrimaryResult().getScore();
+            System.out.printf("cost %d: %.1f ms%n", cost, millis);
+            if (millis <= targetMillis && cost > recommended) {
+                recommended = cost;
+            }
+        }
+        System.out.printf("Recommended security.password.bcrypt-strength for %.0f ms target: %d%n",
+                targetMillis, recommended);
+    }
+}
@@ -0,0 +1,91 @@
+package com.coaching.platform.grading;
+
+import com.coaching.platform.entity.Option;
+import com.coaching.platform.entity.Question;
+import com.coaching.platform.enums.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerKeyTest {
+
+    private static Question question(QuestionType type, int points, boolean withCorrect) {
+        Question question = Question.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .questionText("Question")
+                .points(points)
+                .orderNumber(1)
+                .build();
+        question.addOption(Option.builder().id(UUID.randomUUID()).optionText("A").isCorrect(false).orderNumber(1).build());
+        question.addOption(Option.builder().id(UUID.randomUUID()).optionText("B").isCorrect(withCorrect).orderNumber(2).build());
+        return question;
+    }
+
+    @Test
+    void grade_MatchesEntityAutoGradeForEverySelection() {
+        // Arrange
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            questions.add(question(QuestionType.OBJECTIVE, 1 + i % 5, true));
+        }
+        AnswerKey key = AnswerKey.compile(questions);
+        GradedAnswers graded = new GradedAnswers(1);
+        int expected = 0;
+
+        // Act
+        for (Question question : questions) {
+            for (Option option : question.getOptions()) {
+                key.grade(UUID.randomUUID(), UUID.randomUUID(), question.getId(), option.getId(), graded);
+                expected += option.getIsCorrect() ? question.getPoints() : 0;
+            }
+            key.grade(UUID.randomUUID(), UUID.randomUUID(), question.getId(), null, graded);
+        }
+
+        // Assert
+        assertEquals(200, key.size());
+        assertEquals(600, graded.size());
+        assertEquals(expected, graded.totalPoints());
+    }
+
+    @Test
+    void grade_DescriptiveOrUnknownQuestion_LeftUngraded() {
+        // Arrange
+        Question descriptive = question(QuestionType.DESCRIPTIVE, 10, false);
+        Question objective = question(QuestionType.OBJECTIVE, 4, true);
+        AnswerKey key = AnswerKey.compile(List.of(descriptive, objective));
+        GradedAnswers graded = new GradedAnswers();
+
+        // Act
+        boolean descriptiveGraded = key.grade(UUID.randomUUID(), UUID.randomUUID(), descriptive.getId(), null, graded);
+        boolean unknownGraded = key.grade(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), null, graded);
+
+        // Assert
+        assertFalse(descriptiveGraded);
+        assertFalse(unknownGraded);
+        assertTrue(graded.isEmpty());
+        assertEquals(1, key.size());
+    }
+
+    @Test
+    void grade_NoCorrectOption_AwardsZero() {
+        // Arrange
+        Question question = question(QuestionType.OBJECTIVE, 3, false);
+        AnswerKey key = AnswerKey.compile(List.of(question));
+        GradedAnswers graded = new GradedAnswers();
+
+        // Act
+        for (Option option : question.getOptions()) {
+            key.grade(UUID.randomUUID(), UUID.randomUUID(), question.getId(), option.getId(), graded);
+        }
+
+        // Assert
+        assertEquals(2, graded.size());
+        assertEquals(0, graded.totalPoints());
+        assertArrayEquals(new Boolean[] { false, false }, graded.correct());
+    }
+}
@@ -0,0 +1,91 @@
+package com.coaching.platform.scheduling;
+
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.service.AnswerAutosaveBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpiredSheetSweeperTest {
+
+    @Mock
+    private AnswerSheetJdbc answerSheetJdbc;
+
+    @Mock
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpiredSheetSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new ExpiredSheetSweeper(answerSheetJdbc, answerAutosaveBuffer, transactionManager, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.destroy();
+    }
+
+    @Test
+    void sweep_WalksKeysetPagesAndSubmitsEachChunk() {
+        // Arrange: five expired sheets served in pages of two
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        List<AnswerSheetJdbc.SheetExpiry> expired = IntStream.range(0, 5)
+                .mapToObj(i -> new AnswerSheetJdbc.SheetExpiry(UUID.randomUUID(), base.plusMinutes(i)))
+                .toList();
+        when(answerSheetJdbc.findExpiredPage(any(), isNull(), isNull(), eq(2))).thenReturn(expired.subList(0, 2));
+        when(answerSheetJdbc.findExpiredPage(any(), eq(expired.get(1).expiresAt()), eq(expired.get(1).id()), eq(2)))
+                .thenReturn(expired.subList(2, 4));
+        when(answerSheetJdbc.findExpiredPage(any(), eq(expired.get(3).expiresAt()), eq(expired.get(3).id()), eq(2)))
+                .thenReturn(expired.subList(4, 5));
+        when(answerSheetJdbc.submitInProgress(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+
+        // Act
+        int submitted = sweeper.sweep();
+
+        // Assert
+        assertEquals(5, submitted);
+        verify(answerSheetJdbc, times(3)).submitInProgress(anyCollection(), any());
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(5L, sweeper.metricsSnapshot().get("submitted"));
+    }
+
+    @Test
+    void sweep_ChunkFails_OtherChunksStillSubmitted() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().minusMinutes(5);
+        when(answerSheetJdbc.findExpiredPage(any(), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(new AnswerSheetJdbc.SheetExpiry(first, expiresAt),
+                        new AnswerSheetJdbc.SheetExpiry(second, expiresAt)));
+        when(answerSheetJdbc.findExpiredPage(any(), eq(expiresAt), eq(second), eq(2))).thenReturn(List.of());
+        when(answerSheetJdbc.submitInProgress(anyCollection(), any())).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        int submitted = sweeper.sweep();
+
+        // Assert
+        assertEquals(0, submitted);
+        assertEquals(1L, sweeper.metricsSnapshot().get("failedChunks"));
+        verify(transactionManager).rollback(any());
+    }
+}
@@ -0,0 +1,81 @@
+package com.coaching.platform.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advanceTo_100kExpiries_FireOnTheirTickWithBoundedWork() {
+        // Arrange: 100k deadlines spread over three days
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, 64, 4, START);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        int count = 100_000;
+        long horizon = 3L * 24 * 3600 * TICK;
+        for (int i = 0; i < count; i++) {
+            long deadline = START + 1 + (long) (random.nextDouble() * horizon);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+
+        // Act: advance one tick at a time and check each fired item
+        int fired = 0;
+        int maxFiredPerTick = 0;
+        for (long now = START + TICK; now <= START + horizon + TICK; now += TICK) {
+            List<Integer> due = wheel.advanceTo(now);
+            for (Integer item : due) {
+                long deadline = deadlines.get(item);
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(now - deadline < TICK, "fired more than a tick late");
+            }
+            fired += due.size();
+            maxFiredPerTick = Math.max(maxFiredPerTick, due.size());
+        }
+
+        // Assert: everything fired once, and cascading cost is at most one
+        // move per level per entry (amortized constant per tick)
+        assertEquals(count, fired);
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.getCascadedEntries() <= 3L * count);
+        assertTrue(maxFiredPerTick < 100);
+    }
+
+    @Test
+    void advanceTo_PastDeadline_FiresOnNextAdvance() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 64, 4, START);
+        wheel.schedule("late", START - 5 * TICK);
+
+        // Act
+        List<String> due = wheel.advanceTo(START);
+
+        // Assert
+        assertEquals(List.of("late"), due);
+    }
+
+    @Test
+    void advanceTo_LargeJump_ReturnsEverythingDue() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 64, 4, START);
+        wheel.schedule("soon", START + 10 * TICK);
+        wheel.schedule("hours", START + 5 * 3600 * TICK);
+        wheel.schedule("later", START + 10 * 3600 * TICK);
+
+        // Act
+        List<String> due = wheel.advanceTo(START + 6 * 3600 * TICK);
+
+        // Assert
+        assertEquals(List.of("soon", "hours"), due);
+        assertEquals(1, wheel.size());
+    }
+}
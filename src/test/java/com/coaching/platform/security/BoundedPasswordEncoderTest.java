@@ -0,0 +1,39 @@
+package com.coaching.platform.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4, 5000, 2);
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_ThenMatches_RoundTrips() {
+        // Act
+        String hash = encoder.encode("password123");
+
+        // Assert
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(2L, ((java.util.Map<?, ?>) encoder.metricsSnapshot().get("matches")).get("count"));
+    }
+
+    @Test
+    void upgradeEncoding_LowerCostHash_RequestsUpgrade() {
+        // Arrange
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        String currentHash = encoder.encode("password123");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(currentHash));
+    }
+}
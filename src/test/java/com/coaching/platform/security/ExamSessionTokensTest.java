@@ -0,0 +1,70 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamSessionTokensTest {
+
+    private final ExamSessionTokens tokens = new ExamSessionTokens("test-secret", 0);
+
+    private final UUID sheetId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final List<UUID> answerIds = new ArrayList<>();
+
+    private String issue(LocalDateTime expiresAt) {
+        for (int i = 0; i < 150; i++) {
+            answerIds.add(UUID.randomUUID());
+        }
+        return tokens.issue(sheetId, studentId, expiresAt, answerIds);
+    }
+
+    @Test
+    void authorizeAnswer_OwnAnswer_ReturnsSheet() {
+        // Arrange
+        String token = issue(LocalDateTime.now().plusHours(1));
+
+        // Act & Assert
+        for (UUID answerId : answerIds) {
+            assertEquals(sheetId, tokens.authorizeAnswer(token, studentId, answerId));
+        }
+    }
+
+    @Test
+    void authorizeAnswer_ForeignAnswerOrStudent_Forbidden() {
+        // Arrange
+        String token = issue(LocalDateTime.now().plusHours(1));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> tokens.authorizeAnswer(token, studentId, UUID.randomUUID()));
+        assertThrows(UnauthorizedException.class,
+                () -> tokens.authorizeAnswer(token, UUID.randomUUID(), answerIds.get(0)));
+    }
+
+    @Test
+    void authorizeAnswer_ExpiredTamperedOrMissing_Forbidden() {
+        // Arrange
+        String expired = issue(LocalDateTime.now().minusSeconds(1));
+        String valid = tokens.issue(sheetId, studentId, LocalDateTime.now().plusHours(1), answerIds);
+        byte[] bytes = Base64.getUrlDecoder().decode(valid);
+        bytes[40] ^= 1; // push the expiry out
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String foreignKey = new ExamSessionTokens("other-secret", 0)
+                .issue(sheetId, studentId, LocalDateTime.now().plusHours(1), answerIds);
+
+        // Act & Assert
+        UUID answerId = answerIds.get(0);
+        assertThrows(UnauthorizedException.class, () -> tokens.authorizeAnswer(expired, studentId, answerId));
+        assertThrows(UnauthorizedException.class, () -> tokens.authorizeAnswer(tampered, studentId, answerId));
+        assertThrows(UnauthorizedException.class, () -> tokens.authorizeAnswer(foreignKey, studentId, answerId));
+        assertThrows(UnauthorizedException.class, () -> tokens.authorizeAnswer(null, studentId, answerId));
+    }
+}
@@ -166,4 +166,18 @@ class JwtUtilTest {
         assertEquals("testuser", jwtUtil.extractUsername(token1));
         assertEquals("anotheruser", jwtUtil.extractUsername(token2));
     }
+
+    @Test
+    void generateToken_EmbedsPrincipalClaims() {
+        // Act
+        String token = jwtUtil.generateToken(user);
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(jwtUtil.parseClaims(token));
+
+        // Assert
+        assertNotNull(principal);
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(Role.STUDENT, principal.getRole());
+        assertNull(principal.getOrgId());
+    }
 }
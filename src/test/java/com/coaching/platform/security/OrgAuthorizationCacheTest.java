@@ -0,0 +1,93 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.enums.OrganizationStatus;
+import com.coaching.platform.repository.OrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrgAuthorizationCacheTest {
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    private OrgAuthorizationCache cache;
+
+    private final UUID orgId = UUID.randomUUID();
+    private final UUID adminId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new OrgAuthorizationCache(organizationRepository, 60);
+    }
+
+    @Test
+    void authorize_RepeatedRequests_LoadOrganizationOnce() {
+        // Arrange
+        when(organizationRepository.findAccessViewById(orgId))
+                .thenReturn(Optional.of(view(OrganizationStatus.ACTIVE, adminId)));
+
+        // Act
+        OrgAuthorizationCache.Decision first = cache.authorize(adminId, orgId);
+        OrgAuthorizationCache.Decision second = cache.authorize(adminId, orgId);
+        OrgAuthorizationCache.Decision other = cache.authorize(UUID.randomUUID(), orgId);
+
+        // Assert
+        assertEquals(OrgAuthorizationCache.Decision.ALLOWED, first);
+        assertEquals(OrgAuthorizationCache.Decision.ALLOWED, second);
+        assertEquals(OrgAuthorizationCache.Decision.NOT_ADMIN, other);
+        verify(organizationRepository, times(1)).findAccessViewById(orgId);
+    }
+
+    @Test
+    void authorize_AfterInvalidate_SeesSuspension() {
+        // Arrange
+        when(organizationRepository.findAccessViewById(orgId))
+                .thenReturn(Optional.of(view(OrganizationStatus.ACTIVE, adminId)))
+                .thenReturn(Optional.of(view(OrganizationStatus.SUSPENDED, adminId)));
+        cache.authorize(adminId, orgId);
+
+        // Act
+        cache.invalidate(orgId);
+        OrgAuthorizationCache.Decision decision = cache.authorize(adminId, orgId);
+
+        // Assert
+        assertEquals(OrgAuthorizationCache.Decision.SUSPENDED, decision);
+        verify(organizationRepository, times(2)).findAccessViewById(orgId);
+    }
+
+    @Test
+    void authorize_UnknownOrganization_ReturnsNotFound() {
+        // Arrange
+        when(organizationRepository.findAccessViewById(orgId)).thenReturn(Optional.empty());
+
+        // Act
+        OrgAuthorizationCache.Decision decision = cache.authorize(adminId, orgId);
+
+        // Assert
+        assertEquals(OrgAuthorizationCache.Decision.NOT_FOUND, decision);
+    }
+
+    private OrganizationRepository.AccessView view(OrganizationStatus status, UUID admin) {
+        return new OrganizationRepository.AccessView() {
+            @Override
+            public OrganizationStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public UUID getAdminId() {
+                return admin;
+            }
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.entity.Batch;
+import com.coaching.platform.entity.User;
+import com.coaching.platform.enums.Role;
+import com.coaching.platform.repository.BatchRepository;
+import com.coaching.platform.repository.OrganizationRepository;
+import com.coaching.platform.repository.UserRepository;
+import com.coaching.platform.service.BatchMembershipCache;
+import com.coaching.platform.service.BatchService;
+import com.coaching.platform.service.OrganizationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that a request resolves its principal at most once and that
+ * services read it from {@link UserContext} instead of querying users again
+ */
+@ExtendWith(MockitoExtension.class)
+class PrincipalLookupTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private VerifiedClaimsCache verifiedClaimsCache;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private OrgAuthorizationCache orgAuthorizationCache;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        UserContext.clear();
+    }
+
+    @Test
+    void doFilter_TokenWithUserClaims_DoesNotLoadUser() throws Exception {
+        // Arrange
+        Claims claims = Jwts.claims()
+                .subject("student")
+                .add(JwtUtil.CLAIM_USER_ID, userId.toString())
+                .add(JwtUtil.CLAIM_ROLE, Role.STUDENT.name())
+                .build();
+        when(verifiedClaimsCache.getVerifiedClaims("token")).thenReturn(claims);
+        when(jwtUtil.extractEpoch(claims)).thenReturn(0L);
+        when(tokenRevocationRegistry.isRevoked(userId, 0L)).thenReturn(false);
+
+        JwtRequestFilter filter = new JwtRequestFilter(new TokenAuthenticator(
+                userDetailsService, jwtUtil, verifiedClaimsCache, tokenRevocationRegistry));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        AtomicReference<UUID> seenUserId = new AtomicReference<>();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seenUserId.set(UserContext.getUserId()));
+
+        // Assert
+        assertEquals(userId, seenUserId.get());
+        assertFalse(UserContext.hasUser());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_LegacyToken_LoadsUserOnce() throws Exception {
+        // Arrange
+        Claims claims = Jwts.claims().subject("student").build();
+        User user = User.builder()
+                .id(userId)
+                .username("student")
+                .password("encodedPassword")
+                .role(Role.STUDENT)
+                .enabled(true)
+                .build();
+        when(verifiedClaimsCache.getVerifiedClaims("token")).thenReturn(claims);
+        when(userDetailsService.loadUserByUsername("student")).thenReturn(user);
+        when(jwtUtil.validateClaims(claims, user)).thenReturn(true);
+        when(jwtUtil.extractEpoch(claims)).thenReturn(0L);
+        when(tokenRevocationRegistry.isRevoked(userId, 0L)).thenReturn(false);
+
+        JwtRequestFilter filter = new JwtRequestFilter(new TokenAuthenticator(
+                userDetailsService, jwtUtil, verifiedClaimsCache, tokenRevocationRegistry));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            UserContext.getUserId();
+            UserContext.getRole();
+            UserContext.getOrgId();
+        });
+
+        // Assert
+        verify(userDetailsService, times(1)).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void batchEndpoints_UseUserContext_WithoutUserLookup() {
+        // Arrange
+        UserContext.setUser(new AuthenticatedUser(userId, "admin", Role.ADMIN, null));
+        User admin = User.builder().id(userId).username("admin").role(Role.ADMIN).build();
+        Batch batch = Batch.builder()
+                .id(UUID.randomUUID())
+                .name("Batch")
+                .startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusMonths(6))
+                .createdBy(admin)
+                .students(Collections.emptySet())
+                .faculty(Collections.emptySet())
+                .build();
+        when(userRepository.getReferenceById(userId)).thenReturn(admin);
+        when(batchRepository.findAll()).thenReturn(Collections.emptyList());
+        when(batchRepository.findById(batch.getId())).thenReturn(java.util.Optional.of(batch));
+
+        BatchService batchService = new BatchService(batchRepository, userRepository,
+                new BatchMembershipCache(batchRepository, 60));
+
+        // Act
+        batchService.getAllBatches();
+        batchService.getBatchById(batch.getId());
+        batchService.deleteBatch(batch.getId());
+
+        // Assert
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void organizationEndpoints_CheckRoleFromUserContext_WithoutUserLookup() {
+        // Arrange
+        UserContext.setUser(new AuthenticatedUser(userId, "root", Role.SUPER_ADMIN, null));
+        when(organizationRepository.findAll()).thenReturn(Collections.emptyList());
+
+        OrganizationService organizationService = new OrganizationService(
+                organizationRepository, userRepository, passwordEncoder, orgAuthorizationCache);
+
+        // Act
+        organizationService.getAllOrganizations();
+
+        // Assert
+        verifyNoInteractions(userRepository);
+    }
+}
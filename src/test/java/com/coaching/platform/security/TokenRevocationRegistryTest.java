@@ -0,0 +1,105 @@
+package com.coaching.platform.security;
+
+import com.coaching.platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenRevocationRegistry registry;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(userRepository, 60000);
+    }
+
+    @Test
+    void isRevoked_PersistedEpoch_RejectsOlderTokensAfterRestart() {
+        // Arrange: a fresh registry, as on a restarted node
+        when(userRepository.findTokenStateById(userId)).thenReturn(Optional.of(view(userId, 500L, true)));
+
+        // Act
+        boolean older = registry.isRevoked(userId, 499L);
+        boolean current = registry.isRevoked(userId, 500L);
+
+        // Assert
+        assertTrue(older);
+        assertFalse(current);
+        verify(userRepository, times(1)).findTokenStateById(userId);
+    }
+
+    @Test
+    void isRevoked_UnknownUser_Rejected() {
+        // Arrange
+        when(userRepository.findTokenStateById(userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(registry.isRevoked(userId, Long.MAX_VALUE));
+    }
+
+    @Test
+    void refresh_EpochRaisedOnAnotherNode_RevokesCachedUser() {
+        // Arrange
+        when(userRepository.findTokenStateById(userId)).thenReturn(Optional.of(view(userId, 0L, true)));
+        assertFalse(registry.isRevoked(userId, 0L));
+        when(userRepository.findTokenStatesRaisedSince(anyLong())).thenReturn(List.of(view(userId, 900L, true)));
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        assertTrue(registry.isRevoked(userId, 0L));
+        assertEquals(900L, registry.currentEpoch(userId));
+    }
+
+    @Test
+    void revokeTokens_PersistsRaisedEpoch() {
+        // Arrange
+        when(userRepository.findTokenStateById(userId))
+                .thenReturn(Optional.of(view(userId, 0L, true)))
+                .thenReturn(Optional.of(view(userId, 1000L, true)));
+
+        // Act
+        registry.revokeTokens(userId);
+
+        // Assert
+        verify(userRepository).raiseTokenEpoch(eq(userId), longThat(epoch -> epoch > 0));
+        assertTrue(registry.isRevoked(userId, 0L));
+    }
+
+    private UserRepository.TokenStateView view(UUID id, long epoch, boolean enabled) {
+        return new UserRepository.TokenStateView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Long getTokenEpoch() {
+                return epoch;
+            }
+
+            @Override
+            public Boolean getEnabled() {
+                return enabled;
+            }
+        };
+    }
+}
@@ -0,0 +1,226 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerPatchRequest.TextEdit;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.InvalidPatchException;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.exception.VersionConflictException;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerDocumentJdbc.AnswerText;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerAutosaveBufferTest {
+
+    @Mock
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Mock
+    private AnswerSheetJdbc answerSheetJdbc;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path logDir;
+
+    private final UUID sheetId = UUID.randomUUID();
+    private final UUID answerId = UUID.randomUUID();
+
+    private AnswerText stored(String text, long version) {
+        return new AnswerText(answerId, sheetId, text, LocalDateTime.now(), version);
+    }
+
+    private AnswerAutosaveBuffer newBuffer() {
+        return new AnswerAutosaveBuffer(answerDocumentJdbc, answerSheetJdbc, transactionManager, true,
+                logDir.toString(), false, 5000, 1000);
+    }
+
+    @Test
+    void flushSheets_RepeatedSaves_WritesOnlyLatestText() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("", 0)));
+        List<AnswerText> written = new ArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.<Collection<AnswerText>>getArgument(0)))
+                .when(answerDocumentJdbc).updateAnswerTexts(anyCollection());
+        AnswerAutosaveBuffer buffer = newBuffer();
+        buffer.save(answerId, "draft one");
+        buffer.save(answerId, "draft two");
+        buffer.save(answerId, "final answer");
+
+        // Act
+        buffer.flushSheets(List.of(sheetId));
+
+        // Assert
+        assertEquals(1, written.size());
+        assertEquals("final answer", written.get(0).text());
+        verify(answerDocumentJdbc, times(1)).findAnswerText(answerId);
+        assertEquals(3L, written.get(0).version());
+        assertEquals(2L, buffer.metricsSnapshot().get("coalesced"));
+        assertEquals(0, buffer.metricsSnapshot().get("pending"));
+        buffer.destroy();
+    }
+
+    @Test
+    void constructor_UnflushedLog_ReplaysLatestTextOnRestart() {
+        // Arrange: a buffer that acknowledged saves but never flushed
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("", 0)));
+        AnswerAutosaveBuffer crashed = newBuffer();
+        crashed.save(answerId, "before crash");
+        crashed.save(answerId, "latest before crash");
+
+        // Act
+        AnswerAutosaveBuffer restarted = newBuffer();
+        restarted.flushSheets(List.of(sheetId));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<AnswerText>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(answerDocumentJdbc).updateAnswerTexts(captor.capture());
+        assertEquals(List.of("latest before crash"), captor.getValue().stream().map(AnswerText::text).toList());
+        assertEquals(sheetId, captor.getValue().iterator().next().sheetId());
+        assertEquals(2L, restarted.metricsSnapshot().get("replayed"));
+        restarted.destroy();
+    }
+
+    @Test
+    void flushSheets_DatabaseFails_KeepsTextsBuffered() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("", 0)));
+        doThrow(new IllegalStateException("db down")).when(answerDocumentJdbc).updateAnswerTexts(anyCollection());
+        AnswerAutosaveBuffer buffer = newBuffer();
+        buffer.save(answerId, "keep me");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> buffer.flushSheets(List.of(sheetId)));
+        assertEquals(1, buffer.metricsSnapshot().get("pending"));
+        assertEquals(1L, buffer.metricsSnapshot().get("failedFlushes"));
+    }
+
+    @Test
+    void applyEdits_CurrentBaseVersion_PatchesStoredText() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("The cat sat.", 4)));
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act: replace "cat" and then append, each against the previous result
+        AnswerText first = buffer.applyEdits(answerId, 4, List.of(
+                TextEdit.builder().offset(4).deleteCount(3).insert("dog").build()));
+        AnswerText second = buffer.applyEdits(answerId, 5, List.of(
+                TextEdit.builder().offset(12).insert(" It slept.").build()));
+
+        // Assert
+        assertEquals("The dog sat.", first.text());
+        assertEquals(5L, first.version());
+        assertEquals("The dog sat. It slept.", second.text());
+        assertEquals(6L, second.version());
+        verify(answerDocumentJdbc, times(1)).findAnswerText(answerId);
+        buffer.destroy();
+    }
+
+    @Test
+    void applyEdits_StaleBaseVersion_ThrowsConflictWithCurrentVersion() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("text", 7)));
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> buffer.applyEdits(answerId, 6, List.of(TextEdit.builder().offset(0).insert("x").build())));
+
+        // Assert
+        assertEquals(7L, conflict.getCurrentVersion());
+        assertEquals(1L, buffer.metricsSnapshot().get("versionConflicts"));
+        buffer.destroy();
+    }
+
+    @Test
+    void applyEdits_OffsetPastEnd_ThrowsInvalidPatch() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("short", 1)));
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act & Assert
+        assertThrows(InvalidPatchException.class,
+                () -> buffer.applyEdits(answerId, 1, List.of(TextEdit.builder().offset(3).deleteCount(10).build())));
+        assertEquals(0, buffer.metricsSnapshot().get("pending"));
+        buffer.destroy();
+    }
+
+    @Test
+    void applyEdits_DeleteCountOverflowingEnd_ThrowsInvalidPatch() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("short", 1)));
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act & Assert: offset + deleteCount wraps to a negative int
+        assertThrows(InvalidPatchException.class, () -> buffer.applyEdits(answerId, 1,
+                List.of(TextEdit.builder().offset(1).deleteCount(Integer.MAX_VALUE).build())));
+        assertEquals(0, buffer.metricsSnapshot().get("pending"));
+        buffer.destroy();
+    }
+
+    @Test
+    void save_UnknownAnswer_ThrowsNotFound() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.empty());
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> buffer.save(answerId, "text"));
+        buffer.destroy();
+    }
+
+    @Test
+    void save_SheetAlreadySubmitted_RejectsSave() {
+        // Arrange
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("final", 3)));
+        when(answerSheetJdbc.findSheetOwner(sheetId)).thenReturn(Optional.of(new AnswerSheetJdbc.SheetOwner(
+                sheetId, UUID.randomUUID(), UUID.randomUUID(), SubmissionStatus.SUBMITTED, LocalDateTime.now())));
+        AnswerAutosaveBuffer buffer = newBuffer();
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> buffer.save(answerId, "too late"));
+        assertEquals(0, buffer.metricsSnapshot().get("pending"));
+        assertEquals(1L, buffer.metricsSnapshot().get("rejectedClosed"));
+        buffer.destroy();
+    }
+
+    @Test
+    void flushSheets_SheetSubmittedBeforeFlush_CountsDropAndRejectsLaterSaves() {
+        // Arrange: the save was acknowledged, then the sheet was submitted elsewhere
+        when(answerDocumentJdbc.findAnswerText(answerId)).thenReturn(Optional.of(stored("", 0)));
+        when(answerSheetJdbc.findNotInProgressIds(anyCollection())).thenReturn(List.of(sheetId));
+        AnswerAutosaveBuffer buffer = newBuffer();
+        buffer.save(answerId, "acknowledged");
+
+        // Act
+        buffer.scheduledFlush();
+
+        // Assert
+        assertEquals(1L, buffer.metricsSnapshot().get("droppedClosed"));
+        assertThrows(UnauthorizedException.class, () -> buffer.save(answerId, "after submit"));
+        assertEquals(1L, buffer.metricsSnapshot().get("rejectedClosed"));
+        buffer.destroy();
+    }
+}
@@ -0,0 +1,168 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.SubmissionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerSheetTransitionRaceTest extends PostgresIntegrationTest {
+
+    private static final int RACERS = 64;
+    private static final int QUESTION_COUNT = 10;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private AnswerSheetService answerSheetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID facultyId;
+    private UUID sheetId;
+
+    @BeforeEach
+    void setUp() {
+        Cohort cohort = cohort(1);
+        Exam exam = publishExam(cohort, ExamShape.objective(QUESTION_COUNT, 2));
+
+        sheetId = studentExamService.startExam(exam.getId(), cohort.student().getId()).getId();
+        facultyId = cohort.faculty().getId();
+
+        // Every answer picks the correct option; the sheet is already past its deadline
+        jdbcTemplate.update("UPDATE answers a SET selected_option_id = o.id FROM options o " +
+                "WHERE o.question_id = a.question_id AND o.is_correct AND a.answer_sheet_id = ?", sheetId);
+        jdbcTemplate.update("UPDATE answer_sheets SET expires_at = now() - interval '1 minute' WHERE id = ?", sheetId);
+    }
+
+    @Test
+    void submit_StudentRacingSweeper_TransitionsAndGradesExactlyOnce() throws Exception {
+        // Arrange
+        long sheetVersion = sheetVersion();
+        long answerVersions = answerVersionSum();
+
+        // Act: half the racers submit as the student, half as the expiry sweeper
+        List<Object> results = race(i -> i % 2 == 0
+                ? answerSubmissionService.submitAnswerSheet(sheetId)
+                : answerSubmissionService.autoSubmitSheets(List.of(sheetId)));
+
+        // Assert
+        int sweeperWins = results.stream().filter(Integer.class::isInstance).mapToInt(Integer.class::cast).sum();
+        assertTrue(sweeperWins <= 1);
+        assertEquals(SubmissionStatus.SUBMITTED.name(), sheetColumn("status", String.class));
+        assertEquals(sheetVersion + 1, sheetVersion(), "the sheet must change state exactly once");
+        assertEquals(answerVersions + QUESTION_COUNT, answerVersionSum(), "each answer must be graded exactly once");
+        assertEquals(2 * QUESTION_COUNT, sheetColumn("obtained_points", Integer.class));
+    }
+
+    @Test
+    void submit_SheetLockedElsewhere_WaitsForLockAndSubmits() throws Exception {
+        // Arrange: another transaction holds the sheet row, as a save or an autosave flush would
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM answer_sheets WHERE id = ? FOR UPDATE", sheetId);
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+        // Act
+        Future<AnswerSheetResponse> submit = pool.submit(() -> answerSubmissionService.submitAnswerSheet(sheetId));
+        Thread.sleep(300);
+        boolean doneWhileLocked = submit.isDone();
+        release.countDown();
+        AnswerSheetResponse response = submit.get(30, TimeUnit.SECONDS);
+        holder.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert
+        assertFalse(doneWhileLocked, "the student submit must wait for the lock, not skip the sheet");
+        assertEquals(SubmissionStatus.SUBMITTED, response.getStatus());
+        assertEquals(SubmissionStatus.SUBMITTED.name(), sheetColumn("status", String.class));
+    }
+
+    @Test
+    void grading_ConcurrentSubmitGradingAndAutoGrade_GradesExactlyOnce() throws Exception {
+        // Arrange
+        answerSubmissionService.submitAnswerSheet(sheetId);
+        long sheetVersion = sheetVersion();
+        long answerVersions = answerVersionSum();
+
+        // Act
+        race(i -> {
+            if (i % 2 == 0) {
+                answerSheetService.submitGrading(sheetId, facultyId);
+            } else {
+                answerSheetService.autoGradeObjectiveQuestions(sheetId, facultyId);
+            }
+            return i;
+        });
+
+        // Assert: answers were auto-graded at submit, so only the GRADED transition happens
+        assertEquals(SubmissionStatus.GRADED.name(), sheetColumn("status", String.class));
+        assertEquals(sheetVersion + 1, sheetVersion());
+        assertEquals(answerVersions, answerVersionSum());
+        assertEquals(2 * QUESTION_COUNT, sheetColumn("obtained_points", Integer.class));
+    }
+
+    private List<Object> race(IntFunctionWithException action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(RACERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            int racer = i;
+            futures.add(pool.submit(() -> {
+                go.await();
+                return action.apply(racer);
+            }));
+        }
+        go.countDown();
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    private long sheetVersion() {
+        return sheetColumn("version", Long.class);
+    }
+
+    private <T> T sheetColumn(String column, Class<T> type) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM answer_sheets WHERE id = ?", type, sheetId);
+    }
+
+    private long answerVersionSum() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(version), 0) FROM answers WHERE answer_sheet_id = ?", Long.class, sheetId);
+    }
+
+    @FunctionalInterface
+    private interface IntFunctionWithException {
+        Object apply(int racer) throws Exception;
+    }
+}
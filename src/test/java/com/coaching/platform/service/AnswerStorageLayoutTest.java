@@ -0,0 +1,113 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSelectionRequest;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.repository.ExamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerStorageLayoutTest extends PostgresIntegrationTest {
+
+    private static final int QUESTION_COUNT = 5;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private AnswerStorageMigrationService answerStorageMigrationService;
+
+    @Autowired
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID studentId;
+
+    private Exam exam(AnswerStorage storage) {
+        Cohort cohort = cohort(1);
+        studentId = cohort.student().getId();
+        return publishExam(cohort, ExamShape.objective(QUESTION_COUNT, 2).storedAs(storage));
+    }
+
+    private void answerEverything(AnswerSheetResponse sheet) {
+        List<AnswerSelectionRequest.Selection> selections = new ArrayList<>();
+        for (AnswerSheetResponse.AnswerSlot slot : sheet.getAnswers()) {
+            UUID correct = jdbcTemplate.queryForObject(
+                    "SELECT id FROM options WHERE question_id = ? AND is_correct", UUID.class, slot.getQuestionId());
+            selections.add(new AnswerSelectionRequest.Selection(slot.getAnswerId(), correct));
+            answerSubmissionService.saveAnswer(slot.getAnswerId(), "Working for " + slot.getQuestionId());
+        }
+        answerSubmissionService.saveSelections(studentId, sheet.getId(),
+                AnswerSelectionRequest.builder().selections(selections).build());
+    }
+
+    @Test
+    void documentSheet_SaveAndSubmit_GradedWithoutAnswerRows() {
+        // Arrange
+        Exam exam = exam(AnswerStorage.DOCUMENT);
+        AnswerSheetResponse sheet = studentExamService.startExam(exam.getId(), studentId);
+        answerEverything(sheet);
+
+        // Act
+        AnswerSheetResponse submitted = answerSubmissionService.submitAnswerSheet(sheet.getId());
+
+        // Assert
+        assertEquals(SubmissionStatus.SUBMITTED, submitted.getStatus());
+        assertEquals(2 * QUESTION_COUNT, submitted.getObtainedPoints());
+        assertEquals(0, answerRows(sheet.getId()));
+        List<AnswerDocumentJdbc.StoredAnswer> answers = answerDocumentJdbc.loadAnswers(sheet.getId());
+        assertEquals(QUESTION_COUNT, answers.size());
+        assertTrue(answers.stream().allMatch(a -> a.autoGraded() && a.text().startsWith("Working for ")));
+    }
+
+    @Test
+    void migrateExam_RoundTrip_PreservesEveryAnswer() {
+        // Arrange
+        Exam exam = exam(AnswerStorage.ROWS);
+        AnswerSheetResponse sheet = studentExamService.startExam(exam.getId(), studentId);
+        answerEverything(sheet);
+        answerSubmissionService.submitAnswerSheet(sheet.getId());
+        Map<UUID, AnswerDocumentJdbc.StoredAnswer> before = byId(answerDocumentJdbc.loadAnswers(sheet.getId()));
+
+        // Act
+        int toDocument = answerStorageMigrationService.migrateExam(exam.getId(), AnswerStorage.DOCUMENT).getConverted();
+        Map<UUID, AnswerDocumentJdbc.StoredAnswer> asDocument = byId(answerDocumentJdbc.loadAnswers(sheet.getId()));
+        long rowsWhileDocument = answerRows(sheet.getId());
+        int toRows = answerStorageMigrationService.migrateExam(exam.getId(), AnswerStorage.ROWS).getConverted();
+
+        // Assert
+        assertEquals(1, toDocument);
+        assertEquals(1, toRows);
+        assertEquals(0, rowsWhileDocument);
+        assertEquals(before, asDocument);
+        assertEquals(before, byId(answerDocumentJdbc.loadAnswers(sheet.getId())));
+        assertEquals(AnswerStorage.ROWS, examRepository.findById(exam.getId()).orElseThrow().getAnswerStorage());
+    }
+
+    private long answerRows(UUID sheetId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM answers WHERE answer_sheet_id = ?", Long.class, sheetId);
+    }
+
+    private static Map<UUID, AnswerDocumentJdbc.StoredAnswer> byId(List<AnswerDocumentJdbc.StoredAnswer> answers) {
+        Map<UUID, AnswerDocumentJdbc.StoredAnswer> byId = new HashMap<>();
+        answers.forEach(answer -> byId.put(answer.answerId(), answer));
+        return byId;
+    }
+}
@@ -0,0 +1,193 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerSelectionRequest;
+import com.coaching.platform.dto.AnswerSelectionResponse;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.security.ExamSessionTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerSubmissionServiceTest {
+
+    @Mock
+    private AnswerSheetJdbc answerSheetJdbc;
+
+    @Mock
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Mock
+    private ExamPaperCache examPaperCache;
+
+    @Mock
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Spy
+    private ExamSessionTokens examSessionTokens = new ExamSessionTokens("test-secret", 120);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AnswerSubmissionService answerSubmissionService;
+
+    private final UUID examId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final UUID sheetId = UUID.randomUUID();
+    private final UUID mcqId = UUID.randomUUID();
+    private final UUID essayId = UUID.randomUUID();
+    private final UUID optionA = UUID.randomUUID();
+    private final UUID optionB = UUID.randomUUID();
+    private final UUID mcqAnswerId = UUID.randomUUID();
+    private final UUID essayAnswerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ExamPaper paper = ExamPaper.builder()
+                .examId(examId)
+                .version(1L)
+                .durationMinutes(120)
+                .questions(List.of(
+                        ExamPaper.PaperQuestion.builder().id(mcqId).type(QuestionType.OBJECTIVE)
+                                .options(List.of(
+                                        ExamPaper.PaperOption.builder().id(optionA).build(),
+                                        ExamPaper.PaperOption.builder().id(optionB).build()))
+                                .build(),
+                        ExamPaper.PaperQuestion.builder().id(essayId).type(QuestionType.DESCRIPTIVE)
+                                .options(List.of()).build()))
+                .build();
+        lenient().when(examPaperCache.getPaper(examId))
+                .thenReturn(new ExamPaperCache.CompiledPaper(examId, 1L, new byte[0], paper, AnswerKey.EMPTY));
+        lenient().when(answerDocumentJdbc.findAnswerSlots(sheetId)).thenReturn(List.of(
+                new AnswerSheetResponse.AnswerSlot(mcqAnswerId, mcqId),
+                new AnswerSheetResponse.AnswerSlot(essayAnswerId, essayId)));
+    }
+
+    private void sheetOwnedBy(UUID owner, SubmissionStatus status) {
+        sheetOwnedBy(owner, status, LocalDateTime.now().plusHours(1));
+    }
+
+    private void sheetOwnedBy(UUID owner, SubmissionStatus status, LocalDateTime expiresAt) {
+        when(answerSheetJdbc.findSheetOwner(sheetId))
+                .thenReturn(Optional.of(new AnswerSheetJdbc.SheetOwner(sheetId, examId, owner, status, expiresAt)));
+    }
+
+    private static AnswerSelectionRequest request(UUID answerId, UUID optionId) {
+        return AnswerSelectionRequest.builder()
+                .selections(List.of(AnswerSelectionRequest.Selection.builder()
+                        .answerId(answerId).optionId(optionId).build()))
+                .build();
+    }
+
+    @Test
+    void saveSelections_ValidPairs_AppliesOneBatchedUpdate() {
+        // Arrange: the same answer twice; the last selection wins
+        sheetOwnedBy(studentId, SubmissionStatus.IN_PROGRESS);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(answerDocumentJdbc.updateSelections(eq(sheetId), anyList(), anyList(), any())).thenReturn(1);
+        when(answerDocumentJdbc.countSelectedAnswers(sheetId)).thenReturn(1);
+        AnswerSelectionRequest request = AnswerSelectionRequest.builder()
+                .selections(List.of(
+                        AnswerSelectionRequest.Selection.builder().answerId(mcqAnswerId).optionId(optionA).build(),
+                        AnswerSelectionRequest.Selection.builder().answerId(mcqAnswerId).optionId(optionB).build()))
+                .build();
+
+        // Act
+        AnswerSelectionResponse response = answerSubmissionService.saveSelections(studentId, sheetId, request);
+
+        // Assert
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getAnsweredCount());
+        verify(answerDocumentJdbc).updateSelections(eq(sheetId), eq(List.of(mcqAnswerId)), eq(List.of(optionB)), any());
+    }
+
+    @Test
+    void saveSelections_OptionOfAnotherQuestion_RejectedBeforeUpdate() {
+        // Arrange
+        sheetOwnedBy(studentId, SubmissionStatus.IN_PROGRESS);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> answerSubmissionService.saveSelections(studentId, sheetId, request(essayAnswerId, optionA)));
+        verify(answerDocumentJdbc, never()).updateSelections(any(), anyList(), anyList(), any());
+    }
+
+    @Test
+    void saveSelections_AnotherStudentsSheet_ThrowsUnauthorized() {
+        // Arrange
+        sheetOwnedBy(UUID.randomUUID(), SubmissionStatus.IN_PROGRESS);
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> answerSubmissionService.saveSelections(studentId, sheetId, request(mcqAnswerId, optionA)));
+        verify(answerDocumentJdbc, never()).updateSelections(any(), anyList(), anyList(), any());
+    }
+
+    @Test
+    void saveSelections_PastDeadlineAndGrace_RejectedBeforeUpdate() {
+        // Arrange: still IN_PROGRESS because the auto-submit has not run yet
+        sheetOwnedBy(studentId, SubmissionStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> answerSubmissionService.saveSelections(studentId, sheetId, request(mcqAnswerId, optionA)));
+        verify(answerDocumentJdbc, never()).updateSelections(any(), anyList(), anyList(), any());
+    }
+
+    @Test
+    void saveSelections_WithinGrace_Applied() {
+        // Arrange
+        sheetOwnedBy(studentId, SubmissionStatus.IN_PROGRESS, LocalDateTime.now().minusSeconds(30));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(answerDocumentJdbc.updateSelections(eq(sheetId), anyList(), anyList(), any())).thenReturn(1);
+
+        // Act
+        AnswerSelectionResponse response =
+                answerSubmissionService.saveSelections(studentId, sheetId, request(mcqAnswerId, optionA));
+
+        // Assert
+        assertEquals(1, response.getUpdated());
+    }
+
+    @Test
+    void saveAnswer_WriteBehindOffAndSheetSubmitted_RejectedWithoutWrite() {
+        // Arrange
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(answerDocumentJdbc.findAnswerText(essayAnswerId)).thenReturn(Optional.of(
+                new AnswerDocumentJdbc.AnswerText(essayAnswerId, sheetId, "draft", LocalDateTime.now(), 3)));
+        when(answerSheetJdbc.lockSheet(sheetId)).thenReturn(Optional.of(new AnswerSheetJdbc.SheetRow(sheetId,
+                SubmissionStatus.SUBMITTED, LocalDateTime.now().minusHours(2), LocalDateTime.now(), 10)));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> answerSubmissionService.saveAnswer(essayAnswerId, "rewritten"));
+        verify(answerDocumentJdbc, never()).updateAnswerTexts(anyCollection());
+    }
+}
@@ -0,0 +1,127 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.GradingJobResponse;
+import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.GradingJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "exam.bulk-grading.partitions=4",
+        "exam.bulk-grading.chunk-size=2",
+        "exam.bulk-grading.heartbeat-ms=600000"
+})
+class BulkGradingTest extends PostgresIntegrationTest {
+
+    private static final int STUDENTS = 12;
+    private static final int QUESTION_COUNT = 3;
+
+    @Autowired
+    private BulkGradingService bulkGradingService;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID examId;
+    private UUID facultyId;
+
+    @BeforeEach
+    void setUp() {
+        Cohort cohort = cohort(STUDENTS);
+        Exam exam = publishExam(cohort, ExamShape.objective(QUESTION_COUNT, 2));
+        examId = exam.getId();
+        facultyId = cohort.faculty().getId();
+
+        for (User student : cohort.students()) {
+            UUID sheetId = studentExamService.startExam(examId, student.getId()).getId();
+            jdbcTemplate.update("UPDATE answers a SET selected_option_id = o.id FROM options o " +
+                    "WHERE o.question_id = a.question_id AND o.is_correct AND a.answer_sheet_id = ?", sheetId);
+            answerSubmissionService.submitAnswerSheet(sheetId);
+        }
+        // As if the sheets had been submitted without grading
+        resetGrades(null);
+    }
+
+    @Test
+    void startJob_GradesEverySubmittedSheetAcrossPartitions() throws Exception {
+        // Act
+        GradingJobResponse started = bulkGradingService.startJob(examId, facultyId, false);
+        GradingJobResponse done = awaitJob(started.getId());
+
+        // Assert
+        assertEquals(GradingJobStatus.COMPLETED, done.getStatus());
+        assertEquals(STUDENTS, done.getTotalSheets());
+        assertEquals(STUDENTS, done.getSheetsGraded());
+        assertEquals(STUDENTS * QUESTION_COUNT, done.getAnswersGraded());
+        assertEquals(done.getPartitions(), done.getPartitionsCompleted());
+        assertEquals(0, ungradedAnswers());
+        assertEquals(List.of(2 * QUESTION_COUNT), jdbcTemplate.queryForList(
+                "SELECT DISTINCT obtained_points FROM answer_sheets WHERE exam_id = ?", Integer.class, examId));
+    }
+
+    @Test
+    void maintainJobs_StaleJob_ResumesAfterRecordedPosition() throws Exception {
+        // Arrange: a finished job rewound to "first sheet graded, then the node died"
+        UUID jobId = awaitJob(bulkGradingService.startJob(examId, facultyId, false).getId()).getId();
+        UUID firstSheet = jdbcTemplate.queryForObject(
+                "SELECT id FROM answer_sheets WHERE exam_id = ? ORDER BY id LIMIT 1", UUID.class, examId);
+        jdbcTemplate.update("UPDATE grading_job_partitions SET completed = false, last_sheet_id = NULL, " +
+                "sheets_graded = 0, answers_graded = 0 WHERE job_id = ?", jobId);
+        jdbcTemplate.update("UPDATE grading_job_partitions SET last_sheet_id = ?, sheets_graded = 1, answers_graded = ? " +
+                "WHERE job_id = ? AND partition_number = 0", firstSheet, QUESTION_COUNT, jobId);
+        jdbcTemplate.update("UPDATE grading_jobs SET status = 'RUNNING', run_token = ?, finished_at = NULL, " +
+                "heartbeat_at = now() - interval '1 hour' WHERE id = ?", UUID.randomUUID(), jobId);
+        resetGrades(firstSheet);
+        long firstSheetVersions = answerVersions(firstSheet);
+
+        // Act
+        bulkGradingService.maintainJobs();
+        GradingJobResponse done = awaitJob(jobId);
+
+        // Assert
+        assertEquals(GradingJobStatus.COMPLETED, done.getStatus());
+        assertEquals(STUDENTS, done.getSheetsGraded());
+        assertEquals(0, ungradedAnswers());
+        assertEquals(firstSheetVersions, answerVersions(firstSheet), "sheets before the position are not graded again");
+    }
+
+    private GradingJobResponse awaitJob(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        GradingJobResponse job = bulkGradingService.getJob(jobId, facultyId);
+        while (job.getStatus() == GradingJobStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = bulkGradingService.getJob(jobId, facultyId);
+        }
+        return job;
+    }
+
+    private void resetGrades(UUID except) {
+        jdbcTemplate.update("UPDATE answers a SET points_awarded = NULL, feedback = NULL, is_auto_graded = false " +
+                "FROM answer_sheets s WHERE s.id = a.answer_sheet_id AND s.exam_id = ? AND s.id IS DISTINCT FROM ?::uuid",
+                examId, except);
+    }
+
+    private long ungradedAnswers() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM answers a JOIN answer_sheets s " +
+                "ON s.id = a.answer_sheet_id WHERE s.exam_id = ? AND NOT a.is_auto_graded", Long.class, examId);
+    }
+
+    private long answerVersions(UUID sheetId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(version), 0) FROM answers WHERE answer_sheet_id = ?", Long.class, sheetId);
+    }
+}
@@ -0,0 +1,102 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSheetSummary;
+import com.coaching.platform.dto.EvaluationQueuePage;
+import com.coaching.platform.entity.*;
+import com.coaching.platform.exception.InvalidCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationQueueTest extends PostgresIntegrationTest {
+
+    private static final int STUDENT_COUNT = 5;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private AnswerSheetService answerSheetService;
+
+    private UUID facultyId;
+    private UUID examId;
+    private UUID batchId;
+
+    @BeforeEach
+    void setUp() {
+        Cohort cohort = cohort(STUDENT_COUNT);
+        Exam exam = publishExam(cohort, ExamShape.objective(1, 2));
+
+        for (User student : cohort.students()) {
+            UUID sheetId = studentExamService.startExam(exam.getId(), student.getId()).getId();
+            answerSubmissionService.submitAnswerSheet(sheetId);
+        }
+        facultyId = cohort.faculty().getId();
+        examId = exam.getId();
+        batchId = cohort.batch().getId();
+    }
+
+    @Test
+    void getEvaluationQueue_WalkAllPages_ReturnsEverySheetOnceInOrder() {
+        // Arrange
+        EvaluationQueueJdbc.QueueFilter filter = new EvaluationQueueJdbc.QueueFilter(examId, batchId, null);
+        List<AnswerSheetSummary> seen = new ArrayList<>();
+        List<Long> totals = new ArrayList<>();
+
+        // Act
+        String cursor = null;
+        do {
+            EvaluationQueuePage page = answerSheetService.getEvaluationQueue(facultyId, filter, cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            seen.addAll(page.getItems());
+            totals.add(page.getTotal());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(STUDENT_COUNT, seen.size());
+        assertEquals(STUDENT_COUNT, seen.stream().map(AnswerSheetSummary::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            AnswerSheetSummary previous = seen.get(i - 1);
+            AnswerSheetSummary current = seen.get(i);
+            int order = previous.getSubmittedAt().compareTo(current.getSubmittedAt());
+            assertTrue(order < 0 || (order == 0 && previous.getId().compareTo(current.getId()) < 0));
+        }
+        assertEquals(3, totals.size());
+        assertEquals(STUDENT_COUNT, totals.get(0));
+        assertNull(totals.get(1));
+        assertTrue(seen.stream().allMatch(s -> s.getExamId().equals(examId) && s.getStudentName() != null));
+    }
+
+    @Test
+    void getEvaluationQueue_OtherExam_ReturnsEmptyPage() {
+        // Arrange
+        EvaluationQueueJdbc.QueueFilter filter = new EvaluationQueueJdbc.QueueFilter(UUID.randomUUID(), null, null);
+
+        // Act
+        EvaluationQueuePage page = answerSheetService.getEvaluationQueue(facultyId, filter, null, 2);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        assertEquals(0, page.getTotal());
+    }
+
+    @Test
+    void getEvaluationQueue_TamperedCursor_ThrowsInvalidCursor() {
+        // Arrange
+        EvaluationQueueJdbc.QueueFilter filter = new EvaluationQueueJdbc.QueueFilter(examId, null, null);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class,
+                () -> answerSheetService.getEvaluationQueue(facultyId, filter, "not-a-cursor", 2));
+    }
+}
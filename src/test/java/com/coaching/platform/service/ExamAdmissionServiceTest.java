@@ -0,0 +1,135 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.grading.AnswerKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamAdmissionServiceTest {
+
+    @Mock
+    private ExamPaperCache examPaperCache;
+
+    @Mock
+    private BatchMembershipCache batchMembershipCache;
+
+    private ExamAdmissionService admissionService;
+
+    private final UUID examId = UUID.randomUUID();
+    private final UUID batchId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ExamPaper paper = ExamPaper.builder().examId(examId).batchId(batchId).questions(List.of()).build();
+        lenient().when(examPaperCache.getPaper(examId))
+                .thenReturn(new ExamPaperCache.CompiledPaper(examId, 1L, new byte[0], paper, AnswerKey.EMPTY));
+        lenient().when(batchMembershipCache.isMember(eq(batchId), any())).thenReturn(true);
+        // One permit every ~17 minutes: no refill happens during the test
+        admissionService = new ExamAdmissionService(examPaperCache, batchMembershipCache, true, 0.001, 2, 30, 30, 600);
+    }
+
+    @Test
+    void admit_BurstExhausted_QueuesInArrivalOrder() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        UUID fourth = UUID.randomUUID();
+
+        // Act
+        ExamAdmissionService.Admission a1 = admissionService.admit(examId, first);
+        ExamAdmissionService.Admission a2 = admissionService.admit(examId, second);
+        ExamAdmissionService.Admission a3 = admissionService.admit(examId, third);
+        ExamAdmissionService.Admission a4 = admissionService.admit(examId, fourth);
+
+        // Assert
+        assertTrue(a1.admitted());
+        assertTrue(a2.admitted());
+        assertFalse(a3.admitted());
+        assertEquals(1, a3.position());
+        assertFalse(a4.admitted());
+        assertEquals(2, a4.position());
+        assertTrue(a4.retryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void admit_AlreadyAdmittedStudent_IsNotQueuedAgain() {
+        // Arrange
+        UUID student = UUID.randomUUID();
+        admissionService.admit(examId, student);
+        admissionService.admit(examId, UUID.randomUUID());
+
+        // Act
+        ExamAdmissionService.Admission retry = admissionService.admit(examId, student);
+
+        // Assert
+        assertTrue(retry.admitted());
+    }
+
+    @Test
+    void updateRate_LargerBurst_AdmitsWaitingStudentsAfterRefill() throws InterruptedException {
+        // Arrange
+        admissionService.admit(examId, UUID.randomUUID());
+        admissionService.admit(examId, UUID.randomUUID());
+        UUID waiting = UUID.randomUUID();
+        assertFalse(admissionService.admit(examId, waiting).admitted());
+
+        // Act
+        admissionService.updateRate(examId, 1000, 10);
+        Thread.sleep(20);
+        ExamAdmissionService.Admission admission = admissionService.admit(examId, waiting);
+
+        // Assert
+        assertTrue(admission.admitted());
+    }
+
+    @Test
+    void admit_StudentOutsideBatch_RejectedWithoutUsingAToken() {
+        // Arrange
+        UUID outsider = UUID.randomUUID();
+        when(batchMembershipCache.isMember(batchId, outsider)).thenReturn(false);
+
+        // Act
+        assertThrows(UnauthorizedException.class, () -> admissionService.admit(examId, outsider));
+        ExamAdmissionService.Admission a1 = admissionService.admit(examId, UUID.randomUUID());
+        ExamAdmissionService.Admission a2 = admissionService.admit(examId, UUID.randomUUID());
+
+        // Assert
+        assertTrue(a1.admitted());
+        assertTrue(a2.admitted());
+        assertEquals(1L, admissionService.metricsSnapshot().get("denied"));
+    }
+
+    @Test
+    void evictIdleGates_GateWithoutStartAttempts_IsDroppedAndKeepsRateOverride() throws InterruptedException {
+        // Arrange
+        admissionService = new ExamAdmissionService(examPaperCache, batchMembershipCache, true, 0.001, 2, 30, 30, 0);
+        admissionService.updateRate(examId, 0.001, 3);
+        admissionService.admit(examId, UUID.randomUUID());
+        Thread.sleep(5);
+
+        // Act
+        admissionService.evictIdleGates();
+
+        // Assert
+        assertEquals(1L, admissionService.metricsSnapshot().get("evictedGates"));
+        assertTrue(((Map<?, ?>) admissionService.metricsSnapshot().get("exams")).isEmpty());
+        assertTrue(admissionService.admit(examId, UUID.randomUUID()).admitted());
+        assertTrue(admissionService.admit(examId, UUID.randomUUID()).admitted());
+        assertTrue(admissionService.admit(examId, UUID.randomUUID()).admitted());
+        assertFalse(admissionService.admit(examId, UUID.randomUUID()).admitted());
+    }
+}
@@ -0,0 +1,134 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.entity.Exam;
+import com.coaching.platform.entity.Option;
+import com.coaching.platform.entity.Question;
+import com.coaching.platform.enums.ExamStatus;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.repository.ExamRepository;
+import com.coaching.platform.repository.QuestionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamPaperCacheTest {
+
+    @Mock
+    private ExamRepository examRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private ExamPaperCache examPaperCache;
+
+    private Exam exam;
+    private Question question;
+
+    @BeforeEach
+    void setUp() {
+        examPaperCache = new ExamPaperCache(examRepository, questionRepository,
+                new ObjectMapper().findAndRegisterModules(), 60_000);
+
+        exam = Exam.builder()
+                .id(UUID.randomUUID())
+                .title("Polity Mock 1")
+                .instructions("Answer all questions")
+                .durationMinutes(60)
+                .status(ExamStatus.DRAFT)
+                .build();
+
+        question = Question.builder()
+                .id(UUID.randomUUID())
+                .exam(exam)
+                .type(QuestionType.OBJECTIVE)
+                .questionText("Who appoints the Governor?")
+                .points(2)
+                .orderNumber(1)
+                .build();
+        question.addOption(Option.builder().id(UUID.randomUUID()).optionText("President")
+                .isCorrect(true).orderNumber(1).build());
+        question.addOption(Option.builder().id(UUID.randomUUID()).optionText("Prime Minister")
+                .isCorrect(false).orderNumber(2).build());
+    }
+
+    @Test
+    void publish_ThenGetPaper_ServesCachedBytesWithoutAnswerKey() {
+        // Arrange
+        exam.publish();
+        when(questionRepository.findWithOptionsByExamId(exam.getId())).thenReturn(List.of(question));
+
+        // Act
+        examPaperCache.publish(exam);
+        ExamPaperCache.CompiledPaper first = examPaperCache.getPaper(exam.getId());
+        ExamPaperCache.CompiledPaper second = examPaperCache.getPaper(exam.getId());
+
+        // Assert
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertSame(first, second);
+        assertEquals(1L, first.version());
+        assertTrue(json.contains("Prime Minister"));
+        assertFalse(json.contains("isCorrect"));
+        assertFalse(json.contains("correct"));
+        verifyNoInteractions(examRepository);
+        verify(questionRepository, times(1)).findWithOptionsByExamId(exam.getId());
+    }
+
+    @Test
+    void getPaper_AfterEvict_RecompilesOnce() {
+        // Arrange
+        exam.publish();
+        when(examRepository.findById(exam.getId())).thenReturn(Optional.of(exam));
+        when(questionRepository.findWithOptionsByExamId(exam.getId())).thenReturn(List.of(question));
+
+        // Act
+        examPaperCache.evict(exam.getId());
+        examPaperCache.getPaper(exam.getId());
+        examPaperCache.getPaper(exam.getId());
+
+        // Assert
+        verify(examRepository, times(1)).findById(exam.getId());
+    }
+
+    @Test
+    void getPaper_PaperVersionBumpedElsewhere_RecompilesAfterRevalidation() {
+        // Arrange
+        ExamPaperCache revalidating = new ExamPaperCache(examRepository, questionRepository,
+                new ObjectMapper().findAndRegisterModules(), 0);
+        exam.publish();
+        when(questionRepository.findWithOptionsByExamId(exam.getId())).thenReturn(List.of(question));
+        revalidating.publish(exam);
+        exam.bumpPaperVersion();
+        when(examRepository.findPaperVersion(exam.getId())).thenReturn(Optional.of(2L));
+        when(examRepository.findById(exam.getId())).thenReturn(Optional.of(exam));
+
+        // Act
+        ExamPaperCache.CompiledPaper paper = revalidating.getPaper(exam.getId());
+
+        // Assert
+        assertEquals(2L, paper.version());
+        assertEquals("\"" + exam.getId() + "-2\"", paper.etag());
+        verify(questionRepository, times(2)).findWithOptionsByExamId(exam.getId());
+    }
+
+    @Test
+    void getPaper_DraftExam_ThrowsNotFound() {
+        // Arrange
+        when(examRepository.findById(exam.getId())).thenReturn(Optional.of(exam));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> examPaperCache.getPaper(exam.getId()));
+    }
+}
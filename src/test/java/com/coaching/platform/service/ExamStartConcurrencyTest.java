@@ -0,0 +1,114 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExamStartConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int PARALLEL_STARTS = 300;
+    private static final int QUESTION_COUNT = 20;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSheetUniquenessMigration uniquenessMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID examId;
+    private UUID studentId;
+
+    @BeforeEach
+    void setUp() {
+        Cohort cohort = cohort(1);
+        Exam exam = publishExam(cohort, ExamShape.descriptive(QUESTION_COUNT, 1).lasting(120));
+
+        examId = exam.getId();
+        studentId = cohort.student().getId();
+    }
+
+    @Test
+    void startExam_ParallelStartsForOneStudent_CreateExactlyOneSheet() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<AnswerSheetResponse>> results = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_STARTS; i++) {
+            results.add(pool.submit(() -> {
+                go.await();
+                return studentExamService.startExam(examId, studentId);
+            }));
+        }
+
+        // Act
+        go.countDown();
+        Set<UUID> sheetIds = new HashSet<>();
+        for (Future<AnswerSheetResponse> result : results) {
+            AnswerSheetResponse response = result.get(60, TimeUnit.SECONDS);
+            sheetIds.add(response.getId());
+            assertEquals(QUESTION_COUNT, response.getAnswers().size());
+        }
+        pool.shutdown();
+
+        // Assert
+        Integer sheets = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM answer_sheets WHERE exam_id = ? AND student_id = ?",
+                Integer.class, examId, studentId);
+        Integer answers = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM answers a JOIN answer_sheets s ON s.id = a.answer_sheet_id WHERE s.exam_id = ?",
+                Integer.class, examId);
+        assertEquals(1, sheetIds.size());
+        assertEquals(1, sheets);
+        assertEquals(QUESTION_COUNT, answers);
+    }
+
+    @Test
+    void startExam_RetriedStart_ReturnsSheetWithoutRewritingIt() {
+        // Arrange
+        AnswerSheetResponse first = studentExamService.startExam(examId, studentId);
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM answer_sheets WHERE id = ?", Long.class, first.getId());
+
+        // Act
+        AnswerSheetResponse retried = studentExamService.startExam(examId, studentId);
+
+        // Assert
+        assertEquals(first.getId(), retried.getId());
+        assertEquals(first.getExpiresAt(), retried.getExpiresAt());
+        assertEquals(version, jdbcTemplate.queryForObject(
+                "SELECT version FROM answer_sheets WHERE id = ?", Long.class, first.getId()));
+    }
+
+    @Test
+    void uniquenessMigration_DuplicateSheets_KeepsMostAdvancedAndCreatesIndex() {
+        // Arrange
+        jdbcTemplate.execute("DROP INDEX uk_answer_sheets_exam_student");
+        UUID inProgress = UUID.randomUUID();
+        UUID submitted = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO answer_sheets (id, exam_id, student_id, created_at, started_at, status) " +
+                "VALUES (?, ?, ?, now(), now() - interval '1 hour', 'IN_PROGRESS')", inProgress, examId, studentId);
+        jdbcTemplate.update("INSERT INTO answer_sheets (id, exam_id, student_id, created_at, started_at, status) " +
+                "VALUES (?, ?, ?, now(), now(), 'SUBMITTED')", submitted, examId, studentId);
+
+        // Act
+        uniquenessMigration.apply();
+
+        // Assert
+        assertEquals(List.of(submitted), jdbcTemplate.queryForList(
+                "SELECT id FROM answer_sheets WHERE exam_id = ? AND student_id = ?", UUID.class, examId, studentId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'uk_answer_sheets_exam_student'", Integer.class));
+    }
+}
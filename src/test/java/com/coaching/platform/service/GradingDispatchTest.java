@@ -0,0 +1,110 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSheetSummary;
+import com.coaching.platform.dto.GradingClaimResponse;
+import com.coaching.platform.dto.GradingLeaseRenewal;
+import com.coaching.platform.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingDispatchTest extends PostgresIntegrationTest {
+
+    private static final int STUDENT_COUNT = 12;
+    private static final int RACERS = 32;
+
+    @Autowired
+    private GradingDispatchService gradingDispatchService;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID facultyId;
+    private UUID examId;
+
+    @BeforeEach
+    void setUp() {
+        Cohort cohort = cohort(STUDENT_COUNT);
+        Exam exam = publishExam(cohort, ExamShape.descriptive(1, 5));
+
+        for (User student : cohort.students()) {
+            UUID sheetId = studentExamService.startExam(exam.getId(), student.getId()).getId();
+            answerSubmissionService.submitAnswerSheet(sheetId);
+        }
+        facultyId = cohort.faculty().getId();
+        examId = exam.getId();
+    }
+
+    @Test
+    void claim_ConcurrentEvaluators_NeverShareASheet() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(RACERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<GradingClaimResponse>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < RACERS; i++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                return gradingDispatchService.claim(examId, facultyId, 1);
+            }));
+        }
+        go.countDown();
+        List<UUID> claimed = new ArrayList<>();
+        for (Future<GradingClaimResponse> future : futures) {
+            future.get(60, TimeUnit.SECONDS).getSheets().forEach(sheet -> claimed.add(sheet.getId()));
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(STUDENT_COUNT, claimed.size());
+        assertEquals(STUDENT_COUNT, new HashSet<>(claimed).size());
+        assertTrue(gradingDispatchService.claim(examId, facultyId, 5).getSheets().isEmpty());
+    }
+
+    @Test
+    void claim_ExpiredLease_ReturnsSheetToPool() {
+        // Arrange
+        GradingClaimResponse first = gradingDispatchService.claim(examId, facultyId, 2);
+        UUID expired = first.getSheets().get(0).getId();
+        jdbcTemplate.update("UPDATE answer_sheets SET grading_lease_expires_at = now() - interval '1 minute' " +
+                "WHERE id = ?", expired);
+
+        // Act
+        GradingClaimResponse next = gradingDispatchService.claim(examId, facultyId, 1);
+
+        // Assert
+        assertEquals(List.of(expired), next.getSheets().stream().map(AnswerSheetSummary::getId).toList());
+        assertFalse(next.getUpNext().stream().anyMatch(sheet -> sheet.getId().equals(first.getSheets().get(1).getId())));
+        assertEquals(Math.min(5, STUDENT_COUNT - 2), next.getUpNext().size());
+    }
+
+    @Test
+    void heartbeat_ReleasedSheet_ReportedLost() {
+        // Arrange
+        List<UUID> sheetIds = gradingDispatchService.claim(examId, facultyId, 3).getSheets().stream()
+                .map(AnswerSheetSummary::getId)
+                .toList();
+        gradingDispatchService.release(facultyId, List.of(sheetIds.get(0)));
+
+        // Act
+        GradingLeaseRenewal renewal = gradingDispatchService.heartbeat(facultyId, sheetIds);
+
+        // Assert
+        assertEquals(Set.copyOf(sheetIds.subList(1, 3)), Set.copyOf(renewal.getRenewed()));
+        assertEquals(List.of(sheetIds.get(0)), renewal.getLost());
+    }
+}
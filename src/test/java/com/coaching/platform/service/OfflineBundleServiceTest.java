@@ -0,0 +1,191 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.dto.OfflineBundleResponse;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.repository.GradingJdbc;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfflineBundleServiceTest {
+
+    @Mock
+    private AnswerSheetJdbc answerSheetJdbc;
+
+    @Mock
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Mock
+    private GradingJdbc gradingJdbc;
+
+    @Mock
+    private AnswerAutosaveBuffer answerAutosaveBuffer;
+
+    @Mock
+    private ExamPaperCache examPaperCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OfflineBundleService offlineBundleService;
+
+    private final UUID examId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final UUID sheetId = UUID.randomUUID();
+    private final UUID mcqId = UUID.randomUUID();
+    private final UUID essayId = UUID.randomUUID();
+    private final UUID optionA = UUID.randomUUID();
+    private final UUID mcqAnswerId = UUID.randomUUID();
+    private final UUID essayAnswerId = UUID.randomUUID();
+    private final LocalDateTime startedAt = LocalDateTime.now().minusHours(2);
+    private final LocalDateTime expiresAt = LocalDateTime.now().minusMinutes(10);
+
+    @BeforeEach
+    void setUp() {
+        offlineBundleService = new OfflineBundleService(answerSheetJdbc, answerDocumentJdbc, gradingJdbc,
+                answerAutosaveBuffer, examPaperCache,
+                new IdempotencyService(60), new ObjectMapper(), transactionManager, "test-secret",
+                1 << 20, 60, 120);
+
+        ExamPaper paper = ExamPaper.builder()
+                .examId(examId)
+                .version(1L)
+                .offlineMode(true)
+                .questions(List.of(
+                        ExamPaper.PaperQuestion.builder().id(mcqId).type(QuestionType.OBJECTIVE)
+                                .options(List.of(ExamPaper.PaperOption.builder().id(optionA).build()))
+                                .build(),
+                        ExamPaper.PaperQuestion.builder().id(essayId).type(QuestionType.DESCRIPTIVE)
+                                .options(List.of()).build()))
+                .build();
+        lenient().when(examPaperCache.getPaper(examId))
+                .thenReturn(new ExamPaperCache.CompiledPaper(examId, 1L, new byte[0], paper, AnswerKey.EMPTY));
+        lenient().when(answerSheetJdbc.findSheetOwner(sheetId)).thenReturn(Optional.of(
+                new AnswerSheetJdbc.SheetOwner(sheetId, examId, studentId, SubmissionStatus.IN_PROGRESS, expiresAt)));
+        lenient().when(answerSheetJdbc.lockSheet(sheetId)).thenReturn(Optional.of(
+                new AnswerSheetJdbc.SheetRow(sheetId, SubmissionStatus.IN_PROGRESS, startedAt, expiresAt, 10)));
+        lenient().when(answerDocumentJdbc.findAnswerSlots(sheetId)).thenReturn(List.of(
+                new AnswerSheetResponse.AnswerSlot(mcqAnswerId, mcqId),
+                new AnswerSheetResponse.AnswerSlot(essayAnswerId, essayId)));
+    }
+
+    private byte[] bundle() throws IOException {
+        String json = "{\"answerSheetId\":\"" + sheetId + "\",\"answers\":["
+                + "{\"answerId\":\"" + mcqAnswerId + "\",\"selectedOptionId\":\"" + optionA + "\",\"savedAt\":"
+                + millis(expiresAt.minusMinutes(20)) + "},"
+                + "{\"answerId\":\"" + essayAnswerId + "\",\"text\":\"typed after the deadline\",\"savedAt\":"
+                + millis(expiresAt.plusMinutes(5)) + "}]}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private String sign(byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(offlineBundleService.bundleKey(sheetId)), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(body));
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upload_SignedBundleAfterExpiry_AppliesOnlyAnswersSavedBeforeDeadline() throws Exception {
+        // Arrange
+        byte[] body = bundle();
+        when(answerDocumentJdbc.applyBundle(eq(sheetId), anyCollection())).thenReturn(1);
+        when(answerSheetJdbc.submitInProgress(eq(List.of(sheetId)), any())).thenReturn(1);
+
+        // Act
+        OfflineBundleResponse response = offlineBundleService.upload(studentId, sheetId, sign(body), true,
+                new ByteArrayInputStream(body));
+
+        // Assert
+        assertEquals(1, response.getApplied());
+        assertEquals(1, response.getSkipped());
+        assertEquals(SubmissionStatus.SUBMITTED, response.getStatus());
+        ArgumentCaptor<Collection<AnswerDocumentJdbc.BundleAnswer>> applied = ArgumentCaptor.forClass(Collection.class);
+        verify(answerDocumentJdbc).applyBundle(eq(sheetId), applied.capture());
+        assertEquals(List.of(mcqAnswerId), applied.getValue().stream().map(AnswerDocumentJdbc.BundleAnswer::answerId).toList());
+        verify(answerAutosaveBuffer).flushSheets(List.of(sheetId));
+    }
+
+    @Test
+    void upload_TamperedBundle_RejectedAndRolledBack() throws Exception {
+        // Arrange: the signature was made over different content
+        byte[] body = bundle();
+        String signature = sign("{}".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> offlineBundleService.upload(studentId, sheetId, signature, false,
+                new ByteArrayInputStream(body)));
+        verify(answerDocumentJdbc, never()).applyBundle(any(), anyCollection());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void upload_RetriedWithSameSignature_ReplaysFirstResult() throws Exception {
+        // Arrange
+        byte[] body = bundle();
+        String signature = sign(body);
+        when(answerDocumentJdbc.applyBundle(eq(sheetId), anyCollection())).thenReturn(1);
+
+        // Act
+        OfflineBundleResponse first = offlineBundleService.upload(studentId, sheetId, signature, false,
+                new ByteArrayInputStream(body));
+        OfflineBundleResponse retry = offlineBundleService.upload(studentId, sheetId, signature, false,
+                new ByteArrayInputStream(body));
+
+        // Assert
+        assertSame(first, retry);
+        assertEquals(SubmissionStatus.IN_PROGRESS, first.getStatus());
+        verify(answerDocumentJdbc, times(1)).applyBundle(eq(sheetId), anyCollection());
+    }
+
+    @Test
+    void upload_BundleForAnotherStudentsSheet_Forbidden() throws Exception {
+        // Arrange
+        byte[] body = bundle();
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class, () -> offlineBundleService.upload(UUID.randomUUID(), sheetId,
+                sign(body), false, new ByteArrayInputStream(body)));
+        verify(answerSheetJdbc, never()).lockSheet(any());
+    }
+}
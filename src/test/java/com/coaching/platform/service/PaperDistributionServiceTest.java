@@ -0,0 +1,117 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.dto.PaperKeyResponse;
+import com.coaching.platform.exception.UnauthorizedException;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.repository.BatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaperDistributionServiceTest {
+
+    @Mock
+    private ExamPaperCache examPaperCache;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    private PaperDistributionService paperDistributionService;
+
+    private final UUID examId = UUID.randomUUID();
+    private final UUID batchId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final byte[] json = "{\"title\":\"Physics mock test\"}".getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void setUp() {
+        paperDistributionService = new PaperDistributionService(examPaperCache,
+                new BatchMembershipCache(batchRepository, 60), "test-secret");
+        lenient().when(batchRepository.findStudentIds(batchId)).thenReturn(List.of(studentId));
+    }
+
+    private void paperStartingAt(LocalDateTime startsAt) {
+        ExamPaper paper = ExamPaper.builder()
+                .examId(examId)
+                .version(3L)
+                .batchId(batchId)
+                .startsAt(startsAt)
+                .questions(List.of())
+                .build();
+        when(examPaperCache.getPaper(examId)).thenReturn(new ExamPaperCache.CompiledPaper(examId, 3L, json, paper, AnswerKey.EMPTY));
+    }
+
+    @Test
+    void releaseKey_WindowOpen_KeyDecryptsPreDownloadedPaper() throws Exception {
+        // Arrange
+        paperStartingAt(LocalDateTime.now().minusMinutes(1));
+        PaperDistributionService.SealedPaper sealed = paperDistributionService.getSealedPaper(examId, studentId);
+
+        // Act
+        PaperKeyResponse key = paperDistributionService.releaseKey(examId, studentId);
+
+        // Assert
+        assertEquals(sealed.etag(), key.getEtag());
+        byte[] payload = sealed.payload();
+        Cipher cipher = Cipher.getInstance(key.getAlgorithm());
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(key.getKey()), "AES"),
+                new GCMParameterSpec(128, payload, 0, 12));
+        cipher.updateAAD((examId + ":3").getBytes(StandardCharsets.US_ASCII));
+        assertArrayEquals(json, cipher.doFinal(Arrays.copyOfRange(payload, 12, payload.length)));
+        verify(batchRepository, times(1)).findStudentIds(batchId);
+    }
+
+    @Test
+    void releaseKey_BeforeWindow_Withheld() {
+        // Arrange
+        paperStartingAt(LocalDateTime.now().plusHours(2));
+
+        // Act & Assert: the sealed copy is available, the key is not
+        assertNotNull(paperDistributionService.getSealedPaper(examId, studentId));
+        assertThrows(UnauthorizedException.class, () -> paperDistributionService.releaseKey(examId, studentId));
+    }
+
+    @Test
+    void releaseKey_StudentOutsideBatch_Forbidden() {
+        // Arrange
+        paperStartingAt(null);
+
+        // Act & Assert
+        assertThrows(UnauthorizedException.class,
+                () -> paperDistributionService.releaseKey(examId, UUID.randomUUID()));
+    }
+
+    @Test
+    void seal_SamePaperVersion_IdenticalOnEveryNode() {
+        // Arrange
+        paperStartingAt(null);
+        ExamPaperCache.CompiledPaper compiled = examPaperCache.getPaper(examId);
+        PaperDistributionService otherNode = new PaperDistributionService(examPaperCache,
+                new BatchMembershipCache(batchRepository, 60), "test-secret");
+
+        // Act
+        PaperDistributionService.SealedPaper first = paperDistributionService.seal(compiled);
+        PaperDistributionService.SealedPaper second = otherNode.seal(compiled);
+
+        // Assert
+        assertArrayEquals(first.payload(), second.payload());
+        assertEquals(first.etag(), second.etag());
+    }
+}
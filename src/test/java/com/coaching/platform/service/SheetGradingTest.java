@@ -0,0 +1,110 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.PostgresIntegrationTest;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.SheetGradeRequest;
+import com.coaching.platform.dto.SheetGradeResponse;
+import com.coaching.platform.entity.*;
+import com.coaching.platform.enums.AnswerStorage;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.exception.ResourceNotFoundException;
+import com.coaching.platform.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetGradingTest extends PostgresIntegrationTest {
+
+    private static final int QUESTION_COUNT = 4;
+
+    @Autowired
+    private AnswerSheetService answerSheetService;
+
+    @Autowired
+    private StudentExamService studentExamService;
+
+    @Autowired
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Autowired
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    private UUID facultyId;
+
+    private AnswerSheetResponse submittedSheet(AnswerStorage storage) {
+        Cohort cohort = cohort(1);
+        Exam exam = publishExam(cohort, ExamShape.descriptive(QUESTION_COUNT, 5).storedAs(storage));
+
+        AnswerSheetResponse sheet = studentExamService.startExam(exam.getId(), cohort.student().getId());
+        answerSubmissionService.submitAnswerSheet(sheet.getId());
+        facultyId = cohort.faculty().getId();
+        return sheet;
+    }
+
+    private static SheetGradeRequest gradeAll(AnswerSheetResponse sheet, boolean finalize) {
+        List<SheetGradeRequest.Grade> grades = new ArrayList<>();
+        for (AnswerSheetResponse.AnswerSlot slot : sheet.getAnswers()) {
+            grades.add(new SheetGradeRequest.Grade(slot.getAnswerId(), 3, "Partly right"));
+        }
+        return SheetGradeRequest.builder().grades(grades).finalize(finalize).build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(AnswerStorage.class)
+    void gradeSheet_AllAnswersWithFinalize_GradesSheetInOneRequest(AnswerStorage storage) {
+        // Arrange
+        AnswerSheetResponse sheet = submittedSheet(storage);
+
+        // Act
+        SheetGradeResponse response = answerSheetService.gradeSheet(sheet.getId(), gradeAll(sheet, true), facultyId);
+
+        // Assert
+        assertEquals(QUESTION_COUNT, response.getAnswersGraded());
+        assertTrue(response.isFinalized());
+        assertEquals(SubmissionStatus.GRADED, response.getStatus());
+        assertEquals(3 * QUESTION_COUNT, response.getObtainedPoints());
+        assertTrue(answerDocumentJdbc.loadAnswers(sheet.getId()).stream()
+                .allMatch(a -> a.pointsAwarded() == 3 && "Partly right".equals(a.feedback())));
+    }
+
+    @Test
+    void gradeSheet_Regrade_MovesObtainedPointsByDifference() {
+        // Arrange
+        AnswerSheetResponse sheet = submittedSheet(AnswerStorage.ROWS);
+        answerSheetService.gradeSheet(sheet.getId(), gradeAll(sheet, false), facultyId);
+        UUID firstAnswer = sheet.getAnswers().get(0).getAnswerId();
+        SheetGradeRequest regrade = SheetGradeRequest.builder()
+                .grades(List.of(new SheetGradeRequest.Grade(firstAnswer, 1, "Revised"),
+                        new SheetGradeRequest.Grade(firstAnswer, 5, "Revised again")))
+                .build();
+
+        // Act
+        SheetGradeResponse response = answerSheetService.gradeSheet(sheet.getId(), regrade, facultyId);
+
+        // Assert
+        assertEquals(1, response.getAnswersGraded());
+        assertFalse(response.isFinalized());
+        assertEquals(SubmissionStatus.SUBMITTED, response.getStatus());
+        assertEquals(3 * (QUESTION_COUNT - 1) + 5, response.getObtainedPoints());
+    }
+
+    @Test
+    void gradeSheet_ForeignAnswerOrFaculty_RejectedWithoutChanges() {
+        // Arrange
+        AnswerSheetResponse sheet = submittedSheet(AnswerStorage.ROWS);
+        SheetGradeRequest request = gradeAll(sheet, false);
+        request.getGrades().add(new SheetGradeRequest.Grade(UUID.randomUUID(), 2, null));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> answerSheetService.gradeSheet(sheet.getId(), request, facultyId));
+        assertThrows(UnauthorizedException.class,
+                () -> answerSheetService.gradeSheet(sheet.getId(), gradeAll(sheet, false), UUID.randomUUID()));
+        assertTrue(answerDocumentJdbc.loadAnswers(sheet.getId()).stream().allMatch(a -> a.pointsAwarded() == null));
+    }
+}
@@ -0,0 +1,116 @@
+package com.coaching.platform.service;
+
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.dto.ExamPaper;
+import com.coaching.platform.enums.QuestionType;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.grading.AnswerKey;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.repository.AnswerSheetStartJdbc;
+import com.coaching.platform.scheduling.AnswerSheetExpiryScheduler;
+import com.coaching.platform.security.ExamSessionTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentExamServiceTest {
+
+    @Mock
+    private ExamPaperCache examPaperCache;
+
+    @Mock
+    private AnswerSheetStartJdbc answerSheetStartJdbc;
+
+    @Mock
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Mock
+    private AnswerSheetExpiryScheduler answerSheetExpiryScheduler;
+
+    @Mock
+    private ExamSessionTokens examSessionTokens;
+
+    @InjectMocks
+    private StudentExamService studentExamService;
+
+    private final UUID examId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final UUID questionId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ExamPaper paper = ExamPaper.builder()
+                .examId(examId)
+                .version(1L)
+                .title("Prelims Mock")
+                .durationMinutes(120)
+                .totalPoints(2)
+                .questions(List.of(ExamPaper.PaperQuestion.builder()
+                        .id(questionId)
+                        .type(QuestionType.OBJECTIVE)
+                        .questionText("Question")
+                        .points(2)
+                        .orderNumber(1)
+                        .options(List.of())
+                        .build()))
+                .build();
+        when(examPaperCache.getPaper(examId))
+                .thenReturn(new ExamPaperCache.CompiledPaper(examId, 1L, new byte[0], paper, AnswerKey.EMPTY));
+    }
+
+    @Test
+    void startExam_ExistingSheet_ReturnsItWithoutInsertingAnswers() {
+        // Arrange
+        UUID sheetId = UUID.randomUUID();
+        UUID answerId = UUID.randomUUID();
+        AnswerSheetJdbc.SheetRow row = new AnswerSheetJdbc.SheetRow(sheetId, SubmissionStatus.IN_PROGRESS,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(120), 2);
+        when(answerSheetStartJdbc.startSheet(any(), eq(examId), eq(studentId), any(), any(), eq(2)))
+                .thenReturn(new AnswerSheetStartJdbc.StartedSheet(row, false));
+        when(answerDocumentJdbc.findAnswerSlots(sheetId))
+                .thenReturn(List.of(new AnswerSheetResponse.AnswerSlot(answerId, questionId)));
+
+        // Act
+        AnswerSheetResponse response = studentExamService.startExam(examId, studentId);
+
+        // Assert
+        assertEquals(sheetId, response.getId());
+        assertEquals(SubmissionStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(answerId, response.getAnswers().get(0).getAnswerId());
+        verify(answerSheetStartJdbc, never()).insertAnswers(any(), anyList());
+    }
+
+    @Test
+    void startExam_NewSheet_InsertsAnswerRows() {
+        // Arrange
+        UUID sheetId = UUID.randomUUID();
+        AnswerSheetJdbc.SheetRow row = new AnswerSheetJdbc.SheetRow(sheetId, SubmissionStatus.IN_PROGRESS,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(120), 2);
+        when(answerSheetStartJdbc.startSheet(any(), eq(examId), eq(studentId), any(), any(), eq(2)))
+                .thenReturn(new AnswerSheetStartJdbc.StartedSheet(row, true));
+        when(answerSheetStartJdbc.insertAnswers(sheetId, List.of(questionId)))
+                .thenReturn(List.of(new AnswerSheetResponse.AnswerSlot(UUID.randomUUID(), questionId)));
+
+        // Act
+        AnswerSheetResponse response = studentExamService.startExam(examId, studentId);
+
+        // Assert
+        assertEquals(1, response.getAnswers().size());
+        assertNotNull(response.getExpiresAt());
+        verify(answerDocumentJdbc, never()).findAnswerSlots(any());
+        verify(answerSheetExpiryScheduler).schedule(sheetId, row.expiresAt());
+    }
+}
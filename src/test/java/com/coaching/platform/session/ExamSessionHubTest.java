@@ -0,0 +1,135 @@
+package com.coaching.platform.session;
+
+import com.coaching.platform.dto.AnswerSaveResponse;
+import com.coaching.platform.dto.AnswerSheetResponse;
+import com.coaching.platform.enums.SubmissionStatus;
+import com.coaching.platform.enums.Role;
+import com.coaching.platform.repository.AnswerDocumentJdbc;
+import com.coaching.platform.repository.AnswerSheetJdbc;
+import com.coaching.platform.security.AuthenticatedUser;
+import com.coaching.platform.security.TokenAuthenticator;
+import com.coaching.platform.service.AnswerSubmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExamSessionHubTest {
+
+    @Mock
+    private TokenAuthenticator tokenAuthenticator;
+
+    @Mock
+    private AnswerSheetJdbc answerSheetJdbc;
+
+    @Mock
+    private AnswerDocumentJdbc answerDocumentJdbc;
+
+    @Mock
+    private AnswerSubmissionService answerSubmissionService;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private Session socket;
+
+    @Mock
+    private RemoteEndpoint.Basic remote;
+
+    private ExamSessionHub hub;
+
+    private final UUID studentId = UUID.randomUUID();
+    private final UUID sheetId = UUID.randomUUID();
+    private final UUID answerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        hub = new ExamSessionHub(tokenAuthenticator, answerSheetJdbc, answerDocumentJdbc, answerSubmissionService,
+                new ObjectMapper().findAndRegisterModules(), validator, 2, 60000, 15000);
+        lenient().when(socket.getPathParameters()).thenReturn(Map.of("answerSheetId", sheetId.toString()));
+        lenient().when(socket.isOpen()).thenReturn(true);
+        lenient().when(socket.getBasicRemote()).thenReturn(remote);
+        lenient().when(tokenAuthenticator.authenticate("token"))
+                .thenReturn(Optional.of(new AuthenticatedUser(studentId, "student", Role.STUDENT, null)));
+        lenient().when(answerDocumentJdbc.findAnswerSlots(sheetId))
+                .thenReturn(List.of(new AnswerSheetResponse.AnswerSlot(answerId, UUID.randomUUID())));
+    }
+
+    private void sheetExpiresAt(LocalDateTime expiresAt) {
+        when(answerSheetJdbc.findSheetOwner(sheetId)).thenReturn(Optional.of(new AnswerSheetJdbc.SheetOwner(
+                sheetId, UUID.randomUUID(), studentId, SubmissionStatus.IN_PROGRESS, expiresAt)));
+    }
+
+    @Test
+    void handle_RepeatedSaves_AppliesOnlyLatestTextPerBatch() throws Exception {
+        // Arrange
+        sheetExpiresAt(LocalDateTime.now().plusHours(1));
+        ExamSession session = hub.open(socket, "Bearer token");
+        when(answerSubmissionService.saveAnswer(answerId, "third"))
+                .thenReturn(AnswerSaveResponse.builder().answerId(answerId).textVersion(1L).build());
+
+        // Act
+        for (String text : List.of("first", "second", "third")) {
+            hub.handle(session, "{\"type\":\"SAVE\",\"answerId\":\"" + answerId + "\",\"text\":\"" + text + "\"}");
+        }
+        hub.flushAllSaves();
+
+        // Assert
+        verify(answerSubmissionService, times(1)).saveAnswer(any(), any());
+        verify(answerSubmissionService).saveAnswer(answerId, "third");
+        assertEquals(2L, hub.metricsSnapshot().get("coalescedSaves"));
+        verify(remote).sendText(contains("\"type\":\"SAVED\""));
+    }
+
+    @Test
+    void open_InvalidToken_ClosesWithPolicyViolation() throws Exception {
+        // Arrange
+        when(socket.getRequestParameterMap()).thenReturn(Map.of("access_token", List.of("forged")));
+        when(tokenAuthenticator.authenticate("forged")).thenReturn(Optional.empty());
+
+        // Act
+        ExamSession session = hub.open(socket, null);
+
+        // Assert
+        assertNull(session);
+        ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(socket).close(reason.capture());
+        assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY, reason.getValue().getCloseCode());
+        verifyNoInteractions(answerSheetJdbc, answerDocumentJdbc);
+    }
+
+    @Test
+    void tick_ExpiredSheet_SubmitsAndNotifiesClient() throws Exception {
+        // Arrange
+        sheetExpiresAt(LocalDateTime.now().minusSeconds(1));
+        hub.open(socket, "Bearer token");
+
+        // Act
+        hub.tick();
+
+        // Assert
+        verify(answerSubmissionService).autoSubmitSheets(List.of(sheetId));
+        verify(remote).sendText(contains("\"type\":\"FORCED_SUBMIT\""));
+        assertEquals(0, hub.metricsSnapshot().get("connections"));
+        assertEquals(1L, hub.metricsSnapshot().get("forcedSubmits"));
+    }
+}